@@ -22,6 +22,9 @@
 import org.jetbrains.changelog.Changelog
 import org.jetbrains.changelog.markdownToHTML
 import org.jetbrains.intellij.platform.gradle.TestFrameworkType
+import java.io.BufferedOutputStream
+import java.io.ByteArrayOutputStream
+import java.io.DataOutputStream
 
 plugins {
     id("java") // Java support
@@ -148,6 +151,25 @@ kover {
     }
 }
 
+// Compile the LÖVE API description into the binary catalog resource read by LoveApiCatalog
+val generateLoveApiCatalog by tasks.registering(GenerateLoveApiCatalogTask::class) {
+    apiDescription = layout.projectDirectory.file("src/main/api/love-api.txt")
+    outputDirectory = layout.buildDirectory.dir("generated/resources/loveApi")
+}
+
+// Pre-render the bundled LÖVE reference into the indexed HTML resource read by LoveDocumentation
+val renderLoveDocs by tasks.registering(RenderLoveDocsTask::class) {
+    reference = layout.projectDirectory.file("src/main/api/love-docs.txt")
+    outputDirectory = layout.buildDirectory.dir("generated/resources/loveDocs")
+}
+
+sourceSets {
+    main {
+        resources.srcDir(generateLoveApiCatalog)
+        resources.srcDir(renderLoveDocs)
+    }
+}
+
 tasks {
     wrapper {
         gradleVersion = providers.gradleProperty("gradleVersion").get()
@@ -156,9 +178,30 @@ tasks {
     publishPlugin {
         dependsOn(patchChangelog)
     }
+
+    // The benchmarks run with the benchmark task only
+    test {
+        exclude("**/*Benchmark.class")
+    }
 }
 
 intellijPlatformTesting {
+    testIde {
+        register("benchmark") {
+            task {
+                description = "Runs the micro-benchmarks and writes their numbers to build/reports/benchmarks.txt."
+                include("**/*Benchmark.class")
+                val report = layout.buildDirectory.file("reports/benchmarks.txt").get().asFile
+                systemProperty("love.benchmark.report", report.path)
+                outputs.upToDateWhen { false }
+                doFirst {
+                    report.parentFile.mkdirs()
+                    report.delete()
+                }
+            }
+        }
+    }
+
     runIde {
         register("runIdeForUiTests") {
             task {
@@ -178,3 +221,269 @@ intellijPlatformTesting {
         }
     }
 }
+
+/**
+ * Compiles the LÖVE API description file into the compact binary catalog resource `api/love-api.bin`:
+ * a deduplicated UTF-8 string table with an offset table, followed by one section per catalog key whose entries
+ * are indices into the string table, each with the mask of the supported LÖVE versions it exists in.
+ * See LoveApiCatalog for the layout.
+ */
+@CacheableTask
+abstract class GenerateLoveApiCatalogTask : DefaultTask() {
+
+    @get:InputFile
+    @get:PathSensitive(PathSensitivity.RELATIVE)
+    abstract val apiDescription: RegularFileProperty
+
+    @get:OutputDirectory
+    abstract val outputDirectory: DirectoryProperty
+
+    private class Entry(val name: String, val versions: Int)
+
+    @TaskAction
+    fun generate() {
+        val sections = linkedMapOf<String, MutableList<Entry>>()
+        var current: MutableList<Entry>? = null
+        var currentVersions = ALL_VERSIONS
+        for ((index, raw) in apiDescription.get().asFile.readLines(Charsets.UTF_8).withIndex()) {
+            val line = raw.trim()
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue
+            }
+            val words = line.split(Regex("\\s+"))
+            val versions = parseVersions(words.drop(1), index + 1)
+            if (words[0].startsWith("[") && words[0].endsWith("]")) {
+                val key = words[0].substring(1, words[0].length - 1).trim()
+                if (key in sections) {
+                    throw GradleException("Duplicate section [$key] at line ${index + 1}")
+                }
+                current = mutableListOf<Entry>().also { sections[key] = it }
+                currentVersions = versions
+            } else {
+                val entries = current ?: throw GradleException("Entry '$line' outside of a section at line ${index + 1}")
+                val entryVersions = versions and currentVersions
+                if (entryVersions == 0) {
+                    throw GradleException("Entry '${words[0]}' exists in no supported version at line ${index + 1}")
+                }
+                if (entries.any { it.name == words[0] }) {
+                    throw GradleException("Duplicate entry '${words[0]}' at line ${index + 1}")
+                }
+                entries.add(Entry(words[0], entryVersions))
+            }
+        }
+
+        val strings = linkedMapOf<String, Int>()
+        sections.forEach { (key, entries) ->
+            strings.getOrPut(key) { strings.size }
+            entries.forEach { strings.getOrPut(it.name) { strings.size } }
+        }
+        if (strings.size > 0xFFFF || sections.values.any { it.size > 0xFFFF }) {
+            throw GradleException("The LÖVE API catalog exceeds the limits of the binary format")
+        }
+
+        val blob = ByteArrayOutputStream()
+        val offsets = IntArray(strings.size + 1)
+        strings.keys.forEachIndexed { index, value ->
+            offsets[index] = blob.size()
+            blob.write(value.toByteArray(Charsets.UTF_8))
+        }
+        offsets[strings.size] = blob.size()
+
+        val output = outputDirectory.file("api/love-api.bin").get().asFile
+        output.parentFile.mkdirs()
+        DataOutputStream(BufferedOutputStream(output.outputStream())).use { out ->
+            out.writeInt(0x4C4F5645) // 'LOVE'
+            out.writeShort(2) // format version
+            out.writeInt(strings.size)
+            offsets.forEach { out.writeInt(it) }
+            blob.writeTo(out)
+            out.writeShort(sections.size)
+            sections.forEach { (key, entries) ->
+                out.writeShort(strings.getValue(key))
+                out.writeShort(entries.size)
+                entries.forEach {
+                    out.writeShort(strings.getValue(it.name))
+                    out.writeByte(it.versions)
+                }
+            }
+        }
+    }
+
+    /**
+     * Turns 'since <version>' and 'removed <version>' annotations into the mask of the supported versions.
+     */
+    private fun parseVersions(words: List<String>, line: Int): Int {
+        if (words.size % 2 != 0) {
+            throw GradleException("Expected 'since <version>' or 'removed <version>' at line $line")
+        }
+        var versions = ALL_VERSIONS
+        for (i in words.indices step 2) {
+            val version = parseVersion(words[i + 1], line)
+            SUPPORTED_VERSIONS.forEachIndexed { bit, supported ->
+                val atLeast = compareVersions(supported, version) >= 0
+                when (words[i]) {
+                    "since" -> if (!atLeast) versions = versions and (1 shl bit).inv()
+                    "removed" -> if (atLeast) versions = versions and (1 shl bit).inv()
+                    else -> throw GradleException("Unknown annotation '${words[i]}' at line $line")
+                }
+            }
+        }
+        return versions
+    }
+
+    private fun parseVersion(text: String, line: Int): List<Int> =
+        text.split('.').map { it.toIntOrNull() ?: throw GradleException("Invalid version '$text' at line $line") }
+
+    private fun compareVersions(a: List<Int>, b: List<Int>): Int {
+        for (i in 0 until maxOf(a.size, b.size)) {
+            val difference = a.getOrElse(i) { 0 } - b.getOrElse(i) { 0 }
+            if (difference != 0) {
+                return difference
+            }
+        }
+        return 0
+    }
+
+    private companion object {
+        /**
+         * The latest release of each version in LoveVersion, in the same order: bit i of a mask stands for entry i.
+         */
+        val SUPPORTED_VERSIONS = listOf(listOf(0, 10, 2), listOf(11, 5), listOf(12, 0))
+        val ALL_VERSIONS = (1 shl SUPPORTED_VERSIONS.size) - 1
+    }
+}
+
+/**
+ * Renders every entry of the LÖVE reference to quick documentation HTML and writes the indexed resource
+ * `api/love-docs.bin`: the qualified names in sorted order and the HTML of each entry, both as offset tables into
+ * UTF-8 blobs. See LoveDocumentation for the layout.
+ */
+@CacheableTask
+abstract class RenderLoveDocsTask : DefaultTask() {
+
+    @get:InputFile
+    @get:PathSensitive(PathSensitivity.RELATIVE)
+    abstract val reference: RegularFileProperty
+
+    @get:OutputDirectory
+    abstract val outputDirectory: DirectoryProperty
+
+    private class Value(val name: String, val type: String, val description: String)
+
+    private class Entry(val name: String) {
+        val signatures = mutableListOf<String>()
+        val description = mutableListOf<String>()
+        val parameters = mutableListOf<Value>()
+        val returns = mutableListOf<Value>()
+    }
+
+    @TaskAction
+    fun render() {
+        val entries = parse().sortedBy { it.name }
+        val names = ByteArrayOutputStream()
+        val nameOffsets = IntArray(entries.size + 1)
+        val html = ByteArrayOutputStream()
+        val htmlOffsets = IntArray(entries.size + 1)
+        entries.forEachIndexed { index, entry ->
+            nameOffsets[index] = names.size()
+            names.write(entry.name.toByteArray(Charsets.UTF_8))
+            htmlOffsets[index] = html.size()
+            html.write(renderHtml(entry).toByteArray(Charsets.UTF_8))
+        }
+        nameOffsets[entries.size] = names.size()
+        htmlOffsets[entries.size] = html.size()
+
+        val output = outputDirectory.file("api/love-docs.bin").get().asFile
+        output.parentFile.mkdirs()
+        DataOutputStream(BufferedOutputStream(output.outputStream())).use { out ->
+            out.writeInt(0x4C444F43) // 'LDOC'
+            out.writeShort(1) // format version
+            out.writeInt(entries.size)
+            nameOffsets.forEach { out.writeInt(it) }
+            names.writeTo(out)
+            htmlOffsets.forEach { out.writeInt(it) }
+            html.writeTo(out)
+        }
+    }
+
+    /**
+     * Reads the entries: a '[name]' header, signature lines starting with the name (or 'function <name>'),
+     * '@param name type text' and '@return type name text' lines, and description paragraphs.
+     */
+    private fun parse(): List<Entry> {
+        val entries = linkedMapOf<String, Entry>()
+        var current: Entry? = null
+        for ((index, raw) in reference.get().asFile.readLines(Charsets.UTF_8).withIndex()) {
+            val line = raw.trim()
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue
+            }
+            if (line.startsWith("[") && line.endsWith("]")) {
+                val name = line.substring(1, line.length - 1).trim()
+                if (name in entries) {
+                    throw GradleException("Duplicate entry [$name] at line ${index + 1}")
+                }
+                current = Entry(name).also { entries[name] = it }
+                continue
+            }
+            val entry = current ?: throw GradleException("Text outside of an entry at line ${index + 1}")
+            when {
+                line.startsWith("@param ") -> entry.parameters.add(parseValue(line, "@param ", false, index + 1))
+                line.startsWith("@return ") -> entry.returns.add(parseValue(line, "@return ", true, index + 1))
+                isSignature(line, entry.name) -> entry.signatures.add(line)
+                else -> entry.description.add(line)
+            }
+        }
+        return entries.values.toList()
+    }
+
+    private fun parseValue(line: String, tag: String, typeFirst: Boolean, lineNumber: Int): Value {
+        val parts = line.substring(tag.length).trim().split(Regex("\\s+"), 3)
+        if (parts.size < 2) {
+            throw GradleException("Expected a name and a type at line $lineNumber")
+        }
+        val description = parts.getOrElse(2) { "" }
+        return if (typeFirst) Value(parts[1], parts[0], description) else Value(parts[0], parts[1], description)
+    }
+
+    private fun isSignature(line: String, name: String): Boolean {
+        val call = line.removePrefix("function ")
+        return call.startsWith("$name(")
+    }
+
+    /**
+     * Renders an entry with the quick documentation markup of the IDE (DocumentationMarkup): the signatures as
+     * the definition, the description as the content and the arguments and return values as sections.
+     */
+    private fun renderHtml(entry: Entry): String = buildString {
+        append("<div class='definition'><pre>")
+        append(entry.signatures.ifEmpty { listOf(entry.name) }.joinToString("<br>") { escape(it) })
+        append("</pre></div>")
+        if (entry.description.isNotEmpty()) {
+            append("<div class='content'>")
+            append(entry.description.joinToString("<p>") { escape(it) })
+            append("</div>")
+        }
+        if (entry.parameters.isNotEmpty() || entry.returns.isNotEmpty()) {
+            append("<table class='sections'>")
+            appendSection("Arguments:", entry.parameters)
+            appendSection("Returns:", entry.returns)
+            append("</table>")
+        }
+    }
+
+    private fun StringBuilder.appendSection(header: String, values: List<Value>) {
+        if (values.isEmpty()) {
+            return
+        }
+        append("<tr><td valign='top' class='section'><p>").append(header).append("</td><td valign='top'>")
+        append(values.joinToString("<br>") { value ->
+            "<code>${escape(value.name)}</code> (${escape(value.type)})" +
+                if (value.description.isEmpty()) "" else " &ndash; ${escape(value.description)}"
+        })
+        append("</td></tr>")
+    }
+
+    private fun escape(text: String): String =
+        text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;")
+}
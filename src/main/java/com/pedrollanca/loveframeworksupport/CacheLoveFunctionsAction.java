@@ -0,0 +1,131 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 - Pedro Chamorro Llanca
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.pedrollanca.loveframeworksupport;
+
+import com.intellij.concurrency.JobLauncher;
+import com.intellij.openapi.actionSystem.ActionUpdateThread;
+import com.intellij.openapi.actionSystem.AnAction;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.command.WriteCommandAction;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.fileEditor.FileDocumentManager;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.Messages;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiDocumentManager;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiManager;
+import com.intellij.psi.search.FilenameIndex;
+import com.intellij.psi.search.GlobalSearchScope;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tools | Cache LÖVE Functions in Locals: applies the quick-fix of {@link LoveLocalCachingInspection} to every Lua
+ * file of the project with LOVE functions called by their full name in the loops of love.update or love.draw.
+ *
+ * <p>The files are analyzed concurrently under a progress indicator, each in its own read action; the rewrites
+ * are then applied in a single command, so they can be undone together.
+ */
+public class CacheLoveFunctionsAction extends AnAction {
+
+    private static final String TITLE = "Cache LÖVE Functions in Locals";
+
+    @NotNull
+    @Override
+    public ActionUpdateThread getActionUpdateThread() {
+        return ActionUpdateThread.BGT;
+    }
+
+    @Override
+    public void update(@NotNull AnActionEvent e) {
+        Project project = e.getProject();
+        e.getPresentation().setEnabled(project != null && !DumbService.isDumb(project));
+    }
+
+    @Override
+    public void actionPerformed(@NotNull AnActionEvent e) {
+        Project project = e.getProject();
+        if (project == null) {
+            return;
+        }
+        PsiDocumentManager.getInstance(project).commitAllDocuments();
+        Map<VirtualFile, LoveFrameAnalysis.Rewrite> rewrites = ProgressManager.getInstance()
+                .runProcessWithProgressSynchronously(() -> planRewrites(project),
+                        "Finding LÖVE Functions Called in Loops", true, project);
+        if (rewrites.isEmpty()) {
+            Messages.showInfoMessage(project, "No loop of love.update or love.draw calls a LÖVE function by its "
+                    + "full name.", TITLE);
+            return;
+        }
+        String message = "Cache the LÖVE functions in locals in " + rewrites.size()
+                + (rewrites.size() == 1 ? " file?" : " files?");
+        if (Messages.showYesNoDialog(project, message, TITLE, null) != Messages.YES) {
+            return;
+        }
+        FileDocumentManager documentManager = FileDocumentManager.getInstance();
+        WriteCommandAction.runWriteCommandAction(project, TITLE, null, () -> rewrites.forEach((file, rewrite) -> {
+            Document document = file.isValid() ? documentManager.getDocument(file) : null;
+            if (document == null) {
+                return;
+            }
+            for (LoveFrameAnalysis.Edit edit : rewrite.edits) {
+                document.replaceString(edit.start, edit.end, edit.replacement);
+            }
+        }));
+    }
+
+    /**
+     * Plans the rewrite of every project Lua file with lookups in loops, analyzing the files concurrently.
+     */
+    @NotNull
+    private static Map<VirtualFile, LoveFrameAnalysis.Rewrite> planRewrites(@NotNull Project project) {
+        List<VirtualFile> files = new ArrayList<>(ReadAction.compute(() -> FilenameIndex.getAllFilesByExt(project,
+                PluginUtils.LUA_FILE_SUFFIX.substring(1), GlobalSearchScope.projectScope(project))));
+        Map<VirtualFile, LoveFrameAnalysis.Rewrite> rewrites = new ConcurrentHashMap<>();
+        ProgressIndicator indicator = ProgressManager.getInstance().getProgressIndicator();
+        PsiManager psiManager = PsiManager.getInstance(project);
+        JobLauncher.getInstance().invokeConcurrentlyUnderProgress(files, indicator, file -> {
+            ReadAction.run(() -> {
+                PsiFile psiFile = file.isValid() ? psiManager.findFile(file) : null;
+                if (psiFile == null || !LoveLocalCachingInspection.isCacheable(psiFile)) {
+                    return;
+                }
+                LoveLocalCaching caching = LoveLocalCaching.getInstance(psiFile);
+                LoveFrameAnalysis.Rewrite rewrite = caching.getLoopLookups().isEmpty() ? null : caching.planCaching();
+                if (rewrite != null) {
+                    rewrites.put(file, rewrite);
+                }
+            });
+            return true;
+        });
+        return rewrites;
+    }
+}
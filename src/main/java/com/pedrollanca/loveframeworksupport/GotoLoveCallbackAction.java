@@ -0,0 +1,113 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 - Pedro Chamorro Llanca
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.pedrollanca.loveframeworksupport;
+
+import com.intellij.openapi.actionSystem.ActionUpdateThread;
+import com.intellij.openapi.actionSystem.AnAction;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.fileEditor.FileDocumentManager;
+import com.intellij.openapi.fileEditor.OpenFileDescriptor;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.popup.JBPopupFactory;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.ui.SimpleListCellRenderer;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Navigate | Go to LÖVE Callback: lists the definitions of every LOVE callback in the project, from the
+ * {@link LoveCallbackIndex}, and opens the chosen one.
+ */
+public class GotoLoveCallbackAction extends AnAction {
+
+    @NotNull
+    @Override
+    public ActionUpdateThread getActionUpdateThread() {
+        return ActionUpdateThread.BGT;
+    }
+
+    @Override
+    public void update(@NotNull AnActionEvent e) {
+        Project project = e.getProject();
+        e.getPresentation().setEnabled(project != null && !DumbService.isDumb(project));
+    }
+
+    @Override
+    public void actionPerformed(@NotNull AnActionEvent e) {
+        Project project = e.getProject();
+        if (project == null) {
+            return;
+        }
+        GlobalSearchScope scope = GlobalSearchScope.projectScope(project);
+        List<Definition> definitions = new ArrayList<>();
+        for (String callback : LoveCallbackIndex.getCallbacks()) {
+            LoveCallbackIndex.processDefinitions(callback, scope, (file, offset) -> {
+                definitions.add(new Definition(callback, file, offset));
+                return true;
+            });
+        }
+        if (definitions.isEmpty()) {
+            JBPopupFactory.getInstance().createMessage("No LÖVE callbacks are defined in this project")
+                    .showCenteredInCurrentWindow(project);
+            return;
+        }
+        JBPopupFactory.getInstance().createPopupChooserBuilder(definitions)
+                .setTitle("LÖVE Callbacks")
+                .setRenderer(SimpleListCellRenderer.create("", Definition::getText))
+                .setItemChosenCallback(definition ->
+                        new OpenFileDescriptor(project, definition.file, definition.offset).navigate(true))
+                .createPopup()
+                .showCenteredInCurrentWindow(project);
+    }
+
+    /**
+     * A callback definition found in the index.
+     */
+    private static final class Definition {
+        private final String callback;
+        private final VirtualFile file;
+        private final int offset;
+
+        Definition(@NotNull String callback, @NotNull VirtualFile file, int offset) {
+            this.callback = callback;
+            this.file = file;
+            this.offset = offset;
+        }
+
+        /**
+         * Returns the text of the entry, e.g. 'love.update  main.lua:12'.
+         */
+        @NotNull
+        String getText() {
+            Document document = FileDocumentManager.getInstance().getDocument(file);
+            String location = document == null || offset > document.getTextLength()
+                    ? file.getName()
+                    : file.getName() + ":" + (document.getLineNumber(offset) + 1);
+            return callback + "  " + location;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 - Pedro Chamorro Llanca
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.pedrollanca.loveframeworksupport;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The local aliases of LOVE modules declared in a Lua file, such as 'lg' in 'local lg = love.graphics'.
+ *
+ * <p>Aliases are collected by a single forward token scan that skips comments and quoted strings. Scoping and
+ * reassignment are not tracked, so an alias applies to the whole file once it has been declared anywhere in it.
+ */
+final class LoveAliases implements LoveCompletionContext.AliasResolver {
+
+    /**
+     * The aliases of a file that declares none.
+     */
+    static final LoveAliases EMPTY = new LoveAliases(new String[0], new String[0]);
+
+    private static final String LOCAL_KEYWORD = "local";
+
+    private final String[] names;
+    private final String[] moduleKeys;
+
+    private LoveAliases(String[] names, String[] moduleKeys) {
+        this.names = names;
+        this.moduleKeys = moduleKeys;
+    }
+
+    /**
+     * Collects the module aliases declared in the given Lua source.
+     *
+     * @param text the file contents
+     * @return the aliases, {@link #EMPTY} if there are none
+     */
+    @NotNull
+    static LoveAliases collect(@NotNull CharSequence text) {
+        List<String> names = new ArrayList<>();
+        List<String> moduleKeys = new ArrayList<>();
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            char c = text.charAt(i);
+            if (c == '-' && i + 1 < length && text.charAt(i + 1) == '-') {
+                i = LoveLuaTokens.skipLine(text, i);
+            } else if (c == '"' || c == '\'') {
+                i = LoveLuaTokens.skipString(text, i);
+            } else if (LoveCompletionContext.isIdentifierPart(c)) {
+                int start = i;
+                i = LoveLuaTokens.skipIdentifier(text, i);
+                if (LoveCompletionContext.regionEquals(text, start, i, LOCAL_KEYWORD)) {
+                    i = readAlias(text, i, names, moduleKeys);
+                }
+            } else {
+                i++;
+            }
+        }
+        if (names.isEmpty()) {
+            return EMPTY;
+        }
+        return new LoveAliases(names.toArray(new String[0]), moduleKeys.toArray(new String[0]));
+    }
+
+    /**
+     * Returns the number of aliases.
+     *
+     * @return the alias count
+     */
+    int size() {
+        return names.length;
+    }
+
+    @Nullable
+    @Override
+    public String resolve(@NotNull CharSequence text, int start, int end) {
+        // Files declare a handful of aliases at most, a linear search beats hashing a substring
+        for (int i = names.length - 1; i >= 0; i--) {
+            if (LoveCompletionContext.regionEquals(text, start, end, names[i])) {
+                return moduleKeys[i];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Reads '&lt;name&gt; = love.&lt;module&gt;' after a 'local' keyword and records the alias if the declaration
+     * ends there.
+     *
+     * @return the offset to continue scanning from
+     */
+    private static int readAlias(@NotNull CharSequence text, int from, List<String> names, List<String> moduleKeys) {
+        int nameStart = LoveLuaTokens.skipWhitespace(text, from);
+        int nameEnd = LoveLuaTokens.skipIdentifier(text, nameStart);
+        if (nameStart == nameEnd || nameStart == from) {
+            return nameEnd;
+        }
+        int assign = LoveLuaTokens.skipWhitespace(text, nameEnd);
+        if (!charAt(text, assign, '=') || charAt(text, assign + 1, '=')) {
+            return assign;
+        }
+        int rootStart = LoveLuaTokens.skipWhitespace(text, assign + 1);
+        int rootEnd = LoveLuaTokens.skipIdentifier(text, rootStart);
+        if (!LoveCompletionContext.regionEquals(text, rootStart, rootEnd, LoveCompletionContext.LOVE_ROOT)) {
+            return rootStart;
+        }
+        int dot = LoveLuaTokens.skipWhitespace(text, rootEnd);
+        if (!charAt(text, dot, '.')) {
+            return dot;
+        }
+        int moduleStart = LoveLuaTokens.skipWhitespace(text, dot + 1);
+        int moduleEnd = LoveLuaTokens.skipIdentifier(text, moduleStart);
+        String moduleKey = LoveCompletionContext.findModuleKey(text, moduleStart, moduleEnd);
+        if (moduleKey == null) {
+            return moduleEnd;
+        }
+
+        // 'love.graphics.newImage(...)' or 'love.graphics, love.audio' is not a plain module alias
+        int next = LoveLuaTokens.skipWhitespace(text, moduleEnd);
+        if (next < text.length() && ".:([{,\"'".indexOf(text.charAt(next)) >= 0) {
+            return next;
+        }
+        names.add(text.subSequence(nameStart, nameEnd).toString());
+        moduleKeys.add(moduleKey);
+        return moduleEnd;
+    }
+
+    private static boolean charAt(@NotNull CharSequence text, int index, char expected) {
+        return index < text.length() && text.charAt(index) == expected;
+    }
+}
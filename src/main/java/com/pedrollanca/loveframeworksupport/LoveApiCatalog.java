@@ -0,0 +1,201 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 - Pedro Chamorro Llanca
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.pedrollanca.loveframeworksupport;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The LOVE API catalog: the names of every callback, module and module function, grouped by key.
+ *
+ * <p>The catalog is compiled at build time from {@code src/main/api/love-api.txt} by the
+ * {@code generateLoveApiCatalog} Gradle task into the binary resource {@value #RESOURCE}, which is streamed once on
+ * first use. The resource layout (big-endian) is:
+ * <pre>
+ * int    magic ('LOVE')
+ * short  format version
+ * int    string count N
+ * int[]  N + 1 offsets into the string blob
+ * byte[] string blob (UTF-8, deduplicated)
+ * short  section count
+ * per section: ushort key string, ushort entry count, per entry: ushort string, ubyte version mask
+ * </pre>
+ *
+ * <p>Names are stored once for all supported versions. The version mask of an entry has bit
+ * {@link LoveVersion#getMask()} set for every {@link LoveVersion} the entry exists in, so the per-version
+ * differences cost one byte per entry.
+ */
+public final class LoveApiCatalog {
+
+    /**
+     * Classpath location of the compiled catalog.
+     */
+    static final String RESOURCE = "/api/love-api.bin";
+
+    /**
+     * Magic number at the start of the resource, 'LOVE' in ASCII.
+     */
+    static final int MAGIC = 0x4C4F5645;
+
+    /**
+     * The resource format this reader understands.
+     */
+    static final int FORMAT_VERSION = 2;
+
+    private final Map<String, List<String>> sections;
+    private final Map<String, byte[]> versions;
+
+    private LoveApiCatalog(Map<String, List<String>> sections, Map<String, byte[]> versions) {
+        this.sections = sections;
+        this.versions = versions;
+    }
+
+    /**
+     * Returns the catalog bundled with the plugin, reading it on the first call.
+     *
+     * @return the shared catalog
+     */
+    @NotNull
+    public static LoveApiCatalog getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Returns the keys of all sections, in catalog order.
+     *
+     * @return the keys, e.g. "callbacks", "modules", "audio", ...
+     */
+    @NotNull
+    public Set<String> getKeys() {
+        return sections.keySet();
+    }
+
+    /**
+     * Returns the names registered under a key.
+     *
+     * @param key the category or module name
+     * @return the names in catalog order, or an empty list if the key doesn't exist
+     */
+    @NotNull
+    public List<String> getNames(@NotNull String key) {
+        return sections.getOrDefault(key, Collections.emptyList());
+    }
+
+    /**
+     * Returns the versions an entry exists in.
+     *
+     * @param key   the category or module name
+     * @param index the index of the entry in {@link #getNames(String)}
+     * @return the version mask, see {@link LoveVersion#isIn(int)}
+     */
+    public int getVersions(@NotNull String key, int index) {
+        return versions.get(key)[index] & 0xFF;
+    }
+
+    /**
+     * Returns true if the catalog has a section for the key.
+     *
+     * @param key the category or module name
+     * @return true if the key exists
+     */
+    public boolean hasKey(@NotNull String key) {
+        return sections.containsKey(key);
+    }
+
+    /**
+     * Reads a compiled catalog.
+     *
+     * @param input the resource stream; it is not closed
+     * @return the catalog
+     * @throws IOException if the stream cannot be read or is not a catalog of the supported format
+     */
+    @NotNull
+    static LoveApiCatalog read(@NotNull InputStream input) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(input));
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a LOVE API catalog");
+        }
+        int version = in.readUnsignedShort();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Unsupported LOVE API catalog format " + version);
+        }
+
+        int stringCount = in.readInt();
+        int[] offsets = new int[stringCount + 1];
+        for (int i = 0; i <= stringCount; i++) {
+            offsets[i] = in.readInt();
+        }
+        byte[] blob = new byte[offsets[stringCount]];
+        in.readFully(blob);
+        String[] strings = new String[stringCount];
+        for (int i = 0; i < stringCount; i++) {
+            strings[i] = new String(blob, offsets[i], offsets[i + 1] - offsets[i], StandardCharsets.UTF_8);
+        }
+
+        int sectionCount = in.readUnsignedShort();
+        Map<String, List<String>> sections = new LinkedHashMap<>();
+        Map<String, byte[]> versions = new HashMap<>();
+        for (int i = 0; i < sectionCount; i++) {
+            String key = strings[in.readUnsignedShort()];
+            String[] names = new String[in.readUnsignedShort()];
+            byte[] masks = new byte[names.length];
+            for (int j = 0; j < names.length; j++) {
+                names[j] = strings[in.readUnsignedShort()];
+                masks[j] = in.readByte();
+            }
+            sections.put(key, Collections.unmodifiableList(Arrays.asList(names)));
+            versions.put(key, masks);
+        }
+        return new LoveApiCatalog(Collections.unmodifiableMap(sections), versions);
+    }
+
+    private static LoveApiCatalog load() {
+        try (InputStream input = LoveApiCatalog.class.getResourceAsStream(RESOURCE)) {
+            if (input == null) {
+                throw new IllegalStateException("LOVE API catalog resource not found: " + RESOURCE);
+            }
+            return read(input);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read the LOVE API catalog", e);
+        }
+    }
+
+    /**
+     * Defers reading the resource until the catalog is first used.
+     */
+    private static final class Holder {
+        private static final LoveApiCatalog INSTANCE = load();
+    }
+}
@@ -0,0 +1,229 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 - Pedro Chamorro Llanca
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.pedrollanca.loveframeworksupport;
+
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.util.indexing.DataIndexer;
+import com.intellij.util.indexing.FileBasedIndex;
+import com.intellij.util.indexing.FileBasedIndexExtension;
+import com.intellij.util.indexing.FileContent;
+import com.intellij.util.indexing.ID;
+import com.intellij.util.io.DataExternalizer;
+import com.intellij.util.io.EnumeratorStringDescriptor;
+import com.intellij.util.io.KeyDescriptor;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Indexes where Lua files define LOVE callbacks: every callback ('love.load', 'love.update', ...) maps to the
+ * offsets of its definitions in each file, either 'function love.update(dt)' or 'love.update = function(dt)'.
+ *
+ * <p>The definitions of a callback across the project are then an index lookup, which navigation, gutter icons and
+ * {@link LoveDuplicateCallbackInspection} rely on. Files are scanned with {@link LoveUsageIndex#scanCode}, without
+ * PSI.
+ */
+public class LoveCallbackIndex extends FileBasedIndexExtension<String, int[]> {
+
+    public static final ID<String, int[]> NAME = ID.create("com.pedrollanca.loveframeworksupport.callbacks");
+
+    /**
+     * Bump whenever the indexed data changes.
+     */
+    private static final int VERSION = 1;
+
+    private static final DataExternalizer<int[]> OFFSETS_EXTERNALIZER = new LoveUsageIndex.OffsetsExternalizer();
+
+    private static final String FUNCTION_KEYWORD = "function";
+
+    @NotNull
+    @Override
+    public ID<String, int[]> getName() {
+        return NAME;
+    }
+
+    @NotNull
+    @Override
+    public DataIndexer<String, int[], FileContent> getIndexer() {
+        return inputData -> index(inputData.getContentAsText());
+    }
+
+    @NotNull
+    @Override
+    public KeyDescriptor<String> getKeyDescriptor() {
+        return EnumeratorStringDescriptor.INSTANCE;
+    }
+
+    @NotNull
+    @Override
+    public DataExternalizer<int[]> getValueExternalizer() {
+        return OFFSETS_EXTERNALIZER;
+    }
+
+    @Override
+    public int getVersion() {
+        return VERSION;
+    }
+
+    @NotNull
+    @Override
+    public FileBasedIndex.InputFilter getInputFilter() {
+        return file -> StringUtil.endsWithIgnoreCase(file.getName(), PluginUtils.LUA_FILE_SUFFIX);
+    }
+
+    @Override
+    public boolean dependsOnFileContent() {
+        return true;
+    }
+
+    /**
+     * Returns the qualified names of all LOVE callbacks, in catalog order.
+     *
+     * @return e.g. 'love.load', 'love.update', 'love.draw'
+     */
+    @NotNull
+    public static List<String> getCallbacks() {
+        return Holder.CALLBACKS;
+    }
+
+    /**
+     * Processes the definitions of a callback in the given scope, from the index.
+     *
+     * @param callback  the qualified name of the callback, e.g. 'love.update'
+     * @param scope     the files to search
+     * @param processor receives the definitions, at the offset of the qualified name; returning false stops
+     * @return false if the processor stopped the search
+     */
+    public static boolean processDefinitions(@NotNull String callback, @NotNull GlobalSearchScope scope,
+                                             @NotNull LoveUsageIndex.UsageProcessor processor) {
+        return FileBasedIndex.getInstance().processValues(NAME, callback, null, (file, offsets) -> {
+            for (int offset : offsets) {
+                if (!processor.process(file, offset)) {
+                    return false;
+                }
+            }
+            return true;
+        }, scope);
+    }
+
+    /**
+     * Counts the definitions of a callback in the given scope, from the index.
+     *
+     * @param callback the qualified name of the callback
+     * @param scope    the files to search
+     * @return the number of definitions
+     */
+    public static int countDefinitions(@NotNull String callback, @NotNull GlobalSearchScope scope) {
+        int[] count = new int[1];
+        FileBasedIndex.getInstance().processValues(NAME, callback, null, (file, offsets) -> {
+            count[0] += offsets.length;
+            return true;
+        }, scope);
+        return count[0];
+    }
+
+    /**
+     * Finds the LOVE callback definitions of a Lua source, skipping comments and strings.
+     *
+     * @param text the Lua source
+     * @return the ascending definition offsets by callback
+     */
+    @NotNull
+    static Map<String, int[]> index(@NotNull CharSequence text) {
+        Map<String, int[]> definitions = new HashMap<>();
+        LoveNameAutomaton.MatchConsumer consumer = (start, end, kind) -> {
+            if (kind == LoveNameAutomaton.Kind.CALLBACK && isDefinition(text, start, end)) {
+                String callback = text.subSequence(start, end).toString();
+                int[] offsets = definitions.get(callback);
+                offsets = offsets == null ? new int[1] : Arrays.copyOf(offsets, offsets.length + 1);
+                offsets[offsets.length - 1] = start;
+                definitions.put(callback, offsets);
+            }
+        };
+        LoveUsageIndex.scanCode(text, consumer);
+        return definitions;
+    }
+
+    /**
+     * Returns the callback whose definition starts at the given offset, as found by {@link #index}.
+     *
+     * @param text   the Lua source
+     * @param offset the offset of a 'love' identifier
+     * @return the qualified name of the callback, or null if no callback is defined there
+     */
+    @Nullable
+    static String findDefinitionAt(@NotNull CharSequence text, int offset) {
+        if (offset > 0 && isMemberPart(text.charAt(offset - 1))) {
+            return null;
+        }
+        for (String callback : getCallbacks()) {
+            int end = offset + callback.length();
+            if (end <= text.length() && LoveCompletionContext.regionEquals(text, offset, end, callback)
+                    && (end == text.length() || !LoveCompletionContext.isIdentifierPart(text.charAt(end)))) {
+                return isDefinition(text, offset, end) ? callback : null;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * A callback reference is a definition when it follows the 'function' keyword or is assigned to.
+     */
+    private static boolean isDefinition(@NotNull CharSequence text, int start, int end) {
+        int keywordEnd = LoveCompletionContext.skipWhitespaceBackward(text, start, 0);
+        int keywordStart = LoveCompletionContext.skipIdentifierBackward(text, keywordEnd, 0);
+        if (LoveCompletionContext.regionEquals(text, keywordStart, keywordEnd, FUNCTION_KEYWORD)) {
+            return true;
+        }
+        int next = end;
+        while (next < text.length() && Character.isWhitespace(text.charAt(next))) {
+            next++;
+        }
+        return next < text.length() && text.charAt(next) == '='
+                && (next + 1 == text.length() || text.charAt(next + 1) != '=');
+    }
+
+    private static boolean isMemberPart(char c) {
+        return LoveCompletionContext.isIdentifierPart(c) || c == '.' || c == ':';
+    }
+
+    /**
+     * Defers reading the callbacks until they are first used.
+     */
+    private static final class Holder {
+        private static final List<String> CALLBACKS = loadCallbacks();
+
+        private static List<String> loadCallbacks() {
+            List<String> callbacks = new ArrayList<>();
+            for (String name : LoveApiCatalog.getInstance().getNames(LoveTypes.CALLBACKS_KEY)) {
+                callbacks.add(LoveCompletionContext.LOVE_ROOT + "." + name);
+            }
+            return List.copyOf(callbacks);
+        }
+    }
+}
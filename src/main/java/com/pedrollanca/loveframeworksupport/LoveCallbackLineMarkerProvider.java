@@ -0,0 +1,88 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 - Pedro Chamorro Llanca
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.pedrollanca.loveframeworksupport;
+
+import com.intellij.codeInsight.daemon.LineMarkerInfo;
+import com.intellij.codeInsight.daemon.LineMarkerProvider;
+import com.intellij.codeInsight.navigation.NavigationGutterIconBuilder;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.NotNullLazyValue;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiManager;
+import com.intellij.psi.search.GlobalSearchScope;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Marks LOVE callback definitions such as 'function love.update(dt)' in the gutter. The icon navigates to every
+ * definition of the callback in the project, so a duplicate definition is one click away.
+ *
+ * <p>Only the 'love' leaf starting a definition is checked, against the characters around it; the other
+ * definitions are looked up in the {@link LoveCallbackIndex} when the icon is clicked.
+ */
+public class LoveCallbackLineMarkerProvider implements LineMarkerProvider {
+
+    @Nullable
+    @Override
+    public LineMarkerInfo<?> getLineMarkerInfo(@NotNull PsiElement element) {
+        if (element.getFirstChild() != null || !element.textMatches(LoveCompletionContext.LOVE_ROOT)) {
+            return null;
+        }
+        PsiFile file = element.getContainingFile();
+        if (file == null) {
+            return null;
+        }
+        String callback = LoveCallbackIndex.findDefinitionAt(file.getViewProvider().getContents(),
+                element.getTextRange().getStartOffset());
+        if (callback == null) {
+            return null;
+        }
+        Project project = element.getProject();
+        return NavigationGutterIconBuilder.create(LoveIcons.LOVE_ICON)
+                .setTargets(NotNullLazyValue.lazy(() -> findDefinitions(project, callback)))
+                .setTooltipText("LÖVE callback " + callback)
+                .setPopupTitle("Definitions of " + callback)
+                .createLineMarkerInfo(element);
+    }
+
+    /**
+     * Returns the leaves starting the definitions of a callback in the project.
+     */
+    @NotNull
+    private static List<PsiElement> findDefinitions(@NotNull Project project, @NotNull String callback) {
+        PsiManager psiManager = PsiManager.getInstance(project);
+        List<PsiElement> targets = new ArrayList<>();
+        LoveCallbackIndex.processDefinitions(callback, GlobalSearchScope.projectScope(project), (file, offset) -> {
+            PsiFile psiFile = psiManager.findFile(file);
+            PsiElement target = psiFile == null ? null : psiFile.findElementAt(offset);
+            if (target != null) {
+                targets.add(target);
+            }
+            return true;
+        });
+        return targets;
+    }
+}
@@ -0,0 +1,237 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 - Pedro Chamorro Llanca
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.pedrollanca.loveframeworksupport;
+
+import com.intellij.codeInsight.lookup.LookupElement;
+import com.intellij.openapi.editor.Editor;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Remembers the completion candidates last resolved in each editor.
+ *
+ * <p>While the user keeps typing after 'love.graphics.', completion runs again for the same qualifier with a longer
+ * prefix. Every candidate for the longer prefix is also a candidate for the shorter one, so the cached candidates
+ * are handed back as they are and the prefix matcher of the result set filters them. An entry is reused when the
+ * qualifier and the generation of the {@link LoveUsageStatistics} the candidates were ranked with are the same, and
+ * either the document modification stamp is unchanged or the prefix only grew. A grown prefix only reuses candidates
+ * that were exactly the names matching the shorter prefix, as long as one of them still matches: otherwise the
+ * resolver falls back to every name of the qualifier, for {@link LoveFuzzyMatcher} to tolerate typing errors.
+ *
+ * <p>Editors are held weakly, so a released editor doesn't stay reachable through the cache, and its entry is
+ * dropped on the next access. At most {@code maxEditors} entries are kept, the least recently used editor is evicted
+ * first.
+ */
+final class LoveCompletionCache {
+
+    /**
+     * Default number of editors candidates are remembered for.
+     */
+    static final int DEFAULT_MAX_EDITORS = 8;
+
+    private final Map<EditorKey, Entry> entries;
+    private final ReferenceQueue<Editor> released = new ReferenceQueue<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    LoveCompletionCache(int maxEditors) {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<EditorKey, Entry> eldest) {
+                return size() > maxEditors;
+            }
+        };
+    }
+
+    /**
+     * Returns the candidate groups for the qualifier, reusing those cached for the editor when still applicable.
+     *
+     * @param editor            the editor completion runs in
+     * @param moduleKey         the module key of the qualifier, or null for the top-level 'love.' context
+     * @param prefix            the partially typed identifier
+     * @param modificationStamp the modification stamp of the document
+     * @param generation        the generation of the usage statistics the candidates are ranked with
+     * @param resolver          resolves the candidates on a miss
+     * @return the candidate groups, each to be added to the result set as a whole
+     */
+    @NotNull
+    List<List<LookupElement>> getCandidates(@NotNull Editor editor, @Nullable String moduleKey, @NotNull String prefix,
+                                            long modificationStamp, long generation,
+                                            @NotNull Supplier<List<List<LookupElement>>> resolver) {
+        synchronized (entries) {
+            removeReleased();
+            Entry entry = entries.get(new EditorKey(editor, null));
+            if (entry != null && entry.isApplicable(moduleKey, prefix, modificationStamp, generation)) {
+                hits.increment();
+                return entry.candidates;
+            }
+        }
+
+        misses.increment();
+        List<List<LookupElement>> candidates = resolver.get();
+        synchronized (entries) {
+            entries.put(new EditorKey(editor, released), new Entry(moduleKey, prefix, modificationStamp, generation, candidates));
+        }
+        return candidates;
+    }
+
+    /**
+     * Returns the number of lookups answered from the cache.
+     *
+     * @return the hit count
+     */
+    long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of lookups that had to resolve the candidates.
+     *
+     * @return the miss count
+     */
+    long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the number of editors candidates are currently cached for.
+     *
+     * @return the entry count
+     */
+    int size() {
+        synchronized (entries) {
+            removeReleased();
+            return entries.size();
+        }
+    }
+
+    /**
+     * Drops the entries of the editors collected since the last access. Called with the entries locked.
+     */
+    private void removeReleased() {
+        for (Reference<? extends Editor> key = released.poll(); key != null; key = released.poll()) {
+            entries.remove(key);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "LoveCompletionCache{hits=" + getHitCount() + ", misses=" + getMissCount() + ", editors=" + size() + "}";
+    }
+
+    /**
+     * A weak reference to an editor, equal to the other references to the same editor while it is reachable.
+     */
+    private static final class EditorKey extends WeakReference<Editor> {
+
+        private final int hash;
+
+        EditorKey(@NotNull Editor editor, @Nullable ReferenceQueue<Editor> queue) {
+            super(editor, queue);
+            this.hash = System.identityHashCode(editor);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            Editor editor = get();
+            return editor != null && other instanceof EditorKey && ((EditorKey) other).get() == editor;
+        }
+    }
+
+    private static final class Entry {
+
+        @Nullable
+        private final String moduleKey;
+        @NotNull
+        private final String prefix;
+        private final long modificationStamp;
+        private final long generation;
+        @NotNull
+        private final List<List<LookupElement>> candidates;
+        /**
+         * Whether the candidates are the names matching the prefix, and not the fallback to every name.
+         */
+        private final boolean exact;
+
+        Entry(@Nullable String moduleKey, @NotNull String prefix, long modificationStamp, long generation,
+              @NotNull List<List<LookupElement>> candidates) {
+            this.moduleKey = moduleKey;
+            this.prefix = prefix;
+            this.modificationStamp = modificationStamp;
+            this.generation = generation;
+            this.candidates = candidates;
+            this.exact = matchesOnly(prefix);
+        }
+
+        boolean isApplicable(@Nullable String moduleKey, @NotNull String prefix, long modificationStamp,
+                             long generation) {
+            if (this.generation != generation || !Objects.equals(this.moduleKey, moduleKey)) {
+                return false;
+            }
+            if (this.modificationStamp == modificationStamp) {
+                return this.prefix.equals(prefix);
+            }
+            return prefix.startsWith(this.prefix) && exact && matchesAny(prefix);
+        }
+
+        private boolean matchesOnly(@NotNull String prefix) {
+            for (List<LookupElement> group : candidates) {
+                for (LookupElement element : group) {
+                    if (!LoveNameIndex.matches(element.getLookupString(), prefix)) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+
+        private boolean matchesAny(@NotNull String prefix) {
+            for (List<LookupElement> group : candidates) {
+                for (LookupElement element : group) {
+                    if (LoveNameIndex.matches(element.getLookupString(), prefix)) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+    }
+}
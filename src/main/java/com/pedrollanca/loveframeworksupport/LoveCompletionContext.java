@@ -0,0 +1,310 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 - Pedro Chamorro Llanca
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.pedrollanca.loveframeworksupport;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Describes where the caret sits relative to a 'love.' or 'love.&lt;module&gt;.' qualifier.
+ *
+ * <p>Instances are produced by {@link LoveContextResolver} from the PSI tree or by
+ * {@link #scan(CharSequence, int, AliasResolver)}, which walks backwards from the caret over the document characters
+ * without copying them, so the cost of a scan depends only on the length of the qualifier and never on the size of
+ * the file.
+ */
+public final class LoveCompletionContext {
+
+    /**
+     * The root identifier every LOVE qualifier starts with.
+     */
+    static final String LOVE_ROOT = "love";
+
+    /**
+     * Upper bound of characters inspected before the caret. A qualifier such as
+     * 'love.filesystem.getRequirePath' is far shorter, so anything longer cannot be a LOVE context.
+     */
+    static final int MAX_SCAN_LENGTH = 256;
+
+    /**
+     * Module key the caret is qualified with, or null when completing directly after 'love.'.
+     */
+    @Nullable
+    private final String moduleKey;
+
+    /**
+     * Document offset where the partially typed identifier starts.
+     */
+    private final int prefixStart;
+
+    /**
+     * Document offset of the caret.
+     */
+    private final int offset;
+
+    private LoveCompletionContext(@Nullable String moduleKey, int prefixStart, int offset) {
+        this.moduleKey = moduleKey;
+        this.prefixStart = prefixStart;
+        this.offset = offset;
+    }
+
+    /**
+     * Returns true when the caret directly follows 'love.', where callbacks and modules are suggested.
+     *
+     * @return true for the top-level 'love.' context
+     */
+    public boolean isTopLevel() {
+        return moduleKey == null;
+    }
+
+    /**
+     * Returns the module key (one of {@link LoveTypes#MODULE_KEYS}) the caret is qualified with.
+     *
+     * @return the module key, or null for the top-level 'love.' context
+     */
+    @Nullable
+    public String getModuleKey() {
+        return moduleKey;
+    }
+
+    /**
+     * Returns the document offset where the partially typed identifier starts.
+     *
+     * @return the prefix start offset
+     */
+    public int getPrefixStart() {
+        return prefixStart;
+    }
+
+    /**
+     * Returns the length of the partially typed identifier before the caret.
+     *
+     * @return the prefix length, zero right after a dot
+     */
+    public int getPrefixLength() {
+        return offset - prefixStart;
+    }
+
+    /**
+     * Returns the partially typed identifier before the caret.
+     *
+     * @param text the characters the context was scanned from
+     * @return the prefix, empty right after a dot
+     */
+    @NotNull
+    public String getPrefix(@NotNull CharSequence text) {
+        return prefixStart == offset ? "" : text.subSequence(prefixStart, offset).toString();
+    }
+
+    /**
+     * Recognizes 'love.' and 'love.&lt;module&gt;.' (optionally followed by a partially typed identifier) ending at
+     * the given offset, anywhere in an expression. Whitespace, including line breaks, may separate the parts of
+     * the qualifier.
+     *
+     * @param text   the document characters, typically {@code Document.getImmutableCharSequence()}
+     * @param offset the caret offset
+     * @return the completion context, or null if the caret is not inside a LOVE qualifier
+     */
+    @Nullable
+    public static LoveCompletionContext scan(@NotNull CharSequence text, int offset) {
+        return scan(text, offset, null);
+    }
+
+    /**
+     * Recognizes 'love.', 'love.&lt;module&gt;.' and '&lt;alias&gt;.' (optionally followed by a partially typed
+     * identifier) ending at the given offset, anywhere in an expression.
+     *
+     * @param text    the document characters, typically {@code Document.getImmutableCharSequence()}
+     * @param offset  the caret offset
+     * @param aliases resolves local aliases of LOVE modules, consulted only for qualifiers not starting with 'love'
+     * @return the completion context, or null if the caret is not inside a LOVE qualifier
+     */
+    @Nullable
+    public static LoveCompletionContext scan(@NotNull CharSequence text, int offset, @Nullable AliasResolver aliases) {
+        if (offset < 0 || offset > text.length()) {
+            return null;
+        }
+        int limit = Math.max(0, offset - MAX_SCAN_LENGTH);
+
+        int prefixStart = skipIdentifierBackward(text, offset, limit);
+        int dot = skipWhitespaceBackward(text, prefixStart, limit) - 1;
+        if (!isMemberDot(text, dot, limit)) {
+            return null;
+        }
+
+        int segmentEnd = skipWhitespaceBackward(text, dot, limit);
+        int segmentStart = skipIdentifierBackward(text, segmentEnd, limit);
+        if (segmentStart == segmentEnd) {
+            return null;
+        }
+        if (regionEquals(text, segmentStart, segmentEnd, LOVE_ROOT)) {
+            return startsChain(text, segmentStart, limit) ? new LoveCompletionContext(null, prefixStart, offset) : null;
+        }
+
+        int moduleDot = skipWhitespaceBackward(text, segmentStart, limit) - 1;
+        if (isMemberDot(text, moduleDot, limit)) {
+            String moduleKey = findModuleKey(text, segmentStart, segmentEnd);
+            int rootEnd = skipWhitespaceBackward(text, moduleDot, limit);
+            int rootStart = skipIdentifierBackward(text, rootEnd, limit);
+            if (moduleKey == null || !regionEquals(text, rootStart, rootEnd, LOVE_ROOT)
+                    || !startsChain(text, rootStart, limit)) {
+                return null;
+            }
+            return new LoveCompletionContext(moduleKey, prefixStart, offset);
+        }
+
+        // A chain rooted at something other than 'love' may be a local alias such as 'lg' for love.graphics
+        if (aliases != null && startsChain(text, segmentStart, limit)) {
+            String moduleKey = aliases.resolve(text, segmentStart, segmentEnd);
+            if (moduleKey != null) {
+                return new LoveCompletionContext(moduleKey, prefixStart, offset);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Creates a context for a qualifier resolved by other means than {@link #scan}, e.g. from the PSI tree.
+     *
+     * @param moduleKey   the module key, or null for the top-level 'love.' context
+     * @param prefixStart the document offset where the partially typed identifier starts
+     * @param offset      the caret offset
+     * @return the context
+     */
+    @NotNull
+    static LoveCompletionContext of(@Nullable String moduleKey, int prefixStart, int offset) {
+        return new LoveCompletionContext(moduleKey, prefixStart, offset);
+    }
+
+    /**
+     * Returns the module key whose name spans exactly [start, end) of the text. The returned value is the shared
+     * constant from {@link LoveTypes}, so no string is allocated.
+     *
+     * @return the module key, or null if the text is not a module name
+     */
+    @Nullable
+    static String findModuleKey(@NotNull CharSequence text, int start, int end) {
+        for (String moduleKey : LoveTypes.MODULE_KEYS) {
+            if (regionEquals(text, start, end, moduleKey)) {
+                return moduleKey;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Checks whether the character at the given index is a member access dot, and not part of the '..' operator.
+     */
+    private static boolean isMemberDot(@NotNull CharSequence text, int index, int limit) {
+        return index >= limit && text.charAt(index) == '.' && (index == 0 || text.charAt(index - 1) != '.');
+    }
+
+    /**
+     * Checks whether the identifier starting at the given offset is the root of its chain, i.e. it is not itself
+     * a member of another expression ('obj.love.') or a method call ('obj:love.').
+     */
+    private static boolean startsChain(@NotNull CharSequence text, int start, int limit) {
+        if (start > 0 && start == limit) {
+            // Ran out of scan budget, the identifier may continue before the limit
+            return false;
+        }
+        int previous = skipWhitespaceBackward(text, start, limit) - 1;
+        if (previous < 0) {
+            return true;
+        }
+        if (previous < limit) {
+            return false;
+        }
+        char c = text.charAt(previous);
+        if (c == ':') {
+            return false;
+        }
+        // The '..' concatenation operator may precede a chain, a single member dot may not
+        return c != '.' || previous > 0 && text.charAt(previous - 1) == '.';
+    }
+
+    /**
+     * Moves backwards over whitespace, including line breaks, never past the limit.
+     *
+     * @return the offset just after the last non-whitespace character
+     */
+    static int skipWhitespaceBackward(@NotNull CharSequence text, int end, int limit) {
+        int i = end;
+        while (i > limit && Character.isWhitespace(text.charAt(i - 1))) {
+            i--;
+        }
+        return i;
+    }
+
+    /**
+     * Moves backwards over identifier characters, never past the limit.
+     *
+     * @return the offset of the first identifier character, or {@code end} if there is none
+     */
+    static int skipIdentifierBackward(@NotNull CharSequence text, int end, int limit) {
+        int i = end;
+        while (i > limit && isIdentifierPart(text.charAt(i - 1))) {
+            i--;
+        }
+        return i;
+    }
+
+    /**
+     * Compares the text between start and end with the expected string without creating a substring.
+     */
+    static boolean regionEquals(@NotNull CharSequence text, int start, int end, @NotNull String expected) {
+        if (end - start != expected.length()) {
+            return false;
+        }
+        for (int i = 0; i < expected.length(); i++) {
+            if (text.charAt(start + i) != expected.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns true for characters that may appear in a Lua identifier.
+     */
+    static boolean isIdentifierPart(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_';
+    }
+
+    /**
+     * Resolves identifiers that alias a LOVE module, such as 'lg' after 'local lg = love.graphics'.
+     */
+    @FunctionalInterface
+    public interface AliasResolver {
+
+        /**
+         * Resolves the identifier spanning [start, end) of the text.
+         *
+         * @param text  the characters containing the identifier
+         * @param start the start offset of the identifier
+         * @param end   the end offset of the identifier
+         * @return the aliased module key, or null if the identifier is not an alias
+         */
+        @Nullable
+        String resolve(@NotNull CharSequence text, int start, int end);
+    }
+}
@@ -23,26 +23,38 @@ package com.pedrollanca.loveframeworksupport;
 
 import com.intellij.codeInsight.completion.CompletionContributor;
 import com.intellij.codeInsight.completion.CompletionType;
-import com.intellij.lang.Language;
+import com.intellij.patterns.PatternCondition;
+import com.intellij.psi.PsiFile;
+import com.intellij.util.ProcessingContext;
+import org.jetbrains.annotations.NotNull;
 
 import static com.intellij.patterns.PlatformPatterns.psiElement;
+import static com.intellij.patterns.PlatformPatterns.psiFile;
 
 /**
  * Provides custom code completion features for the IntelliJ Love Framework.
+ *
+ * <p>The contributor is registered for the Lua language (covering its dialects) and for plain text, where the
+ * pattern below only accepts *.lua files. Completion in Java, Kotlin, JSON, YAML and other files never reaches
+ * the provider.
  */
 final public class LoveCompletionContributor extends CompletionContributor {
-    LoveCompletionContributor() {
 
-        Language luaLanguage = PluginUtils.getLuaLanguage();
-        if (luaLanguage != null) {
-            extend(
-                    CompletionType.BASIC,
-                    psiElement().withLanguage(luaLanguage),
-                    new LoveCompletionProvider()
-            );
-        } else {
-            extend(CompletionType.BASIC, psiElement().withLanguage(Language.ANY), new LoveCompletionProvider());
+    /**
+     * Accepts Lua files by language or file name, without touching the document.
+     */
+    static final PatternCondition<PsiFile> LUA_FILE = new PatternCondition<>("luaFile") {
+        @Override
+        public boolean accepts(@NotNull PsiFile file, ProcessingContext context) {
+            return PluginUtils.isLuaFile(file);
         }
+    };
 
+    LoveCompletionContributor() {
+        extend(
+                CompletionType.BASIC,
+                psiElement().inFile(psiFile().with(LUA_FILE)),
+                new LoveCompletionProvider()
+        );
     }
-}
\ No newline at end of file
+}
@@ -24,22 +24,24 @@ package com.pedrollanca.loveframeworksupport;
 import com.intellij.codeInsight.completion.CompletionParameters;
 import com.intellij.codeInsight.completion.CompletionProvider;
 import com.intellij.codeInsight.completion.CompletionResultSet;
+import com.intellij.codeInsight.completion.PrioritizedLookupElement;
+import com.intellij.codeInsight.lookup.LookupElement;
 import com.intellij.openapi.editor.Document;
 import com.intellij.openapi.editor.Editor;
 import com.intellij.util.ProcessingContext;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * Provides custom code completion features for the IntelliJ Love Framework.
  */
 public class LoveCompletionProvider extends CompletionProvider<CompletionParameters> {
-    /**
-     * Regular expression to match lines starting with 'love.' or 'love.<module>.'.
-     */
-    private static final Pattern LOVE_LINE_PATTERN = Pattern.compile("^\\s*love\\.(\\w*)\\.?$");
+
+    private static final LoveCompletionCache CACHE = new LoveCompletionCache(LoveCompletionCache.DEFAULT_MAX_EDITORS);
 
     /**
      * Adds completion suggestions based on the current context in the editor.
@@ -53,30 +55,96 @@ public class LoveCompletionProvider extends CompletionProvider<CompletionParamet
                                   @NotNull ProcessingContext processingContext,
                                   @NotNull CompletionResultSet completionResultSet) {
 
+        // Cheap gate on the file name and language before touching the editor or document
+        if (!PluginUtils.isLuaFile(completionParameters.getOriginalFile())) {
+            return;
+        }
+
         try {
             Editor editor = completionParameters.getEditor();
             Document document = editor.getDocument();
-            int offset = completionParameters.getOffset();
-
-            int lineStartOffset = document.getLineStartOffset(document.getLineNumber(offset));
-            String lineText = document.getText().substring(lineStartOffset, offset).trim();
 
-            Matcher matcher = LOVE_LINE_PATTERN.matcher(lineText);
-
-            if (matcher.matches()) {
-                String moduleOrEmpty = matcher.group(1);
+            // Resolve the qualifier chain from the PSI tree, or scan the immutable snapshot in place without a copy
+            CharSequence text = document.getImmutableCharSequence();
+            LoveCompletionContext context = LoveContextResolver.resolve(completionParameters, text);
+            if (context == null) {
+                return;
+            }
 
-                if (moduleOrEmpty.isEmpty()) {
-                    completionResultSet.addAllElements(LoveElements.getElementsFor(LoveTypes.CALLBACKS_KEY));
-                    completionResultSet.addAllElements(LoveElements.getElementsFor(LoveTypes.MODULES_KEY));
-                } else {
-                    if (lineText.endsWith(".")) {
-                        completionResultSet.addAllElements(LoveElements.getElementsFor(moduleOrEmpty));
-                    }
-                }
+            // Hand back only the candidates matching the typed prefix, reusing those of the previous keystroke
+            // as long as the usage priorities and the target version they were resolved for are still current
+            String prefix = context.getPrefix(text);
+            LoveUsageStatistics statistics = LoveUsageStatistics.getInstance();
+            LoveVersion version = LoveProjectSettings.getVersion(completionParameters.getOriginalFile().getProject());
+            long generation = statistics.getGeneration() * LoveVersion.COUNT + version.ordinal();
+            List<List<LookupElement>> candidates = CACHE.getCandidates(editor, context.getModuleKey(), prefix,
+                    document.getModificationStamp(), generation,
+                    () -> resolveCandidates(context, prefix, statistics, version));
+            // Let the result set filter the candidates with typo tolerance, e.g. 'newSpriteBtach'
+            CompletionResultSet resultSet = completionResultSet.withPrefixMatcher(new LoveFuzzyMatcher(prefix));
+            for (List<LookupElement> group : candidates) {
+                resultSet.addAllElements(group);
             }
         } catch (Exception e) {
             e.printStackTrace();
         }
     }
+
+    /**
+     * Returns the completion cache shared by all editors, e.g. to inspect its hit and miss counters.
+     *
+     * @return the completion cache
+     */
+    static LoveCompletionCache getCache() {
+        return CACHE;
+    }
+
+    /**
+     * Resolves the candidates matching the prefix: callbacks and modules after 'love.', functions after a module.
+     */
+    @NotNull
+    private static List<List<LookupElement>> resolveCandidates(@NotNull LoveCompletionContext context,
+                                                               @NotNull String prefix,
+                                                               @NotNull LoveUsageStatistics statistics,
+                                                               @NotNull LoveVersion version) {
+        if (context.isTopLevel()) {
+            return Arrays.asList(
+                    prioritize(getElementsMatching(LoveTypes.CALLBACKS_KEY, prefix), statistics, version),
+                    prioritize(getElementsMatching(LoveTypes.MODULES_KEY, prefix), statistics, version));
+        }
+        return Collections.singletonList(
+                prioritize(getElementsMatching(context.getModuleKey(), prefix), statistics, version));
+    }
+
+    /**
+     * Returns the elements of a key matching the prefix. When nothing matches a prefix long enough to tolerate
+     * typing errors, every element of the key is returned and {@link LoveFuzzyMatcher} picks the close ones.
+     */
+    @NotNull
+    private static List<LookupElement> getElementsMatching(@NotNull String key, @NotNull String prefix) {
+        List<LookupElement> elements = LoveElements.getElementsMatching(key, prefix);
+        if (elements.isEmpty() && LoveFuzzyMatcher.getMaxErrors(prefix) > 0) {
+            return LoveElements.getElementsFor(key);
+        }
+        return elements;
+    }
+
+    /**
+     * Wraps the elements available in the target version with the priority the usage statistics assign to their
+     * qualified names.
+     */
+    @NotNull
+    private static List<LookupElement> prioritize(@NotNull List<LookupElement> elements,
+                                                  @NotNull LoveUsageStatistics statistics,
+                                                  @NotNull LoveVersion version) {
+        List<LookupElement> prioritized = new ArrayList<>(elements.size());
+        for (LookupElement element : elements) {
+            if (!LoveElements.isAvailable(element, version)) {
+                continue;
+            }
+            int priority = statistics.getPriority((String) element.getObject());
+            prioritized.add(PrioritizedLookupElement.withPriority(element, priority));
+        }
+        return prioritized;
+    }
 }
\ No newline at end of file
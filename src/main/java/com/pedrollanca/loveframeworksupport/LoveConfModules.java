@@ -0,0 +1,327 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 - Pedro Chamorro Llanca
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.pedrollanca.loveframeworksupport;
+
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.search.PsiSearchHelper;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Works out which LOVE modules a project needs and reads and updates the {@code t.modules} table of its
+ * {@value #CONF_FILE_NAME}, where unused modules are disabled to make the game start faster and use less memory.
+ *
+ * <p>The modules a project references are looked up in the {@link LoveUsageIndex}, one query per module, so the
+ * cost doesn't grow with the number of files. Modules the game loop relies on and the modules they depend on are
+ * always kept.
+ */
+final class LoveConfModules {
+
+    /**
+     * The file LOVE reads its configuration from.
+     */
+    static final String CONF_FILE_NAME = "conf.lua";
+
+    /**
+     * Modules the default game loop (love.run) uses whether or not the game references them.
+     */
+    static final List<String> IMPLICIT_MODULES = List.of(LoveTypes.EVENT_KEY, LoveTypes.TIMER_KEY,
+            LoveTypes.GRAPHICS_KEY, LoveTypes.WINDOW_KEY);
+
+    /**
+     * Modules that only work when others are enabled too.
+     */
+    static final Map<String, List<String>> DEPENDENCIES = Map.of(
+            LoveTypes.GRAPHICS_KEY, List.of(LoveTypes.FONT_KEY, LoveTypes.IMAGE_KEY, LoveTypes.WINDOW_KEY),
+            LoveTypes.AUDIO_KEY, List.of(LoveTypes.SOUND_KEY));
+
+    /**
+     * Callbacks that are only called while a module is enabled, although defining them references no module.
+     */
+    static final Map<String, List<String>> INPUT_CALLBACKS = Map.of(
+            LoveTypes.KEYBOARD_KEY, List.of("keypressed", "keyreleased", "textinput", "textedited"),
+            LoveTypes.MOUSE_KEY, List.of("mousepressed", "mousereleased", "mousemoved", "wheelmoved"),
+            LoveTypes.JOYSTICK_KEY, List.of("joystickpressed", "joystickreleased", "joystickaxis", "joystickhat",
+                    "joystickadded", "joystickremoved", "gamepadpressed", "gamepadreleased", "gamepadaxis"),
+            LoveTypes.TOUCH_KEY, List.of("touchpressed", "touchreleased", "touchmoved"));
+
+    private static final Pattern CONF_FUNCTION = Pattern.compile(
+            "function\\s+love\\s*\\.\\s*conf\\s*\\(\\s*([A-Za-z_]\\w*)\\s*\\)"
+                    + "|love\\s*\\.\\s*conf\\s*=\\s*function\\s*\\(\\s*([A-Za-z_]\\w*)\\s*\\)");
+
+    private static final String INDENT = "    ";
+
+    private LoveConfModules() {
+    }
+
+    /**
+     * An assignment such as {@code t.modules.physics = false}.
+     */
+    static final class ModuleFlag {
+        final String module;
+        final boolean enabled;
+        /**
+         * Start offset of the assignment.
+         */
+        final int start;
+        /**
+         * Offsets of the 'true' or 'false' value.
+         */
+        final int valueStart;
+        final int valueEnd;
+
+        ModuleFlag(@NotNull String module, boolean enabled, int start, int valueStart, int valueEnd) {
+            this.module = module;
+            this.enabled = enabled;
+            this.start = start;
+            this.valueStart = valueStart;
+            this.valueEnd = valueEnd;
+        }
+    }
+
+    /**
+     * Returns true for the modules that can be switched off in {@code t.modules}; love.filesystem cannot.
+     *
+     * @param module a module key
+     * @return true if the module can be disabled
+     */
+    static boolean isToggleable(@NotNull String module) {
+        return LoveTypes.MODULE_KEYS.contains(module) && !LoveTypes.FILESYSTEM_KEY.equals(module);
+    }
+
+    /**
+     * Returns the modules a game needs: the referenced ones, the implicit ones and everything they depend on.
+     *
+     * @param referenced the modules the game references
+     * @return the required modules, in {@link LoveTypes#MODULE_KEYS} order
+     */
+    @NotNull
+    static Set<String> getRequiredModules(@NotNull Collection<String> referenced) {
+        Set<String> required = new LinkedHashSet<>(IMPLICIT_MODULES);
+        required.addAll(referenced);
+        List<String> pending = new ArrayList<>(required);
+        while (!pending.isEmpty()) {
+            String module = pending.remove(pending.size() - 1);
+            for (String dependency : DEPENDENCIES.getOrDefault(module, List.of())) {
+                if (required.add(dependency)) {
+                    pending.add(dependency);
+                }
+            }
+        }
+        Set<String> ordered = new LinkedHashSet<>();
+        for (String module : LoveTypes.MODULE_KEYS) {
+            if (required.contains(module)) {
+                ordered.add(module);
+            }
+        }
+        return ordered;
+    }
+
+    /**
+     * Returns the modules the project references, from the {@link LoveUsageIndex}, counting the definition of an
+     * input callback such as love.keypressed as a reference of its module.
+     *
+     * @param project the project
+     * @return the referenced modules, in {@link LoveTypes#MODULE_KEYS} order
+     */
+    @NotNull
+    static Set<String> findReferencedModules(@NotNull Project project) {
+        GlobalSearchScope scope = GlobalSearchScope.projectScope(project);
+        PsiSearchHelper searchHelper = PsiSearchHelper.getInstance(project);
+        Set<String> referenced = new LinkedHashSet<>();
+        for (String module : LoveTypes.MODULE_KEYS) {
+            String qualifiedName = LoveCompletionContext.LOVE_ROOT + "." + module;
+            // The search stops at the first usage
+            if (!LoveUsageIndex.processUsages(qualifiedName, scope, (file, offset) -> false)) {
+                referenced.add(module);
+                continue;
+            }
+            for (String callback : INPUT_CALLBACKS.getOrDefault(module, List.of())) {
+                if (!searchHelper.processAllFilesWithWord(callback, scope, file -> false, true)) {
+                    referenced.add(module);
+                    break;
+                }
+            }
+        }
+        return referenced;
+    }
+
+    /**
+     * Finds the {@code t.modules.<module> = true|false} assignments in the body of love.conf, skipping comments and
+     * strings. The table may have any name, it is the parameter of love.conf.
+     *
+     * @param text the source of conf.lua
+     * @return the assignments in text order, empty if there is no love.conf
+     */
+    @NotNull
+    static List<ModuleFlag> findModuleFlags(@NotNull CharSequence text) {
+        Matcher conf = findConfFunction(text);
+        if (conf == null) {
+            return List.of();
+        }
+        String parameter = conf.group(1) != null ? conf.group(1) : conf.group(2);
+        Matcher matcher = Pattern.compile("(?<![\\w.:])" + Pattern.quote(parameter)
+                + "\\s*\\.\\s*modules\\s*\\.\\s*([A-Za-z_]\\w*)\\s*=\\s*(true|false)(?!\\w)").matcher(text);
+        matcher.region(conf.end(), findConfEnd(text, conf)).useTransparentBounds(true);
+        List<ModuleFlag> flags = new ArrayList<>();
+        CodeCursor cursor = new CodeCursor(text);
+        while (matcher.find()) {
+            if (cursor.isCode(matcher.start())) {
+                flags.add(new ModuleFlag(matcher.group(1), "true".equals(matcher.group(2)), matcher.start(),
+                        matcher.start(2), matcher.end(2)));
+            }
+        }
+        return flags;
+    }
+
+    /**
+     * Rewrites conf.lua so that exactly the required toggleable modules are enabled: existing assignments get the
+     * right value and assignments disabling the remaining modules are added at the end of the body of love.conf,
+     * before its closing 'end'. A love.conf function is appended if there is none.
+     *
+     * @param text     the source of conf.lua, empty for a new file
+     * @param required the modules the game needs, see {@link #getRequiredModules}
+     * @return the updated source, equal to the text if nothing changes
+     */
+    @NotNull
+    static String updateConf(@NotNull CharSequence text, @NotNull Set<String> required) {
+        StringBuilder result = new StringBuilder(text);
+        List<ModuleFlag> flags = findModuleFlags(text);
+        Set<String> assigned = new LinkedHashSet<>();
+        // Replace from the end so that earlier offsets stay valid; the flags all precede the end of love.conf
+        int shift = 0;
+        for (int i = flags.size() - 1; i >= 0; i--) {
+            ModuleFlag flag = flags.get(i);
+            assigned.add(flag.module);
+            boolean enabled = required.contains(flag.module) || !isToggleable(flag.module);
+            if (flag.enabled != enabled) {
+                String value = Boolean.toString(enabled);
+                result.replace(flag.valueStart, flag.valueEnd, value);
+                shift += value.length() - (flag.valueEnd - flag.valueStart);
+            }
+        }
+
+        List<String> disabled = new ArrayList<>();
+        for (String module : LoveTypes.MODULE_KEYS) {
+            if (isToggleable(module) && !required.contains(module) && !assigned.contains(module)) {
+                disabled.add(module);
+            }
+        }
+        if (disabled.isEmpty()) {
+            return result.toString();
+        }
+
+        Matcher conf = findConfFunction(text);
+        String parameter = conf == null ? "t" : conf.group(1) != null ? conf.group(1) : conf.group(2);
+        StringBuilder lines = new StringBuilder();
+        for (String module : disabled) {
+            lines.append(INDENT).append(parameter).append(".modules.").append(module).append(" = false\n");
+        }
+        if (conf == null) {
+            if (result.length() > 0 && result.charAt(result.length() - 1) != '\n') {
+                result.append('\n');
+            }
+            result.append("function love.conf(t)\n").append(lines).append("end\n");
+        } else {
+            int end = findConfEnd(text, conf) + shift;
+            int insert = end;
+            while (insert > 0 && (result.charAt(insert - 1) == ' ' || result.charAt(insert - 1) == '\t')) {
+                insert--;
+            }
+            if (insert > 0 && result.charAt(insert - 1) == '\n') {
+                // 'end' starts its line, which keeps its indentation
+                result.insert(insert, lines);
+            } else {
+                // 'end' follows the last statement, as in a single line love.conf
+                result.replace(insert, end, "\n" + lines);
+            }
+        }
+        return result.toString();
+    }
+
+    /**
+     * Finds the header of the love.conf function outside comments and strings.
+     */
+    @Nullable
+    private static Matcher findConfFunction(@NotNull CharSequence text) {
+        Matcher matcher = CONF_FUNCTION.matcher(text);
+        CodeCursor cursor = new CodeCursor(text);
+        while (matcher.find()) {
+            if (cursor.isCode(matcher.start())) {
+                return matcher;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the offset of the 'end' closing the love.conf function whose header was found, or the text length if
+     * it is missing.
+     */
+    private static int findConfEnd(@NotNull CharSequence text, @NotNull Matcher conf) {
+        LoveFrameAnalysis analysis = LoveFrameAnalysis.analyze(text);
+        LoveLuaTokens tokens = analysis.getTokens();
+        for (LoveFrameAnalysis.Function function : analysis.getFunctions()) {
+            int keyword = tokens.getStart(function.keyword);
+            if (keyword >= conf.start() && keyword < conf.end()) {
+                return function.bodyEnd == tokens.size() ? text.length() : tokens.getStart(function.bodyEnd);
+            }
+        }
+        return text.length();
+    }
+
+    /**
+     * Tells whether offsets, queried in ascending order, are in code rather than in a comment or string.
+     */
+    private static final class CodeCursor {
+        private final CharSequence text;
+        private int position;
+
+        CodeCursor(@NotNull CharSequence text) {
+            this.text = text;
+        }
+
+        boolean isCode(int offset) {
+            while (position < offset) {
+                int skipped = LoveLuaTokens.skipCommentOrString(text, position);
+                if (skipped == position) {
+                    position++;
+                } else if (skipped > offset) {
+                    return false;
+                } else {
+                    position = skipped;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 - Pedro Chamorro Llanca
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.pedrollanca.loveframeworksupport;
+
+import com.intellij.codeInspection.InspectionManager;
+import com.intellij.codeInspection.LocalInspectionTool;
+import com.intellij.codeInspection.LocalQuickFix;
+import com.intellij.codeInspection.ProblemDescriptor;
+import com.intellij.codeInspection.ProblemHighlightType;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.TextRange;
+import com.intellij.psi.PsiDocumentManager;
+import com.intellij.psi.PsiFile;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Reports modules that conf.lua disables although the game uses them, such as 't.modules.audio = false' in a game
+ * calling love.audio.newSource. LOVE then fails with "attempt to index field 'audio' (a nil value)" at run time.
+ *
+ * <p>The used modules are looked up in the {@link LoveUsageIndex}, see {@link LoveConfModules}.
+ */
+public class LoveConfModulesInspection extends LocalInspectionTool {
+
+    @Nullable
+    @Override
+    public ProblemDescriptor[] checkFile(@NotNull PsiFile file, @NotNull InspectionManager manager,
+                                         boolean isOnTheFly) {
+        if (!LoveConfModules.CONF_FILE_NAME.equals(file.getName())) {
+            return null;
+        }
+        List<LoveConfModules.ModuleFlag> flags = LoveConfModules.findModuleFlags(file.getViewProvider().getContents());
+        if (flags.stream().allMatch(flag -> flag.enabled)) {
+            return null;
+        }
+        Set<String> required = LoveConfModules.getRequiredModules(
+                LoveConfModules.findReferencedModules(file.getProject()));
+        List<ProblemDescriptor> problems = new ArrayList<>();
+        for (LoveConfModules.ModuleFlag flag : flags) {
+            if (!flag.enabled && required.contains(flag.module)) {
+                problems.add(manager.createProblemDescriptor(file,
+                        TextRange.create(flag.start, flag.valueEnd), getMessage(flag.module),
+                        ProblemHighlightType.GENERIC_ERROR, isOnTheFly, new EnableModuleFix(flag.module)));
+            }
+        }
+        return problems.isEmpty() ? null : problems.toArray(ProblemDescriptor.EMPTY_ARRAY);
+    }
+
+    /**
+     * Returns the problem description of a disabled module the game needs.
+     */
+    @NotNull
+    static String getMessage(@NotNull String module) {
+        return "Module 'love." + module + "' is disabled but used by the game";
+    }
+
+    /**
+     * Sets the reported assignment to true.
+     */
+    private static final class EnableModuleFix implements LocalQuickFix {
+        private final String module;
+
+        EnableModuleFix(@NotNull String module) {
+            this.module = module;
+        }
+
+        @NotNull
+        @Override
+        public String getName() {
+            return "Enable module 'love." + module + "'";
+        }
+
+        @NotNull
+        @Override
+        public String getFamilyName() {
+            return "Enable LÖVE module";
+        }
+
+        @Override
+        public void applyFix(@NotNull Project project, @NotNull ProblemDescriptor descriptor) {
+            PsiFile file = descriptor.getPsiElement().getContainingFile();
+            Document document = file == null ? null : PsiDocumentManager.getInstance(project).getDocument(file);
+            if (document == null) {
+                return;
+            }
+            int start = descriptor.getTextRangeInElement().getStartOffset();
+            for (LoveConfModules.ModuleFlag flag : LoveConfModules.findModuleFlags(document.getCharsSequence())) {
+                if (flag.start == start && module.equals(flag.module) && !flag.enabled) {
+                    document.replaceString(flag.valueStart, flag.valueEnd, "true");
+                    return;
+                }
+            }
+        }
+    }
+}
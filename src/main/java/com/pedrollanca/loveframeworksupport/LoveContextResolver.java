@@ -0,0 +1,176 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 - Pedro Chamorro Llanca
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.pedrollanca.loveframeworksupport;
+
+import com.intellij.codeInsight.completion.CompletionParameters;
+import com.intellij.openapi.util.Key;
+import com.intellij.psi.PsiComment;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiWhiteSpace;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiTreeUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Resolves the LOVE qualifier chain in front of the caret.
+ *
+ * <p>When the Lua plugin provides a PSI tree the chain is read from its leaves, so comments and line breaks between
+ * the parts of 'love.graphics.draw' are skipped naturally. Files parsed as plain text have a single leaf, in which
+ * case the resolver falls back to {@link LoveCompletionContext#scan(CharSequence, int, LoveCompletionContext.AliasResolver)}.
+ */
+final class LoveContextResolver {
+
+    /**
+     * Leaves longer than this are not Lua tokens but e.g. the whole contents of a plain text file.
+     */
+    private static final int MAX_TOKEN_LENGTH = 128;
+
+    private static final Key<CachedValue<LoveAliases>> ALIASES_KEY = Key.create("love.module.aliases");
+
+    private LoveContextResolver() {
+    }
+
+    /**
+     * Resolves the completion context at the caret.
+     *
+     * @param parameters the completion parameters
+     * @param text       the characters of the original document
+     * @return the completion context, or null if the caret is not inside a LOVE qualifier
+     */
+    @Nullable
+    static LoveCompletionContext resolve(@NotNull CompletionParameters parameters, @NotNull CharSequence text) {
+        int offset = parameters.getOffset();
+        PsiFile originalFile = parameters.getOriginalFile();
+        // Aliases are only collected once a chain turns out not to start with 'love'
+        LoveCompletionContext.AliasResolver aliases = (chars, start, end) ->
+                getAliases(originalFile).resolve(chars, start, end);
+
+        PsiElement position = parameters.getPosition();
+        if (position != null && position.getTextLength() <= MAX_TOKEN_LENGTH) {
+            if (position instanceof PsiComment) {
+                return null;
+            }
+            LoveCompletionContext context = resolveFromLeaves(position, offset, aliases);
+            if (context != null) {
+                return context;
+            }
+        }
+        return LoveCompletionContext.scan(text, offset, aliases);
+    }
+
+    /**
+     * Returns the module aliases declared in the file, cached until the file changes.
+     *
+     * @param file the original (not the completion copy) file
+     * @return the aliases
+     */
+    @NotNull
+    static LoveAliases getAliases(@Nullable PsiFile file) {
+        if (file == null) {
+            return LoveAliases.EMPTY;
+        }
+        return CachedValuesManager.getCachedValue(file, ALIASES_KEY, () ->
+                CachedValueProvider.Result.create(LoveAliases.collect(file.getViewProvider().getContents()), file));
+    }
+
+    /**
+     * Walks the leaves before the identifier at the caret: '&lt;identifier&gt; .' then either 'love', 'love . &lt;module&gt;'
+     * or an alias.
+     */
+    @Nullable
+    private static LoveCompletionContext resolveFromLeaves(@NotNull PsiElement position, int offset,
+                                                           @NotNull LoveCompletionContext.AliasResolver aliases) {
+        int prefixStart = position.getTextRange().getStartOffset();
+        if (prefixStart > offset || !isIdentifier(position)) {
+            return null;
+        }
+        PsiElement dot = previousToken(position);
+        if (dot == null || !dot.textMatches(".")) {
+            return null;
+        }
+        PsiElement segment = previousToken(dot);
+        if (segment == null || !isIdentifier(segment)) {
+            return null;
+        }
+        PsiElement beforeSegment = previousToken(segment);
+        if (segment.textMatches(LoveCompletionContext.LOVE_ROOT)) {
+            return startsChain(beforeSegment) ? LoveCompletionContext.of(null, prefixStart, offset) : null;
+        }
+
+        String segmentText = segment.getText();
+        if (beforeSegment != null && beforeSegment.textMatches(".")) {
+            String moduleKey = LoveCompletionContext.findModuleKey(segmentText, 0, segmentText.length());
+            PsiElement root = previousToken(beforeSegment);
+            if (moduleKey == null || root == null || !root.textMatches(LoveCompletionContext.LOVE_ROOT)
+                    || !startsChain(previousToken(root))) {
+                return null;
+            }
+            return LoveCompletionContext.of(moduleKey, prefixStart, offset);
+        }
+
+        if (startsChain(beforeSegment)) {
+            String moduleKey = aliases.resolve(segmentText, 0, segmentText.length());
+            if (moduleKey != null) {
+                return LoveCompletionContext.of(moduleKey, prefixStart, offset);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the closest preceding leaf that is neither whitespace, a comment nor empty.
+     */
+    @Nullable
+    private static PsiElement previousToken(@NotNull PsiElement element) {
+        PsiElement leaf = PsiTreeUtil.prevLeaf(element);
+        while (leaf != null && (leaf instanceof PsiWhiteSpace || leaf instanceof PsiComment || leaf.getTextLength() == 0)) {
+            leaf = PsiTreeUtil.prevLeaf(leaf);
+        }
+        return leaf;
+    }
+
+    /**
+     * A chain starts at a token not preceded by a member dot or a method colon. The '..' operator is a single
+     * token, so it does not match.
+     */
+    private static boolean startsChain(@Nullable PsiElement previous) {
+        return previous == null || !(previous.textMatches(".") || previous.textMatches(":"));
+    }
+
+    private static boolean isIdentifier(@NotNull PsiElement leaf) {
+        int length = leaf.getTextLength();
+        if (length == 0 || length > MAX_TOKEN_LENGTH) {
+            return false;
+        }
+        String text = leaf.getText();
+        for (int i = 0; i < length; i++) {
+            if (!LoveCompletionContext.isIdentifierPart(text.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,211 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 - Pedro Chamorro Llanca
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.pedrollanca.loveframeworksupport;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The bundled LOVE reference: the quick documentation HTML of callbacks, modules and functions, keyed by qualified
+ * name such as 'love.graphics.draw'.
+ *
+ * <p>The reference is written in {@code src/main/api/love-docs.txt} and rendered at build time by the
+ * {@code renderLoveDocs} Gradle task into the indexed resource {@value #RESOURCE}, which is read once on the first
+ * documentation request. The resource layout (big-endian) is:
+ * <pre>
+ * int    magic ('LDOC')
+ * short  format version
+ * int    entry count N
+ * int[]  N + 1 offsets into the name blob
+ * byte[] name blob (UTF-8, qualified names in sorted order)
+ * int[]  N + 1 offsets into the HTML blob
+ * byte[] HTML blob (UTF-8, entry i belongs to name i)
+ * </pre>
+ *
+ * <p>A lookup is a binary search over the names followed by decoding the slice of the HTML blob, with no rendering
+ * at runtime. The decoded HTML of the last {@value #MAX_CACHED_DOCS} shown entries is kept, so hovering the same name
+ * again costs a map lookup.
+ */
+public final class LoveDocumentation {
+
+    /**
+     * Classpath location of the rendered reference.
+     */
+    static final String RESOURCE = "/api/love-docs.bin";
+
+    /**
+     * Magic number at the start of the resource, 'LDOC' in ASCII.
+     */
+    static final int MAGIC = 0x4C444F43;
+
+    /**
+     * The resource format this reader understands.
+     */
+    static final int FORMAT_VERSION = 1;
+
+    /**
+     * Number of decoded entries kept.
+     */
+    static final int MAX_CACHED_DOCS = 128;
+
+    private final String[] names;
+    private final int[] htmlOffsets;
+    private final byte[] html;
+    private final Map<String, String> decoded;
+
+    private LoveDocumentation(String[] names, int[] htmlOffsets, byte[] html, int maxCachedDocs) {
+        this.names = names;
+        this.htmlOffsets = htmlOffsets;
+        this.html = html;
+        this.decoded = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                return size() > maxCachedDocs;
+            }
+        };
+    }
+
+    /**
+     * Returns the reference bundled with the plugin, reading it on the first call.
+     *
+     * @return the shared reference
+     */
+    @NotNull
+    public static LoveDocumentation getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Returns the documentation of a qualified name as HTML.
+     *
+     * @param qualifiedName the qualified name, e.g. 'love.graphics.draw'
+     * @return the HTML, or null if the reference has no entry for the name
+     */
+    @Nullable
+    public String getHtml(@NotNull String qualifiedName) {
+        synchronized (decoded) {
+            String result = decoded.get(qualifiedName);
+            if (result == null) {
+                int index = Arrays.binarySearch(names, qualifiedName);
+                if (index < 0) {
+                    return null;
+                }
+                result = new String(html, htmlOffsets[index], htmlOffsets[index + 1] - htmlOffsets[index],
+                        StandardCharsets.UTF_8);
+                decoded.put(qualifiedName, result);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Returns the number of entries in the reference.
+     *
+     * @return the number of documented names
+     */
+    public int size() {
+        return names.length;
+    }
+
+    /**
+     * Returns the number of decoded entries currently kept.
+     */
+    int getCachedCount() {
+        synchronized (decoded) {
+            return decoded.size();
+        }
+    }
+
+    /**
+     * Reads a rendered reference.
+     *
+     * @param input         the resource stream; it is not closed
+     * @param maxCachedDocs the number of decoded entries to keep
+     * @return the reference
+     * @throws IOException if the stream cannot be read or is not a reference of the supported format
+     */
+    @NotNull
+    static LoveDocumentation read(@NotNull InputStream input, int maxCachedDocs) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(input));
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a LOVE documentation resource");
+        }
+        int version = in.readUnsignedShort();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Unsupported LOVE documentation format " + version);
+        }
+
+        int count = in.readInt();
+        int[] nameOffsets = readOffsets(in, count);
+        byte[] nameBlob = new byte[nameOffsets[count]];
+        in.readFully(nameBlob);
+        String[] names = new String[count];
+        for (int i = 0; i < count; i++) {
+            names[i] = new String(nameBlob, nameOffsets[i], nameOffsets[i + 1] - nameOffsets[i],
+                    StandardCharsets.UTF_8);
+            if (i > 0 && names[i - 1].compareTo(names[i]) >= 0) {
+                throw new IOException("LOVE documentation names are not sorted at " + names[i]);
+            }
+        }
+
+        int[] htmlOffsets = readOffsets(in, count);
+        byte[] html = new byte[htmlOffsets[count]];
+        in.readFully(html);
+        return new LoveDocumentation(names, htmlOffsets, html, maxCachedDocs);
+    }
+
+    private static int[] readOffsets(@NotNull DataInputStream in, int count) throws IOException {
+        int[] offsets = new int[count + 1];
+        for (int i = 0; i <= count; i++) {
+            offsets[i] = in.readInt();
+        }
+        return offsets;
+    }
+
+    private static LoveDocumentation load() {
+        try (InputStream input = LoveDocumentation.class.getResourceAsStream(RESOURCE)) {
+            if (input == null) {
+                throw new IllegalStateException("LOVE documentation resource not found: " + RESOURCE);
+            }
+            return read(input, MAX_CACHED_DOCS);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read the LOVE documentation", e);
+        }
+    }
+
+    /**
+     * Defers reading the resource until documentation is first requested.
+     */
+    private static final class Holder {
+        private static final LoveDocumentation INSTANCE = load();
+    }
+}
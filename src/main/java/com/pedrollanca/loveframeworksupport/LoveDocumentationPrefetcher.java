@@ -0,0 +1,172 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 - Pedro Chamorro Llanca
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.pedrollanca.loveframeworksupport;
+
+import com.intellij.codeInsight.lookup.Lookup;
+import com.intellij.codeInsight.lookup.LookupElement;
+import com.intellij.codeInsight.lookup.LookupEvent;
+import com.intellij.codeInsight.lookup.LookupListener;
+import com.intellij.codeInsight.lookup.LookupManagerListener;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Warms the documentation of the LOVE completion items around the selection while the completion popup is open.
+ *
+ * <p>Whenever the selection moves, the documentation of the selected item and its {@value #NEIGHBOURS} neighbours on
+ * either side is loaded into the {@link LoveDocumentation} cache on a single background thread, nearest items first,
+ * so the quick documentation popup finds it ready. Every selection change makes the work queued for the previous
+ * one stale: it stops before the next item instead of competing with the new selection.
+ */
+public final class LoveDocumentationPrefetcher implements LookupManagerListener {
+
+    /**
+     * Number of items on either side of the selection whose documentation is prefetched.
+     */
+    static final int NEIGHBOURS = 3;
+
+    /**
+     * Shared by all projects; a single thread keeps prefetching from competing with the IDE for more than one core.
+     */
+    private static final Executor EXECUTOR =
+            AppExecutorUtil.createBoundedApplicationPoolExecutor("LÖVE Documentation Prefetch", 1);
+
+    private final Executor executor;
+    private final Consumer<String> loader;
+    private final AtomicLong generation = new AtomicLong();
+
+    public LoveDocumentationPrefetcher() {
+        this(EXECUTOR, LoveDocumentationProvider::prefetch);
+    }
+
+    LoveDocumentationPrefetcher(@NotNull Executor executor, @NotNull Consumer<String> loader) {
+        this.executor = executor;
+        this.loader = loader;
+    }
+
+    @Override
+    public void activeLookupChanged(@Nullable Lookup oldLookup, @Nullable Lookup newLookup) {
+        if (newLookup == null) {
+            cancel();
+            return;
+        }
+        newLookup.addLookupListener(new LookupListener() {
+            @Override
+            public void currentItemChanged(@NotNull LookupEvent event) {
+                Lookup lookup = event.getLookup();
+                selectionChanged(lookup.getItems(), lookup.getCurrentItem());
+            }
+
+            @Override
+            public void itemSelected(@NotNull LookupEvent event) {
+                cancel();
+            }
+
+            @Override
+            public void lookupCanceled(@NotNull LookupEvent event) {
+                cancel();
+            }
+        });
+    }
+
+    /**
+     * Prefetches the documentation around the selected item, replacing the work queued for the previous selection.
+     *
+     * @param items    the items of the popup, in display order
+     * @param selected the selected item, or null if there is none
+     */
+    void selectionChanged(@NotNull List<LookupElement> items, @Nullable LookupElement selected) {
+        int index = selected == null ? -1 : items.indexOf(selected);
+        prefetch(getNamesToPrefetch(items, index, NEIGHBOURS));
+    }
+
+    /**
+     * Queues loading the documentation of the given names, in order, and makes all previously queued work stale.
+     *
+     * @param names the qualified names to prefetch
+     */
+    void prefetch(@NotNull List<String> names) {
+        long current = generation.incrementAndGet();
+        if (names.isEmpty()) {
+            return;
+        }
+        executor.execute(() -> {
+            for (String name : names) {
+                if (generation.get() != current) {
+                    return;
+                }
+                loader.accept(name);
+            }
+        });
+    }
+
+    /**
+     * Makes all queued work stale, e.g. once the popup is closed.
+     */
+    void cancel() {
+        generation.incrementAndGet();
+    }
+
+    /**
+     * Returns the qualified names of the LOVE items around the selection: the selected item first, then its
+     * neighbours by increasing distance, the one below before the one above.
+     *
+     * @param items      the items of the popup, in display order
+     * @param selected   the index of the selected item, or -1 if there is none
+     * @param neighbours the number of items on either side to include
+     * @return the qualified names; items other than LOVE completions are left out
+     */
+    @NotNull
+    static List<String> getNamesToPrefetch(@NotNull List<LookupElement> items, int selected, int neighbours) {
+        if (selected < 0 || selected >= items.size()) {
+            return Collections.emptyList();
+        }
+        List<String> names = new ArrayList<>(2 * neighbours + 1);
+        addName(names, items.get(selected));
+        for (int distance = 1; distance <= neighbours; distance++) {
+            if (selected + distance < items.size()) {
+                addName(names, items.get(selected + distance));
+            }
+            if (selected - distance >= 0) {
+                addName(names, items.get(selected - distance));
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Adds the qualified name of a LOVE completion item; its lookup object is the qualified name.
+     */
+    private static void addName(@NotNull List<String> names, @NotNull LookupElement item) {
+        if (item.getObject() instanceof String name && name.startsWith(LoveCompletionContext.LOVE_ROOT + ".")) {
+            names.add(name);
+        }
+    }
+}
@@ -24,6 +24,9 @@ package com.pedrollanca.loveframeworksupport;
 import com.intellij.lang.documentation.DocumentationProvider;
 import com.intellij.openapi.util.text.StringUtil;
 import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiManager;
+import com.intellij.psi.impl.FakePsiElement;
+import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.List;
@@ -52,12 +55,100 @@ public class LoveDocumentationProvider implements DocumentationProvider {
     @Nullable
     @Override
     public String generateDoc(PsiElement element, @Nullable PsiElement originalElement) {
-        if (element.getText().startsWith("love")) {
-            // Mock example of a documentation snippet
-            return "<b>LOVE Framework:</b> " + StringUtil.escapeXmlEntities(element.getText())
-                    + "<br>Online documentation: <a href='https://love2d.org/wiki/" + element.getText() + "'>"
-                    + "https://love2d.org/wiki/" + element.getText() + "</a>";
+        String text = element.getText();
+        if (text.startsWith("love")) {
+            // Bundled reference first, so the common names need no browser
+            String html = LoveDocumentation.getInstance().getHtml(text);
+            if (html == null) {
+                html = "<b>LOVE Framework:</b> " + StringUtil.escapeXmlEntities(text);
+            }
+            return html
+                    + getAvailability(text, LoveProjectSettings.getVersion(element.getProject()))
+                    + "<br>Online documentation: <a href='https://love2d.org/wiki/" + text + "'>"
+                    + "https://love2d.org/wiki/" + text + "</a>";
+        }
+        return null;
+    }
+
+    @Nullable
+    @Override
+    public PsiElement getDocumentationElementForLookupItem(PsiManager psiManager, Object object, PsiElement element) {
+        // The lookup object of a LOVE completion item is its qualified name, see LoveElements
+        if (element != null && object instanceof String qualifiedName
+                && qualifiedName.startsWith(LoveCompletionContext.LOVE_ROOT + ".")) {
+            return new LookupItemElement(element, qualifiedName);
         }
         return null;
     }
-}
\ No newline at end of file
+
+    /**
+     * Loads the bundled documentation of a qualified name ahead of a request, see
+     * {@link LoveDocumentationPrefetcher}.
+     *
+     * @param qualifiedName the qualified name, e.g. 'love.graphics.draw'
+     */
+    static void prefetch(@NotNull String qualifiedName) {
+        LoveDocumentation.getInstance().getHtml(qualifiedName);
+    }
+
+    /**
+     * Describes in which LOVE versions a 'love.&lt;module&gt;.&lt;function&gt;' reference exists, if not in all.
+     *
+     * @param text   the qualified name
+     * @param target the version the project targets
+     * @return an HTML fragment starting with a line break, or an empty string
+     */
+    static String getAvailability(String text, LoveVersion target) {
+        String root = LoveCompletionContext.LOVE_ROOT + ".";
+        int moduleEnd = text.indexOf('.', root.length());
+        if (!text.startsWith(root) || moduleEnd < 0) {
+            return "";
+        }
+        String moduleKey = LoveCompletionContext.findModuleKey(text, root.length(), moduleEnd);
+        if (moduleKey == null) {
+            return "";
+        }
+        int versions = LoveFunctionNames.getInstance().getVersions(moduleKey, text, moduleEnd + 1, text.length());
+        if (versions == 0 || versions == LoveVersion.ALL) {
+            return "";
+        }
+        StringBuilder builder = new StringBuilder("<br>Available in:");
+        for (LoveVersion version : LoveVersion.values()) {
+            if (version.isIn(versions)) {
+                builder.append(' ').append(version.getId());
+            }
+        }
+        if (!target.isIn(versions)) {
+            builder.append(" (not in ").append(target).append(", the version of this project)");
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Stands for a LOVE completion item while its documentation is shown; its text is the qualified name.
+     */
+    private static final class LookupItemElement extends FakePsiElement {
+        private final PsiElement context;
+        private final String qualifiedName;
+
+        LookupItemElement(@NotNull PsiElement context, @NotNull String qualifiedName) {
+            this.context = context;
+            this.qualifiedName = qualifiedName;
+        }
+
+        @Override
+        public PsiElement getParent() {
+            return context;
+        }
+
+        @Override
+        public String getText() {
+            return qualifiedName;
+        }
+
+        @Override
+        public String getName() {
+            return qualifiedName;
+        }
+    }
+}
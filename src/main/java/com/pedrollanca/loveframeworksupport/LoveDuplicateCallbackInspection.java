@@ -0,0 +1,81 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 - Pedro Chamorro Llanca
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.pedrollanca.loveframeworksupport;
+
+import com.intellij.codeInspection.InspectionManager;
+import com.intellij.codeInspection.LocalInspectionTool;
+import com.intellij.codeInspection.ProblemDescriptor;
+import com.intellij.codeInspection.ProblemHighlightType;
+import com.intellij.openapi.util.TextRange;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.search.GlobalSearchScope;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reports LOVE callbacks defined more than once in the project, such as two 'function love.update(dt)'. LOVE calls
+ * only the definition loaded last, so the logic of the others is silently dropped.
+ *
+ * <p>The definitions of the inspected file are found by scanning its text; how often each callback is defined in
+ * the project is looked up in the {@link LoveCallbackIndex}.
+ */
+public class LoveDuplicateCallbackInspection extends LocalInspectionTool {
+
+    @Nullable
+    @Override
+    public ProblemDescriptor[] checkFile(@NotNull PsiFile file, @NotNull InspectionManager manager,
+                                         boolean isOnTheFly) {
+        if (!PluginUtils.isLuaFile(file)) {
+            return null;
+        }
+        Map<String, int[]> definitions = LoveCallbackIndex.index(file.getViewProvider().getContents());
+        if (definitions.isEmpty()) {
+            return null;
+        }
+        GlobalSearchScope scope = GlobalSearchScope.projectScope(file.getProject());
+        List<ProblemDescriptor> problems = new ArrayList<>();
+        definitions.forEach((callback, offsets) -> {
+            int count = Math.max(offsets.length, LoveCallbackIndex.countDefinitions(callback, scope));
+            if (count < 2) {
+                return;
+            }
+            for (int offset : offsets) {
+                problems.add(manager.createProblemDescriptor(file,
+                        TextRange.create(offset, offset + callback.length()), getMessage(callback, count),
+                        ProblemHighlightType.GENERIC_ERROR_OR_WARNING, isOnTheFly));
+            }
+        });
+        return problems.isEmpty() ? null : problems.toArray(ProblemDescriptor.EMPTY_ARRAY);
+    }
+
+    /**
+     * Returns the problem description of a callback defined more than once.
+     */
+    @NotNull
+    static String getMessage(@NotNull String callback, int count) {
+        return "'" + callback + "' is defined " + count + " times in the project; only the last one loaded is called";
+    }
+}
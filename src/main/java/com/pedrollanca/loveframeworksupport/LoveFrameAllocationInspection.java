@@ -0,0 +1,103 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 - Pedro Chamorro Llanca
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.pedrollanca.loveframeworksupport;
+
+import com.intellij.codeInspection.InspectionManager;
+import com.intellij.codeInspection.LocalInspectionTool;
+import com.intellij.codeInspection.LocalQuickFix;
+import com.intellij.codeInspection.ProblemDescriptor;
+import com.intellij.codeInspection.ProblemHighlightType;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.TextRange;
+import com.intellij.psi.PsiDocumentManager;
+import com.intellij.psi.PsiFile;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reports allocations that happen every frame: table constructors, function expressions and string concatenations
+ * in love.update and love.draw and in the functions of the same file they call. The garbage they produce is
+ * collected in pauses that show up as dropped frames.
+ *
+ * <p>Constant tables, such as a color, can be moved to file scope by a quick-fix if they are only read. The analysis
+ * is done by {@link LoveFrameAnalysis} and cached until the file changes.
+ */
+public class LoveFrameAllocationInspection extends LocalInspectionTool {
+
+    @Nullable
+    @Override
+    public ProblemDescriptor[] checkFile(@NotNull PsiFile file, @NotNull InspectionManager manager,
+                                         boolean isOnTheFly) {
+        if (!PluginUtils.isLuaFile(file)) {
+            return null;
+        }
+        LoveFrameAnalysis analysis = LoveFrameAnalysis.getInstance(file);
+        List<LoveFrameAnalysis.FrameAllocation> allocations = analysis.getFrameAllocations();
+        if (allocations.isEmpty()) {
+            return null;
+        }
+        List<ProblemDescriptor> problems = new ArrayList<>(allocations.size());
+        for (LoveFrameAnalysis.FrameAllocation frameAllocation : allocations) {
+            LoveFrameAnalysis.Allocation allocation = frameAllocation.allocation;
+            LocalQuickFix[] fixes = allocation.constant && analysis.canHoist(allocation.start)
+                    ? new LocalQuickFix[]{new HoistTableFix()}
+                    : LocalQuickFix.EMPTY_ARRAY;
+            problems.add(manager.createProblemDescriptor(file, TextRange.create(allocation.start, allocation.end),
+                    frameAllocation.getMessage(), ProblemHighlightType.GENERIC_ERROR_OR_WARNING, isOnTheFly, fixes));
+        }
+        return problems.toArray(ProblemDescriptor.EMPTY_ARRAY);
+    }
+
+    /**
+     * Moves a constant table constructor into a local declared at file scope, before the function using it.
+     */
+    private static final class HoistTableFix implements LocalQuickFix {
+
+        @NotNull
+        @Override
+        public String getFamilyName() {
+            return "Move constant table to file scope";
+        }
+
+        @Override
+        public void applyFix(@NotNull Project project, @NotNull ProblemDescriptor descriptor) {
+            PsiFile file = descriptor.getPsiElement().getContainingFile();
+            Document document = file == null ? null : PsiDocumentManager.getInstance(project).getDocument(file);
+            if (document == null) {
+                return;
+            }
+            int tableStart = descriptor.getTextRangeInElement().getStartOffset();
+            LoveFrameAnalysis.Hoist hoist = LoveFrameAnalysis.analyze(document.getCharsSequence())
+                    .planHoist(tableStart);
+            if (hoist == null) {
+                return;
+            }
+            // The declaration goes before the table, so replace the table first
+            document.replaceString(hoist.tableStart, hoist.tableEnd, hoist.name);
+            document.insertString(hoist.insertOffset, hoist.declaration);
+        }
+    }
+}
@@ -0,0 +1,1316 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 - Pedro Chamorro Llanca
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.pedrollanca.loveframeworksupport;
+
+import com.intellij.openapi.util.Key;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Finds the work done every frame in a Lua file: the allocations (table constructors, function expressions and string
+ * concatenations) and the resource constructions (such as love.graphics.newImage) in the bodies of love.update and
+ * love.draw, and in the functions of the same file they call.
+ *
+ * <p>Functions are found by a block scan over the {@link LoveLuaTokens} of the file. The allocations and calls of
+ * a function are summarized the first time the function is reached, and the analysis of a file is cached until the
+ * file changes, see {@link #getInstance}. Calls are followed up to {@link #MAX_CALL_DEPTH} levels and only to
+ * functions defined in the same file.
+ */
+final class LoveFrameAnalysis {
+
+    /**
+     * The callbacks LOVE calls every frame.
+     */
+    static final List<String> FRAME_CALLBACKS = List.of("love.update", "love.draw");
+
+    /**
+     * How many calls away from a frame callback functions are still analyzed.
+     */
+    static final int MAX_CALL_DEPTH = 3;
+
+    private static final Key<CachedValue<LoveFrameAnalysis>> ANALYSIS_KEY = Key.create("love.frame.analysis");
+
+    private static final String SELF = "self";
+
+    static final String LOAD_CALLBACK = "love.load";
+
+    /**
+     * The modules whose 'new' functions load or create resources, such as images, fonts, shaders and sources.
+     */
+    private static final List<String> RESOURCE_MODULES = List.of(LoveTypes.GRAPHICS_KEY, LoveTypes.AUDIO_KEY,
+            LoveTypes.FONT_KEY, LoveTypes.IMAGE_KEY, LoveTypes.SOUND_KEY, LoveTypes.VIDEO_KEY);
+
+    /**
+     * The LOVE functions that only read the tables passed to them and don't keep them, by module key and name.
+     */
+    private static final Set<String> READING_FUNCTIONS = Set.of("graphics.clear", "graphics.line",
+            "graphics.points", "graphics.polygon", "graphics.print", "graphics.printf", "graphics.setBackgroundColor",
+            "graphics.setColor");
+
+    /**
+     * The indentation added for a nested block by rewrites.
+     */
+    static final String INDENT = "    ";
+
+    /**
+     * The kinds of allocation reported.
+     */
+    enum Kind {
+        TABLE("Table constructor", "allocates a new table"),
+        CLOSURE("Function expression", "creates a new closure"),
+        CONCATENATION("String concatenation", "allocates a new string");
+
+        private final String subject;
+        private final String effect;
+
+        Kind(String subject, String effect) {
+            this.subject = subject;
+            this.effect = effect;
+        }
+    }
+
+    /**
+     * A function defined in the file.
+     */
+    static final class Function {
+        /**
+         * The name, such as 'love.update', 'helper' or 'Player:draw', null for an anonymous function.
+         */
+        @Nullable
+        final String name;
+        /**
+         * The index of the enclosing function, -1 at file scope.
+         */
+        final int parent;
+        /**
+         * The token index of the 'function' keyword.
+         */
+        final int keyword;
+        /**
+         * The token index of the first token after the parameter list.
+         */
+        final int bodyStart;
+        /**
+         * The token index of the closing 'end', the token count if it is missing.
+         */
+        int bodyEnd;
+
+        Function(@Nullable String name, int parent, int keyword, int bodyStart, int bodyEnd) {
+            this.name = name;
+            this.parent = parent;
+            this.keyword = keyword;
+            this.bodyStart = bodyStart;
+            this.bodyEnd = bodyEnd;
+        }
+    }
+
+    /**
+     * An allocating expression in the body of a function.
+     */
+    static final class Allocation {
+        final Kind kind;
+        final int start;
+        final int end;
+        /**
+         * True for a table constructor holding nothing but literals, which can be created once at file scope.
+         */
+        final boolean constant;
+
+        Allocation(@NotNull Kind kind, int start, int end, boolean constant) {
+            this.kind = kind;
+            this.start = start;
+            this.end = end;
+            this.constant = constant;
+        }
+    }
+
+    /**
+     * An allocation reached from a frame callback.
+     */
+    static final class FrameAllocation {
+        final Allocation allocation;
+        /**
+         * The frame callback the allocation is reached from.
+         */
+        final String callback;
+        /**
+         * The function containing the allocation, null if it is the callback itself.
+         */
+        @Nullable
+        final String function;
+
+        FrameAllocation(@NotNull Allocation allocation, @NotNull String callback, @Nullable String function) {
+            this.allocation = allocation;
+            this.callback = callback;
+            this.function = function;
+        }
+
+        /**
+         * Returns the problem description, e.g. "Table constructor in 'love.draw' allocates a new table every
+         * frame".
+         *
+         * @return the message
+         */
+        @NotNull
+        String getMessage() {
+            Kind kind = allocation.kind;
+            if (function == null) {
+                return kind.subject + " in '" + callback + "' " + kind.effect + " every frame";
+            }
+            return kind.subject + " in '" + function + "', called from '" + callback + "', " + kind.effect
+                    + " every frame";
+        }
+    }
+
+    /**
+     * A call of a resource constructor, such as 'love.graphics.newImage("player.png")'.
+     */
+    static final class Construction {
+        /**
+         * The qualified name of the constructor, also when it is called through an alias such as 'lg.newImage'.
+         */
+        final String qualifiedName;
+        final int start;
+        final int end;
+
+        Construction(@NotNull String qualifiedName, int start, int end) {
+            this.qualifiedName = qualifiedName;
+            this.start = start;
+            this.end = end;
+        }
+    }
+
+    /**
+     * A resource construction reached from a frame callback.
+     */
+    static final class FrameConstruction {
+        final Construction construction;
+        /**
+         * The frame callback the construction is reached from.
+         */
+        final String callback;
+        /**
+         * The function containing the construction, null if it is the callback itself.
+         */
+        @Nullable
+        final String function;
+
+        FrameConstruction(@NotNull Construction construction, @NotNull String callback, @Nullable String function) {
+            this.construction = construction;
+            this.callback = callback;
+            this.function = function;
+        }
+
+        /**
+         * Returns the problem description, e.g. "'love.graphics.newImage' in 'love.draw' creates a new resource
+         * every frame".
+         *
+         * @return the message
+         */
+        @NotNull
+        String getMessage() {
+            String where = function == null ? "'" + callback + "'" : "'" + function + "', called from '" + callback
+                    + "',";
+            return "'" + construction.qualifiedName + "' in " + where + " creates a new resource every frame";
+        }
+    }
+
+    /**
+     * Replacements of text ranges, sorted by descending offset so that they can be applied one after the other.
+     */
+    static final class Rewrite {
+        final List<Edit> edits;
+
+        Rewrite(@NotNull List<Edit> edits) {
+            edits.sort(Comparator.comparingInt((Edit edit) -> edit.start).reversed());
+            this.edits = Collections.unmodifiableList(edits);
+        }
+
+        /**
+         * Applies the rewrite to the text it was planned on.
+         *
+         * @param text the source
+         * @return the rewritten source
+         */
+        @NotNull
+        String apply(@NotNull CharSequence text) {
+            StringBuilder result = new StringBuilder(text);
+            for (Edit edit : edits) {
+                result.replace(edit.start, edit.end, edit.replacement);
+            }
+            return result.toString();
+        }
+    }
+
+    /**
+     * The replacement of a text range, an insertion if the range is empty.
+     */
+    static final class Edit {
+        final int start;
+        final int end;
+        final String replacement;
+
+        Edit(int start, int end, @NotNull String replacement) {
+            this.start = start;
+            this.end = end;
+            this.replacement = replacement;
+        }
+    }
+
+    /**
+     * Moving a constant table constructor into a file scope local.
+     */
+    static final class Hoist {
+        final String name;
+        /**
+         * Where the declaration is inserted: the start of the line of the outermost function around the table.
+         */
+        final int insertOffset;
+        final String declaration;
+        final int tableStart;
+        final int tableEnd;
+
+        Hoist(@NotNull String name, int insertOffset, @NotNull String declaration, int tableStart, int tableEnd) {
+            this.name = name;
+            this.insertOffset = insertOffset;
+            this.declaration = declaration;
+            this.tableStart = tableStart;
+            this.tableEnd = tableEnd;
+        }
+
+        /**
+         * Applies the hoist to the text it was planned on.
+         *
+         * @param text the source
+         * @return the source with the table replaced by the local and the local declared
+         */
+        @NotNull
+        String apply(@NotNull CharSequence text) {
+            return text.subSequence(0, insertOffset) + declaration + text.subSequence(insertOffset, tableStart) + name
+                    + text.subSequence(tableEnd, text.length());
+        }
+    }
+
+    /**
+     * The allocations and calls of one function.
+     */
+    private static final class Summary {
+        final List<Allocation> allocations;
+        final List<Construction> constructions;
+        final int[] callees;
+
+        Summary(List<Allocation> allocations, List<Construction> constructions, int[] callees) {
+            this.allocations = allocations;
+            this.constructions = constructions;
+            this.callees = callees;
+        }
+    }
+
+    /**
+     * Receives the functions reached from the frame callbacks.
+     */
+    @FunctionalInterface
+    private interface FrameVisitor {
+        void visit(int index, @NotNull Summary summary, @NotNull String callback, @Nullable String function);
+    }
+
+    private final LoveLuaTokens tokens;
+    private final List<Function> functions;
+    private final Map<String, Integer> functionsByName;
+    private final AtomicReferenceArray<Summary> summaries;
+    private volatile LoveAliases aliases;
+    private volatile List<FrameAllocation> frameAllocations;
+    private volatile List<FrameConstruction> frameConstructions;
+
+    private LoveFrameAnalysis(@NotNull LoveLuaTokens tokens, @NotNull List<Function> functions) {
+        this.tokens = tokens;
+        this.functions = functions;
+        this.functionsByName = new HashMap<>();
+        for (int i = 0; i < functions.size(); i++) {
+            String name = functions.get(i).name;
+            if (name != null) {
+                // Lua keeps the definition executed last
+                functionsByName.put(name, i);
+            }
+        }
+        this.summaries = new AtomicReferenceArray<>(functions.size());
+    }
+
+    /**
+     * Returns the analysis of a file, cached until the file changes.
+     *
+     * @param file a Lua file
+     * @return the analysis
+     */
+    @NotNull
+    static LoveFrameAnalysis getInstance(@NotNull PsiFile file) {
+        return CachedValuesManager.getCachedValue(file, ANALYSIS_KEY, () ->
+                CachedValueProvider.Result.create(analyze(file.getViewProvider().getContents()), file));
+    }
+
+    /**
+     * Finds the functions of a Lua source. Their bodies are summarized lazily.
+     *
+     * @param text the source
+     * @return the analysis
+     */
+    @NotNull
+    static LoveFrameAnalysis analyze(@NotNull CharSequence text) {
+        LoveLuaTokens tokens = LoveLuaTokens.tokenize(text);
+        List<Function> functions = new ArrayList<>();
+        // Open blocks: the index of a function, or -1 for 'if', 'do' and 'repeat'
+        int[] blocks = new int[16];
+        int depth = 0;
+        int size = tokens.size();
+        for (int i = 0; i < size; i++) {
+            if (tokens.getType(i) != LoveLuaTokens.NAME) {
+                continue;
+            }
+            int block;
+            if (tokens.is(i, "function")) {
+                Function function = readFunction(tokens, i, innermostFunction(blocks, depth));
+                functions.add(function);
+                block = functions.size() - 1;
+                i = function.bodyStart - 1;
+            } else if (tokens.is(i, "if") || tokens.is(i, "do") || tokens.is(i, "repeat")) {
+                block = -1;
+            } else {
+                if ((tokens.is(i, "end") || tokens.is(i, "until")) && depth > 0) {
+                    int closed = blocks[--depth];
+                    if (closed >= 0) {
+                        functions.get(closed).bodyEnd = i;
+                    }
+                }
+                continue;
+            }
+            if (depth == blocks.length) {
+                blocks = Arrays.copyOf(blocks, depth * 2);
+            }
+            blocks[depth++] = block;
+        }
+        return new LoveFrameAnalysis(tokens, Collections.unmodifiableList(functions));
+    }
+
+    /**
+     * Returns the tokens of the file.
+     *
+     * @return the tokens
+     */
+    @NotNull
+    LoveLuaTokens getTokens() {
+        return tokens;
+    }
+
+    /**
+     * Returns the functions of the file in source order.
+     *
+     * @return the functions
+     */
+    @NotNull
+    List<Function> getFunctions() {
+        return functions;
+    }
+
+    /**
+     * Returns the allocations in the body of a function, not counting the bodies of functions nested in it.
+     *
+     * @param function the index of the function
+     * @return the allocations in source order
+     */
+    @NotNull
+    List<Allocation> getAllocations(int function) {
+        return getSummary(function).allocations;
+    }
+
+    /**
+     * Returns the allocations reached from the frame callbacks, each reported once.
+     *
+     * @return the allocations in source order
+     */
+    @NotNull
+    List<FrameAllocation> getFrameAllocations() {
+        List<FrameAllocation> result = frameAllocations;
+        if (result == null) {
+            List<FrameAllocation> found = new ArrayList<>();
+            visitFrameFunctions((index, summary, callback, function) -> {
+                for (Allocation allocation : summary.allocations) {
+                    found.add(new FrameAllocation(allocation, callback, function));
+                }
+            });
+            found.sort(Comparator.comparingInt(allocation -> allocation.allocation.start));
+            result = Collections.unmodifiableList(found);
+            frameAllocations = result;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the resource constructions reached from the frame callbacks, each reported once.
+     *
+     * @return the constructions in source order
+     */
+    @NotNull
+    List<FrameConstruction> getFrameConstructions() {
+        List<FrameConstruction> result = frameConstructions;
+        if (result == null) {
+            List<FrameConstruction> found = new ArrayList<>();
+            visitFrameFunctions((index, summary, callback, function) -> {
+                for (Construction construction : summary.constructions) {
+                    found.add(new FrameConstruction(construction, callback, function));
+                }
+            });
+            found.sort(Comparator.comparingInt(construction -> construction.construction.start));
+            result = Collections.unmodifiableList(found);
+            frameConstructions = result;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the frame callbacks and the functions of the file they call, with the callback each is reached from.
+     *
+     * @return the callbacks by function index, in the order the functions are reached
+     */
+    @NotNull
+    Map<Integer, String> getFrameFunctions() {
+        Map<Integer, String> result = new LinkedHashMap<>();
+        visitFrameFunctions((index, summary, callback, function) -> result.put(index, callback));
+        return result;
+    }
+
+    /**
+     * Plans moving the resource construction starting at the given offset into love.load, keeping the resource in
+     * a local declared at file scope. 'local image = love.graphics.newImage("a.png")' is moved as a whole, a
+     * construction inside an expression is replaced by the local. Only constructions whose arguments are literals
+     * are moved, anything else may depend on the frame.
+     *
+     * @param start      the start offset of the construction
+     * @param createLoad whether love.load may be created if the file doesn't define it; false when another file
+     *                   defines it, since a second definition would replace that one
+     * @return the rewrite, or null if the construction cannot be moved
+     */
+    @Nullable
+    Rewrite planMoveToLoad(int start, boolean createLoad) {
+        int first = findToken(start);
+        int function = first < 0 ? -1 : findEnclosingFunction(first);
+        Construction construction = null;
+        if (function >= 0) {
+            for (Construction candidate : getSummary(function).constructions) {
+                if (candidate.start == start) {
+                    construction = candidate;
+                }
+            }
+        }
+        if (construction == null) {
+            return null;
+        }
+        int open = first;
+        while (tokens.is(open + 1, ".")) {
+            open += 2;
+        }
+        open++;
+        int close = tokens.findClosing(open);
+        if (!tokens.is(open, "(") || close == tokens.size() || !holdsOnlyLiterals(open, close)) {
+            return null;
+        }
+        int outermost = function;
+        while (functions.get(outermost).parent >= 0) {
+            outermost = functions.get(outermost).parent;
+        }
+        CharSequence text = tokens.getText();
+        String call = text.subSequence(construction.start, construction.end).toString();
+        List<Edit> edits = new ArrayList<>();
+
+        String name;
+        if (tokens.is(first - 1, "=") && tokens.isIdentifier(first - 2) && tokens.is(first - 3, "local")
+                && !tokens.is(first - 4, ",") && endsStatement(close + 1)) {
+            name = tokens.getTokenText(first - 2);
+            if (isUsedOutside(name, functions.get(outermost))) {
+                return null;
+            }
+            edits.add(removeStatement(tokens.getStart(first - 3), construction.end));
+        } else {
+            String constructor = construction.qualifiedName.substring(construction.qualifiedName.lastIndexOf('.') + 4);
+            name = uniqueName(Character.toLowerCase(constructor.charAt(0)) + constructor.substring(1));
+            edits.add(new Edit(construction.start, construction.end, name));
+        }
+
+        Integer load = functionsByName.get(LOAD_CALLBACK);
+        int anchor = tokens.getStart(functions.get(outermost).keyword);
+        if (load == null) {
+            if (!createLoad) {
+                return null;
+            }
+            edits.add(new Edit(lineStart(text, anchor), lineStart(text, anchor), "local " + name + "\n\n"
+                    + "function " + LOAD_CALLBACK + "()\n" + INDENT + name + " = " + call + "\nend\n\n"));
+            return new Rewrite(edits);
+        }
+        Function loadFunction = functions.get(load);
+        if (loadFunction.bodyEnd == tokens.size()) {
+            return null;
+        }
+        anchor = Math.min(anchor, tokens.getStart(loadFunction.keyword));
+        edits.add(new Edit(lineStart(text, anchor), lineStart(text, anchor), "local " + name + "\n"));
+        int end = tokens.getStart(loadFunction.bodyEnd);
+        int endLine = lineStart(text, end);
+        if (isBlank(text, endLine, end)) {
+            String indentation = text.subSequence(endLine, end).toString();
+            edits.add(new Edit(endLine, endLine, indentation + INDENT + name + " = " + call + "\n"));
+        } else {
+            edits.add(new Edit(end, end, name + " = " + call + " "));
+        }
+        return new Rewrite(edits);
+    }
+
+    /**
+     * Plans moving the constant table constructor starting at the given offset to file scope.
+     *
+     * @param tableStart the offset of the '{'
+     * @return the hoist, or null if there is no constant table inside a function at the offset or it may be modified
+     */
+    @Nullable
+    Hoist planHoist(int tableStart) {
+        int open = findToken(tableStart);
+        int outermost = findHoistTarget(open);
+        if (outermost < 0) {
+            return null;
+        }
+        int close = tokens.findClosing(open);
+        CharSequence text = tokens.getText();
+        String name = uniqueName(suggestName(open));
+        int insertOffset = lineStart(text, tokens.getStart(functions.get(outermost).keyword));
+        int tableEnd = tokens.getEnd(close);
+        String declaration = "local " + name + " = " + text.subSequence(tableStart, tableEnd) + "\n\n";
+        return new Hoist(name, insertOffset, declaration, tableStart, tableEnd);
+    }
+
+    /**
+     * Checks whether the table constructor starting at the given offset can be moved to file scope, see
+     * {@link #planHoist(int)}.
+     *
+     * @param tableStart the offset of the '{'
+     * @return true if a hoist can be planned
+     */
+    boolean canHoist(int tableStart) {
+        return findHoistTarget(findToken(tableStart)) >= 0;
+    }
+
+    /**
+     * Returns the index of the outermost function around a constant table that can be shared between calls, or -1.
+     * The table is shared only if it is passed directly to a LOVE function that doesn't keep it, or held by a local
+     * that is never assigned, written into, returned or passed on.
+     */
+    private int findHoistTarget(int open) {
+        if (open < 0 || !tokens.is(open, "{")) {
+            return -1;
+        }
+        int close = tokens.findClosing(open);
+        if (!isConstantTable(open, close)) {
+            return -1;
+        }
+        int function = findEnclosingFunction(open);
+        if (function < 0 || !isDirectArgument(open, close, functions.get(function).bodyStart)
+                && !isReadOnlyLocal(open, close, functions.get(function))) {
+            return -1;
+        }
+        while (functions.get(function).parent >= 0) {
+            function = functions.get(function).parent;
+        }
+        return function;
+    }
+
+    /**
+     * Checks whether the table is the value of a 'local name = {...}' statement and the local is only read: indexed,
+     * measured with '#' or passed directly to a LOVE function that doesn't keep it.
+     */
+    private boolean isReadOnlyLocal(int open, int close, @NotNull Function function) {
+        if (!tokens.is(open - 1, "=") || !tokens.isIdentifier(open - 2) || !tokens.is(open - 3, "local")
+                || tokens.is(open - 4, ",") || !endsStatement(close + 1)) {
+            return false;
+        }
+        String name = tokens.getTokenText(open - 2);
+        for (int i = close + 1; i < function.bodyEnd; i++) {
+            if (!tokens.isIdentifier(i) || !tokens.is(i, name) || tokens.is(i - 1, ".") || tokens.is(i - 1, ":")) {
+                continue;
+            }
+            if (tokens.is(i - 1, "#") || isDirectArgument(i, i, function.bodyStart)) {
+                continue;
+            }
+            int last = i;
+            while (tokens.is(last + 1, ".") && tokens.isIdentifier(last + 2) || tokens.is(last + 1, "[")) {
+                last = tokens.is(last + 1, ".") ? last + 2 : tokens.findClosing(last + 1);
+            }
+            if (last == i || last == tokens.size() || tokens.is(last + 1, "=")) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks whether the expression from the first to the last token is an argument of its own of a LOVE function
+     * that only reads it, such as 'love.graphics.setColor(color)' or 'lg.polygon("fill", {0, 0, 1, 1})'. Any
+     * other function may keep the table, which would then be shared by every call.
+     *
+     * @param first the index of the first token
+     * @param last  the index of the last token
+     * @param limit the index of the first token searched for the opening parenthesis
+     */
+    private boolean isDirectArgument(int first, int last, int limit) {
+        int paren;
+        if (tokens.is(first, "{") && tokens.isIdentifier(first - 1)) {
+            paren = first;
+        } else if (!tokens.is(last + 1, ",") && !tokens.is(last + 1, ")")) {
+            return false;
+        } else if (tokens.is(first - 1, "(")) {
+            paren = first - 1;
+        } else if (tokens.is(first - 1, ",")) {
+            paren = findOpening(first - 1, limit);
+            if (paren < 0 || !tokens.is(paren, "(")) {
+                return false;
+            }
+        } else {
+            return false;
+        }
+        int callee = paren - 1;
+        String moduleKey = tokens.isIdentifier(callee) ? resolveModule(callee) : null;
+        return moduleKey != null && READING_FUNCTIONS.contains(moduleKey + "." + tokens.getTokenText(callee));
+    }
+
+    /**
+     * Returns the index of the innermost bracket left open before the given token, or -1 if there is none from the
+     * limit on.
+     */
+    private int findOpening(int index, int limit) {
+        int depth = 0;
+        for (int i = index; i >= limit; i--) {
+            if (tokens.getType(i) != LoveLuaTokens.SYMBOL || tokens.getEnd(i) - tokens.getStart(i) != 1) {
+                continue;
+            }
+            char c = tokens.getText().charAt(tokens.getStart(i));
+            if (c == ')' || c == ']' || c == '}') {
+                depth++;
+            } else if ((c == '(' || c == '[' || c == '{') && depth-- == 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Visits the frame callbacks and the functions they call, breadth-first so that a function is attributed to
+     * its shortest call path, each function once.
+     */
+    private void visitFrameFunctions(@NotNull FrameVisitor visitor) {
+        boolean[] visited = new boolean[functions.size()];
+        for (String callback : FRAME_CALLBACKS) {
+            Integer root = functionsByName.get(callback);
+            if (root == null || visited[root]) {
+                continue;
+            }
+            ArrayDeque<int[]> queue = new ArrayDeque<>();
+            queue.add(new int[]{root, 0});
+            visited[root] = true;
+            while (!queue.isEmpty()) {
+                int[] entry = queue.poll();
+                Summary summary = getSummary(entry[0]);
+                visitor.visit(entry[0], summary, callback, entry[0] == root ? null : functions.get(entry[0]).name);
+                if (entry[1] == MAX_CALL_DEPTH) {
+                    continue;
+                }
+                for (int callee : summary.callees) {
+                    if (!visited[callee]) {
+                        visited[callee] = true;
+                        queue.add(new int[]{callee, entry[1] + 1});
+                    }
+                }
+            }
+        }
+    }
+
+    private Summary getSummary(int function) {
+        Summary summary = summaries.get(function);
+        if (summary == null) {
+            summary = summarize(functions.get(function));
+            summaries.compareAndSet(function, null, summary);
+        }
+        return summary;
+    }
+
+    private Summary summarize(@NotNull Function function) {
+        List<Allocation> allocations = new ArrayList<>();
+        List<Construction> constructions = new ArrayList<>();
+        Set<Integer> callees = new LinkedHashSet<>();
+        int tableClose = -1;
+        int i = function.bodyStart;
+        while (i < function.bodyEnd) {
+            if (tokens.is(i, "function")) {
+                allocations.add(new Allocation(Kind.CLOSURE, tokens.getStart(i), tokens.getEnd(i), false));
+                // The body of a nested function runs when it is called, not when it is created
+                i = functions.get(findFunction(i)).bodyEnd + 1;
+                continue;
+            }
+            if (tokens.is(i, "{") && i > tableClose) {
+                // Tables nested in a constructor are part of its report
+                tableClose = tokens.findClosing(i);
+                int end = tokens.getEnd(Math.min(tableClose, tokens.size() - 1));
+                allocations.add(new Allocation(Kind.TABLE, tokens.getStart(i), end, isConstantTable(i, tableClose)));
+            } else if (tokens.is(i, "..")) {
+                int last = findConcatenationEnd(i, function.bodyEnd);
+                allocations.add(new Allocation(Kind.CONCATENATION, tokens.getStart(i), tokens.getEnd(last), false));
+                i = last + 1;
+                continue;
+            } else if (tokens.isIdentifier(i) && isCall(i)) {
+                String constructor = resolveConstructor(i);
+                if (constructor != null) {
+                    int close = tokens.is(i + 1, "(") || tokens.is(i + 1, "{") ? tokens.findClosing(i + 1) : i + 1;
+                    int end = tokens.getEnd(Math.min(close, tokens.size() - 1));
+                    constructions.add(new Construction(constructor, tokens.getStart(chainStart(i)), end));
+                }
+                int callee = resolveCallee(i);
+                if (callee >= 0) {
+                    callees.add(callee);
+                }
+            }
+            i++;
+        }
+        return new Summary(Collections.unmodifiableList(allocations), Collections.unmodifiableList(constructions),
+                callees.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    /**
+     * Returns the last '..' of the concatenation chain starting at the given '..', so that 'a .. b .. c', which
+     * builds a single string, is reported once.
+     */
+    private int findConcatenationEnd(int first, int limit) {
+        int last = first;
+        int depth = 0;
+        boolean operandEnded = false;
+        for (int i = first + 1; i < limit; i++) {
+            byte type = tokens.getType(i);
+            if (type == LoveLuaTokens.SYMBOL) {
+                char c = tokens.getText().charAt(tokens.getStart(i));
+                if (c == '(' || c == '[' || c == '{') {
+                    depth++;
+                    operandEnded = false;
+                    continue;
+                }
+                if (c == ')' || c == ']' || c == '}') {
+                    if (--depth < 0) {
+                        break;
+                    }
+                    operandEnded = depth == 0;
+                    continue;
+                }
+                if (depth > 0) {
+                    continue;
+                }
+                if (tokens.is(i, "..")) {
+                    last = i;
+                } else if (c == ',' || c == ';' || c == '=' || c == '<' || c == '>' || c == '~') {
+                    break;
+                }
+                operandEnded = false;
+            } else if (depth == 0) {
+                if (tokens.isKeyword(i) && !tokens.is(i, "nil") && !tokens.is(i, "true") && !tokens.is(i, "false")
+                        && !tokens.is(i, "not")) {
+                    break;
+                }
+                if (operandEnded && type != LoveLuaTokens.STRING) {
+                    // A name or number after a complete operand starts the next statement
+                    break;
+                }
+                operandEnded = true;
+            }
+        }
+        return last;
+    }
+
+    /**
+     * Checks whether the identifier at the given index is called: followed by '(', a string or a table.
+     */
+    private boolean isCall(int index) {
+        if (tokens.is(index - 1, "function")) {
+            return false;
+        }
+        return tokens.is(index + 1, "(") || tokens.is(index + 1, "{")
+                || index + 1 < tokens.size() && tokens.getType(index + 1) == LoveLuaTokens.STRING;
+    }
+
+    /**
+     * Resolves a call to a function of the file by its qualified name, such as 'helper()' or 'Player.move(p)'. A
+     * method called on 'self' resolves to the only method of that name in the file.
+     *
+     * @return the index of the called function, or -1
+     */
+    private int resolveCallee(int index) {
+        int start = chainStart(index);
+        if (tokens.is(start - 1, ".") || tokens.is(start - 1, ":")) {
+            // Member of an expression such as 'list[1].update()'
+            return -1;
+        }
+        Integer callee = functionsByName.get(chainName(start, index));
+        if (callee != null) {
+            return callee;
+        }
+        if (start + 2 != index || !tokens.is(start, SELF)) {
+            return -1;
+        }
+        String method = tokens.getTokenText(index);
+        int found = -1;
+        for (int i = 0; i < functions.size(); i++) {
+            String name = functions.get(i).name;
+            if (name != null && name.length() > method.length() && name.endsWith(method)
+                    && ":.".indexOf(name.charAt(name.length() - method.length() - 1)) >= 0) {
+                if (found >= 0) {
+                    return -1;
+                }
+                found = i;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Resolves a call to a resource constructor, written as 'love.graphics.newImage' or through a module alias
+     * such as 'lg.newImage'.
+     *
+     * @return the qualified name of the constructor, or null
+     */
+    @Nullable
+    private String resolveConstructor(int index) {
+        String moduleKey = resolveModule(index);
+        if (moduleKey == null || !RESOURCE_MODULES.contains(moduleKey)) {
+            return null;
+        }
+        String name = tokens.getTokenText(index);
+        return name.startsWith("new") && LoveApiCatalog.getInstance().getNames(moduleKey).contains(name)
+                ? LoveCompletionContext.LOVE_ROOT + "." + moduleKey + "." + name
+                : null;
+    }
+
+    /**
+     * Resolves the module of a LOVE function called by its identifier, written as 'love.graphics.draw' or through
+     * a module alias such as 'lg.draw'.
+     *
+     * @param index the token index of the function name
+     * @return the module key, or null if the identifier is not a function of a LOVE module
+     */
+    @Nullable
+    String resolveModule(int index) {
+        int start = chainStart(index);
+        if (start == index || tokens.is(start - 1, ".") || tokens.is(start - 1, ":") || tokens.is(index - 1, ":")) {
+            return null;
+        }
+        CharSequence text = tokens.getText();
+        if (start + 4 == index && tokens.is(start, LoveCompletionContext.LOVE_ROOT)) {
+            return LoveCompletionContext.findModuleKey(text, tokens.getStart(start + 2), tokens.getEnd(start + 2));
+        }
+        if (start + 2 == index) {
+            return getAliases().resolve(text, tokens.getStart(start), tokens.getEnd(start));
+        }
+        return null;
+    }
+
+    @NotNull
+    private LoveAliases getAliases() {
+        LoveAliases result = aliases;
+        if (result == null) {
+            result = LoveAliases.collect(tokens.getText());
+            aliases = result;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the index of the first identifier of the 'a.b:c' chain ending at the given identifier.
+     */
+    int chainStart(int index) {
+        int start = index;
+        while (tokens.isIdentifier(start - 2) && (tokens.is(start - 1, ".") || tokens.is(start - 1, ":"))) {
+            start -= 2;
+        }
+        return start;
+    }
+
+    /**
+     * Returns the index of the innermost function whose body contains the token, or -1.
+     */
+    int findEnclosingFunction(int token) {
+        int result = -1;
+        for (int i = 0; i < functions.size() && functions.get(i).keyword < token; i++) {
+            Function function = functions.get(i);
+            if (function.bodyStart <= token && token < function.bodyEnd) {
+                result = i;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Checks whether the tokens form a statement of their own, such as a call, and not part of an expression.
+     *
+     * @param first the index of the first token
+     * @param last  the index of the last token
+     * @return true for a statement
+     */
+    boolean isStatement(int first, int last) {
+        return startsStatement(first) && endsStatement(last + 1);
+    }
+
+    /**
+     * Checks whether a statement may start at the token, i.e. the token before it ends a statement or opens a block.
+     */
+    boolean startsStatement(int index) {
+        int previous = index - 1;
+        if (previous < 0) {
+            return true;
+        }
+        byte type = tokens.getType(previous);
+        if (type == LoveLuaTokens.STRING || type == LoveLuaTokens.NUMBER || tokens.isIdentifier(previous)) {
+            return true;
+        }
+        return tokens.is(previous, ";") || tokens.is(previous, ")") || tokens.is(previous, "]")
+                || tokens.is(previous, "}") || tokens.is(previous, "do") || tokens.is(previous, "then")
+                || tokens.is(previous, "else") || tokens.is(previous, "end") || tokens.is(previous, "repeat")
+                || tokens.is(previous, "true") || tokens.is(previous, "false") || tokens.is(previous, "nil");
+    }
+
+    /**
+     * Checks whether the token starts a new statement or ends the enclosing block, i.e. the expression before it
+     * is complete.
+     */
+    private boolean endsStatement(int index) {
+        if (index >= tokens.size() || tokens.is(index, ";")) {
+            return true;
+        }
+        return tokens.getType(index) == LoveLuaTokens.NAME && !tokens.is(index, "and") && !tokens.is(index, "or");
+    }
+
+    /**
+     * Returns the edit removing a statement, together with its line if nothing else is on it.
+     *
+     * @param start the start offset of the statement
+     * @param end   the end offset of the statement
+     * @return the edit
+     */
+    @NotNull
+    Edit removeStatement(int start, int end) {
+        CharSequence text = tokens.getText();
+        int lineStart = lineStart(text, start);
+        int lineEnd = end;
+        while (lineEnd < text.length() && (text.charAt(lineEnd) == ' ' || text.charAt(lineEnd) == '\t')) {
+            lineEnd++;
+        }
+        boolean wholeLine = lineEnd == text.length() || text.charAt(lineEnd) == '\n';
+        if (wholeLine && isBlank(text, lineStart, start)) {
+            return new Edit(lineStart, Math.min(lineEnd + 1, text.length()), "");
+        }
+        return new Edit(start, end, "");
+    }
+
+    /**
+     * Returns the index of the first token of the body of a 'for' or 'while' loop, i.e. the token after its 'do'.
+     *
+     * @param tokens  the tokens
+     * @param keyword the index of the 'for' or 'while' keyword
+     * @return the index of the first body token, or -1 if there is no 'do'
+     */
+    static int findLoopBody(@NotNull LoveLuaTokens tokens, int keyword) {
+        int depth = 0;
+        for (int i = keyword + 1; i < tokens.size(); i++) {
+            if (tokens.is(i, "(") || tokens.is(i, "[") || tokens.is(i, "{")) {
+                depth++;
+            } else if (tokens.is(i, ")") || tokens.is(i, "]") || tokens.is(i, "}")) {
+                depth--;
+            } else if (depth == 0 && tokens.is(i, "do")) {
+                return i + 1;
+            } else if (depth == 0 && tokens.is(i, "end")) {
+                break;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Counts the iterations of a numeric loop 'for i = start, stop[, step] do' whose bounds are number literals.
+     *
+     * @param tokens  the tokens
+     * @param keyword the index of the 'for' keyword
+     * @return the number of iterations, -1 for other loops and bounds that are not literals
+     */
+    static long countIterations(@NotNull LoveLuaTokens tokens, int keyword) {
+        int body = findLoopBody(tokens, keyword);
+        if (!tokens.is(keyword, "for") || !tokens.isIdentifier(keyword + 1) || !tokens.is(keyword + 2, "=")
+                || body < 0) {
+            return -1;
+        }
+        int to = body - 1;
+        double[] bounds = new double[]{0, 0, 1};
+        int count = 0;
+        int i = keyword + 3;
+        while (i < to && count < bounds.length) {
+            boolean negative = tokens.is(i, "-");
+            if (negative) {
+                i++;
+            }
+            if (i >= to || tokens.getType(i) != LoveLuaTokens.NUMBER) {
+                return -1;
+            }
+            try {
+                bounds[count++] = (negative ? -1 : 1) * Double.parseDouble(tokens.getTokenText(i));
+            } catch (NumberFormatException e) {
+                return -1;
+            }
+            i++;
+            if (i < to && !tokens.is(i++, ",")) {
+                return -1;
+            }
+        }
+        if (i < to || count < 2 || bounds[2] == 0) {
+            return -1;
+        }
+        return Math.max(0, (long) Math.floor((bounds[1] - bounds[0]) / bounds[2]) + 1);
+    }
+
+    /**
+     * Checks whether an identifier of that name appears outside the body of the function.
+     */
+    private boolean isUsedOutside(@NotNull String name, @NotNull Function function) {
+        for (int i = 0; i < tokens.size(); i++) {
+            if ((i < function.keyword || i > function.bodyEnd) && tokens.isIdentifier(i) && tokens.is(i, name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks whether a table constructor holds nothing but literals, nested constant tables and names used as
+     * keys, such as '{1, 0.5, "x", size = 2}'. Empty tables are not constant, they are typically filled later.
+     */
+    private boolean isConstantTable(int open, int close) {
+        return close < tokens.size() && close != open + 1 && holdsOnlyLiterals(open, close);
+    }
+
+    /**
+     * Checks whether the tokens between two brackets are literals, constant tables and names used as table keys.
+     */
+    boolean holdsOnlyLiterals(int open, int close) {
+        for (int i = open + 1; i < close; i++) {
+            switch (tokens.getType(i)) {
+                case LoveLuaTokens.NUMBER:
+                case LoveLuaTokens.STRING:
+                    break;
+                case LoveLuaTokens.NAME:
+                    boolean literal = tokens.is(i, "true") || tokens.is(i, "false") || tokens.is(i, "nil");
+                    boolean key = tokens.isIdentifier(i) && tokens.is(i + 1, "=")
+                            && (tokens.is(i - 1, "{") || tokens.is(i - 1, ",") || tokens.is(i - 1, ";"));
+                    if (!literal && !key) {
+                        return false;
+                    }
+                    break;
+                default:
+                    if ("{},;=[]-".indexOf(tokens.getText().charAt(tokens.getStart(i))) < 0
+                            || tokens.getEnd(i) - tokens.getStart(i) != 1) {
+                        return false;
+                    }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Suggests the name of a hoisted table from the variable it is assigned to, e.g. 'WHITE' for
+     * 'local white = {1, 1, 1}'.
+     */
+    @NotNull
+    private String suggestName(int open) {
+        if (!tokens.is(open - 1, "=") || !tokens.isIdentifier(open - 2)
+                || tokens.is(open - 3, ".") || tokens.is(open - 3, ":")) {
+            return "TABLE";
+        }
+        String variable = tokens.getTokenText(open - 2);
+        StringBuilder name = new StringBuilder();
+        for (int i = 0; i < variable.length(); i++) {
+            char c = variable.charAt(i);
+            if (Character.isUpperCase(c) && i > 0 && !Character.isUpperCase(variable.charAt(i - 1))
+                    && variable.charAt(i - 1) != '_') {
+                name.append('_');
+            }
+            name.append(c);
+        }
+        String upper = name.toString().toUpperCase(Locale.ROOT);
+        return upper.equals(variable) ? upper + "_TABLE" : upper;
+    }
+
+    /**
+     * Appends a number to the name while an identifier of the file already uses it.
+     */
+    @NotNull
+    String uniqueName(@NotNull String base) {
+        Set<String> used = new LinkedHashSet<>();
+        for (int i = 0; i < tokens.size(); i++) {
+            if (tokens.isIdentifier(i) && tokens.getText().charAt(tokens.getStart(i)) == base.charAt(0)) {
+                used.add(tokens.getTokenText(i));
+            }
+        }
+        String name = base;
+        for (int n = 2; used.contains(name); n++) {
+            name = base + "_" + n;
+        }
+        return name;
+    }
+
+    /**
+     * Returns the index of the function whose 'function' keyword is the given token.
+     */
+    int findFunction(int keyword) {
+        int low = 0;
+        int high = functions.size() - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int value = functions.get(middle).keyword;
+            if (value < keyword) {
+                low = middle + 1;
+            } else if (value > keyword) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        throw new IllegalStateException("No function at token " + keyword);
+    }
+
+    /**
+     * Returns the index of the token starting at the given offset, or -1.
+     */
+    private int findToken(int offset) {
+        int low = 0;
+        int high = tokens.size() - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int value = tokens.getStart(middle);
+            if (value < offset) {
+                low = middle + 1;
+            } else if (value > offset) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+
+    @NotNull
+    private String chainName(int start, int end) {
+        StringBuilder name = new StringBuilder();
+        for (int i = start; i <= end; i++) {
+            name.append(tokens.getText(), tokens.getStart(i), tokens.getEnd(i));
+        }
+        return name.toString();
+    }
+
+    /**
+     * Reads the name and parameter list of the function whose 'function' keyword is at the given index.
+     */
+    @NotNull
+    private static Function readFunction(@NotNull LoveLuaTokens tokens, int keyword, int parent) {
+        int i = keyword + 1;
+        String name = null;
+        if (tokens.isIdentifier(i)) {
+            StringBuilder builder = new StringBuilder(tokens.getTokenText(i));
+            while ((tokens.is(i + 1, ".") || tokens.is(i + 1, ":")) && tokens.isIdentifier(i + 2)) {
+                builder.append(tokens.getTokenText(i + 1)).append(tokens.getTokenText(i + 2));
+                i += 2;
+            }
+            name = builder.toString();
+            i++;
+        } else if (tokens.is(keyword - 1, "=") && tokens.isIdentifier(keyword - 2)) {
+            // 'name = function', 'local name = function' or 'love.update = function'
+            int end = keyword - 2;
+            int start = end;
+            while (tokens.isIdentifier(start - 2) && (tokens.is(start - 1, ".") || tokens.is(start - 1, ":"))) {
+                start -= 2;
+            }
+            if (!tokens.is(start - 1, "{") && !tokens.is(start - 1, ",") && !tokens.is(start - 1, ".")) {
+                StringBuilder builder = new StringBuilder();
+                for (int j = start; j <= end; j++) {
+                    builder.append(tokens.getTokenText(j));
+                }
+                name = builder.toString();
+            }
+        }
+        int bodyStart = tokens.is(i, "(") ? Math.min(tokens.findClosing(i) + 1, tokens.size()) : i;
+        return new Function(name, parent, keyword, bodyStart, tokens.size());
+    }
+
+    /**
+     * Returns the offset of the start of the line containing the offset.
+     */
+    static int lineStart(@NotNull CharSequence text, int offset) {
+        int start = offset;
+        while (start > 0 && text.charAt(start - 1) != '\n') {
+            start--;
+        }
+        return start;
+    }
+
+    /**
+     * Checks whether the text between start and end is whitespace only.
+     */
+    static boolean isBlank(@NotNull CharSequence text, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (!Character.isWhitespace(text.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int innermostFunction(int[] blocks, int depth) {
+        for (int i = depth - 1; i >= 0; i--) {
+            if (blocks[i] >= 0) {
+                return blocks[i];
+            }
+        }
+        return -1;
+    }
+}
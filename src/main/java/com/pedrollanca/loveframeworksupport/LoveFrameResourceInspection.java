@@ -0,0 +1,118 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 - Pedro Chamorro Llanca
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.pedrollanca.loveframeworksupport;
+
+import com.intellij.codeInspection.InspectionManager;
+import com.intellij.codeInspection.LocalInspectionTool;
+import com.intellij.codeInspection.LocalQuickFix;
+import com.intellij.codeInspection.ProblemDescriptor;
+import com.intellij.codeInspection.ProblemHighlightType;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.TextRange;
+import com.intellij.psi.PsiDocumentManager;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.search.GlobalSearchScope;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reports resources created in love.update and love.draw, or in the functions of the same file they call, such as
+ * 'love.graphics.newImage("player.png")' in love.draw. The resource is loaded from disk or uploaded to the GPU or
+ * the audio device every frame.
+ *
+ * <p>A construction whose arguments are literals can be moved into love.load by a quick-fix, the resource is then
+ * kept in a local declared at file scope. The fix is not offered when love.load is defined in another file, the
+ * local would not be visible there.
+ */
+public class LoveFrameResourceInspection extends LocalInspectionTool {
+
+    @Nullable
+    @Override
+    public ProblemDescriptor[] checkFile(@NotNull PsiFile file, @NotNull InspectionManager manager,
+                                         boolean isOnTheFly) {
+        if (!PluginUtils.isLuaFile(file)) {
+            return null;
+        }
+        LoveFrameAnalysis analysis = LoveFrameAnalysis.getInstance(file);
+        List<LoveFrameAnalysis.FrameConstruction> constructions = analysis.getFrameConstructions();
+        if (constructions.isEmpty()) {
+            return null;
+        }
+        boolean createLoad = !isLoadDefinedElsewhere(file);
+        List<ProblemDescriptor> problems = new ArrayList<>(constructions.size());
+        for (LoveFrameAnalysis.FrameConstruction frameConstruction : constructions) {
+            LoveFrameAnalysis.Construction construction = frameConstruction.construction;
+            LocalQuickFix[] fixes = analysis.planMoveToLoad(construction.start, createLoad) != null
+                    ? new LocalQuickFix[]{new MoveToLoadFix()}
+                    : LocalQuickFix.EMPTY_ARRAY;
+            problems.add(manager.createProblemDescriptor(file,
+                    TextRange.create(construction.start, construction.end), frameConstruction.getMessage(),
+                    ProblemHighlightType.GENERIC_ERROR_OR_WARNING, isOnTheFly, fixes));
+        }
+        return problems.toArray(ProblemDescriptor.EMPTY_ARRAY);
+    }
+
+    /**
+     * Checks whether another file of the project defines love.load, which a new love.load in this file would
+     * replace.
+     */
+    private static boolean isLoadDefinedElsewhere(@NotNull PsiFile file) {
+        GlobalSearchScope scope = GlobalSearchScope.projectScope(file.getProject())
+                .intersectWith(GlobalSearchScope.notScope(GlobalSearchScope.fileScope(file)));
+        return LoveCallbackIndex.countDefinitions(LoveFrameAnalysis.LOAD_CALLBACK, scope) > 0;
+    }
+
+    /**
+     * Moves the construction into love.load, creating love.load if no file of the project defines it, and keeps the
+     * resource in a local declared at file scope.
+     */
+    private static final class MoveToLoadFix implements LocalQuickFix {
+
+        @NotNull
+        @Override
+        public String getFamilyName() {
+            return "Create the resource once in love.load";
+        }
+
+        @Override
+        public void applyFix(@NotNull Project project, @NotNull ProblemDescriptor descriptor) {
+            PsiFile file = descriptor.getPsiElement().getContainingFile();
+            Document document = file == null ? null : PsiDocumentManager.getInstance(project).getDocument(file);
+            if (document == null) {
+                return;
+            }
+            int start = descriptor.getTextRangeInElement().getStartOffset();
+            LoveFrameAnalysis.Rewrite rewrite = LoveFrameAnalysis.analyze(document.getCharsSequence())
+                    .planMoveToLoad(start, !isLoadDefinedElsewhere(file));
+            if (rewrite == null) {
+                return;
+            }
+            for (LoveFrameAnalysis.Edit edit : rewrite.edits) {
+                document.replaceString(edit.start, edit.end, edit.replacement);
+            }
+        }
+    }
+}
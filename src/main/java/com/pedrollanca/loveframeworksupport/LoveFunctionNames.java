@@ -0,0 +1,198 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 - Pedro Chamorro Llanca
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.pedrollanca.loveframeworksupport;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A hash set of the function names of every LOVE module, answering whether 'love.&lt;module&gt;.&lt;name&gt;'
+ * exists for a name that is a region of a document, without creating a substring.
+ *
+ * <p>The set uses open addressing over flat arrays. The hash of an entry combines the hash of its module key with
+ * {@link String#hashCode()} of its name, so a lookup hashes the characters of the region once and compares the
+ * few colliding entries with {@link LoveCompletionContext#regionEquals}. Every entry also records the
+ * {@link LoveVersion} mask of the function.
+ */
+final class LoveFunctionNames {
+
+    private final String[] moduleKeys;
+    private final String[] names;
+    private final int[] hashes;
+    private final byte[] versions;
+    private final int mask;
+    private final int size;
+
+    private LoveFunctionNames(String[] moduleKeys, String[] names, int[] hashes, byte[] versions, int size) {
+        this.moduleKeys = moduleKeys;
+        this.names = names;
+        this.hashes = hashes;
+        this.versions = versions;
+        this.mask = names.length - 1;
+        this.size = size;
+    }
+
+    /**
+     * Returns the function names of the bundled {@link LoveApiCatalog}, built on first use.
+     *
+     * @return the shared set
+     */
+    @NotNull
+    static LoveFunctionNames getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Builds a set of function names which exist in every LOVE version.
+     *
+     * @param moduleKeys the module key of each function
+     * @param names      the function names, in the same order
+     * @return the set
+     */
+    @NotNull
+    static LoveFunctionNames build(@NotNull List<String> moduleKeys, @NotNull List<String> names) {
+        List<Integer> versions = new ArrayList<>(names.size());
+        for (int i = 0; i < names.size(); i++) {
+            versions.add(LoveVersion.ALL);
+        }
+        return build(moduleKeys, names, versions);
+    }
+
+    /**
+     * Builds a set of function names.
+     *
+     * @param moduleKeys the module key of each function
+     * @param names      the function names, in the same order
+     * @param versions   the {@link LoveVersion} mask of each function, in the same order
+     * @return the set
+     */
+    @NotNull
+    static LoveFunctionNames build(@NotNull List<String> moduleKeys, @NotNull List<String> names,
+                                   @NotNull List<Integer> versions) {
+        // Keep the table at most half full so probe sequences stay short
+        int capacity = Integer.highestOneBit(Math.max(4, names.size() * 2 - 1)) << 1;
+        String[] tableModules = new String[capacity];
+        String[] tableNames = new String[capacity];
+        int[] tableHashes = new int[capacity];
+        byte[] tableVersions = new byte[capacity];
+        int size = 0;
+        for (int i = 0; i < names.size(); i++) {
+            String moduleKey = moduleKeys.get(i);
+            String name = names.get(i);
+            int hash = hash(moduleKey, name.hashCode());
+            int slot = hash & (capacity - 1);
+            boolean duplicate = false;
+            while (tableNames[slot] != null) {
+                if (tableHashes[slot] == hash && tableModules[slot].equals(moduleKey) && tableNames[slot].equals(name)) {
+                    duplicate = true;
+                    break;
+                }
+                slot = (slot + 1) & (capacity - 1);
+            }
+            if (!duplicate) {
+                tableModules[slot] = moduleKey;
+                tableNames[slot] = name;
+                tableHashes[slot] = hash;
+                size++;
+            }
+            tableVersions[slot] |= (byte) (int) versions.get(i);
+        }
+        return new LoveFunctionNames(tableModules, tableNames, tableHashes, tableVersions, size);
+    }
+
+    /**
+     * Returns the number of function names.
+     *
+     * @return the size of the set
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Checks whether the module has a function named by [start, end) of the text.
+     *
+     * @param moduleKey the module key, e.g. "graphics"
+     * @param text      the characters containing the name
+     * @param start     the start offset of the name
+     * @param end       the end offset of the name
+     * @return true if 'love.&lt;moduleKey&gt;.&lt;name&gt;' is part of the API in any version
+     */
+    boolean contains(@NotNull String moduleKey, @NotNull CharSequence text, int start, int end) {
+        return getVersions(moduleKey, text, start, end) != 0;
+    }
+
+    /**
+     * Returns the versions in which the module has a function named by [start, end) of the text.
+     *
+     * @param moduleKey the module key, e.g. "graphics"
+     * @param text      the characters containing the name
+     * @param start     the start offset of the name
+     * @param end       the end offset of the name
+     * @return the {@link LoveVersion} mask of the function, 0 if no version has it
+     */
+    int getVersions(@NotNull String moduleKey, @NotNull CharSequence text, int start, int end) {
+        int nameHash = 0;
+        for (int i = start; i < end; i++) {
+            nameHash = 31 * nameHash + text.charAt(i);
+        }
+        int hash = hash(moduleKey, nameHash);
+        for (int slot = hash & mask; names[slot] != null; slot = (slot + 1) & mask) {
+            if (hashes[slot] == hash && moduleKeys[slot].equals(moduleKey)
+                    && LoveCompletionContext.regionEquals(text, start, end, names[slot])) {
+                return versions[slot] & 0xFF;
+            }
+        }
+        return 0;
+    }
+
+    private static int hash(@NotNull String moduleKey, int nameHash) {
+        int hash = moduleKey.hashCode() * 31 + nameHash;
+        // Spread the high bits, the table index only uses the low ones
+        return hash ^ (hash >>> 16);
+    }
+
+    private static LoveFunctionNames fromCatalog() {
+        LoveApiCatalog catalog = LoveApiCatalog.getInstance();
+        List<String> moduleKeys = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        List<Integer> versions = new ArrayList<>();
+        for (String moduleKey : LoveTypes.MODULE_KEYS) {
+            List<String> functions = catalog.getNames(moduleKey);
+            for (int i = 0; i < functions.size(); i++) {
+                moduleKeys.add(moduleKey);
+                names.add(functions.get(i));
+                versions.add(catalog.getVersions(moduleKey, i));
+            }
+        }
+        return build(moduleKeys, names, versions);
+    }
+
+    /**
+     * Defers building the set until it is first used.
+     */
+    private static final class Holder {
+        private static final LoveFunctionNames INSTANCE = fromCatalog();
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 - Pedro Chamorro Llanca
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.pedrollanca.loveframeworksupport;
+
+import com.intellij.codeInsight.completion.PrefixMatcher;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Matches LOVE API names by prefix, by camel humps, and with up to two typing errors ('newSpriteBtach').
+ *
+ * <p>The edit distance between the typed prefix and the closest prefix of a name is computed with Myers'
+ * bit-parallel algorithm: the name is the pattern, one bit per character, and the typed prefix the text, so a
+ * candidate is checked with a handful of word operations per typed character. The character masks of every name
+ * are computed once and shared by all matchers.
+ */
+public class LoveFuzzyMatcher extends PrefixMatcher {
+
+    /**
+     * Names longer than this do not fit the 64-bit masks and are only matched by prefix and camel humps.
+     */
+    static final int MAX_NAME_LENGTH = Long.SIZE;
+
+    /**
+     * Shared character masks, keyed by name. LOVE API names are a fixed, small set.
+     */
+    private static final ConcurrentMap<String, NameMasks> NAME_MASKS = new ConcurrentHashMap<>();
+
+    private final String lowerCasePrefix;
+    private final int maxErrors;
+
+    /**
+     * Creates a matcher for the typed prefix.
+     *
+     * @param prefix the partially typed identifier
+     */
+    public LoveFuzzyMatcher(@NotNull String prefix) {
+        super(prefix);
+        this.lowerCasePrefix = prefix.toLowerCase(Locale.ROOT);
+        this.maxErrors = getMaxErrors(prefix);
+    }
+
+    /**
+     * Returns the number of typing errors tolerated for a prefix: none below four characters, where almost every
+     * name would be within reach, one up to six characters and two from seven characters on.
+     *
+     * @param prefix the partially typed identifier
+     * @return 0, 1 or 2
+     */
+    public static int getMaxErrors(@NotNull String prefix) {
+        int length = prefix.length();
+        if (length < 4) {
+            return 0;
+        }
+        return length < 7 ? 1 : 2;
+    }
+
+    @Override
+    public boolean prefixMatches(@NotNull String name) {
+        if (LoveNameIndex.matches(name, myPrefix)) {
+            return true;
+        }
+        return maxErrors > 0 && distance(name) <= maxErrors;
+    }
+
+    @NotNull
+    @Override
+    public PrefixMatcher cloneWithPrefix(@NotNull String prefix) {
+        return prefix.equals(myPrefix) ? this : new LoveFuzzyMatcher(prefix);
+    }
+
+    /**
+     * Ranks names matched without errors above names matched with errors.
+     */
+    @Override
+    public int matchingDegree(String name) {
+        if (LoveNameIndex.matches(name, myPrefix)) {
+            return 0;
+        }
+        return -Math.min(distance(name), maxErrors + 1);
+    }
+
+    /**
+     * Returns the smallest edit distance between the typed prefix and any prefix of the name, ignoring case.
+     *
+     * @param name the candidate name
+     * @return the edit distance, or {@link Integer#MAX_VALUE} if the name is too long to be matched
+     */
+    int distance(@NotNull String name) {
+        if (name.length() > MAX_NAME_LENGTH) {
+            return Integer.MAX_VALUE;
+        }
+        NameMasks masks = NAME_MASKS.computeIfAbsent(name, NameMasks::new);
+        int m = name.length();
+
+        // Vertical deltas of the current column, one bit per name character: D[i][0] = i
+        long pv = -1L;
+        long mv = 0L;
+        for (int j = 0; j < lowerCasePrefix.length(); j++) {
+            long eq = masks.get(lowerCasePrefix.charAt(j));
+            long xv = eq | mv;
+            long xh = (((eq & pv) + pv) ^ pv) | eq;
+            long ph = mv | ~(xh | pv);
+            long mh = pv & xh;
+            // Both strings are anchored at their start: D[0][j] = j, so a +1 delta enters the first row
+            ph = (ph << 1) | 1L;
+            mh <<= 1;
+            pv = mh | ~(xv | ph);
+            mv = ph & xv;
+        }
+
+        // Walk down the last column, D[0][n] = n, and keep the best row, i.e. the closest prefix of the name
+        int score = lowerCasePrefix.length();
+        int best = score;
+        for (int i = 0; i < m; i++) {
+            long bit = 1L << i;
+            if ((pv & bit) != 0) {
+                score++;
+            } else if ((mv & bit) != 0) {
+                score--;
+                best = Math.min(best, score);
+            }
+        }
+        return best;
+    }
+
+    /**
+     * The positions of every distinct character of a name, lower-cased, as bit masks.
+     */
+    private static final class NameMasks {
+
+        private final char[] chars;
+        private final long[] masks;
+
+        NameMasks(@NotNull String name) {
+            String lowerCase = name.toLowerCase(Locale.ROOT);
+            char[] distinct = new char[lowerCase.length()];
+            long[] positions = new long[lowerCase.length()];
+            int count = 0;
+            for (int i = 0; i < lowerCase.length(); i++) {
+                char c = lowerCase.charAt(i);
+                int slot = 0;
+                while (slot < count && distinct[slot] != c) {
+                    slot++;
+                }
+                if (slot == count) {
+                    distinct[count++] = c;
+                }
+                positions[slot] |= 1L << i;
+            }
+            this.chars = Arrays.copyOf(distinct, count);
+            this.masks = Arrays.copyOf(positions, count);
+        }
+
+        long get(char c) {
+            for (int i = 0; i < chars.length; i++) {
+                if (chars[i] == c) {
+                    return masks[i];
+                }
+            }
+            return 0L;
+        }
+    }
+}
@@ -0,0 +1,519 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 - Pedro Chamorro Llanca
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.pedrollanca.loveframeworksupport;
+
+import com.intellij.openapi.util.Key;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Models the graphics state set by love.graphics.setColor, setShader, setCanvas and setBlendMode through the body of
+ * each function of a Lua file, and finds the state changes that are wasted or break the automatic batching of draw
+ * calls:
+ * <ul>
+ *     <li>a state set to the value it already has,</li>
+ *     <li>a state overwritten before anything is drawn with it,</li>
+ *     <li>a state set to the same literal value on every iteration of a loop, which can be set once before it,</li>
+ *     <li>a shader, canvas or blend mode changing inside a drawing loop, which ends the current batch on every
+ *     iteration; drawing the objects sorted by that state changes it once per group instead.</li>
+ * </ul>
+ *
+ * <p>The state is tracked along straight-line code only: it is forgotten at every branch, loop boundary and call
+ * of a function that is not part of LOVE, which may change it. A new color doesn't end a batch, LOVE stores colors
+ * per vertex, but setting it in vain still costs a call.
+ *
+ * <p>For each function the number of batch breaks per call is estimated by weighting the shader, canvas and blend
+ * mode changes with the iterations of the numeric loops around them.
+ */
+final class LoveGraphicsStateAnalysis {
+
+    /**
+     * The love.graphics functions whose state is tracked.
+     */
+    static final List<String> STATE_SETTERS = List.of("setColor", "setShader", "setCanvas", "setBlendMode");
+
+    /**
+     * The state changes that end the current batch of draw calls.
+     */
+    static final Set<String> BATCH_BREAKING_SETTERS = Set.of("setShader", "setCanvas", "setBlendMode");
+
+    /**
+     * The love.graphics functions that draw with the current state.
+     */
+    static final Set<String> DRAW_FUNCTIONS = Set.of("draw", "drawInstanced", "drawLayer", "print", "printf",
+            "rectangle", "circle", "ellipse", "arc", "line", "points", "polygon");
+
+    /**
+     * The love.graphics functions that restore the state to a value not known here.
+     */
+    private static final Set<String> STATE_RESTORES = Set.of("pop", "reset");
+
+    private static final Key<CachedValue<LoveGraphicsStateAnalysis>> ANALYSIS_KEY =
+            Key.create("love.graphics.state.analysis");
+
+    /**
+     * The kinds of state change reported.
+     */
+    enum Kind {
+        REDUNDANT,
+        OVERWRITTEN,
+        SAME_IN_LOOP,
+        CHANGES_IN_LOOP
+    }
+
+    /**
+     * A reported call of a state setter.
+     */
+    static final class StateChange {
+        final Kind kind;
+        /**
+         * The setter, such as 'setShader'.
+         */
+        final String setter;
+        final int start;
+        final int end;
+        /**
+         * The estimated batch breaks of a {@link Kind#CHANGES_IN_LOOP} change per call of the function, -1 if the
+         * loop bounds are not literals.
+         */
+        final long breaks;
+
+        private final int loop;
+        private final int first;
+        private final int last;
+
+        StateChange(@NotNull Kind kind, @NotNull String setter, int start, int end, long breaks, int loop, int first,
+                    int last) {
+            this.kind = kind;
+            this.setter = setter;
+            this.start = start;
+            this.end = end;
+            this.breaks = breaks;
+            this.loop = loop;
+            this.first = first;
+            this.last = last;
+        }
+
+        /**
+         * Returns the problem description.
+         *
+         * @return the message
+         */
+        @NotNull
+        String getMessage() {
+            String call = "'love.graphics." + setter + "'";
+            switch (kind) {
+                case REDUNDANT:
+                    return call + " sets the " + getStateName(setter) + " it already has";
+                case OVERWRITTEN:
+                    return call + " is overwritten before anything is drawn";
+                case SAME_IN_LOOP:
+                    return call + " sets the same " + getStateName(setter)
+                            + " on every iteration; set it once before the loop";
+                default:
+                    String times = breaks < 0 ? "on every iteration" : "up to " + breaks + " times";
+                    return call + " in a drawing loop ends the draw batch " + times + "; draw the objects sorted by "
+                            + getStateName(setter) + " so that it changes once per group";
+            }
+        }
+    }
+
+    /**
+     * The estimated batch breaks of one call of a function.
+     */
+    static final class BatchBreaks {
+        /**
+         * The estimated count.
+         */
+        final long count;
+        /**
+         * True if loops without literal bounds were counted as a single iteration, making the count a lower bound.
+         */
+        final boolean lowerBound;
+
+        BatchBreaks(long count, boolean lowerBound) {
+            this.count = count;
+            this.lowerBound = lowerBound;
+        }
+
+        /**
+         * Returns the gutter tooltip, e.g. "About 201 draw batch breaks per call".
+         *
+         * @return the description
+         */
+        @NotNull
+        String getDescription() {
+            String breaks = count == 1 ? " draw batch break" : " draw batch breaks";
+            return lowerBound
+                    ? "At least " + count + breaks + " per call, more in loops without literal bounds"
+                    : "About " + count + breaks + " per call";
+        }
+    }
+
+    /**
+     * A setter call in a loop, kept until the loop is closed.
+     */
+    private static final class SetterCall {
+        final String setter;
+        final int first;
+        final int last;
+        final boolean literal;
+        /**
+         * True if the call is directly in the loop body, not in a branch, and no drawing precedes it in the body.
+         */
+        final boolean leading;
+
+        SetterCall(String setter, int first, int last, boolean literal, boolean leading) {
+            this.setter = setter;
+            this.first = first;
+            this.last = last;
+            this.literal = literal;
+            this.leading = leading;
+        }
+    }
+
+    /**
+     * An open loop of the function being analyzed.
+     */
+    private static final class Loop {
+        final int keyword;
+        final long iterations;
+        final List<SetterCall> setters = new ArrayList<>();
+        int draws;
+        boolean restores;
+
+        Loop(int keyword, long iterations) {
+            this.keyword = keyword;
+            this.iterations = iterations;
+        }
+    }
+
+    private final LoveFrameAnalysis analysis;
+    private final LoveLuaTokens tokens;
+    private final List<StateChange> changes = new ArrayList<>();
+    private final Map<Integer, BatchBreaks> batchBreaks = new HashMap<>();
+
+    private LoveGraphicsStateAnalysis(@NotNull LoveFrameAnalysis analysis) {
+        this.analysis = analysis;
+        this.tokens = analysis.getTokens();
+        for (LoveFrameAnalysis.Function function : analysis.getFunctions()) {
+            analyzeFunction(function);
+        }
+        changes.sort((a, b) -> Integer.compare(a.start, b.start));
+    }
+
+    /**
+     * Returns the analysis of a file, cached until the file changes.
+     *
+     * @param file a Lua file
+     * @return the analysis
+     */
+    @NotNull
+    static LoveGraphicsStateAnalysis getInstance(@NotNull PsiFile file) {
+        return CachedValuesManager.getCachedValue(file, ANALYSIS_KEY, () ->
+                CachedValueProvider.Result.create(new LoveGraphicsStateAnalysis(LoveFrameAnalysis.getInstance(file)),
+                        file));
+    }
+
+    /**
+     * Analyzes a Lua source.
+     *
+     * @param text the source
+     * @return the analysis
+     */
+    @NotNull
+    static LoveGraphicsStateAnalysis analyze(@NotNull CharSequence text) {
+        return new LoveGraphicsStateAnalysis(LoveFrameAnalysis.analyze(text));
+    }
+
+    /**
+     * Returns the reported state changes.
+     *
+     * @return the state changes in source order
+     */
+    @NotNull
+    List<StateChange> getStateChanges() {
+        return Collections.unmodifiableList(changes);
+    }
+
+    /**
+     * Returns the estimated batch breaks of the function whose 'function' keyword starts at the offset.
+     *
+     * @param offset the offset of a 'function' keyword
+     * @return the batch breaks, or null if the function changes no batch breaking state
+     */
+    @Nullable
+    BatchBreaks getBatchBreaks(int offset) {
+        return batchBreaks.get(offset);
+    }
+
+    /**
+     * Plans the quick-fix of a reported state change: removing a redundant or overwritten call, or moving a call
+     * setting the same value on every iteration in front of its loop.
+     *
+     * @param start the start offset of the reported call
+     * @return the rewrite, or null if the change has no quick-fix or the call is part of an expression
+     */
+    @Nullable
+    LoveFrameAnalysis.Rewrite planFix(int start) {
+        StateChange change = null;
+        for (StateChange candidate : changes) {
+            if (candidate.start == start && candidate.kind != Kind.CHANGES_IN_LOOP) {
+                change = candidate;
+            }
+        }
+        if (change == null || !analysis.isStatement(change.first, change.last)) {
+            return null;
+        }
+        List<LoveFrameAnalysis.Edit> edits = new ArrayList<>();
+        edits.add(analysis.removeStatement(change.start, change.end));
+        if (change.kind == Kind.SAME_IN_LOOP) {
+            CharSequence text = tokens.getText();
+            int loopStart = tokens.getStart(change.loop);
+            int lineStart = LoveFrameAnalysis.lineStart(text, loopStart);
+            if (!LoveFrameAnalysis.isBlank(text, lineStart, loopStart)) {
+                return null;
+            }
+            edits.add(new LoveFrameAnalysis.Edit(lineStart, lineStart, text.subSequence(lineStart, loopStart)
+                    + text.subSequence(change.start, change.end).toString() + "\n"));
+        }
+        return new LoveFrameAnalysis.Rewrite(edits);
+    }
+
+    /**
+     * Follows the graphics state through the body of a function, not counting the functions nested in it.
+     */
+    private void analyzeFunction(@NotNull LoveFrameAnalysis.Function function) {
+        // Open blocks: the loops, null for other blocks
+        Loop[] blocks = new Loop[16];
+        int depth = 0;
+        Map<String, String> known = new HashMap<>();
+        Map<String, int[]> undrawn = new LinkedHashMap<>();
+        long breaks = 0;
+        boolean lowerBound = false;
+        int i = function.bodyStart;
+        while (i < function.bodyEnd) {
+            if (tokens.is(i, "function")) {
+                i = analysis.getFunctions().get(analysis.findFunction(i)).bodyEnd + 1;
+                continue;
+            }
+            if (tokens.getType(i) == LoveLuaTokens.NAME && tokens.isKeyword(i)) {
+                Loop loop = null;
+                boolean opens = true;
+                int next = i + 1;
+                if (tokens.is(i, "for") || tokens.is(i, "while")) {
+                    int body = LoveFrameAnalysis.findLoopBody(tokens, i);
+                    if (body < 0) {
+                        break;
+                    }
+                    loop = new Loop(i, LoveFrameAnalysis.countIterations(tokens, i));
+                    next = body;
+                } else if (tokens.is(i, "repeat")) {
+                    loop = new Loop(i, -1);
+                } else if (!tokens.is(i, "if") && !tokens.is(i, "do")) {
+                    opens = false;
+                }
+                if (opens) {
+                    if (depth == blocks.length) {
+                        blocks = Arrays.copyOf(blocks, depth * 2);
+                    }
+                    blocks[depth++] = loop;
+                } else if ((tokens.is(i, "end") || tokens.is(i, "until")) && depth > 0) {
+                    Loop closed = blocks[--depth];
+                    if (closed != null) {
+                        closeLoop(closed);
+                    }
+                }
+                if (opens || isBranch(i)) {
+                    known.clear();
+                    undrawn.clear();
+                }
+                i = next;
+                continue;
+            }
+            if (!tokens.isIdentifier(i) || !tokens.is(i + 1, "(")) {
+                i++;
+                continue;
+            }
+            String moduleKey = analysis.resolveModule(i);
+            if (moduleKey == null) {
+                // The called function may change the state
+                known.clear();
+                undrawn.clear();
+                i++;
+                continue;
+            }
+            if (!LoveTypes.GRAPHICS_KEY.equals(moduleKey)) {
+                i++;
+                continue;
+            }
+            String name = tokens.getTokenText(i);
+            int close = tokens.findClosing(i + 1);
+            if (close == tokens.size()) {
+                break;
+            }
+            if (STATE_SETTERS.contains(name)) {
+                int first = analysis.chainStart(i);
+                // Only literal values are compared, a variable may hold another value or a call return another
+                boolean literal = analysis.holdsOnlyLiterals(i + 1, close);
+                String value = literal ? joinTokens(i + 2, close - 1) : null;
+                Loop loop = innermostLoop(blocks, depth);
+                if (literal && value.equals(known.get(name))) {
+                    addChange(Kind.REDUNDANT, name, first, close, -1, -1);
+                } else {
+                    int[] previous = undrawn.remove(name);
+                    if (previous != null) {
+                        addChange(Kind.OVERWRITTEN, name, previous[0], previous[1], -1, -1);
+                    }
+                    if (literal) {
+                        known.put(name, value);
+                    } else {
+                        known.remove(name);
+                    }
+                    undrawn.put(name, new int[]{first, close});
+                    if (loop != null) {
+                        loop.setters.add(new SetterCall(name, first, close, literal,
+                                blocks[depth - 1] == loop && loop.draws == 0));
+                    }
+                    if (BATCH_BREAKING_SETTERS.contains(name)) {
+                        long weight = 1;
+                        for (int b = 0; b < depth; b++) {
+                            if (blocks[b] != null) {
+                                lowerBound |= blocks[b].iterations < 0;
+                                weight *= Math.max(1, blocks[b].iterations);
+                            }
+                        }
+                        breaks += weight;
+                    }
+                }
+                i = close + 1;
+                continue;
+            }
+            boolean draws = DRAW_FUNCTIONS.contains(name);
+            boolean restores = STATE_RESTORES.contains(name);
+            for (int b = 0; b < depth; b++) {
+                if (blocks[b] != null) {
+                    blocks[b].draws += draws ? 1 : 0;
+                    blocks[b].restores |= restores;
+                }
+            }
+            // Anything else done with love.graphics may use the state, so pending changes are no longer wasted
+            undrawn.clear();
+            if (restores) {
+                known.clear();
+            }
+            i++;
+        }
+        if (breaks > 0) {
+            batchBreaks.put(tokens.getStart(function.keyword), new BatchBreaks(breaks, lowerBound));
+        }
+    }
+
+    /**
+     * Reports the setters of a loop that draws: the same literal value set on every iteration, or a batch breaking
+     * state changing within the loop.
+     */
+    private void closeLoop(@NotNull Loop loop) {
+        if (loop.draws == 0 || loop.setters.isEmpty()) {
+            return;
+        }
+        Map<String, List<SetterCall>> bySetter = new LinkedHashMap<>();
+        for (SetterCall call : loop.setters) {
+            bySetter.computeIfAbsent(call.setter, setter -> new ArrayList<>()).add(call);
+        }
+        bySetter.forEach((setter, calls) -> {
+            SetterCall call = calls.get(0);
+            if (calls.size() == 1 && call.literal && call.leading && !loop.restores) {
+                addChange(Kind.SAME_IN_LOOP, setter, call.first, call.last, -1, loop.keyword);
+            } else if (BATCH_BREAKING_SETTERS.contains(setter) && (calls.size() > 1 || !call.literal)) {
+                // A single literal value is only set again once the loop draws with other state
+                long breaks = loop.iterations < 0 ? -1 : loop.iterations * calls.size();
+                addChange(Kind.CHANGES_IN_LOOP, setter, call.first, call.last, breaks, loop.keyword);
+            }
+        });
+    }
+
+    private void addChange(@NotNull Kind kind, @NotNull String setter, int first, int last, long breaks, int loop) {
+        changes.add(new StateChange(kind, setter, tokens.getStart(first), tokens.getEnd(last), breaks, loop, first,
+                last));
+    }
+
+    /**
+     * Checks whether the keyword moves to another branch or leaves the block, after which the state is unknown.
+     */
+    private boolean isBranch(int index) {
+        return tokens.is(index, "then") || tokens.is(index, "else") || tokens.is(index, "elseif")
+                || tokens.is(index, "end") || tokens.is(index, "until") || tokens.is(index, "return")
+                || tokens.is(index, "break") || tokens.is(index, "goto");
+    }
+
+    @NotNull
+    private String joinTokens(int first, int last) {
+        StringBuilder text = new StringBuilder();
+        for (int i = first; i <= last; i++) {
+            text.append(tokens.getText(), tokens.getStart(i), tokens.getEnd(i));
+            if (i < last) {
+                text.append(' ');
+            }
+        }
+        return text.toString();
+    }
+
+    @Nullable
+    private static Loop innermostLoop(Loop[] blocks, int depth) {
+        for (int i = depth - 1; i >= 0; i--) {
+            if (blocks[i] != null) {
+                return blocks[i];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the name of the state a setter changes, such as 'blend mode' for setBlendMode.
+     */
+    @NotNull
+    static String getStateName(@NotNull String setter) {
+        StringBuilder name = new StringBuilder();
+        for (int i = 3; i < setter.length(); i++) {
+            char c = setter.charAt(i);
+            if (Character.isUpperCase(c) && i > 3) {
+                name.append(' ');
+            }
+            name.append(Character.toLowerCase(c));
+        }
+        return name.toString();
+    }
+}
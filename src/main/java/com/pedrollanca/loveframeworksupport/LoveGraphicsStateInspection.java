@@ -0,0 +1,129 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 - Pedro Chamorro Llanca
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.pedrollanca.loveframeworksupport;
+
+import com.intellij.codeInspection.InspectionManager;
+import com.intellij.codeInspection.LocalInspectionTool;
+import com.intellij.codeInspection.LocalQuickFix;
+import com.intellij.codeInspection.ProblemDescriptor;
+import com.intellij.codeInspection.ProblemHighlightType;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.TextRange;
+import com.intellij.psi.PsiDocumentManager;
+import com.intellij.psi.PsiFile;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reports wasted changes of the love.graphics color, shader, canvas and blend mode, and shader, canvas and blend
+ * mode changes in drawing loops that end the draw batch on every iteration. The analysis is done by
+ * {@link LoveGraphicsStateAnalysis}.
+ *
+ * <p>Quick-fixes remove redundant and overwritten calls, and move a call setting the same value on every iteration
+ * in front of its loop.
+ */
+public class LoveGraphicsStateInspection extends LocalInspectionTool {
+
+    @Nullable
+    @Override
+    public ProblemDescriptor[] checkFile(@NotNull PsiFile file, @NotNull InspectionManager manager,
+                                         boolean isOnTheFly) {
+        if (!PluginUtils.isLuaFile(file)) {
+            return null;
+        }
+        LoveGraphicsStateAnalysis analysis = LoveGraphicsStateAnalysis.getInstance(file);
+        List<LoveGraphicsStateAnalysis.StateChange> changes = analysis.getStateChanges();
+        if (changes.isEmpty()) {
+            return null;
+        }
+        List<ProblemDescriptor> problems = new ArrayList<>(changes.size());
+        for (LoveGraphicsStateAnalysis.StateChange change : changes) {
+            LocalQuickFix[] fixes = LocalQuickFix.EMPTY_ARRAY;
+            if (analysis.planFix(change.start) != null) {
+                fixes = new LocalQuickFix[]{change.kind == LoveGraphicsStateAnalysis.Kind.SAME_IN_LOOP
+                        ? new MoveBeforeLoopFix()
+                        : new RemoveCallFix()};
+            }
+            problems.add(manager.createProblemDescriptor(file, TextRange.create(change.start, change.end),
+                    change.getMessage(), ProblemHighlightType.GENERIC_ERROR_OR_WARNING, isOnTheFly, fixes));
+        }
+        return problems.toArray(ProblemDescriptor.EMPTY_ARRAY);
+    }
+
+    /**
+     * Applies the rewrite planned for the reported call.
+     */
+    private static void applyFix(@NotNull Project project, @NotNull ProblemDescriptor descriptor) {
+        PsiFile file = descriptor.getPsiElement().getContainingFile();
+        Document document = file == null ? null : PsiDocumentManager.getInstance(project).getDocument(file);
+        if (document == null) {
+            return;
+        }
+        int start = descriptor.getTextRangeInElement().getStartOffset();
+        LoveFrameAnalysis.Rewrite rewrite = LoveGraphicsStateAnalysis.analyze(document.getCharsSequence())
+                .planFix(start);
+        if (rewrite == null) {
+            return;
+        }
+        for (LoveFrameAnalysis.Edit edit : rewrite.edits) {
+            document.replaceString(edit.start, edit.end, edit.replacement);
+        }
+    }
+
+    /**
+     * Removes a redundant or overwritten state change.
+     */
+    private static final class RemoveCallFix implements LocalQuickFix {
+
+        @NotNull
+        @Override
+        public String getFamilyName() {
+            return "Remove the state change";
+        }
+
+        @Override
+        public void applyFix(@NotNull Project project, @NotNull ProblemDescriptor descriptor) {
+            LoveGraphicsStateInspection.applyFix(project, descriptor);
+        }
+    }
+
+    /**
+     * Moves a state change made on every iteration in front of its loop.
+     */
+    private static final class MoveBeforeLoopFix implements LocalQuickFix {
+
+        @NotNull
+        @Override
+        public String getFamilyName() {
+            return "Move the state change before the loop";
+        }
+
+        @Override
+        public void applyFix(@NotNull Project project, @NotNull ProblemDescriptor descriptor) {
+            LoveGraphicsStateInspection.applyFix(project, descriptor);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 - Pedro Chamorro Llanca
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.pedrollanca.loveframeworksupport;
+
+import com.intellij.codeInsight.daemon.LineMarkerInfo;
+import com.intellij.codeInsight.daemon.LineMarkerProvider;
+import com.intellij.icons.AllIcons;
+import com.intellij.openapi.editor.markup.GutterIconRenderer;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Marks the functions that change the shader, canvas or blend mode in the gutter, with the number of draw batch
+ * breaks per call estimated by {@link LoveGraphicsStateAnalysis} as tooltip.
+ *
+ * <p>Only the 'function' leaf of a definition is checked; the analysis is cached per file.
+ */
+public class LoveGraphicsStateLineMarkerProvider implements LineMarkerProvider {
+
+    @Nullable
+    @Override
+    public LineMarkerInfo<?> getLineMarkerInfo(@NotNull PsiElement element) {
+        if (element.getFirstChild() != null || !element.textMatches("function")) {
+            return null;
+        }
+        PsiFile file = element.getContainingFile();
+        if (file == null || !PluginUtils.isLuaFile(file)) {
+            return null;
+        }
+        LoveGraphicsStateAnalysis.BatchBreaks breaks = LoveGraphicsStateAnalysis.getInstance(file)
+                .getBatchBreaks(element.getTextRange().getStartOffset());
+        if (breaks == null) {
+            return null;
+        }
+        String description = breaks.getDescription();
+        return new LineMarkerInfo<>(element, element.getTextRange(), AllIcons.General.Warning,
+                ignored -> description, null, GutterIconRenderer.Alignment.RIGHT, () -> description);
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 - Pedro Chamorro Llanca
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.pedrollanca.loveframeworksupport;
+
+import com.intellij.codeHighlighting.TextEditorHighlightingPass;
+import com.intellij.codeInsight.daemon.impl.BackgroundUpdateHighlightersUtil;
+import com.intellij.codeInsight.daemon.impl.HighlightInfo;
+import com.intellij.codeInsight.daemon.impl.HighlightInfoType;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.util.TextRange;
+import com.intellij.psi.PsiFile;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Highlights the LOVE references in the ranges of a document changed since the last run.
+ *
+ * <p>The highlighters of each range are shown as soon as it is scanned, replacing the previous highlighters of
+ * the pass inside that range only, so typing in a huge level file only rescans the edited lines. The ranges are
+ * given visible lines first by {@link LoveHighlightingPassFactory}.
+ */
+public class LoveHighlightingPass extends TextEditorHighlightingPass {
+
+    private final PsiFile file;
+    private final List<TextRange> ranges;
+    private final int group;
+    private final int versions;
+
+    /**
+     * Creates a pass scanning the given ranges.
+     *
+     * @param file     the Lua file
+     * @param document the document to highlight
+     * @param ranges   the ranges to scan in order, each starting and ending at a line boundary
+     * @param group    the highlighter group of the pass
+     */
+    LoveHighlightingPass(@NotNull PsiFile file, @NotNull Document document, @NotNull List<TextRange> ranges,
+                         int group) {
+        super(file.getProject(), document, false);
+        this.file = file;
+        this.ranges = ranges;
+        this.group = group;
+        this.versions = LoveProjectSettings.getVersion(file.getProject()).getMask();
+    }
+
+    @Override
+    public void doCollectInformation(@NotNull ProgressIndicator progress) {
+        CharSequence text = myDocument.getImmutableCharSequence();
+        for (TextRange range : ranges) {
+            List<HighlightInfo> highlights = new ArrayList<>();
+            LoveKeywordHighlighter.highlight(text, range.getStartOffset(), range.getEndOffset(), versions,
+                    ProgressManager::checkCanceled,
+                    (start, end, attributes) -> highlights.add(
+                            HighlightInfo.newHighlightInfo(HighlightInfoType.INFORMATION)
+                                    .range(start, end)
+                                    .textAttributes(attributes)
+                                    .createUnconditionally()));
+            BackgroundUpdateHighlightersUtil.setHighlightersToEditor(myProject, file, myDocument,
+                    range.getStartOffset(), range.getEndOffset(), highlights, group);
+        }
+    }
+
+    @Override
+    public void doApplyInformationToEditor() {
+        // The highlighters of every range are set as soon as it is scanned
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 - Pedro Chamorro Llanca
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.pedrollanca.loveframeworksupport;
+
+import com.intellij.codeHighlighting.TextEditorHighlightingPass;
+import com.intellij.codeHighlighting.TextEditorHighlightingPassFactory;
+import com.intellij.codeHighlighting.TextEditorHighlightingPassFactoryRegistrar;
+import com.intellij.codeHighlighting.TextEditorHighlightingPassRegistrar;
+import com.intellij.codeInsight.daemon.impl.FileStatusMap;
+import com.intellij.openapi.editor.Editor;
+import com.intellij.openapi.editor.LogicalPosition;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.TextRange;
+import com.intellij.psi.PsiFile;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.util.List;
+
+/**
+ * Registers the highlighting pass for LOVE references in Lua files.
+ *
+ * <p>The pass only rescans the range changed since its last run, as tracked by the {@link FileStatusMap}, so an
+ * unchanged document is not scanned at all and the highlighters outside of the changed range are kept. The lines
+ * of that range inside the visible area are rescanned and shown first, so what the user looks at is updated first.
+ */
+public class LoveHighlightingPassFactory implements TextEditorHighlightingPassFactoryRegistrar {
+
+    @Override
+    public void registerHighlightingPassFactory(@NotNull TextEditorHighlightingPassRegistrar registrar,
+                                                @NotNull Project project) {
+        // Pass ids are assigned per project, so every project gets a factory of its own
+        PassFactory factory = new PassFactory();
+        factory.passId = registrar.registerTextEditorHighlightingPass(factory, null, null, false, -1);
+    }
+
+    /**
+     * Returns the offsets of the lines shown in the editor.
+     */
+    @Nullable
+    private static TextRange getVisibleRange(@NotNull Editor editor) {
+        Rectangle area = editor.getScrollingModel().getVisibleArea();
+        if (area.isEmpty()) {
+            return null;
+        }
+        LogicalPosition first = editor.xyToLogicalPosition(new Point(area.x, area.y));
+        LogicalPosition last = editor.xyToLogicalPosition(new Point(area.x + area.width, area.y + area.height));
+        int start = editor.logicalPositionToOffset(new LogicalPosition(first.line, 0));
+        int end = editor.logicalPositionToOffset(new LogicalPosition(last.line + 1, 0));
+        return start < end ? TextRange.create(start, end) : null;
+    }
+
+    private static final class PassFactory implements TextEditorHighlightingPassFactory {
+
+        private int passId;
+
+        @Nullable
+        @Override
+        public TextEditorHighlightingPass createHighlightingPass(@NotNull PsiFile file, @NotNull Editor editor) {
+            if (!PluginUtils.isLuaFile(file)) {
+                return null;
+            }
+            TextRange dirty = FileStatusMap.getDirtyTextRange(editor, passId);
+            if (dirty == null) {
+                // Nothing changed since the last run, the existing highlighters are still valid
+                return null;
+            }
+            CharSequence text = editor.getDocument().getImmutableCharSequence();
+            List<TextRange> ranges = LoveKeywordHighlighter.getRangesToScan(text, dirty, getVisibleRange(editor));
+            return new LoveHighlightingPass(file, editor.getDocument(), ranges, passId);
+        }
+    }
+}
@@ -21,32 +21,155 @@
 
 package com.pedrollanca.loveframeworksupport;
 
-import com.intellij.lang.annotation.Annotator;
-import com.intellij.lang.annotation.AnnotationHolder;
-import com.intellij.lang.annotation.HighlightSeverity;
 import com.intellij.openapi.editor.DefaultLanguageHighlighterColors;
 import com.intellij.openapi.editor.colors.TextAttributesKey;
-import com.intellij.psi.PsiElement;
+import com.intellij.openapi.util.TextRange;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
-public class LoveKeywordHighlighter implements Annotator {
-    // Define the highlighting color
-    private static final TextAttributesKey LOVE_KEYWORD_HIGHLIGHT = TextAttributesKey.createTextAttributesKey(
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Finds the LOVE references to highlight in a range of a Lua document, for {@link LoveHighlightingPass}.
+ */
+public final class LoveKeywordHighlighter {
+    // Define the highlighting colors: modules keep the original LOVE_KEYWORD key
+    static final TextAttributesKey LOVE_KEYWORD_HIGHLIGHT = TextAttributesKey.createTextAttributesKey(
             "LOVE_KEYWORD", DefaultLanguageHighlighterColors.KEYWORD);
+    static final TextAttributesKey LOVE_FUNCTION_HIGHLIGHT = TextAttributesKey.createTextAttributesKey(
+            "LOVE_FUNCTION", DefaultLanguageHighlighterColors.STATIC_METHOD);
+    static final TextAttributesKey LOVE_CALLBACK_HIGHLIGHT = TextAttributesKey.createTextAttributesKey(
+            "LOVE_CALLBACK", DefaultLanguageHighlighterColors.FUNCTION_DECLARATION);
+
+    /**
+     * Ranges are scanned in chunks of about this many characters, split at line breaks, so a cancelled pass stops
+     * quickly even in huge files.
+     */
+    static final int CHUNK_LENGTH = 1 << 16;
+
+    /**
+     * Receives the references to highlight.
+     */
+    @FunctionalInterface
+    public interface HighlightConsumer {
+
+        /**
+         * Called for every reference, in text order.
+         *
+         * @param start      the start offset of the reference
+         * @param end        the end offset of the reference
+         * @param attributes the highlighting color
+         */
+        void highlight(int start, int end, @NotNull TextAttributesKey attributes);
+    }
+
+    private LoveKeywordHighlighter() {
+    }
+
+    /**
+     * Reports the LOVE references in [start, end) of the text.
+     *
+     * @param text          the document characters
+     * @param start         the start offset, at the beginning of a line
+     * @param end           the end offset, at the end of a line
+     * @param versions      the {@link LoveVersion} mask the highlighted names have to exist in
+     * @param checkCanceled called between chunks, throws to abort
+     * @param consumer      receives the references
+     */
+    static void highlight(@NotNull CharSequence text, int start, int end, int versions,
+                          @NotNull Runnable checkCanceled, @NotNull HighlightConsumer consumer) {
+        LoveNameAutomaton automaton = LoveNameAutomaton.getInstance();
+        int chunkStart = start;
+        while (chunkStart < end) {
+            checkCanceled.run();
+            int chunkEnd = chunkStart + CHUNK_LENGTH >= end ? end : lineEnd(text, chunkStart + CHUNK_LENGTH, end);
+            automaton.scan(text, chunkStart, chunkEnd, versions, (matchStart, matchEnd, kind) ->
+                    consumer.highlight(matchStart, matchEnd, getTextAttributes(kind)));
+            chunkStart = chunkEnd;
+        }
+    }
+
+    /**
+     * Returns the ranges a pass has to rescan: the dirty range, widened to whole lines so that no reference is cut,
+     * and split into the part inside the visible area, which comes first, and the parts outside of it.
+     *
+     * @param text    the document characters
+     * @param dirty   the range changed since the last pass
+     * @param visible the visible area of the editor, or null if unknown
+     * @return the ranges to rescan, visible part first; none of them is empty
+     */
+    @NotNull
+    static List<TextRange> getRangesToScan(@NotNull CharSequence text, @NotNull TextRange dirty,
+                                           @Nullable TextRange visible) {
+        int start = lineStart(text, dirty.getStartOffset());
+        int end = lineEnd(text, dirty.getEndOffset(), text.length());
+        List<TextRange> ranges = new ArrayList<>(3);
+        TextRange visiblePart = visible == null ? null : getVisibleRangeToScan(text, dirty, visible);
+        if (visiblePart == null) {
+            addIfNotEmpty(ranges, start, end);
+            return ranges;
+        }
+        ranges.add(visiblePart);
+        addIfNotEmpty(ranges, start, visiblePart.getStartOffset());
+        addIfNotEmpty(ranges, visiblePart.getEndOffset(), end);
+        return ranges;
+    }
+
+    /**
+     * Returns the part of the dirty range inside the visible area, both widened to whole lines.
+     *
+     * @param text    the document characters
+     * @param dirty   the range changed since the last pass
+     * @param visible the visible area of the editor
+     * @return the visible part to rescan, or null if the dirty range is not visible
+     */
+    @Nullable
+    static TextRange getVisibleRangeToScan(@NotNull CharSequence text, @NotNull TextRange dirty,
+                                           @NotNull TextRange visible) {
+        int start = Math.max(lineStart(text, dirty.getStartOffset()), lineStart(text, visible.getStartOffset()));
+        int end = Math.min(lineEnd(text, dirty.getEndOffset(), text.length()),
+                lineEnd(text, visible.getEndOffset(), text.length()));
+        return start < end ? TextRange.create(start, end) : null;
+    }
+
+    /**
+     * Returns the highlighting color of a kind of LOVE reference.
+     *
+     * @param kind the kind of reference
+     * @return the text attributes key
+     */
+    @NotNull
+    static TextAttributesKey getTextAttributes(@NotNull LoveNameAutomaton.Kind kind) {
+        switch (kind) {
+            case CALLBACK:
+                return LOVE_CALLBACK_HIGHLIGHT;
+            case FUNCTION:
+                return LOVE_FUNCTION_HIGHLIGHT;
+            default:
+                return LOVE_KEYWORD_HIGHLIGHT;
+        }
+    }
+
+    private static void addIfNotEmpty(@NotNull List<TextRange> ranges, int start, int end) {
+        if (start < end) {
+            ranges.add(TextRange.create(start, end));
+        }
+    }
+
+    private static int lineStart(@NotNull CharSequence text, int offset) {
+        int i = Math.min(offset, text.length());
+        while (i > 0 && text.charAt(i - 1) != '\n') {
+            i--;
+        }
+        return i;
+    }
 
-    @Override
-    public void annotate(@NotNull PsiElement element, @NotNull AnnotationHolder holder) {
-        // Example: identify a specific keyword like 'love' in the code
-        String[] customKeywords = {"love.graphics", "love.audio"};
-
-        String text = element.getText();
-        for (String keyword : customKeywords) {
-            if (text.equals(keyword)) {
-                holder.newSilentAnnotation(HighlightSeverity.INFORMATION)
-                        .textAttributes(LOVE_KEYWORD_HIGHLIGHT)
-                        .create();
-                break;
-            }
+    private static int lineEnd(@NotNull CharSequence text, int offset, int limit) {
+        int i = Math.max(0, offset);
+        while (i < limit && text.charAt(i) != '\n') {
+            i++;
         }
+        return i;
     }
-}
\ No newline at end of file
+}
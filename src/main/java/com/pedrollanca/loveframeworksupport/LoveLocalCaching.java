@@ -0,0 +1,366 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 - Pedro Chamorro Llanca
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.pedrollanca.loveframeworksupport;
+
+import com.intellij.openapi.util.Key;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Finds calls such as 'love.graphics.draw(...)' inside the loops of love.update and love.draw, and of the functions
+ * of the same file they call. Each of these calls looks up 'love', 'graphics' and 'draw' again on every iteration,
+ * while a local declared once at file scope ('local lg_draw = love.graphics.draw') is a single register or upvalue
+ * access.
+ *
+ * <p>The rewrite planned by {@link #planCaching()} declares such a local for every LOVE function the file calls
+ * through its full 'love.&lt;module&gt;.&lt;function&gt;' name and replaces the calls, not only those in loops.
+ * Functions the file assigns, and modules the file loads itself with 'require("love.&lt;module&gt;")' as threads
+ * do, are left alone: their value isn't known yet when the file starts.
+ */
+final class LoveLocalCaching {
+
+    private static final Key<CachedValue<LoveLocalCaching>> CACHING_KEY = Key.create("love.local.caching");
+
+    /**
+     * The prefix of the locals by module key, 'l' followed by the shortest prefix of the module name no other
+     * module shares, e.g. 'lg' for graphics and 'lfi' and 'lfo' for filesystem and font.
+     */
+    private static final Map<String, String> ABBREVIATIONS = abbreviate(LoveTypes.MODULE_KEYS);
+
+    /**
+     * A call of a LOVE function by its full name in a loop reached from a frame callback.
+     */
+    static final class Lookup {
+        /**
+         * The qualified name, such as 'love.graphics.draw'.
+         */
+        final String qualifiedName;
+        final int start;
+        final int end;
+        /**
+         * The frame callback the loop is reached from.
+         */
+        final String callback;
+        /**
+         * The function containing the loop, null if it is the callback itself.
+         */
+        @Nullable
+        final String function;
+
+        Lookup(@NotNull String qualifiedName, int start, int end, @NotNull String callback,
+               @Nullable String function) {
+            this.qualifiedName = qualifiedName;
+            this.start = start;
+            this.end = end;
+            this.callback = callback;
+            this.function = function;
+        }
+
+        /**
+         * Returns the problem description, e.g. "'love.graphics.draw' in a loop of 'love.draw' is looked up on every
+         * iteration; cache it in a local".
+         *
+         * @return the message
+         */
+        @NotNull
+        String getMessage() {
+            String where = function == null ? "'" + callback + "'" : "'" + function + "', called from '" + callback
+                    + "',";
+            return "'" + qualifiedName + "' in a loop of " + where + " is looked up on every iteration; "
+                    + "cache it in a local";
+        }
+    }
+
+    private final LoveFrameAnalysis analysis;
+    private final LoveLuaTokens tokens;
+    private final List<Lookup> lookups = new ArrayList<>();
+
+    private LoveLocalCaching(@NotNull LoveFrameAnalysis analysis) {
+        this.analysis = analysis;
+        this.tokens = analysis.getTokens();
+        Set<String> excluded = findExcluded();
+        analysis.getFrameFunctions().forEach((index, callback) -> {
+            LoveFrameAnalysis.Function function = analysis.getFunctions().get(index);
+            findLoopLookups(function, callback, callback.equals(function.name) ? null : function.name, excluded);
+        });
+        lookups.sort((a, b) -> Integer.compare(a.start, b.start));
+    }
+
+    /**
+     * Returns the analysis of a file, cached until the file changes.
+     *
+     * @param file a Lua file
+     * @return the analysis
+     */
+    @NotNull
+    static LoveLocalCaching getInstance(@NotNull PsiFile file) {
+        return CachedValuesManager.getCachedValue(file, CACHING_KEY, () ->
+                CachedValueProvider.Result.create(new LoveLocalCaching(LoveFrameAnalysis.getInstance(file)), file));
+    }
+
+    /**
+     * Analyzes a Lua source.
+     *
+     * @param text the source
+     * @return the analysis
+     */
+    @NotNull
+    static LoveLocalCaching analyze(@NotNull CharSequence text) {
+        return new LoveLocalCaching(LoveFrameAnalysis.analyze(text));
+    }
+
+    /**
+     * Returns the calls by full name in the loops reached from the frame callbacks.
+     *
+     * @return the lookups in source order
+     */
+    @NotNull
+    List<Lookup> getLoopLookups() {
+        return Collections.unmodifiableList(lookups);
+    }
+
+    /**
+     * Plans declaring a file scope local for every LOVE function the file calls by its full name, and calling the
+     * locals instead. The locals are declared in front of the first statement of the file, in name order; a local
+     * the file already declares at file scope, such as 'local draw = love.graphics.draw', is reused if it precedes
+     * the calls.
+     *
+     * @return the rewrite, or null if the file calls no LOVE function by its full name
+     */
+    @Nullable
+    LoveFrameAnalysis.Rewrite planCaching() {
+        Set<String> excluded = findExcluded();
+        Map<String, List<Integer>> calls = new TreeMap<>();
+        for (int i = 0; i < tokens.size(); i++) {
+            String qualifiedName = resolveCall(i, excluded);
+            if (qualifiedName != null) {
+                calls.computeIfAbsent(qualifiedName, name -> new ArrayList<>()).add(i);
+                i += 4;
+            }
+        }
+        if (calls.isEmpty()) {
+            return null;
+        }
+        Map<String, Integer> declared = findDeclaredLocals();
+        CharSequence text = tokens.getText();
+        StringBuilder declarations = new StringBuilder();
+        List<LoveFrameAnalysis.Edit> edits = new ArrayList<>();
+        calls.forEach((qualifiedName, indices) -> {
+            Integer declaration = declared.get(qualifiedName);
+            String local;
+            if (declaration != null && declaration < indices.get(0)) {
+                local = tokens.getTokenText(declaration + 1);
+            } else {
+                int function = indices.get(0) + 4;
+                local = analysis.uniqueName(suggestLocalName(analysis.resolveModule(function),
+                        tokens.getTokenText(function)));
+                declarations.append("local ").append(local).append(" = ").append(qualifiedName).append('\n');
+            }
+            for (int index : indices) {
+                edits.add(new LoveFrameAnalysis.Edit(tokens.getStart(index), tokens.getEnd(index + 4), local));
+            }
+        });
+        if (declarations.length() > 0) {
+            // Added last, so that it is applied after a replacement starting at the same offset
+            int insertOffset = LoveFrameAnalysis.lineStart(text, tokens.getStart(0));
+            edits.add(new LoveFrameAnalysis.Edit(insertOffset, insertOffset, declarations.append('\n').toString()));
+        }
+        return new LoveFrameAnalysis.Rewrite(edits);
+    }
+
+    /**
+     * Returns the name of the local caching a LOVE function, such as 'lg_draw' for love.graphics.draw.
+     *
+     * @param moduleKey the module key
+     * @param function  the function name
+     * @return the suggested name, which may still clash with an identifier of the file
+     */
+    @NotNull
+    static String suggestLocalName(@NotNull String moduleKey, @NotNull String function) {
+        return ABBREVIATIONS.get(moduleKey) + "_" + function;
+    }
+
+    /**
+     * Collects the calls by full name in the loops of a function, not counting the functions nested in it. The
+     * header of a 'for' or 'while' loop is not part of the loop.
+     */
+    private void findLoopLookups(@NotNull LoveFrameAnalysis.Function function, @NotNull String callback,
+                                 @Nullable String functionName, @NotNull Set<String> excluded) {
+        // Open blocks: true for loops
+        List<Boolean> blocks = new ArrayList<>();
+        int loops = 0;
+        int i = function.bodyStart;
+        while (i < function.bodyEnd) {
+            if (tokens.is(i, "function")) {
+                i = analysis.getFunctions().get(analysis.findFunction(i)).bodyEnd + 1;
+                continue;
+            }
+            boolean loop = tokens.is(i, "for") || tokens.is(i, "while") || tokens.is(i, "repeat");
+            if (loop || tokens.is(i, "if") || tokens.is(i, "do")) {
+                blocks.add(loop);
+                if (loop) {
+                    loops++;
+                }
+                if (tokens.is(i, "for") || tokens.is(i, "while")) {
+                    int body = LoveFrameAnalysis.findLoopBody(tokens, i);
+                    if (body < 0) {
+                        break;
+                    }
+                    i = body;
+                    continue;
+                }
+            } else if ((tokens.is(i, "end") || tokens.is(i, "until")) && !blocks.isEmpty()) {
+                if (blocks.remove(blocks.size() - 1)) {
+                    loops--;
+                }
+            } else if (loops > 0) {
+                String qualifiedName = resolveCall(i, excluded);
+                if (qualifiedName != null) {
+                    lookups.add(new Lookup(qualifiedName, tokens.getStart(i), tokens.getEnd(i + 4), callback,
+                            functionName));
+                    i += 5;
+                    continue;
+                }
+            }
+            i++;
+        }
+    }
+
+    /**
+     * Resolves a call of a LOVE function by its full name starting at the given 'love' token.
+     *
+     * @return the qualified name, or null if there is no such call or the function is excluded from caching
+     */
+    @Nullable
+    private String resolveCall(int index, @NotNull Set<String> excluded) {
+        if (!tokens.is(index, LoveCompletionContext.LOVE_ROOT) || !tokens.isIdentifier(index + 4)
+                || analysis.chainStart(index + 4) != index || !isCallOpening(index + 5)) {
+            return null;
+        }
+        String moduleKey = analysis.resolveModule(index + 4);
+        if (moduleKey == null) {
+            return null;
+        }
+        String name = tokens.getTokenText(index + 4);
+        String qualifiedName = LoveCompletionContext.LOVE_ROOT + "." + moduleKey + "." + name;
+        if (excluded.contains(qualifiedName) || excluded.contains(moduleKey)
+                || !LoveApiCatalog.getInstance().getNames(moduleKey).contains(name)) {
+            return null;
+        }
+        return qualifiedName;
+    }
+
+    private boolean isCallOpening(int index) {
+        return tokens.is(index, "(") || tokens.is(index, "{") || tokens.getType(index) == LoveLuaTokens.STRING;
+    }
+
+    /**
+     * Returns the LOVE functions the file assigns, such as 'love.graphics.draw' for a wrapper installed with
+     * 'love.graphics.draw = ...', and the module keys the file loads with 'require'.
+     */
+    @NotNull
+    private Set<String> findExcluded() {
+        Set<String> excluded = new HashSet<>();
+        String requirePrefix = LoveCompletionContext.LOVE_ROOT + ".";
+        for (int i = 0; i < tokens.size(); i++) {
+            if (tokens.is(i, LoveCompletionContext.LOVE_ROOT) && tokens.isIdentifier(i + 4)
+                    && analysis.chainStart(i + 4) == i && tokens.is(i + 5, "=")) {
+                String moduleKey = analysis.resolveModule(i + 4);
+                if (moduleKey != null) {
+                    excluded.add(requirePrefix + moduleKey + "." + tokens.getTokenText(i + 4));
+                }
+            } else if (tokens.is(i, "require") && tokens.getType(i + 1) != LoveLuaTokens.NAME) {
+                int argument = tokens.is(i + 1, "(") ? i + 2 : i + 1;
+                if (tokens.getType(argument) == LoveLuaTokens.STRING) {
+                    String path = tokens.getTokenText(argument);
+                    String module = path.length() < 2 ? "" : path.substring(1, path.length() - 1);
+                    if (module.startsWith(requirePrefix)) {
+                        excluded.add(module.substring(requirePrefix.length()));
+                    }
+                }
+            }
+        }
+        return excluded;
+    }
+
+    /**
+     * Returns the token index of the 'local' keyword of each file scope declaration such as
+     * 'local draw = love.graphics.draw', by the qualified name it caches.
+     */
+    @NotNull
+    private Map<String, Integer> findDeclaredLocals() {
+        Map<String, Integer> declared = new HashMap<>();
+        for (int i = 0; i < tokens.size(); i++) {
+            if (tokens.is(i, "local") && tokens.isIdentifier(i + 1) && tokens.is(i + 2, "=")
+                    && tokens.is(i + 3, LoveCompletionContext.LOVE_ROOT) && tokens.isIdentifier(i + 7)
+                    && analysis.chainStart(i + 7) == i + 3
+                    && !tokens.is(i + 8, ".") && !tokens.is(i + 8, ":") && !tokens.is(i + 8, "[")
+                    && !tokens.is(i + 8, ",") && !isCallOpening(i + 8)
+                    && analysis.findEnclosingFunction(i) < 0) {
+                String moduleKey = analysis.resolveModule(i + 7);
+                if (moduleKey != null) {
+                    declared.putIfAbsent(LoveCompletionContext.LOVE_ROOT + "." + moduleKey + "."
+                            + tokens.getTokenText(i + 7), i);
+                }
+            }
+        }
+        return declared;
+    }
+
+    /**
+     * Abbreviates each module key to 'l' followed by its shortest prefix no other key starts with.
+     */
+    @NotNull
+    static Map<String, String> abbreviate(@NotNull List<String> moduleKeys) {
+        Map<String, String> abbreviations = new HashMap<>();
+        for (String key : moduleKeys) {
+            int length = 1;
+            while (length < key.length() && sharesPrefix(moduleKeys, key, length)) {
+                length++;
+            }
+            abbreviations.put(key, "l" + key.substring(0, length));
+        }
+        return Collections.unmodifiableMap(abbreviations);
+    }
+
+    private static boolean sharesPrefix(@NotNull List<String> keys, @NotNull String key, int length) {
+        for (String other : keys) {
+            if (!other.equals(key) && other.regionMatches(0, key, 0, length)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
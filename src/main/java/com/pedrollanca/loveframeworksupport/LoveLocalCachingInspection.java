@@ -0,0 +1,109 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 - Pedro Chamorro Llanca
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.pedrollanca.loveframeworksupport;
+
+import com.intellij.codeInspection.InspectionManager;
+import com.intellij.codeInspection.LocalInspectionTool;
+import com.intellij.codeInspection.LocalQuickFix;
+import com.intellij.codeInspection.ProblemDescriptor;
+import com.intellij.codeInspection.ProblemHighlightType;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.TextRange;
+import com.intellij.psi.PsiDocumentManager;
+import com.intellij.psi.PsiFile;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reports LOVE functions called by their full name, such as 'love.graphics.draw', in the loops of love.update and
+ * love.draw and of the functions of the same file they call. The analysis is done by {@link LoveLocalCaching}.
+ *
+ * <p>The quick-fix caches every LOVE function the file calls in a file scope local at once, so applying it to one
+ * problem fixes all of them. {@link CacheLoveFunctionsAction} applies it to every affected file of the project.
+ */
+public class LoveLocalCachingInspection extends LocalInspectionTool {
+
+    @Nullable
+    @Override
+    public ProblemDescriptor[] checkFile(@NotNull PsiFile file, @NotNull InspectionManager manager,
+                                         boolean isOnTheFly) {
+        if (!isCacheable(file)) {
+            return null;
+        }
+        List<LoveLocalCaching.Lookup> lookups = LoveLocalCaching.getInstance(file).getLoopLookups();
+        if (lookups.isEmpty()) {
+            return null;
+        }
+        List<ProblemDescriptor> problems = new ArrayList<>(lookups.size());
+        for (LoveLocalCaching.Lookup lookup : lookups) {
+            problems.add(manager.createProblemDescriptor(file, TextRange.create(lookup.start, lookup.end),
+                    lookup.getMessage(), ProblemHighlightType.GENERIC_ERROR_OR_WARNING, isOnTheFly,
+                    new CacheFunctionsFix()));
+        }
+        return problems.toArray(ProblemDescriptor.EMPTY_ARRAY);
+    }
+
+    /**
+     * Checks whether the LOVE functions a file calls may be cached: it is a Lua file and not conf.lua, which runs
+     * before the modules are loaded.
+     *
+     * @param file the file
+     * @return true if the file may be rewritten
+     */
+    static boolean isCacheable(@NotNull PsiFile file) {
+        return PluginUtils.isLuaFile(file) && !LoveConfModules.CONF_FILE_NAME.equals(file.getName());
+    }
+
+    /**
+     * Declares a file scope local for every LOVE function the file calls by its full name and calls the locals
+     * instead.
+     */
+    private static final class CacheFunctionsFix implements LocalQuickFix {
+
+        @NotNull
+        @Override
+        public String getFamilyName() {
+            return "Cache the LÖVE functions of the file in locals";
+        }
+
+        @Override
+        public void applyFix(@NotNull Project project, @NotNull ProblemDescriptor descriptor) {
+            PsiFile file = descriptor.getPsiElement().getContainingFile();
+            Document document = file == null ? null : PsiDocumentManager.getInstance(project).getDocument(file);
+            if (document == null) {
+                return;
+            }
+            // Already applied if another problem of the file was fixed first
+            LoveFrameAnalysis.Rewrite rewrite = LoveLocalCaching.analyze(document.getCharsSequence()).planCaching();
+            if (rewrite == null) {
+                return;
+            }
+            for (LoveFrameAnalysis.Edit edit : rewrite.edits) {
+                document.replaceString(edit.start, edit.end, edit.replacement);
+            }
+        }
+    }
+}
@@ -0,0 +1,426 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 - Pedro Chamorro Llanca
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.pedrollanca.loveframeworksupport;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+
+/**
+ * The tokens of a Lua source, without comments and whitespace.
+ *
+ * <p>Tokens are kept in parallel arrays of types and offsets, so tokenizing a file allocates a few arrays and no
+ * object per token. Keywords are {@link #NAME} tokens, told apart by {@link #is}.
+ */
+final class LoveLuaTokens {
+
+    /**
+     * An identifier or keyword.
+     */
+    static final byte NAME = 0;
+    /**
+     * A numeric literal.
+     */
+    static final byte NUMBER = 1;
+    /**
+     * A quoted or long bracket string literal.
+     */
+    static final byte STRING = 2;
+    /**
+     * An operator or punctuation, such as '{', '..' or '=='.
+     */
+    static final byte SYMBOL = 3;
+
+    /**
+     * The Lua keywords by their initial, so that a name is compared with a few of them in place.
+     */
+    private static final String[][] KEYWORDS_BY_INITIAL = groupByInitial("and", "break", "do", "else", "elseif",
+            "end", "false", "for", "function", "goto", "if", "in", "local", "nil", "not", "or", "repeat", "return",
+            "then", "true", "until", "while");
+
+    private static final String[] LONG_SYMBOLS = {"...", "..", "==", "~=", "<=", ">=", "::", "//", "<<", ">>"};
+
+    private final CharSequence text;
+    private byte[] types;
+    private int[] starts;
+    private int[] ends;
+    private int size;
+
+    private LoveLuaTokens(@NotNull CharSequence text, int capacity) {
+        this.text = text;
+        this.types = new byte[capacity];
+        this.starts = new int[capacity];
+        this.ends = new int[capacity];
+    }
+
+    /**
+     * Splits a Lua source into tokens, skipping comments.
+     *
+     * @param text the source
+     * @return the tokens
+     */
+    @NotNull
+    static LoveLuaTokens tokenize(@NotNull CharSequence text) {
+        int length = text.length();
+        LoveLuaTokens tokens = new LoveLuaTokens(text, Math.max(16, length / 4));
+        int i = 0;
+        while (i < length) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+                continue;
+            }
+            int skipped = LoveLuaTokens.skipCommentOrString(text, i);
+            if (skipped > i) {
+                if (c != '-') {
+                    tokens.add(STRING, i, skipped);
+                }
+                i = skipped;
+            } else if (Character.isDigit(c) || c == '.' && i + 1 < length && Character.isDigit(text.charAt(i + 1))) {
+                int end = skipNumber(text, i);
+                tokens.add(NUMBER, i, end);
+                i = end;
+            } else if (LoveCompletionContext.isIdentifierPart(c)) {
+                int end = i + 1;
+                while (end < length && LoveCompletionContext.isIdentifierPart(text.charAt(end))) {
+                    end++;
+                }
+                tokens.add(NAME, i, end);
+                i = end;
+            } else {
+                int end = i + symbolLength(text, i);
+                tokens.add(SYMBOL, i, end);
+                i = end;
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Returns the source the tokens were read from.
+     *
+     * @return the source
+     */
+    @NotNull
+    CharSequence getText() {
+        return text;
+    }
+
+    /**
+     * Returns the number of tokens.
+     *
+     * @return the token count
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns the type of a token.
+     *
+     * @param index the token index
+     * @return one of {@link #NAME}, {@link #NUMBER}, {@link #STRING} and {@link #SYMBOL}
+     */
+    byte getType(int index) {
+        return types[index];
+    }
+
+    /**
+     * Returns the start offset of a token.
+     *
+     * @param index the token index
+     * @return the start offset
+     */
+    int getStart(int index) {
+        return starts[index];
+    }
+
+    /**
+     * Returns the end offset of a token.
+     *
+     * @param index the token index
+     * @return the end offset, exclusive
+     */
+    int getEnd(int index) {
+        return ends[index];
+    }
+
+    /**
+     * Checks whether the token exists and its text is the given one, without creating a substring.
+     *
+     * @param index the token index, may be out of range
+     * @param value the expected text, such as 'function' or '{'
+     * @return true if the token matches
+     */
+    boolean is(int index, @NotNull String value) {
+        return index >= 0 && index < size
+                && LoveCompletionContext.regionEquals(text, starts[index], ends[index], value);
+    }
+
+    /**
+     * Checks whether the token is an identifier, i.e. a name that is not a keyword.
+     *
+     * @param index the token index, may be out of range
+     * @return true for identifiers
+     */
+    boolean isIdentifier(int index) {
+        return index >= 0 && index < size && types[index] == NAME && !isKeyword(index);
+    }
+
+    /**
+     * Checks whether the token is a Lua keyword.
+     *
+     * @param index the token index
+     * @return true for keywords
+     */
+    boolean isKeyword(int index) {
+        int start = starts[index];
+        int length = ends[index] - start;
+        char initial = text.charAt(start);
+        if (types[index] != NAME || length < 2 || length > 8 || initial < 'a' || initial > 'z') {
+            return false;
+        }
+        for (String keyword : KEYWORDS_BY_INITIAL[initial - 'a']) {
+            if (LoveCompletionContext.regionEquals(text, start, ends[index], keyword)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the text of a token.
+     *
+     * @param index the token index
+     * @return the token text
+     */
+    @NotNull
+    String getTokenText(int index) {
+        return text.subSequence(starts[index], ends[index]).toString();
+    }
+
+    /**
+     * Returns the index of the bracket closing the one at the given index, counting '(', '[' and '{' alike.
+     *
+     * @param open the index of an opening bracket
+     * @return the index of the closing bracket, or the token count if it is missing
+     */
+    int findClosing(int open) {
+        int depth = 0;
+        for (int i = open; i < size; i++) {
+            if (types[i] != SYMBOL) {
+                continue;
+            }
+            char c = text.charAt(starts[i]);
+            if (c == '(' || c == '[' || c == '{') {
+                depth++;
+            } else if ((c == ')' || c == ']' || c == '}') && --depth == 0) {
+                return i;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Skips the comment, string or long string starting at the given offset.
+     *
+     * @param text the Lua source
+     * @param from the offset to look at
+     * @return the offset after the comment or string, or {@code from} if none starts there
+     */
+    static int skipCommentOrString(@NotNull CharSequence text, int from) {
+        char c = text.charAt(from);
+        if (c == '-' && from + 1 < text.length() && text.charAt(from + 1) == '-') {
+            int bracket = longBracketLevel(text, from + 2);
+            return bracket >= 0 ? skipLongBracket(text, from + 2, bracket) : skipLine(text, from);
+        }
+        if (c == '"' || c == '\'') {
+            return skipString(text, from);
+        }
+        if (c == '[') {
+            int bracket = longBracketLevel(text, from);
+            return bracket >= 0 ? skipLongBracket(text, from, bracket) : from;
+        }
+        return from;
+    }
+
+    /**
+     * Skips the identifier characters starting at the given offset.
+     *
+     * @param text the Lua source
+     * @param from the offset to start at
+     * @return the offset after the identifier, or {@code from} if none starts there
+     */
+    static int skipIdentifier(@NotNull CharSequence text, int from) {
+        int i = from;
+        while (i < text.length() && LoveCompletionContext.isIdentifierPart(text.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Skips the whitespace starting at the given offset.
+     *
+     * @param text the Lua source
+     * @param from the offset to start at
+     * @return the offset of the first character that is not whitespace, or the end of the text
+     */
+    static int skipWhitespace(@NotNull CharSequence text, int from) {
+        int i = from;
+        while (i < text.length() && Character.isWhitespace(text.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Returns the level of the long bracket opening at the given offset, i.e. the number of '=' in '[==[', or -1 if
+     * there is none.
+     */
+    private static int longBracketLevel(@NotNull CharSequence text, int from) {
+        if (from >= text.length() || text.charAt(from) != '[') {
+            return -1;
+        }
+        int i = from + 1;
+        while (i < text.length() && text.charAt(i) == '=') {
+            i++;
+        }
+        return i < text.length() && text.charAt(i) == '[' ? i - from - 1 : -1;
+    }
+
+    /**
+     * Skips a long string or comment opened by a bracket of the given level.
+     *
+     * @return the offset after the closing bracket, or the end of the text
+     */
+    private static int skipLongBracket(@NotNull CharSequence text, int from, int level) {
+        int i = from + level + 2;
+        while (i < text.length()) {
+            if (text.charAt(i) == ']') {
+                int j = i + 1;
+                while (j < text.length() && text.charAt(j) == '=') {
+                    j++;
+                }
+                if (j - i - 1 == level && j < text.length() && text.charAt(j) == ']') {
+                    return j + 1;
+                }
+                i = j;
+            } else {
+                i++;
+            }
+        }
+        return i;
+    }
+
+    /**
+     * Skips the rest of a line, such as a line comment.
+     *
+     * @return the offset of the line break, or the end of the text
+     */
+    static int skipLine(@NotNull CharSequence text, int from) {
+        int i = from;
+        while (i < text.length() && text.charAt(i) != '\n') {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Skips a quoted string, which ends at the closing quote or the end of the line.
+     *
+     * @return the offset after the string, at most the length of the text
+     */
+    static int skipString(@NotNull CharSequence text, int from) {
+        char quote = text.charAt(from);
+        int i = from + 1;
+        while (i < text.length()) {
+            char c = text.charAt(i);
+            if (c == '\\') {
+                i += 2;
+            } else if (c == quote || c == '\n') {
+                return i + 1;
+            } else {
+                i++;
+            }
+        }
+        // An escape at the very end of an unterminated string steps past the text
+        return Math.min(i, text.length());
+    }
+
+    @NotNull
+    private static String[][] groupByInitial(@NotNull String... keywords) {
+        String[][] groups = new String[26][0];
+        for (String keyword : keywords) {
+            String[] group = groups[keyword.charAt(0) - 'a'];
+            group = Arrays.copyOf(group, group.length + 1);
+            group[group.length - 1] = keyword;
+            groups[keyword.charAt(0) - 'a'] = group;
+        }
+        return groups;
+    }
+
+    private void add(byte type, int start, int end) {
+        if (size == types.length) {
+            int capacity = size * 2;
+            types = Arrays.copyOf(types, capacity);
+            starts = Arrays.copyOf(starts, capacity);
+            ends = Arrays.copyOf(ends, capacity);
+        }
+        types[size] = type;
+        starts[size] = start;
+        ends[size] = end;
+        size++;
+    }
+
+    /**
+     * Moves over a decimal or hexadecimal number, including a fraction and an exponent.
+     */
+    private static int skipNumber(@NotNull CharSequence text, int from) {
+        boolean hexadecimal = from + 1 < text.length() && text.charAt(from) == '0'
+                && (text.charAt(from + 1) == 'x' || text.charAt(from + 1) == 'X');
+        String exponents = hexadecimal ? "pP" : "eE";
+        int i = from;
+        while (i < text.length()) {
+            char c = text.charAt(i);
+            if (LoveCompletionContext.isIdentifierPart(c) || c == '.' && !(i + 1 < text.length()
+                    && text.charAt(i + 1) == '.')) {
+                i++;
+            } else if ((c == '+' || c == '-') && exponents.indexOf(text.charAt(i - 1)) >= 0) {
+                i++;
+            } else {
+                break;
+            }
+        }
+        return i;
+    }
+
+    private static int symbolLength(@NotNull CharSequence text, int from) {
+        for (String symbol : LONG_SYMBOLS) {
+            if (from + symbol.length() <= text.length()
+                    && LoveCompletionContext.regionEquals(text, from, from + symbol.length(), symbol)) {
+                return symbol.length();
+            }
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,368 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 - Pedro Chamorro Llanca
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.pedrollanca.loveframeworksupport;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * An Aho-Corasick automaton over the qualified names of the LOVE API ('love.load', 'love.graphics',
+ * 'love.graphics.draw', ...), finding every reference in a text in a single pass whose cost depends on the length
+ * of the text only, not on the number of names.
+ *
+ * <p>The automaton is stored in flat arrays: the children of a state are numbered consecutively and sorted by
+ * label, each state records its failure link and the name ending there, if any.
+ */
+public final class LoveNameAutomaton {
+
+    /**
+     * What a qualified name refers to.
+     */
+    public enum Kind {
+        CALLBACK, MODULE, FUNCTION
+    }
+
+    /**
+     * Receives the references found by {@link #scan}.
+     */
+    @FunctionalInterface
+    public interface MatchConsumer {
+
+        /**
+         * Called for every reference, in text order.
+         *
+         * @param start the start offset of the qualified name
+         * @param end   the end offset of the qualified name
+         * @param kind  what the name refers to
+         */
+        void match(int start, int end, @NotNull Kind kind);
+    }
+
+    private static final int ROOT = 0;
+    private static final int NO_NAME = -1;
+    private static final int NO_STATE = -1;
+
+    private final char[] labels;
+    private final int[] firstChild;
+    private final int[] childCount;
+    private final int[] failure;
+    /**
+     * Index of the name ending at a state, or {@code NO_NAME}.
+     */
+    private final int[] nameAt;
+    /**
+     * The closest state along the failure links where a name ends, or {@code NO_STATE}.
+     */
+    private final int[] dictionary;
+    private final int[] nameLengths;
+    private final Kind[] nameKinds;
+    /**
+     * The {@link LoveVersion} mask of every name.
+     */
+    private final byte[] nameVersions;
+
+    private LoveNameAutomaton(char[] labels, int[] firstChild, int[] childCount, int[] nameAt, int[] nameLengths,
+                              Kind[] nameKinds, byte[] nameVersions) {
+        this.labels = labels;
+        this.firstChild = firstChild;
+        this.childCount = childCount;
+        this.failure = new int[labels.length];
+        this.nameAt = nameAt;
+        this.dictionary = new int[labels.length];
+        this.nameLengths = nameLengths;
+        this.nameKinds = nameKinds;
+        this.nameVersions = nameVersions;
+    }
+
+    /**
+     * Returns the automaton over every qualified name of the bundled {@link LoveApiCatalog}, built on first use.
+     *
+     * @return the shared automaton
+     */
+    @NotNull
+    public static LoveNameAutomaton getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Builds an automaton over the given qualified names, which exist in every LOVE version.
+     *
+     * @param names the qualified names
+     * @param kinds what each name refers to, in the same order
+     * @return the automaton
+     */
+    @NotNull
+    static LoveNameAutomaton build(@NotNull List<String> names, @NotNull List<Kind> kinds) {
+        List<Integer> versions = new ArrayList<>(names.size());
+        for (int i = 0; i < names.size(); i++) {
+            versions.add(LoveVersion.ALL);
+        }
+        return build(names, kinds, versions);
+    }
+
+    /**
+     * Builds an automaton over the given qualified names.
+     *
+     * @param names    the qualified names
+     * @param kinds    what each name refers to, in the same order
+     * @param versions the {@link LoveVersion} mask of each name, in the same order
+     * @return the automaton
+     */
+    @NotNull
+    static LoveNameAutomaton build(@NotNull List<String> names, @NotNull List<Kind> kinds,
+                                   @NotNull List<Integer> versions) {
+        // Sort the names so the children of every state are created in label order
+        Integer[] order = new Integer[names.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> names.get(a).compareTo(names.get(b)));
+
+        // Breadth-first construction over the sorted names: a state covers the range of names sharing its path
+        List<int[]> states = new ArrayList<>();
+        StringBuilder stateLabels = new StringBuilder();
+        states.add(new int[]{0, names.size(), 0, 0, 0, NO_NAME});
+        stateLabels.append('\0');
+        for (int state = 0; state < states.size(); state++) {
+            int[] current = states.get(state);
+            int start = current[0];
+            int end = current[1];
+            int depth = current[2];
+            current[3] = states.size();
+
+            int i = start;
+            while (i < end && names.get(order[i]).length() == depth) {
+                current[5] = order[i];
+                i++;
+            }
+            while (i < end) {
+                char label = names.get(order[i]).charAt(depth);
+                int childStart = i;
+                while (i < end && names.get(order[i]).charAt(depth) == label) {
+                    i++;
+                }
+                states.add(new int[]{childStart, i, depth + 1, 0, 0, NO_NAME});
+                stateLabels.append(label);
+            }
+            current[4] = states.size() - current[3];
+        }
+
+        int stateCount = states.size();
+        char[] labels = stateLabels.toString().toCharArray();
+        int[] firstChild = new int[stateCount];
+        int[] childCount = new int[stateCount];
+        int[] nameAt = new int[stateCount];
+        for (int state = 0; state < stateCount; state++) {
+            int[] current = states.get(state);
+            firstChild[state] = current[3];
+            childCount[state] = current[4];
+            nameAt[state] = current[5];
+        }
+        int[] nameLengths = new int[names.size()];
+        Kind[] nameKinds = new Kind[names.size()];
+        byte[] nameVersions = new byte[names.size()];
+        for (int i = 0; i < nameLengths.length; i++) {
+            nameLengths[i] = names.get(i).length();
+            nameKinds[i] = kinds.get(i);
+            nameVersions[i] = (byte) (int) versions.get(i);
+        }
+
+        LoveNameAutomaton automaton = new LoveNameAutomaton(labels, firstChild, childCount, nameAt, nameLengths,
+                nameKinds, nameVersions);
+        automaton.linkFailures();
+        return automaton;
+    }
+
+    /**
+     * Computes the failure and dictionary links in breadth-first order, which is the state numbering, so the links
+     * of shallower states are always complete.
+     */
+    private void linkFailures() {
+        dictionary[ROOT] = NO_STATE;
+        for (int state = 0; state < failure.length; state++) {
+            int child = firstChild[state];
+            int last = child + childCount[state];
+            for (; child < last; child++) {
+                int target = state == ROOT ? ROOT : next(failure[state], labels[child]);
+                failure[child] = target;
+                dictionary[child] = nameAt[target] != NO_NAME ? target : dictionary[target];
+            }
+        }
+    }
+
+    /**
+     * Follows the transition for a character, falling back along failure links.
+     */
+    private int next(int state, char c) {
+        while (true) {
+            int child = findChild(state, c);
+            if (child >= 0) {
+                return child;
+            }
+            if (state == ROOT) {
+                return ROOT;
+            }
+            state = failure[state];
+        }
+    }
+
+    private int findChild(int state, char c) {
+        int low = firstChild[state];
+        int high = low + childCount[state] - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            char label = labels[mid];
+            if (label < c) {
+                low = mid + 1;
+            } else if (label > c) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Reports every qualified name in [start, end) of the text that stands on its own: not preceded by a member
+     * access ('obj.love.draw') and not followed by more identifier characters ('love.drawing'). Where several
+     * names start at the same offset, such as 'love.graphics' and 'love.graphics.draw', only the longest one is
+     * reported.
+     *
+     * @param text     the text to scan
+     * @param start    the offset to start scanning at
+     * @param end      the offset to stop scanning at
+     * @param consumer receives the references in text order
+     */
+    public void scan(@NotNull CharSequence text, int start, int end, @NotNull MatchConsumer consumer) {
+        scan(text, start, end, LoveVersion.ALL, consumer);
+    }
+
+    /**
+     * Reports the qualified names in [start, end) of the text like {@link #scan(CharSequence, int, int,
+     * MatchConsumer)}, ignoring names that exist in none of the given versions. A function missing from the
+     * version, such as 'love.graphics.newTextBatch' before 12.0, is then reported as its module.
+     *
+     * @param text     the text to scan
+     * @param start    the offset to start scanning at
+     * @param end      the offset to stop scanning at
+     * @param versions the {@link LoveVersion} mask the names have to exist in
+     * @param consumer receives the references in text order
+     */
+    public void scan(@NotNull CharSequence text, int start, int end, int versions, @NotNull MatchConsumer consumer) {
+        int state = ROOT;
+        int pendingStart = -1;
+        int pendingEnd = -1;
+        Kind pendingKind = null;
+        for (int i = start; i < end; i++) {
+            state = next(state, text.charAt(i));
+            int matchEnd = i + 1;
+            if (matchEnd < text.length() && LoveCompletionContext.isIdentifierPart(text.charAt(matchEnd))) {
+                // A longer identifier continues here, e.g. 'love.drawing'
+                continue;
+            }
+            // The names ending here, from the longest to the shortest
+            int match = nameAt[state] != NO_NAME ? state : dictionary[state];
+            for (; match != NO_STATE; match = dictionary[match]) {
+                int name = nameAt[match];
+                int matchStart = matchEnd - nameLengths[name];
+                if ((nameVersions[name] & versions) == 0 || !startsReference(text, matchStart)) {
+                    continue;
+                }
+                // Names starting at the same offset end in increasing order, so a later one is longer
+                if (matchStart != pendingStart && pendingKind != null) {
+                    consumer.match(pendingStart, pendingEnd, pendingKind);
+                }
+                pendingStart = matchStart;
+                pendingEnd = matchEnd;
+                pendingKind = nameKinds[name];
+                break;
+            }
+        }
+        if (pendingKind != null) {
+            consumer.match(pendingStart, pendingEnd, pendingKind);
+        }
+    }
+
+    /**
+     * A reference starts at the beginning of the text or after a character that neither continues an identifier
+     * nor accesses a member.
+     */
+    private static boolean startsReference(@NotNull CharSequence text, int offset) {
+        return offset == 0 || !isMemberPart(text.charAt(offset - 1));
+    }
+
+    private static boolean isMemberPart(char c) {
+        return LoveCompletionContext.isIdentifierPart(c) || c == '.' || c == ':';
+    }
+
+    /**
+     * Returns the number of qualified names.
+     *
+     * @return the name count
+     */
+    int size() {
+        return nameLengths.length;
+    }
+
+    /**
+     * Builds the automaton over the callbacks, modules and module functions of the bundled catalog.
+     */
+    @NotNull
+    private static LoveNameAutomaton fromCatalog() {
+        LoveApiCatalog catalog = LoveApiCatalog.getInstance();
+        List<String> names = new ArrayList<>();
+        List<Kind> kinds = new ArrayList<>();
+        String root = LoveCompletionContext.LOVE_ROOT + ".";
+        List<Integer> versions = new ArrayList<>();
+        List<String> callbacks = catalog.getNames(LoveTypes.CALLBACKS_KEY);
+        for (int i = 0; i < callbacks.size(); i++) {
+            names.add(root + callbacks.get(i));
+            kinds.add(Kind.CALLBACK);
+            versions.add(catalog.getVersions(LoveTypes.CALLBACKS_KEY, i));
+        }
+        List<String> modules = catalog.getNames(LoveTypes.MODULES_KEY);
+        for (int i = 0; i < modules.size(); i++) {
+            String module = modules.get(i);
+            names.add(root + module);
+            kinds.add(Kind.MODULE);
+            versions.add(catalog.getVersions(LoveTypes.MODULES_KEY, i));
+            List<String> functions = catalog.getNames(module);
+            for (int j = 0; j < functions.size(); j++) {
+                names.add(root + module + "." + functions.get(j));
+                kinds.add(Kind.FUNCTION);
+                versions.add(catalog.getVersions(module, j));
+            }
+        }
+        return build(names, kinds, versions);
+    }
+
+    /**
+     * Defers building the automaton until it is first used.
+     */
+    private static final class Holder {
+        private static final LoveNameAutomaton INSTANCE = fromCatalog();
+    }
+}
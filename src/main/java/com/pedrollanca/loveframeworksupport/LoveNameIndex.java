@@ -0,0 +1,269 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 - Pedro Chamorro Llanca
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.pedrollanca.loveframeworksupport;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+
+/**
+ * An immutable prefix trie over LOVE API names.
+ *
+ * <p>Values are kept sorted by their lower-cased name, so every trie node covers a contiguous range of values and
+ * a plain prefix query returns a view of that range without copying. Camel-hump queries such as 'nSB' for
+ * 'newSpriteBatch' descend by their first hump and verify the remaining humps on the candidates below it.
+ *
+ * <p>The trie is stored in flat arrays: the children of a node are numbered consecutively, and each node records
+ * the label of the edge leading to it and the value range it covers.
+ *
+ * @param <T> the type of the indexed values
+ */
+public final class LoveNameIndex<T> {
+
+    private final String[] names;
+    private final List<T> values;
+
+    private final char[] labels;
+    private final int[] firstChild;
+    private final int[] childCount;
+    private final int[] rangeStart;
+    private final int[] rangeEnd;
+
+    private LoveNameIndex(String[] names, List<T> values, char[] labels, int[] firstChild, int[] childCount,
+                          int[] rangeStart, int[] rangeEnd) {
+        this.names = names;
+        this.values = values;
+        this.labels = labels;
+        this.firstChild = firstChild;
+        this.childCount = childCount;
+        this.rangeStart = rangeStart;
+        this.rangeEnd = rangeEnd;
+    }
+
+    /**
+     * Builds an index over the given values.
+     *
+     * @param values the values to index
+     * @param nameOf extracts the name a value is completed by
+     * @param <T>    the type of the indexed values
+     * @return the immutable index
+     */
+    @NotNull
+    public static <T> LoveNameIndex<T> build(@NotNull List<? extends T> values, @NotNull Function<? super T, String> nameOf) {
+        int size = values.size();
+        Integer[] order = new Integer[size];
+        String[] keys = new String[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+            keys[i] = nameOf.apply(values.get(i)).toLowerCase(Locale.ROOT);
+        }
+        Arrays.sort(order, Comparator.comparing(i -> keys[i]));
+
+        String[] names = new String[size];
+        String[] sortedKeys = new String[size];
+        List<T> sortedValues = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            names[i] = nameOf.apply(values.get(order[i]));
+            sortedKeys[i] = keys[order[i]];
+            sortedValues.add(values.get(order[i]));
+        }
+
+        // Breadth-first construction keeps the children of every node consecutive
+        List<int[]> nodes = new ArrayList<>();
+        StringBuilder nodeLabels = new StringBuilder();
+        nodes.add(new int[]{0, size, 0, 0, 0});
+        nodeLabels.append('\0');
+        for (int node = 0; node < nodes.size(); node++) {
+            int[] current = nodes.get(node);
+            int start = current[0];
+            int end = current[1];
+            int depth = current[2];
+            current[3] = nodes.size();
+
+            int i = start;
+            while (i < end && sortedKeys[i].length() == depth) {
+                i++;
+            }
+            while (i < end) {
+                char label = sortedKeys[i].charAt(depth);
+                int childStart = i;
+                while (i < end && sortedKeys[i].charAt(depth) == label) {
+                    i++;
+                }
+                nodes.add(new int[]{childStart, i, depth + 1, 0, 0});
+                nodeLabels.append(label);
+            }
+            current[4] = nodes.size() - current[3];
+        }
+
+        int nodeCount = nodes.size();
+        char[] labels = nodeLabels.toString().toCharArray();
+        int[] firstChild = new int[nodeCount];
+        int[] childCount = new int[nodeCount];
+        int[] rangeStart = new int[nodeCount];
+        int[] rangeEnd = new int[nodeCount];
+        for (int node = 0; node < nodeCount; node++) {
+            int[] current = nodes.get(node);
+            rangeStart[node] = current[0];
+            rangeEnd[node] = current[1];
+            firstChild[node] = current[3];
+            childCount[node] = current[4];
+        }
+        return new LoveNameIndex<>(names, Collections.unmodifiableList(sortedValues), labels, firstChild, childCount,
+                rangeStart, rangeEnd);
+    }
+
+    /**
+     * Returns the number of indexed values.
+     *
+     * @return the number of values
+     */
+    public int size() {
+        return values.size();
+    }
+
+    /**
+     * Returns all values whose name starts with the query, ignoring case, or matches it by camel humps.
+     *
+     * @param query the typed prefix, e.g. 'draw', 'newSp' or 'nSB'
+     * @return the matching values in name order
+     */
+    @NotNull
+    public List<T> lookup(@NotNull String query) {
+        if (query.isEmpty()) {
+            return values;
+        }
+        int firstHumpEnd = firstHumpEnd(query);
+        int node = descend(query, firstHumpEnd);
+        if (node < 0) {
+            return Collections.emptyList();
+        }
+        if (firstHumpEnd == query.length()) {
+            // Plain prefix: the whole subtree matches
+            return values.subList(rangeStart[node], rangeEnd[node]);
+        }
+
+        List<T> result = new ArrayList<>();
+        for (int i = rangeStart[node]; i < rangeEnd[node]; i++) {
+            String name = names[i];
+            if (name.regionMatches(true, 0, query, 0, query.length())
+                    || matchesHumps(name, firstHumpEnd, query, firstHumpEnd)) {
+                result.add(values.get(i));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Checks whether a name starts with the query, ignoring case, or matches it by camel humps. This is the test
+     * {@link #lookup} applies to every value.
+     *
+     * @param name  the name of a value
+     * @param query the typed prefix
+     * @return true if the name matches
+     */
+    static boolean matches(@NotNull String name, @NotNull String query) {
+        if (query.isEmpty()) {
+            return true;
+        }
+        int firstHumpEnd = firstHumpEnd(query);
+        if (!name.regionMatches(true, 0, query, 0, firstHumpEnd)) {
+            return false;
+        }
+        return name.regionMatches(true, 0, query, 0, query.length())
+                || matchesHumps(name, firstHumpEnd, query, firstHumpEnd);
+    }
+
+    /**
+     * Returns the end of the first hump of a non-empty query, i.e. the index of its second upper-case character.
+     */
+    private static int firstHumpEnd(@NotNull String query) {
+        int end = 1;
+        while (end < query.length() && !Character.isUpperCase(query.charAt(end))) {
+            end++;
+        }
+        return end;
+    }
+
+    /**
+     * Walks down the trie along the first {@code length} characters of the query, ignoring case.
+     *
+     * @return the node reached, or -1 if no name has that prefix
+     */
+    private int descend(@NotNull String query, int length) {
+        int node = 0;
+        for (int i = 0; i < length; i++) {
+            char c = Character.toLowerCase(query.charAt(i));
+            int child = firstChild[node];
+            int last = child + childCount[node];
+            while (child < last && labels[child] != c) {
+                child++;
+            }
+            if (child == last) {
+                return -1;
+            }
+            node = child;
+        }
+        return node;
+    }
+
+    /**
+     * Matches the remaining query humps against the humps of a name. Each query hump (starting at an upper-case
+     * character) has to be a case-insensitive prefix of a later name hump, in order; name humps may be skipped.
+     */
+    static boolean matchesHumps(@NotNull String name, int nameFrom, @NotNull String query, int queryFrom) {
+        if (queryFrom == query.length()) {
+            return true;
+        }
+        int humpEnd = queryFrom + 1;
+        while (humpEnd < query.length() && !Character.isUpperCase(query.charAt(humpEnd))) {
+            humpEnd++;
+        }
+        int humpLength = humpEnd - queryFrom;
+        for (int i = nameFrom; i < name.length(); i++) {
+            if (isHumpStart(name, i)
+                    && name.regionMatches(true, i, query, queryFrom, humpLength)
+                    && matchesHumps(name, i + humpLength, query, humpEnd)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns true if a new hump starts at the given index of a camel-case name.
+     */
+    private static boolean isHumpStart(@NotNull String name, int index) {
+        if (index == 0) {
+            return true;
+        }
+        char c = name.charAt(index);
+        char previous = name.charAt(index - 1);
+        return Character.isUpperCase(c) || previous == '_' || Character.isDigit(c) && !Character.isDigit(previous);
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 - Pedro Chamorro Llanca
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.pedrollanca.loveframeworksupport;
+
+import com.intellij.openapi.options.Configurable;
+import com.intellij.openapi.project.Project;
+import org.jetbrains.annotations.Nls;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.swing.BoxLayout;
+import javax.swing.JComboBox;
+import javax.swing.JComponent;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import java.awt.FlowLayout;
+
+/**
+ * The 'Languages &amp; Frameworks | LÖVE' settings page, selecting the LOVE version of the project.
+ */
+public class LoveProjectConfigurable implements Configurable {
+
+    private final Project project;
+
+    @Nullable
+    private JComboBox<LoveVersion> versionComboBox;
+
+    public LoveProjectConfigurable(@NotNull Project project) {
+        this.project = project;
+    }
+
+    @Nls
+    @Override
+    public String getDisplayName() {
+        return "LÖVE";
+    }
+
+    @Nullable
+    @Override
+    public JComponent createComponent() {
+        versionComboBox = new JComboBox<>(LoveVersion.values());
+        JPanel row = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        row.add(new JLabel("Target LÖVE version:"));
+        row.add(versionComboBox);
+        JPanel panel = new JPanel();
+        panel.setLayout(new BoxLayout(panel, BoxLayout.Y_AXIS));
+        panel.add(row);
+        reset();
+        return panel;
+    }
+
+    @Override
+    public boolean isModified() {
+        return versionComboBox != null
+                && versionComboBox.getSelectedItem() != LoveProjectSettings.getInstance(project).getVersion();
+    }
+
+    @Override
+    public void apply() {
+        if (versionComboBox != null && versionComboBox.getSelectedItem() instanceof LoveVersion) {
+            LoveProjectSettings.getInstance(project).setVersion((LoveVersion) versionComboBox.getSelectedItem());
+        }
+    }
+
+    @Override
+    public void reset() {
+        if (versionComboBox != null) {
+            versionComboBox.setSelectedItem(LoveProjectSettings.getInstance(project).getVersion());
+        }
+    }
+
+    @Override
+    public void disposeUIResources() {
+        versionComboBox = null;
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 - Pedro Chamorro Llanca
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.pedrollanca.loveframeworksupport;
+
+import com.intellij.codeInsight.daemon.DaemonCodeAnalyzer;
+import com.intellij.openapi.components.PersistentStateComponent;
+import com.intellij.openapi.components.Service;
+import com.intellij.openapi.components.State;
+import com.intellij.openapi.components.Storage;
+import com.intellij.openapi.project.Project;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The LOVE settings of a project: the {@link LoveVersion} its code targets.
+ *
+ * <p>Completion, highlighting, inspections and documentation read the target version on every use and filter the
+ * shared catalog structures by its mask, so a change applies immediately.
+ */
+@Service(Service.Level.PROJECT)
+@State(name = "LoveProjectSettings", storages = @Storage("love.xml"))
+public final class LoveProjectSettings implements PersistentStateComponent<LoveProjectSettings.SettingsState> {
+
+    @Nullable
+    private final Project project;
+
+    private volatile LoveVersion version = LoveVersion.DEFAULT;
+
+    public LoveProjectSettings(@Nullable Project project) {
+        this.project = project;
+    }
+
+    /**
+     * Returns the settings of a project.
+     *
+     * @param project the project
+     * @return the settings service
+     */
+    @NotNull
+    public static LoveProjectSettings getInstance(@NotNull Project project) {
+        return project.getService(LoveProjectSettings.class);
+    }
+
+    /**
+     * Returns the target version of a project, or the default version when there is no project.
+     *
+     * @param project the project, may be null
+     * @return the target version
+     */
+    @NotNull
+    public static LoveVersion getVersion(@Nullable Project project) {
+        return project == null || project.isDefault() ? LoveVersion.DEFAULT : getInstance(project).getVersion();
+    }
+
+    /**
+     * Returns the LOVE version the project targets.
+     *
+     * @return the target version
+     */
+    @NotNull
+    public LoveVersion getVersion() {
+        return version;
+    }
+
+    /**
+     * Changes the LOVE version the project targets and re-highlights the open files.
+     *
+     * @param version the new target version
+     */
+    public void setVersion(@NotNull LoveVersion version) {
+        if (this.version == version) {
+            return;
+        }
+        this.version = version;
+        if (project != null && !project.isDefault()) {
+            DaemonCodeAnalyzer.getInstance(project).restart();
+        }
+    }
+
+    @NotNull
+    @Override
+    public SettingsState getState() {
+        SettingsState state = new SettingsState();
+        state.version = version.getId();
+        return state;
+    }
+
+    @Override
+    public void loadState(@NotNull SettingsState state) {
+        LoveVersion loaded = LoveVersion.fromId(state.version);
+        version = loaded == null ? LoveVersion.DEFAULT : loaded;
+    }
+
+    /**
+     * The persisted form of the settings.
+     */
+    public static final class SettingsState {
+        public String version = LoveVersion.DEFAULT.getId();
+    }
+}
@@ -0,0 +1,493 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 - Pedro Chamorro Llanca
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.pedrollanca.loveframeworksupport;
+
+import com.intellij.openapi.util.Key;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Finds 'love.graphics.draw' calls in for loops that draw the same texture on every iteration, such as the tiles
+ * of a map. Each call is a draw call of its own, while a SpriteBatch holding the sprites draws them with one.
+ *
+ * <p>A texture is the same on every iteration if it is a variable or field, such as 'tiles' or 'assets.tiles', that
+ * is not assigned in the loop. Among nested loops the outermost one the texture doesn't change in is batched, and
+ * the number of draw calls is estimated from the bounds of numeric loops with literal bounds.
+ */
+final class LoveSpriteBatchAnalysis {
+
+    private static final Key<CachedValue<LoveSpriteBatchAnalysis>> ANALYSIS_KEY =
+            Key.create("love.sprite.batch.analysis");
+
+    private static final String DRAW = "draw";
+
+    /**
+     * Markers of open blocks that are not loops.
+     */
+    private static final int FUNCTION_BLOCK = -2;
+    private static final int OTHER_BLOCK = -1;
+
+    /**
+     * A draw call that a SpriteBatch can replace.
+     */
+    static final class Opportunity {
+        /**
+         * The texture argument, such as 'tiles' or 'assets.tiles'.
+         */
+        final String texture;
+        /**
+         * The offsets of the draw call.
+         */
+        final int start;
+        final int end;
+        /**
+         * The estimated draw calls per frame, -1 if the loop bounds are not literals.
+         */
+        final long drawCalls;
+        /**
+         * True if the loop draws nothing else, so the call can be replaced by a SpriteBatch automatically.
+         */
+        final boolean refactorable;
+
+        private final int loop;
+        private final int chainStart;
+        private final int name;
+        private final int textureEnd;
+        private final int close;
+
+        Opportunity(@NotNull String texture, int start, int end, long drawCalls, boolean refactorable, int loop,
+                    int chainStart, int name, int textureEnd, int close) {
+            this.texture = texture;
+            this.start = start;
+            this.end = end;
+            this.drawCalls = drawCalls;
+            this.refactorable = refactorable;
+            this.loop = loop;
+            this.chainStart = chainStart;
+            this.name = name;
+            this.textureEnd = textureEnd;
+            this.close = close;
+        }
+
+        /**
+         * Returns the problem description with the estimated draw call reduction, e.g. "'love.graphics.draw' of
+         * 'tiles' in a loop makes 400 draw calls per frame; a SpriteBatch makes 1".
+         *
+         * @return the message
+         */
+        @NotNull
+        String getMessage() {
+            String calls = drawCalls < 0 ? "a draw call per iteration" : drawCalls + " draw calls per frame";
+            return "'love.graphics.draw' of '" + texture + "' in a loop makes " + calls + "; a SpriteBatch makes 1";
+        }
+    }
+
+    /**
+     * A for loop.
+     */
+    private static final class Loop {
+        /**
+         * The token index of the 'for' keyword.
+         */
+        final int keyword;
+        /**
+         * The index of the enclosing loop of the same function, -1 if there is none.
+         */
+        final int parent;
+        /**
+         * The number of iterations, -1 if the bounds are not literals.
+         */
+        final long iterations;
+        /**
+         * The variables and fields assigned in the loop and the loops nested in it, including the loop variables.
+         */
+        final Set<String> assigned = new HashSet<>();
+        /**
+         * The token indexes of the names of the draw calls directly in the loop.
+         */
+        final List<Integer> draws = new ArrayList<>();
+        /**
+         * The token index of the closing 'end', -1 if it is missing.
+         */
+        int end = -1;
+        /**
+         * The number of draw calls and of other love.graphics calls in the loop and the loops nested in it.
+         */
+        int drawCount;
+        int graphicsCount;
+
+        Loop(int keyword, int parent, long iterations) {
+            this.keyword = keyword;
+            this.parent = parent;
+            this.iterations = iterations;
+        }
+    }
+
+    private final LoveFrameAnalysis analysis;
+    private final LoveLuaTokens tokens;
+    private final List<Loop> loops = new ArrayList<>();
+    private final List<Opportunity> opportunities;
+
+    private LoveSpriteBatchAnalysis(@NotNull LoveFrameAnalysis analysis) {
+        this.analysis = analysis;
+        this.tokens = analysis.getTokens();
+        scan();
+        this.opportunities = Collections.unmodifiableList(findOpportunities());
+    }
+
+    /**
+     * Returns the analysis of a file, cached until the file changes.
+     *
+     * @param file a Lua file
+     * @return the analysis
+     */
+    @NotNull
+    static LoveSpriteBatchAnalysis getInstance(@NotNull PsiFile file) {
+        return CachedValuesManager.getCachedValue(file, ANALYSIS_KEY, () ->
+                CachedValueProvider.Result.create(new LoveSpriteBatchAnalysis(LoveFrameAnalysis.getInstance(file)),
+                        file));
+    }
+
+    /**
+     * Analyzes a Lua source.
+     *
+     * @param text the source
+     * @return the analysis
+     */
+    @NotNull
+    static LoveSpriteBatchAnalysis analyze(@NotNull CharSequence text) {
+        return new LoveSpriteBatchAnalysis(LoveFrameAnalysis.analyze(text));
+    }
+
+    /**
+     * Returns the draw calls a SpriteBatch can replace.
+     *
+     * @return the opportunities in source order
+     */
+    @NotNull
+    List<Opportunity> getOpportunities() {
+        return opportunities;
+    }
+
+    /**
+     * Plans replacing the draw call starting at the given offset by a SpriteBatch: the batch is kept in a local
+     * declared at file scope, created before the loop the first time and whenever the texture changes, cleared,
+     * filled with 'add' in the loop and drawn after it.
+     *
+     * @param start the start offset of the draw call
+     * @return the rewrite, or null if the draw call cannot be replaced automatically
+     */
+    @Nullable
+    LoveFrameAnalysis.Rewrite planRefactoring(int start) {
+        Opportunity opportunity = null;
+        for (Opportunity candidate : opportunities) {
+            if (candidate.start == start && candidate.refactorable) {
+                opportunity = candidate;
+            }
+        }
+        if (opportunity == null) {
+            return null;
+        }
+        CharSequence text = tokens.getText();
+        Loop loop = loops.get(opportunity.loop);
+        int loopStart = tokens.getStart(loop.keyword);
+        int lineStart = LoveFrameAnalysis.lineStart(text, loopStart);
+        if (!LoveFrameAnalysis.isBlank(text, lineStart, loopStart)) {
+            return null;
+        }
+        String indentation = text.subSequence(lineStart, loopStart).toString();
+        String qualifier = joinTokens(opportunity.chainStart, opportunity.name - 2);
+        String texture = opportunity.texture;
+        String batch = analysis.uniqueName(texture.substring(texture.lastIndexOf('.') + 1) + "Batch");
+
+        List<LoveFrameAnalysis.Edit> edits = new ArrayList<>();
+        String declaration = indentation + "local " + batch + "\n";
+        int function = analysis.findEnclosingFunction(loop.keyword);
+        if (function >= 0) {
+            List<LoveFrameAnalysis.Function> functions = analysis.getFunctions();
+            while (functions.get(function).parent >= 0) {
+                function = functions.get(function).parent;
+            }
+            int functionLine = LoveFrameAnalysis.lineStart(text, tokens.getStart(functions.get(function).keyword));
+            edits.add(new LoveFrameAnalysis.Edit(functionLine, functionLine, "local " + batch + "\n\n"));
+            declaration = "";
+        }
+        String size = opportunity.drawCalls > 0 ? ", " + opportunity.drawCalls : "";
+        edits.add(new LoveFrameAnalysis.Edit(lineStart, lineStart, declaration
+                + indentation + "if not " + batch + " or " + batch + ":getTexture() ~= " + texture + " then\n"
+                + indentation + LoveFrameAnalysis.INDENT + batch + " = " + qualifier + ".newSpriteBatch(" + texture
+                + size + ")\n"
+                + indentation + "end\n"
+                + indentation + batch + ":clear()\n"));
+        int argumentsStart = tokens.is(opportunity.textureEnd, ",")
+                ? tokens.getStart(opportunity.textureEnd + 1)
+                : tokens.getStart(opportunity.close);
+        edits.add(new LoveFrameAnalysis.Edit(opportunity.start, argumentsStart, batch + ":add("));
+        int loopEnd = tokens.getEnd(loop.end);
+        edits.add(new LoveFrameAnalysis.Edit(loopEnd, loopEnd,
+                "\n" + indentation + qualifier + "." + DRAW + "(" + batch + ")"));
+        return new LoveFrameAnalysis.Rewrite(edits);
+    }
+
+    /**
+     * Finds the for loops, what they assign and the love.graphics calls in them, skipping the bodies of functions
+     * defined in loops.
+     */
+    private void scan() {
+        int[] blocks = new int[16];
+        int depth = 0;
+        for (int i = 0; i < tokens.size(); i++) {
+            if (tokens.getType(i) != LoveLuaTokens.NAME) {
+                continue;
+            }
+            int block;
+            if (tokens.is(i, "function")) {
+                block = FUNCTION_BLOCK;
+                i = analysis.getFunctions().get(analysis.findFunction(i)).bodyStart - 1;
+            } else if (tokens.is(i, "for")) {
+                int parent = innermostLoop(blocks, depth);
+                int body = readLoop(i, parent);
+                if (body < 0) {
+                    continue;
+                }
+                block = loops.size() - 1;
+                recordAssignments(loops.get(block).assigned, blocks, depth);
+                i = body - 1;
+            } else if (tokens.is(i, "if") || tokens.is(i, "do") || tokens.is(i, "repeat")) {
+                block = OTHER_BLOCK;
+            } else {
+                if ((tokens.is(i, "end") || tokens.is(i, "until")) && depth > 0) {
+                    int closed = blocks[--depth];
+                    if (closed >= 0) {
+                        loops.get(closed).end = i;
+                    }
+                } else if (tokens.isIdentifier(i)) {
+                    scanIdentifier(i, blocks, depth);
+                }
+                continue;
+            }
+            if (depth == blocks.length) {
+                blocks = Arrays.copyOf(blocks, depth * 2);
+            }
+            blocks[depth++] = block;
+        }
+    }
+
+    /**
+     * Records an assignment or a love.graphics call starting at the identifier in the enclosing loops.
+     */
+    private void scanIdentifier(int index, int[] blocks, int depth) {
+        int loop = innermostLoop(blocks, depth);
+        if (loop < 0) {
+            return;
+        }
+        if (tokens.is(index - 1, "local")) {
+            Set<String> names = new HashSet<>();
+            for (int i = index; tokens.isIdentifier(i); i += 2) {
+                names.add(tokens.getTokenText(i));
+                if (!tokens.is(i + 1, ",")) {
+                    break;
+                }
+            }
+            recordAssignments(names, blocks, depth);
+            return;
+        }
+        if (analysis.startsStatement(index)) {
+            Set<String> targets = readAssignmentTargets(index);
+            if (!targets.isEmpty()) {
+                recordAssignments(targets, blocks, depth);
+                return;
+            }
+        }
+        boolean call = tokens.is(index + 1, "(");
+        if (!call || !LoveTypes.GRAPHICS_KEY.equals(analysis.resolveModule(index))) {
+            return;
+        }
+        boolean draw = tokens.is(index, DRAW);
+        if (draw) {
+            loops.get(loop).draws.add(index);
+        }
+        for (int i = depth - 1; i >= 0 && blocks[i] != FUNCTION_BLOCK; i--) {
+            if (blocks[i] >= 0) {
+                if (draw) {
+                    loops.get(blocks[i]).drawCount++;
+                } else {
+                    loops.get(blocks[i]).graphicsCount++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads the targets of an assignment such as 'x = 1', 'a.b = 2' or 'x, y = f()' starting at the identifier.
+     *
+     * @return the assigned names, empty if the identifier doesn't start an assignment
+     */
+    @NotNull
+    private Set<String> readAssignmentTargets(int index) {
+        Set<String> targets = new HashSet<>();
+        int i = index;
+        while (tokens.isIdentifier(i)) {
+            int chainEnd = i;
+            while (tokens.is(chainEnd + 1, ".") && tokens.isIdentifier(chainEnd + 2)) {
+                chainEnd += 2;
+            }
+            targets.add(joinTokens(i, chainEnd));
+            if (tokens.is(chainEnd + 1, "=")) {
+                return targets;
+            }
+            if (!tokens.is(chainEnd + 1, ",")) {
+                break;
+            }
+            i = chainEnd + 2;
+        }
+        return Collections.emptySet();
+    }
+
+    /**
+     * Adds the names to the assignments of every loop enclosing the current position in the same function.
+     */
+    private void recordAssignments(@NotNull Set<String> names, int[] blocks, int depth) {
+        for (int i = depth - 1; i >= 0 && blocks[i] != FUNCTION_BLOCK; i--) {
+            if (blocks[i] >= 0) {
+                loops.get(blocks[i]).assigned.addAll(names);
+            }
+        }
+    }
+
+    /**
+     * Reads the header of the for loop at the given index and adds the loop.
+     *
+     * @return the token index of the first token of the body, or -1 if the header is malformed
+     */
+    private int readLoop(int keyword, int parent) {
+        Set<String> variables = new HashSet<>();
+        int i = keyword + 1;
+        while (tokens.isIdentifier(i)) {
+            variables.add(tokens.getTokenText(i));
+            i += tokens.is(i + 1, ",") ? 2 : 1;
+        }
+        int body = LoveFrameAnalysis.findLoopBody(tokens, keyword);
+        if (!tokens.is(i, "=") && !tokens.is(i, "in") || body < 0) {
+            return -1;
+        }
+        Loop loop = new Loop(keyword, parent, LoveFrameAnalysis.countIterations(tokens, keyword));
+        loop.assigned.addAll(variables);
+        loops.add(loop);
+        return body;
+    }
+
+    private List<Opportunity> findOpportunities() {
+        List<Opportunity> result = new ArrayList<>();
+        for (int l = 0; l < loops.size(); l++) {
+            for (int name : loops.get(l).draws) {
+                Opportunity opportunity = createOpportunity(l, name);
+                if (opportunity != null) {
+                    result.add(opportunity);
+                }
+            }
+        }
+        result.sort((a, b) -> Integer.compare(a.start, b.start));
+        return result;
+    }
+
+    /**
+     * Creates the opportunity of a draw call directly in the given loop, if its texture doesn't change in the loop.
+     */
+    @Nullable
+    private Opportunity createOpportunity(int innermost, int name) {
+        int open = name + 1;
+        int close = tokens.findClosing(open);
+        int textureStart = open + 1;
+        int textureEnd = textureStart;
+        while (tokens.isIdentifier(textureEnd) && tokens.is(textureEnd + 1, ".")
+                && tokens.isIdentifier(textureEnd + 2)) {
+            textureEnd += 2;
+        }
+        if (!tokens.isIdentifier(textureEnd) || close == tokens.size()) {
+            return null;
+        }
+        textureEnd++;
+        if (!tokens.is(textureEnd, ",") && textureEnd != close) {
+            return null;
+        }
+        String texture = joinTokens(textureStart, textureEnd - 1);
+
+        int chosen = -1;
+        long drawCalls = 1;
+        for (int l = innermost; l >= 0 && isInvariant(texture, loops.get(l)); l = loops.get(l).parent) {
+            chosen = l;
+            long iterations = loops.get(l).iterations;
+            drawCalls = iterations < 0 || drawCalls < 0 ? -1 : drawCalls * iterations;
+        }
+        if (chosen < 0 || drawCalls >= 0 && drawCalls < 2) {
+            return null;
+        }
+        Loop loop = loops.get(chosen);
+        int chainStart = analysis.chainStart(name);
+        boolean refactorable = loop.end >= 0 && loop.drawCount == 1 && loop.graphicsCount == 0
+                && analysis.isStatement(chainStart, close);
+        return new Opportunity(texture, tokens.getStart(chainStart), tokens.getEnd(close), drawCalls, refactorable,
+                chosen, chainStart, name, textureEnd, close);
+    }
+
+    /**
+     * Checks whether neither the texture nor a table it is a field of is assigned in the loop.
+     */
+    private static boolean isInvariant(@NotNull String texture, @NotNull Loop loop) {
+        for (String assigned : loop.assigned) {
+            if (texture.equals(assigned) || texture.startsWith(assigned + ".")) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @NotNull
+    private String joinTokens(int first, int last) {
+        StringBuilder text = new StringBuilder();
+        for (int i = first; i <= last; i++) {
+            text.append(tokens.getText(), tokens.getStart(i), tokens.getEnd(i));
+        }
+        return text.toString();
+    }
+
+    private static int innermostLoop(int[] blocks, int depth) {
+        for (int i = depth - 1; i >= 0 && blocks[i] != FUNCTION_BLOCK; i--) {
+            if (blocks[i] >= 0) {
+                return blocks[i];
+            }
+        }
+        return -1;
+    }
+}
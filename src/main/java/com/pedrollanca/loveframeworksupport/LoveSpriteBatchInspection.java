@@ -0,0 +1,101 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 - Pedro Chamorro Llanca
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.pedrollanca.loveframeworksupport;
+
+import com.intellij.codeInspection.InspectionManager;
+import com.intellij.codeInspection.LocalInspectionTool;
+import com.intellij.codeInspection.LocalQuickFix;
+import com.intellij.codeInspection.ProblemDescriptor;
+import com.intellij.codeInspection.ProblemHighlightType;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.TextRange;
+import com.intellij.psi.PsiDocumentManager;
+import com.intellij.psi.PsiFile;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reports 'love.graphics.draw' calls in for loops that draw the same texture on every iteration, with the number of
+ * draw calls a SpriteBatch would save. The analysis is done by {@link LoveSpriteBatchAnalysis}.
+ *
+ * <p>If the loop draws nothing else, a quick-fix replaces the calls by a SpriteBatch that is filled in the loop
+ * and drawn once after it.
+ */
+public class LoveSpriteBatchInspection extends LocalInspectionTool {
+
+    @Nullable
+    @Override
+    public ProblemDescriptor[] checkFile(@NotNull PsiFile file, @NotNull InspectionManager manager,
+                                         boolean isOnTheFly) {
+        if (!PluginUtils.isLuaFile(file)) {
+            return null;
+        }
+        List<LoveSpriteBatchAnalysis.Opportunity> opportunities = LoveSpriteBatchAnalysis.getInstance(file)
+                .getOpportunities();
+        if (opportunities.isEmpty()) {
+            return null;
+        }
+        List<ProblemDescriptor> problems = new ArrayList<>(opportunities.size());
+        for (LoveSpriteBatchAnalysis.Opportunity opportunity : opportunities) {
+            LocalQuickFix[] fixes = opportunity.refactorable
+                    ? new LocalQuickFix[]{new UseSpriteBatchFix()}
+                    : LocalQuickFix.EMPTY_ARRAY;
+            problems.add(manager.createProblemDescriptor(file, TextRange.create(opportunity.start, opportunity.end),
+                    opportunity.getMessage(), ProblemHighlightType.GENERIC_ERROR_OR_WARNING, isOnTheFly, fixes));
+        }
+        return problems.toArray(ProblemDescriptor.EMPTY_ARRAY);
+    }
+
+    /**
+     * Replaces the draw calls of the loop by a SpriteBatch.
+     */
+    private static final class UseSpriteBatchFix implements LocalQuickFix {
+
+        @NotNull
+        @Override
+        public String getFamilyName() {
+            return "Draw with a SpriteBatch";
+        }
+
+        @Override
+        public void applyFix(@NotNull Project project, @NotNull ProblemDescriptor descriptor) {
+            PsiFile file = descriptor.getPsiElement().getContainingFile();
+            Document document = file == null ? null : PsiDocumentManager.getInstance(project).getDocument(file);
+            if (document == null) {
+                return;
+            }
+            int start = descriptor.getTextRangeInElement().getStartOffset();
+            LoveFrameAnalysis.Rewrite rewrite = LoveSpriteBatchAnalysis.analyze(document.getCharsSequence())
+                    .planRefactoring(start);
+            if (rewrite == null) {
+                return;
+            }
+            for (LoveFrameAnalysis.Edit edit : rewrite.edits) {
+                document.replaceString(edit.start, edit.end, edit.replacement);
+            }
+        }
+    }
+}
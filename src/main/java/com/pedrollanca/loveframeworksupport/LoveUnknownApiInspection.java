@@ -0,0 +1,203 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 - Pedro Chamorro Llanca
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.pedrollanca.loveframeworksupport;
+
+import com.intellij.codeInspection.InspectionManager;
+import com.intellij.codeInspection.LocalInspectionTool;
+import com.intellij.codeInspection.ProblemDescriptor;
+import com.intellij.codeInspection.ProblemHighlightType;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.util.TextRange;
+import com.intellij.psi.PsiFile;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reports 'love.&lt;module&gt;.&lt;name&gt;' references to functions the module doesn't have, such as
+ * 'love.graphics.rectange', or doesn't have in the {@link LoveVersion} the project targets.
+ *
+ * <p>The file text is scanned once, skipping comments and strings, and every function name is looked up in
+ * {@link LoveFunctionNames} without creating a substring. The inspection keeps no state, so "Inspect Code" runs it
+ * on many files in parallel; the scan checks for cancellation regularly so a batch run stops quickly.
+ */
+public class LoveUnknownApiInspection extends LocalInspectionTool {
+
+    /**
+     * Cancellation is checked whenever the scan has advanced by this many characters.
+     */
+    static final int CANCELLATION_INTERVAL = 1 << 14;
+
+    private static final String FUNCTION_KEYWORD = "function";
+
+    /**
+     * Receives the unknown function references found by {@link #findUnknownFunctions}.
+     */
+    @FunctionalInterface
+    interface UnknownFunctionConsumer {
+
+        /**
+         * Called for every unknown function, in text order.
+         *
+         * @param moduleKey the module the function was looked up in
+         * @param start     the start offset of the function name
+         * @param end       the end offset of the function name
+         * @param versions  the {@link LoveVersion} mask of the versions that have the function, 0 if none
+         */
+        void unknownFunction(@NotNull String moduleKey, int start, int end, int versions);
+    }
+
+    @Nullable
+    @Override
+    public ProblemDescriptor[] checkFile(@NotNull PsiFile file, @NotNull InspectionManager manager,
+                                         boolean isOnTheFly) {
+        if (!PluginUtils.isLuaFile(file)) {
+            return null;
+        }
+        CharSequence text = file.getViewProvider().getContents();
+        LoveVersion version = LoveProjectSettings.getVersion(file.getProject());
+        List<ProblemDescriptor> problems = new ArrayList<>();
+        findUnknownFunctions(text, version.getMask(), ProgressManager::checkCanceled,
+                (moduleKey, start, end, versions) -> problems.add(
+                        manager.createProblemDescriptor(file, TextRange.create(start, end),
+                                getMessage(text, moduleKey, start, end, versions, version),
+                                ProblemHighlightType.GENERIC_ERROR_OR_WARNING, isOnTheFly)));
+        return problems.isEmpty() ? null : problems.toArray(ProblemDescriptor.EMPTY_ARRAY);
+    }
+
+    /**
+     * Returns the problem description of an unknown function.
+     */
+    @NotNull
+    static String getMessage(@NotNull CharSequence text, @NotNull String moduleKey, int start, int end, int versions,
+                             @NotNull LoveVersion target) {
+        CharSequence name = text.subSequence(start, end);
+        if (versions == 0) {
+            return "Unknown function '" + name + "' in love." + moduleKey;
+        }
+        return "'love." + moduleKey + "." + name + "' is not available in " + target;
+    }
+
+    /**
+     * Finds the 'love.&lt;module&gt;.&lt;name&gt;' references whose function doesn't exist in the given versions.
+     * Definitions such as 'function love.graphics.helper()' or 'love.graphics.helper = ...' are not reported, nor
+     * are unknown modules.
+     *
+     * @param text          the Lua source
+     * @param versions      the {@link LoveVersion} mask the functions have to exist in
+     * @param checkCanceled called regularly during the scan, throws to abort
+     * @param consumer      receives the unknown functions
+     */
+    static void findUnknownFunctions(@NotNull CharSequence text, int versions, @NotNull Runnable checkCanceled,
+                                     @NotNull UnknownFunctionConsumer consumer) {
+        LoveFunctionNames functions = LoveFunctionNames.getInstance();
+        int length = text.length();
+        int nextCheck = 0;
+        boolean afterFunctionKeyword = false;
+        int i = 0;
+        while (i < length) {
+            if (i >= nextCheck) {
+                checkCanceled.run();
+                nextCheck = i + CANCELLATION_INTERVAL;
+            }
+            char c = text.charAt(i);
+            int skipped = LoveLuaTokens.skipCommentOrString(text, i);
+            if (skipped != i) {
+                i = skipped;
+            } else if (LoveCompletionContext.isIdentifierPart(c)) {
+                int start = i;
+                i = LoveLuaTokens.skipIdentifier(text, i);
+                if (LoveCompletionContext.regionEquals(text, start, i, LoveCompletionContext.LOVE_ROOT)
+                        && !afterFunctionKeyword && isChainStart(text, start)) {
+                    i = checkReference(text, i, versions, functions, consumer);
+                }
+                afterFunctionKeyword = LoveCompletionContext.regionEquals(text, start, i, FUNCTION_KEYWORD);
+            } else {
+                if (!Character.isWhitespace(c)) {
+                    afterFunctionKeyword = false;
+                }
+                i++;
+            }
+        }
+    }
+
+    /**
+     * Reads '.&lt;module&gt;.&lt;name&gt;' after a 'love' root and reports the name if the module doesn't have it.
+     *
+     * @return the offset to continue scanning from
+     */
+    private static int checkReference(@NotNull CharSequence text, int rootEnd, int versions,
+                                      @NotNull LoveFunctionNames functions,
+                                      @NotNull UnknownFunctionConsumer consumer) {
+        int dot = LoveLuaTokens.skipWhitespace(text, rootEnd);
+        if (!isMemberDot(text, dot)) {
+            return rootEnd;
+        }
+        int moduleStart = LoveLuaTokens.skipWhitespace(text, dot + 1);
+        int moduleEnd = LoveLuaTokens.skipIdentifier(text, moduleStart);
+        String moduleKey = LoveCompletionContext.findModuleKey(text, moduleStart, moduleEnd);
+        if (moduleKey == null) {
+            return moduleEnd;
+        }
+        int functionDot = LoveLuaTokens.skipWhitespace(text, moduleEnd);
+        if (!isMemberDot(text, functionDot)) {
+            return moduleEnd;
+        }
+        int nameStart = LoveLuaTokens.skipWhitespace(text, functionDot + 1);
+        int nameEnd = LoveLuaTokens.skipIdentifier(text, nameStart);
+        if (nameStart == nameEnd) {
+            return nameEnd;
+        }
+        int functionVersions = functions.getVersions(moduleKey, text, nameStart, nameEnd);
+        if ((functionVersions & versions) != 0) {
+            return nameEnd;
+        }
+        // 'love.graphics.helper = function() ... end' adds a function rather than referencing one
+        int next = LoveLuaTokens.skipWhitespace(text, nameEnd);
+        boolean assignment = next < text.length() && text.charAt(next) == '='
+                && (next + 1 == text.length() || text.charAt(next + 1) != '=');
+        if (!assignment) {
+            consumer.unknownFunction(moduleKey, nameStart, nameEnd, functionVersions);
+        }
+        return nameEnd;
+    }
+
+    /**
+     * Checks whether the identifier at the given offset starts a chain rather than being a member of another
+     * expression ('obj.love') or a method call target ('obj:love'). The '..' concatenation operator may precede it.
+     */
+    private static boolean isChainStart(@NotNull CharSequence text, int start) {
+        int previous = LoveCompletionContext.skipWhitespaceBackward(text, start, 0) - 1;
+        if (previous < 0) {
+            return true;
+        }
+        char c = text.charAt(previous);
+        return c != ':' && (c != '.' || previous > 0 && text.charAt(previous - 1) == '.');
+    }
+
+    private static boolean isMemberDot(@NotNull CharSequence text, int index) {
+        return index < text.length() && text.charAt(index) == '.'
+                && (index + 1 == text.length() || text.charAt(index + 1) != '.');
+    }
+}
@@ -0,0 +1,244 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 - Pedro Chamorro Llanca
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.pedrollanca.loveframeworksupport;
+
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.util.indexing.DataIndexer;
+import com.intellij.util.indexing.FileBasedIndex;
+import com.intellij.util.indexing.FileBasedIndexExtension;
+import com.intellij.util.indexing.FileContent;
+import com.intellij.util.indexing.ID;
+import com.intellij.util.io.DataExternalizer;
+import com.intellij.util.io.DataInputOutputUtil;
+import com.intellij.util.io.EnumeratorStringDescriptor;
+import com.intellij.util.io.KeyDescriptor;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Indexes where Lua files use the LOVE API: every qualified name ('love.load', 'love.physics',
+ * 'love.graphics.setCanvas', ...) maps to the offsets of its references in each file.
+ *
+ * <p>A reference to a function is also recorded under its module, so the usages of 'love.physics' include those of
+ * 'love.physics.newWorld'. Files are indexed one at a time by the platform whenever they change, with a single
+ * pass over the text that skips comments and strings and matches names with the {@link LoveNameAutomaton}; no PSI
+ * is built. Offsets are stored ascending as variable-length deltas, which takes one or two bytes per reference.
+ */
+public class LoveUsageIndex extends FileBasedIndexExtension<String, int[]> {
+
+    public static final ID<String, int[]> NAME = ID.create("com.pedrollanca.loveframeworksupport.usages");
+
+    /**
+     * Bump whenever the indexed data changes.
+     */
+    private static final int VERSION = 1;
+
+    private static final DataExternalizer<int[]> OFFSETS_EXTERNALIZER = new OffsetsExternalizer();
+
+    /**
+     * Receives the usages found by {@link #processUsages}.
+     */
+    @FunctionalInterface
+    public interface UsageProcessor {
+
+        /**
+         * Called for every usage.
+         *
+         * @param file   the file using the name
+         * @param offset the start offset of the reference in the file
+         * @return false to stop processing
+         */
+        boolean process(@NotNull VirtualFile file, int offset);
+    }
+
+    @NotNull
+    @Override
+    public ID<String, int[]> getName() {
+        return NAME;
+    }
+
+    @NotNull
+    @Override
+    public DataIndexer<String, int[], FileContent> getIndexer() {
+        return inputData -> index(inputData.getContentAsText());
+    }
+
+    @NotNull
+    @Override
+    public KeyDescriptor<String> getKeyDescriptor() {
+        return EnumeratorStringDescriptor.INSTANCE;
+    }
+
+    @NotNull
+    @Override
+    public DataExternalizer<int[]> getValueExternalizer() {
+        return OFFSETS_EXTERNALIZER;
+    }
+
+    @Override
+    public int getVersion() {
+        return VERSION;
+    }
+
+    @NotNull
+    @Override
+    public FileBasedIndex.InputFilter getInputFilter() {
+        return file -> StringUtil.endsWithIgnoreCase(file.getName(), PluginUtils.LUA_FILE_SUFFIX);
+    }
+
+    @Override
+    public boolean dependsOnFileContent() {
+        return true;
+    }
+
+    /**
+     * Processes the usages of a qualified name in the given scope, from the index.
+     *
+     * @param qualifiedName the qualified name, e.g. 'love.physics' or 'love.graphics.setCanvas'
+     * @param scope         the files to search
+     * @param processor     receives the usages; returning false stops the search
+     * @return false if the processor stopped the search
+     */
+    public static boolean processUsages(@NotNull String qualifiedName, @NotNull GlobalSearchScope scope,
+                                        @NotNull UsageProcessor processor) {
+        return FileBasedIndex.getInstance().processValues(NAME, qualifiedName, null, (file, offsets) -> {
+            for (int offset : offsets) {
+                if (!processor.process(file, offset)) {
+                    return false;
+                }
+            }
+            return true;
+        }, scope);
+    }
+
+    /**
+     * Finds the LOVE API references of a Lua source, skipping comments and strings.
+     *
+     * @param text the Lua source
+     * @return the ascending reference offsets by qualified name
+     */
+    @NotNull
+    static Map<String, int[]> index(@NotNull CharSequence text) {
+        Map<String, OffsetList> usages = new HashMap<>();
+        LoveNameAutomaton.MatchConsumer consumer = (start, end, kind) -> {
+            add(usages, text, start, end);
+            if (kind == LoveNameAutomaton.Kind.FUNCTION) {
+                add(usages, text, start, lastIndexOf(text, '.', end));
+            }
+        };
+        scanCode(text, consumer);
+
+        Map<String, int[]> result = new HashMap<>(usages.size() * 2);
+        usages.forEach((name, offsets) -> result.put(name, offsets.toArray()));
+        return result;
+    }
+
+    /**
+     * Reports the LOVE API references of a Lua source in text order, skipping comments and strings.
+     *
+     * @param text     the Lua source
+     * @param consumer receives the references found by the {@link LoveNameAutomaton}
+     */
+    static void scanCode(@NotNull CharSequence text, @NotNull LoveNameAutomaton.MatchConsumer consumer) {
+        LoveNameAutomaton automaton = LoveNameAutomaton.getInstance();
+        int codeStart = 0;
+        int i = 0;
+        while (i < text.length()) {
+            int skipped = LoveLuaTokens.skipCommentOrString(text, i);
+            if (skipped == i) {
+                i++;
+                continue;
+            }
+            automaton.scan(text, codeStart, i, consumer);
+            i = skipped;
+            codeStart = skipped;
+        }
+        automaton.scan(text, codeStart, text.length(), consumer);
+    }
+
+    private static void add(@NotNull Map<String, OffsetList> usages, @NotNull CharSequence text, int start, int end) {
+        usages.computeIfAbsent(text.subSequence(start, end).toString(), name -> new OffsetList()).add(start);
+    }
+
+    private static int lastIndexOf(@NotNull CharSequence text, char c, int end) {
+        int i = end - 1;
+        while (text.charAt(i) != c) {
+            i--;
+        }
+        return i;
+    }
+
+    /**
+     * A growable list of offsets, added in ascending order.
+     */
+    private static final class OffsetList {
+        private int[] offsets = new int[4];
+        private int size;
+
+        void add(int offset) {
+            if (size == offsets.length) {
+                offsets = Arrays.copyOf(offsets, size * 2);
+            }
+            offsets[size++] = offset;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(offsets, size);
+        }
+    }
+
+    /**
+     * Writes ascending offsets as a count followed by the deltas between consecutive offsets, all as variable-length
+     * integers.
+     */
+    static final class OffsetsExternalizer implements DataExternalizer<int[]> {
+
+        @Override
+        public void save(@NotNull DataOutput out, int[] offsets) throws IOException {
+            DataInputOutputUtil.writeINT(out, offsets.length);
+            int previous = 0;
+            for (int offset : offsets) {
+                DataInputOutputUtil.writeINT(out, offset - previous);
+                previous = offset;
+            }
+        }
+
+        @Override
+        public int[] read(@NotNull DataInput in) throws IOException {
+            int[] offsets = new int[DataInputOutputUtil.readINT(in)];
+            int previous = 0;
+            for (int i = 0; i < offsets.length; i++) {
+                previous += DataInputOutputUtil.readINT(in);
+                offsets[i] = previous;
+            }
+            return offsets;
+        }
+    }
+}
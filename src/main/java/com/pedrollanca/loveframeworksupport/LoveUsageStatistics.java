@@ -0,0 +1,191 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 - Pedro Chamorro Llanca
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.pedrollanca.loveframeworksupport;
+
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.components.PersistentStateComponent;
+import com.intellij.openapi.components.RoamingType;
+import com.intellij.openapi.components.Service;
+import com.intellij.openapi.components.State;
+import com.intellij.openapi.components.Storage;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts how often each LOVE completion item is accepted and turns the counts into lookup priorities, so frequently
+ * used functions such as 'love.graphics.draw' are listed first.
+ *
+ * <p>Counting is lock-free: every qualified name has its own {@link LongAdder}. After each accepted completion the
+ * priority of that name is republished in an immutable snapshot, so completion reads a precomputed priority and
+ * never sorts or sums counters while the user types. The counts are stored in the IDE configuration directory as a
+ * single compact string.
+ */
+@Service(Service.Level.APP)
+@State(name = "LoveUsageStatistics", storages = @Storage(value = "loveUsageStatistics.xml", roamingType = RoamingType.DISABLED))
+public final class LoveUsageStatistics implements PersistentStateComponent<LoveUsageStatistics.UsageState> {
+
+    /**
+     * Priority of completion items that have never been accepted.
+     */
+    public static final int BASE_PRIORITY = 1000;
+
+    /**
+     * Upper bound of the usage bonus added to {@link #BASE_PRIORITY}.
+     */
+    static final int MAX_USAGE_BONUS = 1_000_000;
+
+    private static final char ENTRY_SEPARATOR = ';';
+    private static final char COUNT_SEPARATOR = '=';
+
+    private final ConcurrentMap<String, LongAdder> counters = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicReference<Map<String, Integer>> priorities = new AtomicReference<>(Collections.emptyMap());
+
+    /**
+     * Returns the application-wide statistics.
+     *
+     * @return the statistics service
+     */
+    @NotNull
+    public static LoveUsageStatistics getInstance() {
+        return ApplicationManager.getApplication().getService(LoveUsageStatistics.class);
+    }
+
+    /**
+     * Records that the completion item with the given qualified name was accepted.
+     *
+     * @param qualifiedName e.g. 'love.graphics.draw'
+     */
+    public void recordUsage(@NotNull String qualifiedName) {
+        LongAdder counter = counters.computeIfAbsent(qualifiedName, name -> new LongAdder());
+        counter.increment();
+
+        // Republish the snapshot with the new priority of this name; the copy is retried if another completion
+        // published in between, so no concurrent update is lost
+        Map<String, Integer> current;
+        Map<String, Integer> updated;
+        do {
+            current = priorities.get();
+            updated = new HashMap<>(current);
+            updated.put(qualifiedName, toPriority(counter.sum()));
+        } while (!priorities.compareAndSet(current, Collections.unmodifiableMap(updated)));
+        generation.incrementAndGet();
+    }
+
+    /**
+     * Returns the lookup priority of a completion item.
+     *
+     * @param qualifiedName e.g. 'love.graphics.draw'
+     * @return {@link #BASE_PRIORITY} plus a bonus growing with the number of times the item was accepted
+     */
+    public int getPriority(@NotNull String qualifiedName) {
+        Integer priority = priorities.get().get(qualifiedName);
+        return priority == null ? BASE_PRIORITY : priority;
+    }
+
+    /**
+     * Returns a number that changes whenever priorities change, so callers can tell whether priorities they applied
+     * earlier are still current.
+     *
+     * @return the generation of the priorities
+     */
+    public long getGeneration() {
+        return generation.get();
+    }
+
+    /**
+     * Returns the number of times the completion item was accepted.
+     *
+     * @param qualifiedName e.g. 'love.graphics.draw'
+     * @return the usage count
+     */
+    public long getUsageCount(@NotNull String qualifiedName) {
+        LongAdder counter = counters.get(qualifiedName);
+        return counter == null ? 0 : counter.sum();
+    }
+
+    @NotNull
+    @Override
+    public UsageState getState() {
+        StringBuilder builder = new StringBuilder();
+        for (Map.Entry<String, LongAdder> entry : counters.entrySet()) {
+            if (builder.length() > 0) {
+                builder.append(ENTRY_SEPARATOR);
+            }
+            builder.append(entry.getKey()).append(COUNT_SEPARATOR).append(entry.getValue().sum());
+        }
+        UsageState state = new UsageState();
+        state.counts = builder.toString();
+        return state;
+    }
+
+    @Override
+    public void loadState(@NotNull UsageState state) {
+        counters.clear();
+        Map<String, Integer> loaded = new HashMap<>();
+        String counts = state.counts == null ? "" : state.counts;
+        int start = 0;
+        while (start < counts.length()) {
+            int end = counts.indexOf(ENTRY_SEPARATOR, start);
+            if (end < 0) {
+                end = counts.length();
+            }
+            int separator = counts.lastIndexOf(COUNT_SEPARATOR, end - 1);
+            if (separator > start) {
+                try {
+                    long count = Long.parseLong(counts.substring(separator + 1, end));
+                    if (count > 0) {
+                        String qualifiedName = counts.substring(start, separator);
+                        LongAdder counter = new LongAdder();
+                        counter.add(count);
+                        counters.put(qualifiedName, counter);
+                        loaded.put(qualifiedName, toPriority(count));
+                    }
+                } catch (NumberFormatException e) {
+                    // Skip the corrupted entry and keep the others
+                }
+            }
+            start = end + 1;
+        }
+        priorities.set(Collections.unmodifiableMap(loaded));
+        generation.incrementAndGet();
+    }
+
+    private int toPriority(long count) {
+        return BASE_PRIORITY + (int) Math.min(count, MAX_USAGE_BONUS);
+    }
+
+    /**
+     * The persisted form of the statistics: 'name=count' entries separated by ';'.
+     */
+    public static final class UsageState {
+        public String counts = "";
+    }
+}
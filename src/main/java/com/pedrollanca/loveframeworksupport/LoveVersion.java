@@ -0,0 +1,110 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 - Pedro Chamorro Llanca
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.pedrollanca.loveframeworksupport;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The LOVE versions a project can target.
+ *
+ * <p>The catalog keeps a single set of names for all versions and records for every name the versions it exists in
+ * as a bit mask, one bit per constant. Lookup structures are built once over all names and filtered by the mask of
+ * the target version at query time, so switching versions never rebuilds them.
+ */
+public enum LoveVersion {
+
+    LOVE_0_10("0.10"),
+    LOVE_11("11.5"),
+    LOVE_12("12.0");
+
+    /**
+     * The version new projects target.
+     */
+    public static final LoveVersion DEFAULT = LOVE_11;
+
+    /**
+     * The number of versions.
+     */
+    public static final int COUNT = values().length;
+
+    /**
+     * The mask of a name that exists in every version.
+     */
+    public static final int ALL = (1 << COUNT) - 1;
+
+    private final String id;
+
+    LoveVersion(String id) {
+        this.id = id;
+    }
+
+    /**
+     * Returns the version number, as shown to the user and stored in the project settings.
+     *
+     * @return e.g. "11.5"
+     */
+    @NotNull
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Returns the bit of this version in catalog version masks.
+     *
+     * @return a mask with a single bit set
+     */
+    public int getMask() {
+        return 1 << ordinal();
+    }
+
+    /**
+     * Checks whether a name with the given version mask exists in this version.
+     *
+     * @param versions the version mask of the name
+     * @return true if the name exists in this version
+     */
+    public boolean isIn(int versions) {
+        return (versions & getMask()) != 0;
+    }
+
+    /**
+     * Returns the version with the given number.
+     *
+     * @param id the version number, e.g. "11.5"
+     * @return the version, or null if it is not supported
+     */
+    @Nullable
+    public static LoveVersion fromId(@Nullable String id) {
+        for (LoveVersion version : values()) {
+            if (version.id.equals(id)) {
+                return version;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return "LÖVE " + id;
+    }
+}
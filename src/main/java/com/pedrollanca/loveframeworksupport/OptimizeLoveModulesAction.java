@@ -0,0 +1,143 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 - Pedro Chamorro Llanca
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.pedrollanca.loveframeworksupport;
+
+import com.intellij.openapi.actionSystem.ActionUpdateThread;
+import com.intellij.openapi.actionSystem.AnAction;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.command.WriteCommandAction;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.fileEditor.FileDocumentManager;
+import com.intellij.openapi.fileEditor.OpenFileDescriptor;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.project.ProjectUtil;
+import com.intellij.openapi.ui.Messages;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.search.FilenameIndex;
+import com.intellij.psi.search.GlobalSearchScope;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Tools | Optimize LÖVE Modules: disables the modules the game doesn't use in the 't.modules' table of conf.lua,
+ * creating conf.lua next to main.lua if there is none.
+ */
+public class OptimizeLoveModulesAction extends AnAction {
+
+    @NotNull
+    @Override
+    public ActionUpdateThread getActionUpdateThread() {
+        return ActionUpdateThread.BGT;
+    }
+
+    @Override
+    public void update(@NotNull AnActionEvent e) {
+        Project project = e.getProject();
+        e.getPresentation().setEnabled(project != null && !DumbService.isDumb(project));
+    }
+
+    @Override
+    public void actionPerformed(@NotNull AnActionEvent e) {
+        Project project = e.getProject();
+        if (project == null) {
+            return;
+        }
+        Set<String> required = ProgressManager.getInstance().runProcessWithProgressSynchronously(
+                () -> ReadAction.compute(() -> LoveConfModules.getRequiredModules(
+                        LoveConfModules.findReferencedModules(project))),
+                "Finding Used LÖVE Modules", true, project);
+
+        VirtualFile conf = findFile(project, LoveConfModules.CONF_FILE_NAME);
+        Document document = conf == null ? null : FileDocumentManager.getInstance().getDocument(conf);
+        String text = document == null ? "" : document.getText();
+        String updated = LoveConfModules.updateConf(text, required);
+        if (updated.equals(text)) {
+            Messages.showInfoMessage(project, "conf.lua already enables only the modules the game uses.",
+                    "Optimize LÖVE Modules");
+            return;
+        }
+
+        String message = "The game uses " + String.join(", ", required) + ".\n" + (conf == null
+                ? "Create conf.lua disabling the other modules?"
+                : "Disable the other modules in conf.lua?");
+        if (Messages.showYesNoDialog(project, message, "Optimize LÖVE Modules", null) != Messages.YES) {
+            return;
+        }
+        if (document != null) {
+            WriteCommandAction.runWriteCommandAction(project, "Optimize LÖVE Modules", null,
+                    () -> document.setText(updated));
+            return;
+        }
+        try {
+            VirtualFile created = WriteCommandAction.writeCommandAction(project)
+                    .withName("Optimize LÖVE Modules")
+                    .compute(() -> createConf(project, updated));
+            if (created != null) {
+                new OpenFileDescriptor(project, created).navigate(true);
+            }
+        } catch (IOException ex) {
+            Messages.showErrorDialog(project, "Could not create conf.lua: " + ex.getMessage(),
+                    "Optimize LÖVE Modules");
+        }
+    }
+
+    /**
+     * Returns the project file with the given name closest to the project root.
+     */
+    @Nullable
+    private static VirtualFile findFile(@NotNull Project project, @NotNull String name) {
+        Collection<VirtualFile> files = FilenameIndex.getVirtualFilesByName(name,
+                GlobalSearchScope.projectScope(project));
+        VirtualFile result = null;
+        for (VirtualFile file : files) {
+            if (result == null || file.getPath().length() < result.getPath().length()) {
+                result = file;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Creates conf.lua in the directory of main.lua, or in the project directory if there is no main.lua.
+     */
+    @Nullable
+    private static VirtualFile createConf(@NotNull Project project, @NotNull String text) throws IOException {
+        VirtualFile main = findFile(project, "main.lua");
+        VirtualFile directory = main != null ? main.getParent() : ProjectUtil.guessProjectDir(project);
+        if (directory == null) {
+            return null;
+        }
+        VirtualFile conf = directory.createChildData(OptimizeLoveModulesAction.class, LoveConfModules.CONF_FILE_NAME);
+        Document document = FileDocumentManager.getInstance().getDocument(conf);
+        if (document != null) {
+            document.setText(text);
+        }
+        return conf;
+    }
+}
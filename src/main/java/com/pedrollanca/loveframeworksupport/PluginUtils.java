@@ -22,37 +22,41 @@
 package com.pedrollanca.loveframeworksupport;
 
 import com.intellij.lang.Language;
-import com.intellij.openapi.extensions.PluginDescriptor;
-import com.intellij.openapi.extensions.PluginId;
-import com.intellij.ide.plugins.PluginManagerCore;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.psi.PsiFile;
+import org.jetbrains.annotations.Nullable;
 
 public class PluginUtils {
     /**
-     * Checks if EmmyLua plugin is installed and enabled.
-     *
-     * @return true if EmmyLua is active, false otherwise.
+     * ID of the Lua language, shared by EmmyLua and other Lua plugins.
      */
-    public static boolean isEmmyLuaActive() {
-        PluginId emmyLuaPluginId = PluginId.getId("com.tang");
-        PluginDescriptor descriptor = PluginManagerCore.getPlugin(emmyLuaPluginId);
-        return descriptor != null && descriptor.isEnabled();
-    }
+    public static final String LUA_LANGUAGE_ID = "Lua";
+
+    /**
+     * File name suffix of Lua sources.
+     */
+    public static final String LUA_FILE_SUFFIX = ".lua";
 
     /**
-     * Retrieves the LuaLanguage instance from EmmyLua.
+     * Checks whether LOVE features apply to a file: Lua-family languages, or any file named *.lua
+     * (e.g. a Lua file opened as plain text when no Lua plugin is installed).
+     * Only the file name and language are inspected, never the document.
      *
-     * @return LuaLanguage instance if available, null otherwise.
+     * @param file the file to check, may be null.
+     * @return true if the file is a Lua file, false otherwise.
      */
-    public static Language getLuaLanguage() {
-        if (!isEmmyLuaActive()) {
-            return null;
+    public static boolean isLuaFile(@Nullable PsiFile file) {
+        if (file == null) {
+            return false;
+        }
+        if (StringUtil.endsWithIgnoreCase(file.getName(), LUA_FILE_SUFFIX)) {
+            return true;
         }
-        // Attempt to find the Lua language by ID
-        Language luaLanguage = Language.findLanguageByID("Lua");
-        if (luaLanguage == null) {
-            // Fallback: Attempt to find by name
-            luaLanguage = Language.findLanguageByID("Lua");
+        for (Language language = file.getLanguage(); language != null; language = language.getBaseLanguage()) {
+            if (LUA_LANGUAGE_ID.equals(language.getID())) {
+                return true;
+            }
         }
-        return luaLanguage;
+        return false;
     }
 }
\ No newline at end of file
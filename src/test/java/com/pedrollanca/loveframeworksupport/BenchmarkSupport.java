@@ -0,0 +1,123 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 - Pedro Chamorro Llanca
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.pedrollanca.loveframeworksupport;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Minimal measuring harness shared by the benchmark tests.
+ *
+ * <p>The benchmarks are JUnit tests left out of the default test task; they run with {@code gradle benchmark}, which
+ * collects their numbers in build/reports/benchmarks.txt. They only assert on allocation, never on absolute timings.
+ */
+final class BenchmarkSupport {
+
+    /**
+     * Result of a measured operation.
+     */
+    static final class Measurement {
+        final double nanosPerOperation;
+        final double bytesPerOperation;
+
+        Measurement(double nanosPerOperation, double bytesPerOperation) {
+            this.nanosPerOperation = nanosPerOperation;
+            this.bytesPerOperation = bytesPerOperation;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%10.1f ns/op %10.1f B/op", nanosPerOperation, bytesPerOperation);
+        }
+    }
+
+    /**
+     * System property naming the file the numbers are appended to, set by the benchmark task.
+     */
+    private static final String REPORT_PROPERTY = "love.benchmark.report";
+
+    private static final com.sun.management.ThreadMXBean THREAD_BEAN =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    /**
+     * Sink that keeps the JIT from eliminating benchmarked work.
+     */
+    static volatile Object blackhole;
+
+    private BenchmarkSupport() {
+    }
+
+    /**
+     * Runs the operation for a warm-up phase and then measures the average time and allocation per call.
+     *
+     * @param warmupIterations iterations executed before measuring
+     * @param iterations       measured iterations
+     * @param operation        the operation to measure
+     * @return the measurement
+     */
+    static Measurement measure(int warmupIterations, int iterations, Runnable operation) {
+        for (int i = 0; i < warmupIterations; i++) {
+            operation.run();
+        }
+        long threadId = Thread.currentThread().getId();
+        long bytesBefore = THREAD_BEAN.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            operation.run();
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = THREAD_BEAN.getThreadAllocatedBytes(threadId) - bytesBefore;
+        return new Measurement((double) elapsed / iterations, (double) allocated / iterations);
+    }
+
+    /**
+     * Reports a benchmark line in a uniform format.
+     *
+     * @param name        the benchmark name
+     * @param measurement the measurement to report
+     */
+    static void report(String name, Measurement measurement) {
+        report(String.format("%-48s %s", name, measurement));
+    }
+
+    /**
+     * Appends a line to the benchmark report, if the benchmark task asked for one.
+     *
+     * @param line the line to report
+     */
+    static void report(String line) {
+        String file = System.getProperty(REPORT_PROPERTY);
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.writeString(Path.of(file), line + System.lineSeparator(), StandardOpenOption.CREATE,
+                    StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 - Pedro Chamorro Llanca
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.pedrollanca.loveframeworksupport;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for LoveAliases.
+ */
+public class LoveAliasesTest {
+
+    /**
+     * Test that 'local x = love.<module>' declarations are collected.
+     */
+    @Test
+    public void testCollectAliases() {
+        String text = "local lg = love.graphics\n"
+                + "local  la=love . audio;\n"
+                + "function love.draw()\n"
+                + "    lg.print('hi')\n"
+                + "end\n";
+        LoveAliases aliases = LoveAliases.collect(text);
+
+        assertEquals(2, aliases.size());
+        assertSame(LoveTypes.GRAPHICS_KEY, resolve(aliases, "lg"));
+        assertSame(LoveTypes.AUDIO_KEY, resolve(aliases, "la"));
+        assertNull(resolve(aliases, "lk"));
+    }
+
+    /**
+     * Test that declarations which are not plain module aliases are ignored.
+     */
+    @Test
+    public void testIgnoreNonAliases() {
+        String text = "local img = love.graphics.newImage('a.png')\n"
+                + "local w = love.graphics.getWidth()\n"
+                + "local a, b = love.audio, love.sound\n"
+                + "local u = love.unknown\n"
+                + "local same = x == love.timer\n"
+                + "-- local lc = love.physics\n"
+                + "local s = \"local ls = love.sound\"\n"
+                + "lm = love.math\n";
+        LoveAliases aliases = LoveAliases.collect(text);
+
+        assertSame(LoveAliases.EMPTY, aliases);
+        assertNull(resolve(aliases, "lc"));
+        assertNull(resolve(aliases, "ls"));
+    }
+
+    private static String resolve(LoveAliases aliases, String name) {
+        return aliases.resolve(name, 0, name.length());
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 - Pedro Chamorro Llanca
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.pedrollanca.loveframeworksupport;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for LoveApiCatalog.
+ */
+public class LoveApiCatalogTest {
+
+    /**
+     * Test that the bundled catalog has a section for the callbacks, the modules and every module.
+     */
+    @Test
+    public void testBundledCatalogKeys() {
+        LoveApiCatalog catalog = LoveApiCatalog.getInstance();
+
+        assertTrue(catalog.hasKey(LoveTypes.CALLBACKS_KEY));
+        assertTrue(catalog.hasKey(LoveTypes.MODULES_KEY));
+        for (String moduleKey : LoveTypes.MODULE_KEYS) {
+            assertTrue("Catalog should have a section for " + moduleKey, catalog.hasKey(moduleKey));
+        }
+        assertEquals(LoveTypes.MODULE_KEYS.size() + 2, catalog.getKeys().size());
+    }
+
+    /**
+     * Test that the modules section lists exactly the module keys, in order.
+     */
+    @Test
+    public void testModulesSection() {
+        assertEquals(LoveTypes.MODULE_KEYS, LoveApiCatalog.getInstance().getNames(LoveTypes.MODULES_KEY));
+    }
+
+    /**
+     * Test that names are read in catalog order and unknown keys yield an empty list.
+     */
+    @Test
+    public void testNames() {
+        LoveApiCatalog catalog = LoveApiCatalog.getInstance();
+
+        assertEquals(List.of("load", "update", "draw"), catalog.getNames(LoveTypes.CALLBACKS_KEY));
+        assertEquals(List.of("newDecoder", "newSoundData"), catalog.getNames(LoveTypes.SOUND_KEY));
+        assertTrue(catalog.getNames("unknown").isEmpty());
+        assertFalse(catalog.hasKey("unknown"));
+    }
+
+    /**
+     * Test that the graphics section has the everyday functions and nothing LOVE doesn't have.
+     */
+    @Test
+    public void testGraphicsSection() {
+        LoveApiCatalog catalog = LoveApiCatalog.getInstance();
+        List<String> graphics = catalog.getNames(LoveTypes.GRAPHICS_KEY);
+
+        for (String name : List.of("printf", "getWidth", "getHeight", "getDimensions", "setDefaultFilter",
+                "newParticleSystem", "ellipse", "setNewFont", "getSupported", "getStats", "applyTransform",
+                "setColorMask", "intersectScissor", "discard", "setWireframe", "newArrayImage", "newVolumeImage",
+                "newVideo")) {
+            int index = graphics.indexOf(name);
+            assertTrue("Catalog should have love.graphics." + name, index >= 0);
+            assertTrue(name + " should exist in 11.5",
+                    LoveVersion.LOVE_11.isIn(catalog.getVersions(LoveTypes.GRAPHICS_KEY, index)));
+        }
+        assertFalse(graphics.contains("resetScissor"));
+    }
+
+    /**
+     * Test that no section lists a name twice.
+     */
+    @Test
+    public void testNoDuplicates() {
+        LoveApiCatalog catalog = LoveApiCatalog.getInstance();
+
+        for (String key : catalog.getKeys()) {
+            List<String> names = catalog.getNames(key);
+            assertEquals("Duplicate names in [" + key + "]", names.size(), Set.copyOf(names).size());
+        }
+    }
+
+    /**
+     * Test that a stream which is not a catalog is rejected.
+     */
+    @Test
+    public void testReadRejectsInvalidResource() {
+        try {
+            LoveApiCatalog.read(new ByteArrayInputStream(new byte[]{'J', 'U', 'N', 'K', 0, 1}));
+            fail("Reading an invalid catalog should fail");
+        } catch (IOException expected) {
+            assertNotNull(expected.getMessage());
+        }
+    }
+
+    /**
+     * Test that entries record the versions they exist in, and unannotated entries exist in all of them.
+     */
+    @Test
+    public void testVersions() {
+        LoveApiCatalog catalog = LoveApiCatalog.getInstance();
+
+        int data = catalog.getVersions(LoveTypes.MODULES_KEY,
+                catalog.getNames(LoveTypes.MODULES_KEY).indexOf(LoveTypes.DATA_KEY));
+        assertFalse(LoveVersion.LOVE_0_10.isIn(data));
+        assertTrue(LoveVersion.LOVE_11.isIn(data));
+        assertTrue(LoveVersion.LOVE_12.isIn(data));
+
+        List<String> audio = catalog.getNames(LoveTypes.AUDIO_KEY);
+        assertEquals(LoveVersion.LOVE_0_10.getMask(),
+                catalog.getVersions(LoveTypes.AUDIO_KEY, audio.indexOf("resume")));
+
+        // Deprecated in 11.0, but still available until 12.0
+        List<String> filesystem = catalog.getNames(LoveTypes.FILESYSTEM_KEY);
+        assertEquals(LoveVersion.LOVE_0_10.getMask() | LoveVersion.LOVE_11.getMask(),
+                catalog.getVersions(LoveTypes.FILESYSTEM_KEY, filesystem.indexOf("exists")));
+        assertEquals(LoveVersion.LOVE_11.getMask() | LoveVersion.LOVE_12.getMask(),
+                catalog.getVersions(LoveTypes.FILESYSTEM_KEY, filesystem.indexOf("getInfo")));
+        assertEquals(LoveVersion.ALL, catalog.getVersions(LoveTypes.FILESYSTEM_KEY, filesystem.indexOf("read")));
+
+        // Section annotations apply to every entry of the section
+        for (int i = 0; i < catalog.getNames(LoveTypes.DATA_KEY).size(); i++) {
+            assertEquals(data, catalog.getVersions(LoveTypes.DATA_KEY, i));
+        }
+    }
+}
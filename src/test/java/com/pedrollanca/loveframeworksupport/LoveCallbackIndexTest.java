@@ -0,0 +1,94 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 - Pedro Chamorro Llanca
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.pedrollanca.loveframeworksupport;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for LoveCallbackIndex.
+ */
+public class LoveCallbackIndexTest {
+
+    private static final String SOURCE = "function love.load()\n"
+            + "end\n"
+            + "love.update = function(dt) end\n"
+            + "function  love.update(dt)\n"
+            + "    love.draw()\n"
+            + "    if love.update == nil then end\n"
+            + "end\n"
+            + "-- function love.draw()\n"
+            + "local s = \"function love.draw()\"\n"
+            + "function game.love.draw() end\n"
+            + "function love.graphics.draw() end\n";
+
+    /**
+     * Test that the callbacks are read from the catalog.
+     */
+    @Test
+    public void testCallbacks() {
+        assertEquals(List.of("love.load", "love.update", "love.draw"), LoveCallbackIndex.getCallbacks());
+    }
+
+    /**
+     * Test that function definitions and assignments are indexed, but not calls, comparisons, comments, strings,
+     * members of other tables or module functions.
+     */
+    @Test
+    public void testIndex() {
+        Map<String, int[]> definitions = LoveCallbackIndex.index(SOURCE);
+
+        assertEquals(Set.of("love.load", "love.update"), definitions.keySet());
+        assertArrayEquals(new int[]{SOURCE.indexOf("love.load")}, definitions.get("love.load"));
+        assertArrayEquals(new int[]{SOURCE.indexOf("love.update ="), SOURCE.indexOf("love.update(dt)")},
+                definitions.get("love.update"));
+    }
+
+    /**
+     * Test that a definition is recognized from the offset of its 'love' identifier alone.
+     */
+    @Test
+    public void testFindDefinitionAt() {
+        assertEquals("love.load", LoveCallbackIndex.findDefinitionAt(SOURCE, SOURCE.indexOf("love.load")));
+        assertEquals("love.update", LoveCallbackIndex.findDefinitionAt(SOURCE, SOURCE.indexOf("love.update =")));
+        assertEquals("love.update", LoveCallbackIndex.findDefinitionAt(SOURCE, SOURCE.indexOf("love.update(dt)")));
+        assertNull(LoveCallbackIndex.findDefinitionAt(SOURCE, SOURCE.indexOf("love.draw()")));
+        assertNull(LoveCallbackIndex.findDefinitionAt(SOURCE, SOURCE.indexOf("love.update ==")));
+        assertNull(LoveCallbackIndex.findDefinitionAt(SOURCE, SOURCE.indexOf("love.draw() end")));
+        assertNull(LoveCallbackIndex.findDefinitionAt(SOURCE, SOURCE.indexOf("love.graphics.draw")));
+        assertNull(LoveCallbackIndex.findDefinitionAt("function love.loader() end", 9));
+    }
+
+    /**
+     * Test the description of a duplicated callback.
+     */
+    @Test
+    public void testDuplicateMessage() {
+        assertEquals("'love.update' is defined 2 times in the project; only the last one loaded is called",
+                LoveDuplicateCallbackInspection.getMessage("love.update", 2));
+    }
+}
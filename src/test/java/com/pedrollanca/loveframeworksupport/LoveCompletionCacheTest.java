@@ -0,0 +1,194 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 - Pedro Chamorro Llanca
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.pedrollanca.loveframeworksupport;
+
+import com.intellij.codeInsight.lookup.LookupElement;
+import com.intellij.openapi.editor.Editor;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Test class for LoveCompletionCache.
+ */
+public class LoveCompletionCacheTest {
+
+    private static final List<List<LookupElement>> GRAPHICS =
+            Collections.singletonList(LoveElements.getElementsFor(LoveTypes.GRAPHICS_KEY));
+
+    /**
+     * Test that a growing prefix for the same qualifier reuses the cached candidates.
+     */
+    @Test
+    public void testHitWhilePrefixGrows() {
+        LoveCompletionCache cache = new LoveCompletionCache(LoveCompletionCache.DEFAULT_MAX_EDITORS);
+        Editor editor = mock(Editor.class);
+
+        assertSame(GRAPHICS, cache.getCandidates(editor, LoveTypes.GRAPHICS_KEY, "", 1, 0, () -> GRAPHICS));
+        List<List<LookupElement>> reused = cache.getCandidates(editor, LoveTypes.GRAPHICS_KEY, "dr", 3, 0, () -> {
+            fail("the candidates for '' should be reused for 'dr'");
+            return null;
+        });
+
+        assertSame(GRAPHICS, reused);
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    /**
+     * Test that a different qualifier, a shorter prefix or another editor resolves the candidates again.
+     */
+    @Test
+    public void testMiss() {
+        LoveCompletionCache cache = new LoveCompletionCache(LoveCompletionCache.DEFAULT_MAX_EDITORS);
+        Editor editor = mock(Editor.class);
+
+        cache.getCandidates(editor, LoveTypes.GRAPHICS_KEY, "dr", 1, 0, () -> GRAPHICS);
+        cache.getCandidates(editor, LoveTypes.GRAPHICS_KEY, "d", 2, 0, () -> GRAPHICS);
+        cache.getCandidates(editor, LoveTypes.AUDIO_KEY, "d", 2, 0, () -> GRAPHICS);
+        cache.getCandidates(editor, null, "d", 2, 0, () -> GRAPHICS);
+        cache.getCandidates(mock(Editor.class), null, "d", 2, 0, () -> GRAPHICS);
+
+        assertEquals(0, cache.getHitCount());
+        assertEquals(5, cache.getMissCount());
+    }
+
+    /**
+     * Test that an unchanged document with the same prefix is a hit, while a changed one with an unrelated prefix
+     * is not.
+     */
+    @Test
+    public void testModificationStamp() {
+        LoveCompletionCache cache = new LoveCompletionCache(LoveCompletionCache.DEFAULT_MAX_EDITORS);
+        Editor editor = mock(Editor.class);
+
+        cache.getCandidates(editor, LoveTypes.GRAPHICS_KEY, "dr", 7, 0, () -> GRAPHICS);
+        cache.getCandidates(editor, LoveTypes.GRAPHICS_KEY, "dr", 7, 0, () -> GRAPHICS);
+        cache.getCandidates(editor, LoveTypes.GRAPHICS_KEY, "ne", 8, 0, () -> GRAPHICS);
+
+        assertEquals(1, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+    }
+
+    /**
+     * Test that an empty result is not reused for a longer prefix, which may match with typing errors.
+     */
+    @Test
+    public void testEmptyCandidatesNotReused() {
+        LoveCompletionCache cache = new LoveCompletionCache(LoveCompletionCache.DEFAULT_MAX_EDITORS);
+        Editor editor = mock(Editor.class);
+        List<List<LookupElement>> empty = Collections.singletonList(Collections.emptyList());
+
+        cache.getCandidates(editor, LoveTypes.GRAPHICS_KEY, "nwe", 1, 0, () -> empty);
+        assertSame(GRAPHICS, cache.getCandidates(editor, LoveTypes.GRAPHICS_KEY, "nweI", 2, 0, () -> GRAPHICS));
+
+        assertEquals(0, cache.getHitCount());
+    }
+
+    /**
+     * Test that the fallback to every name, for a prefix nothing matched, is not narrowed for a longer prefix.
+     */
+    @Test
+    public void testFallbackNotReused() {
+        LoveCompletionCache cache = new LoveCompletionCache(LoveCompletionCache.DEFAULT_MAX_EDITORS);
+        Editor editor = mock(Editor.class);
+
+        cache.getCandidates(editor, LoveTypes.GRAPHICS_KEY, "nwe", 1, 0, () -> GRAPHICS);
+        cache.getCandidates(editor, LoveTypes.GRAPHICS_KEY, "nweI", 2, 0, () -> GRAPHICS);
+
+        assertEquals(0, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+    }
+
+    /**
+     * Test that names matching a prefix are reused for a longer prefix only while one of them still matches, so a
+     * prefix with a typing error resolves the fallback again.
+     */
+    @Test
+    public void testMatchingCandidatesReusedWhileTheyMatch() {
+        LoveCompletionCache cache = new LoveCompletionCache(LoveCompletionCache.DEFAULT_MAX_EDITORS);
+        Editor editor = mock(Editor.class);
+        List<List<LookupElement>> matching = Collections.singletonList(
+                LoveElements.getElementsMatching(LoveTypes.GRAPHICS_KEY, "ne"));
+
+        cache.getCandidates(editor, LoveTypes.GRAPHICS_KEY, "ne", 1, 0, () -> matching);
+        assertSame(matching, cache.getCandidates(editor, LoveTypes.GRAPHICS_KEY, "newIm", 2, 0, () -> GRAPHICS));
+        assertSame(GRAPHICS, cache.getCandidates(editor, LoveTypes.GRAPHICS_KEY, "newSpriteBtach", 3, 0,
+                () -> GRAPHICS));
+
+        assertEquals(1, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+    }
+
+    /**
+     * Test that candidates ranked with outdated usage priorities are resolved again.
+     */
+    @Test
+    public void testStatisticsGeneration() {
+        LoveCompletionCache cache = new LoveCompletionCache(LoveCompletionCache.DEFAULT_MAX_EDITORS);
+        Editor editor = mock(Editor.class);
+
+        cache.getCandidates(editor, LoveTypes.GRAPHICS_KEY, "dr", 7, 0, () -> GRAPHICS);
+        cache.getCandidates(editor, LoveTypes.GRAPHICS_KEY, "dr", 7, 1, () -> GRAPHICS);
+
+        assertEquals(0, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+    }
+
+    /**
+     * Test that the number of cached editors stays bounded.
+     */
+    @Test
+    public void testBoundedSize() {
+        LoveCompletionCache cache = new LoveCompletionCache(2);
+        for (int i = 0; i < 5; i++) {
+            cache.getCandidates(mock(Editor.class), null, "", 0, 0, () -> GRAPHICS);
+        }
+
+        assertTrue(cache.size() <= 2);
+    }
+
+    /**
+     * Test that the least recently used editor is evicted first.
+     */
+    @Test
+    public void testLeastRecentlyUsedEvicted() {
+        LoveCompletionCache cache = new LoveCompletionCache(2);
+        Editor first = mock(Editor.class);
+        Editor second = mock(Editor.class);
+
+        cache.getCandidates(first, null, "", 0, 0, () -> GRAPHICS);
+        cache.getCandidates(second, null, "", 0, 0, () -> GRAPHICS);
+        cache.getCandidates(first, null, "", 0, 0, () -> GRAPHICS);
+        cache.getCandidates(mock(Editor.class), null, "", 0, 0, () -> GRAPHICS);
+        cache.getCandidates(first, null, "", 0, 0, () -> GRAPHICS);
+        cache.getCandidates(second, null, "", 0, 0, () -> GRAPHICS);
+
+        assertEquals(2, cache.size());
+        assertEquals(2, cache.getHitCount());
+        assertEquals(4, cache.getMissCount());
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 - Pedro Chamorro Llanca
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.pedrollanca.loveframeworksupport;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Benchmark for LoveCompletionContext: per-invocation latency and allocation must not depend on the file size.
+ */
+public class LoveCompletionContextBenchmark {
+
+    private static final int WARMUP = 20_000;
+    private static final int ITERATIONS = 100_000;
+
+    /**
+     * Maximum difference in bytes per scan tolerated between the small and the large file.
+     */
+    private static final double ALLOCATION_TOLERANCE = 16;
+
+    @Test
+    public void testScanCostIsIndependentOfFileSize() {
+        CharSequence small = generateLevelFile(200);
+        CharSequence large = generateLevelFile(20_000);
+
+        BenchmarkSupport.Measurement smallResult = measureScan(small);
+        BenchmarkSupport.Measurement largeResult = measureScan(large);
+
+        BenchmarkSupport.report("scan, 200 lines (" + small.length() + " chars)", smallResult);
+        BenchmarkSupport.report("scan, 20k lines (" + large.length() + " chars)", largeResult);
+
+        assertTrue("Allocation per scan should not grow with the file size: " + smallResult + " vs " + largeResult,
+                largeResult.bytesPerOperation - smallResult.bytesPerOperation <= ALLOCATION_TOLERANCE);
+        assertTrue("A scan should allocate at most the context itself: " + largeResult,
+                largeResult.bytesPerOperation <= 64);
+    }
+
+    private static BenchmarkSupport.Measurement measureScan(CharSequence text) {
+        int offset = text.length();
+        return BenchmarkSupport.measure(WARMUP, ITERATIONS,
+                () -> BenchmarkSupport.blackhole = LoveCompletionContext.scan(text, offset));
+    }
+
+    /**
+     * Generates a data-driven level file ending with a 'love.graphics.' qualifier at the caret.
+     */
+    private static CharSequence generateLevelFile(int lines) {
+        StringBuilder builder = new StringBuilder(lines * 48);
+        builder.append("local level = {\n");
+        for (int i = 0; i < lines; i++) {
+            builder.append("    { x = ").append(i * 16).append(", y = ").append(i % 64)
+                    .append(", tile = \"grass\" },\n");
+        }
+        builder.append("}\n\nfunction love.draw()\n    love.graphics.");
+        // The platform hands completion an immutable snapshot, emulated here with a String
+        return builder.toString();
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 - Pedro Chamorro Llanca
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.pedrollanca.loveframeworksupport;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for LoveCompletionContext.
+ */
+public class LoveCompletionContextTest {
+
+    /**
+     * Test that 'love.' at the start of a line yields the top-level context.
+     */
+    @Test
+    public void testTopLevelContext() {
+        String text = "love.";
+        LoveCompletionContext context = LoveCompletionContext.scan(text, text.length());
+
+        assertNotNull("'love.' should be recognized", context);
+        assertTrue("'love.' should be a top-level context", context.isTopLevel());
+        assertEquals(0, context.getPrefixLength());
+    }
+
+    /**
+     * Test that a partially typed identifier after 'love.' is reported as the prefix.
+     */
+    @Test
+    public void testTopLevelContextWithPrefix() {
+        String text = "function foo()\n    love.gra";
+        LoveCompletionContext context = LoveCompletionContext.scan(text, text.length());
+
+        assertNotNull("'love.gra' should be recognized", context);
+        assertTrue(context.isTopLevel());
+        assertEquals(text.length() - 3, context.getPrefixStart());
+        assertEquals(3, context.getPrefixLength());
+    }
+
+    /**
+     * Test that 'love.<module>.' resolves to the shared module key constant.
+     */
+    @Test
+    public void testModuleContext() {
+        String text = "\tlove.graphics.dr";
+        LoveCompletionContext context = LoveCompletionContext.scan(text, text.length());
+
+        assertNotNull("'love.graphics.dr' should be recognized", context);
+        assertFalse(context.isTopLevel());
+        assertSame(LoveTypes.GRAPHICS_KEY, context.getModuleKey());
+        assertEquals(2, context.getPrefixLength());
+    }
+
+    /**
+     * Test that text which is not a LOVE qualifier is rejected.
+     */
+    @Test
+    public void testNoContext() {
+        assertNull(LoveCompletionContext.scan("test.", 5));
+        assertNull(LoveCompletionContext.scan("", 0));
+        assertNull(LoveCompletionContext.scan("love", 4));
+        assertNull(LoveCompletionContext.scan("glove.", 6));
+        assertNull(LoveCompletionContext.scan("love.unknown.", 13));
+        assertNull(LoveCompletionContext.scan("love.graphics.draw.", 19));
+        assertNull(LoveCompletionContext.scan("obj.love.", 9));
+        assertNull(LoveCompletionContext.scan("obj:love.", 9));
+        assertNull(LoveCompletionContext.scan("obj.love.graphics.", 18));
+        assertNull(LoveCompletionContext.scan("x = love..", 10));
+    }
+
+    /**
+     * Test that qualifiers are recognized anywhere in an expression, not only at the start of a line.
+     */
+    @Test
+    public void testContextInsideExpression() {
+        String text = "local w = love.graphics.getW";
+        LoveCompletionContext context = LoveCompletionContext.scan(text, text.length());
+
+        assertNotNull("'love.graphics.' after an assignment should be recognized", context);
+        assertSame(LoveTypes.GRAPHICS_KEY, context.getModuleKey());
+        assertEquals(4, context.getPrefixLength());
+
+        assertNotNull(LoveCompletionContext.scan("x = love.", 9));
+        assertNotNull(LoveCompletionContext.scan("print(love.", 11));
+        assertNotNull(LoveCompletionContext.scan("s = \"a\" .. love.", 16));
+    }
+
+    /**
+     * Test that a chain split across lines is recognized.
+     */
+    @Test
+    public void testMultiLineChain() {
+        String text = "love.graphics\n    .newIm";
+        LoveCompletionContext context = LoveCompletionContext.scan(text, text.length());
+
+        assertNotNull("a chain continued on the next line should be recognized", context);
+        assertSame(LoveTypes.GRAPHICS_KEY, context.getModuleKey());
+        assertEquals("newIm", context.getPrefix(text));
+    }
+
+    /**
+     * Test that a local alias of a module is resolved through the alias resolver.
+     */
+    @Test
+    public void testAliasedChain() {
+        String text = "local lg = love.graphics\nlg.dr";
+        LoveAliases aliases = LoveAliases.collect(text);
+        LoveCompletionContext context = LoveCompletionContext.scan(text, text.length(), aliases);
+
+        assertNotNull("'lg.' should resolve to love.graphics", context);
+        assertSame(LoveTypes.GRAPHICS_KEY, context.getModuleKey());
+        assertEquals("dr", context.getPrefix(text));
+
+        assertNull("aliases are ignored without a resolver", LoveCompletionContext.scan(text, text.length()));
+        assertNull("a member named like an alias is not an alias",
+                LoveCompletionContext.scan("obj.lg.", 7, aliases));
+    }
+
+    /**
+     * Test that offsets outside of the text are rejected instead of throwing.
+     */
+    @Test
+    public void testOffsetOutOfBounds() {
+        assertNull(LoveCompletionContext.scan("love.", -1));
+        assertNull(LoveCompletionContext.scan("love.", 6));
+    }
+
+    /**
+     * Test that only the caret line is inspected, regardless of what precedes it.
+     */
+    @Test
+    public void testContextAfterLargeText() {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            builder.append("local x").append(i).append(" = ").append(i).append('\n');
+        }
+        builder.append("love.audio.");
+        LoveCompletionContext context = LoveCompletionContext.scan(builder, builder.length());
+
+        assertNotNull(context);
+        assertSame(LoveTypes.AUDIO_KEY, context.getModuleKey());
+    }
+}
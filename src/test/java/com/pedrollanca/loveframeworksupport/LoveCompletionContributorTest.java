@@ -21,94 +21,66 @@
 
 package com.pedrollanca.loveframeworksupport;
 
-
-import com.intellij.codeInsight.completion.CompletionContributor;
 import com.intellij.lang.Language;
-import org.junit.After;
-import org.junit.Before;
+import com.intellij.psi.PsiFile;
+import com.intellij.util.ProcessingContext;
 import org.junit.Test;
-import org.junit.runner.RunWith;
-import org.mockito.MockedStatic;
-import org.mockito.Mockito;
-import org.mockito.junit.MockitoJUnitRunner;
 
-import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 /**
  * Test class for LoveCompletionContributor.
  */
-@RunWith(MockitoJUnitRunner.class)
 public class LoveCompletionContributorTest {
 
-    private MockedStatic<PluginUtils> mockedPluginUtils;
-
-    @Before
-    public void setUp() {
-        // Initialize the mock for PluginUtils
-        mockedPluginUtils = Mockito.mockStatic(PluginUtils.class);
-    }
-
-    @After
-    public void tearDown() {
-        // Close the mock to avoid memory leaks
-        mockedPluginUtils.close();
-    }
-
     /**
-     * Test that LoveCompletionContributor can be instantiated when EmmyLua is not active.
+     * Test that completion is offered in files of the Lua language, whatever their name.
      */
     @Test
-    public void testInstantiationWithEmmyLuaInactive() {
-        // Mock PluginUtils.getLuaLanguage() to return null, simulating EmmyLua being inactive
-        mockedPluginUtils.when(PluginUtils::isEmmyLuaActive).thenReturn(false);
-        mockedPluginUtils.when(PluginUtils::getLuaLanguage).thenReturn(null);
-
-        // Instantiate the contributor
-        CompletionContributor contributor = new LoveCompletionContributor();
+    public void testLuaFile() {
+        PsiFile file = file("script", language(PluginUtils.LUA_LANGUAGE_ID));
 
-        // Assertions
-        assertNotNull("LoveCompletionContributor instance should not be null", contributor);
-        assertTrue("Contributor should be an instance of CompletionContributor", contributor instanceof CompletionContributor);
+        assertTrue(PluginUtils.isLuaFile(file));
+        assertTrue(LoveCompletionContributor.LUA_FILE.accepts(file, new ProcessingContext()));
     }
 
     /**
-     * Test that LoveCompletionContributor can be instantiated when EmmyLua is active.
+     * Test that completion is offered in a *.lua file opened as plain text, when no Lua plugin is installed.
      */
     @Test
-    public void testInstantiationWithEmmyLuaActive() {
-        // Mock PluginUtils.getLuaLanguage() to return a mock Language instance
-        // Assuming LoveLanguage is a subclass of Language; otherwise, replace with an appropriate mock
-        Language mockLanguage = Mockito.mock(Language.class);
-        mockedPluginUtils.when(PluginUtils::isEmmyLuaActive).thenReturn(true);
-        mockedPluginUtils.when(PluginUtils::getLuaLanguage).thenReturn(mockLanguage);
-
-        // Instantiate the contributor
-        CompletionContributor contributor = new LoveCompletionContributor();
+    public void testLuaTextFile() {
+        PsiFile file = file("main.lua", language("TEXT"));
 
-        // Assertions
-        assertNotNull("LoveCompletionContributor instance should not be null", contributor);
-        assertTrue("Contributor should be an instance of CompletionContributor", contributor instanceof CompletionContributor);
+        assertTrue(PluginUtils.isLuaFile(file));
+        assertTrue(LoveCompletionContributor.LUA_FILE.accepts(file, new ProcessingContext()));
     }
 
     /**
-     * Test that LoveCompletionContributor registers correctly.
-     * Note: Comprehensive testing requires IntelliJ's testing framework.
+     * Test that completion is not offered in other files, including plain text files not named *.lua.
      */
     @Test
-    public void testContributorRegistration() {
-        // Mock PluginUtils methods
-        Language mockLanguage = Mockito.mock(Language.class);
-        mockedPluginUtils.when(PluginUtils::isEmmyLuaActive).thenReturn(true);
-        mockedPluginUtils.when(PluginUtils::getLuaLanguage).thenReturn(mockLanguage);
+    public void testNonLuaFile() {
+        PsiFile javaFile = file("Main.java", language("JAVA"));
+        PsiFile textFile = file("notes.txt", language("TEXT"));
 
-        // Instantiate the contributor
-        CompletionContributor contributor = new LoveCompletionContributor();
+        assertFalse(PluginUtils.isLuaFile(javaFile));
+        assertFalse(LoveCompletionContributor.LUA_FILE.accepts(javaFile, new ProcessingContext()));
+        assertFalse(LoveCompletionContributor.LUA_FILE.accepts(textFile, new ProcessingContext()));
+    }
 
-        // Assertions
-        assertNotNull("LoveCompletionContributor instance should not be null", contributor);
-        assertTrue("Contributor should be an instance of CompletionContributor", contributor instanceof CompletionContributor);
+    private static PsiFile file(String name, Language language) {
+        PsiFile file = mock(PsiFile.class);
+        when(file.getName()).thenReturn(name);
+        when(file.getLanguage()).thenReturn(language);
+        return file;
+    }
 
-        // Additional registration tests would require IntelliJ's testing framework (e.g., LightPlatformTestCase)
+    private static Language language(String id) {
+        Language language = mock(Language.class);
+        when(language.getID()).thenReturn(id);
+        return language;
     }
-}
\ No newline at end of file
+}
@@ -22,17 +22,32 @@ package com.pedrollanca.loveframeworksupport;
 
 import com.intellij.codeInsight.completion.CompletionParameters;
 import com.intellij.codeInsight.completion.CompletionResultSet;
+import com.intellij.codeInsight.completion.PrefixMatcher;
+import com.intellij.codeInsight.completion.PrioritizedLookupElement;
+import com.intellij.codeInsight.lookup.LookupElement;
+import com.intellij.lang.Language;
 import com.intellij.openapi.editor.Document;
 import com.intellij.openapi.editor.Editor;
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.PsiFile;
 import com.intellij.util.ProcessingContext;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.MockedStatic;
 import org.mockito.junit.MockitoJUnitRunner;
 
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.*;
 
@@ -60,6 +75,13 @@ public class LoveCompletionProviderTest {
     @Mock
     private Document mockDocument;
 
+    @Mock
+    private PsiFile mockFile;
+
+    private MockedStatic<LoveUsageStatistics> mockedStatistics;
+
+    private LoveUsageStatistics statistics;
+
     /**
      * Initialize mocks before each test.
      */
@@ -69,6 +91,19 @@ public class LoveCompletionProviderTest {
         when(mockParameters.getEditor()).thenReturn(mockEditor);
         // When getDocument() is called on Editor, return the mock Document
         when(mockEditor.getDocument()).thenReturn(mockDocument);
+        // Complete inside a Lua file unless a test says otherwise
+        lenient().when(mockParameters.getOriginalFile()).thenReturn(mockFile);
+        lenient().when(mockFile.getName()).thenReturn("main.lua");
+        // The provider adds its candidates through a result set with the typo tolerant matcher
+        lenient().when(mockResultSet.withPrefixMatcher(any(PrefixMatcher.class))).thenReturn(mockResultSet);
+        // Use a fresh statistics store instead of the application service
+        statistics = new LoveUsageStatistics();
+        mockedStatistics = mockStatic(LoveUsageStatistics.class, invocation -> statistics);
+    }
+
+    @After
+    public void tearDown() {
+        mockedStatistics.close();
     }
 
     /**
@@ -80,9 +115,8 @@ public class LoveCompletionProviderTest {
         // Define a line that matches LOVE_LINE_PATTERN
         String validLine = "love.";
         // Mock the Document to return the valid line
-        when(mockDocument.getText()).thenReturn(validLine);
+        when(mockDocument.getImmutableCharSequence()).thenReturn(validLine);
         when(mockParameters.getOffset()).thenReturn(5);
-        when(mockDocument.getLineStartOffset(anyInt())).thenReturn(0);
         // Invoke the method under test
         provider.addCompletions(mockParameters, mockContext, mockResultSet);
 
@@ -99,13 +133,139 @@ public class LoveCompletionProviderTest {
         // Define a line that does NOT match LOVE_LINE_PATTERN
         String invalidLine = "test.";
         // Mock the Document to return the invalid line
-        when(mockDocument.getText()).thenReturn(invalidLine);
+        when(mockDocument.getImmutableCharSequence()).thenReturn(invalidLine);
+        when(mockParameters.getOffset()).thenReturn(5);
 
         // Invoke the method under test
         provider.addCompletions(mockParameters, mockContext, mockResultSet);
 
         // Verify that resultSet.addElement was never called
         verify(mockResultSet, never()).addElement(any());
+        verify(mockResultSet, never()).addAllElements(any());
+    }
+
+    /**
+     * Test provideCompletions inside a module qualifier.
+     * Expectation: The module functions are added without ever copying the document text.
+     */
+    @Test
+    public void testProvideCompletionsWithModuleQualifier() {
+        String line = "    love.graphics.";
+        when(mockDocument.getImmutableCharSequence()).thenReturn(line);
+        when(mockParameters.getOffset()).thenReturn(line.length());
+
+        provider.addCompletions(mockParameters, mockContext, mockResultSet);
+
+        List<LookupElement> added = captureAddedElements();
+        List<LookupElement> expected = LoveElements.getElementsFor(LoveTypes.GRAPHICS_KEY).stream()
+                .filter(element -> LoveElements.isAvailable(element, LoveVersion.DEFAULT))
+                .collect(Collectors.toList());
+        assertEquals(lookupStrings(expected), lookupStrings(added));
+        verify(mockDocument, never()).getText();
+    }
+
+    /**
+     * Test provideCompletions in a project targeting another LOVE version.
+     * Expectation: Only the functions of that version are added.
+     */
+    @Test
+    public void testProvideCompletionsForProjectVersion() {
+        LoveProjectSettings settings = new LoveProjectSettings(null);
+        settings.setVersion(LoveVersion.LOVE_12);
+        Project project = mock(Project.class);
+        when(project.getService(LoveProjectSettings.class)).thenReturn(settings);
+        when(mockFile.getProject()).thenReturn(project);
+        String line = "love.graphics.newTe";
+        when(mockDocument.getImmutableCharSequence()).thenReturn(line);
+        when(mockParameters.getOffset()).thenReturn(line.length());
+
+        provider.addCompletions(mockParameters, mockContext, mockResultSet);
+
+        List<String> added = lookupStrings(captureAddedElements());
+        assertTrue(added.contains("newTextBatch"));
+        assertFalse(added.contains("newText"));
+    }
+
+    /**
+     * Test provideCompletions with a typing error in the prefix.
+     * Expectation: The module functions are handed to a result set filtering them with the typo tolerant matcher.
+     */
+    @Test
+    public void testProvideCompletionsWithTypo() {
+        String line = "love.graphics.newSpriteBtach";
+        when(mockDocument.getImmutableCharSequence()).thenReturn(line);
+        when(mockParameters.getOffset()).thenReturn(line.length());
+
+        provider.addCompletions(mockParameters, mockContext, mockResultSet);
+
+        ArgumentCaptor<PrefixMatcher> matcher = ArgumentCaptor.forClass(PrefixMatcher.class);
+        verify(mockResultSet).withPrefixMatcher(matcher.capture());
+        assertTrue(matcher.getValue() instanceof LoveFuzzyMatcher);
+        assertTrue(matcher.getValue().prefixMatches("newSpriteBatch"));
+        assertTrue(lookupStrings(captureAddedElements()).contains("newSpriteBatch"));
+    }
+
+    /**
+     * Test provideCompletions after some completion items were accepted.
+     * Expectation: Items are prioritized by how often they were accepted.
+     */
+    @Test
+    public void testProvideCompletionsPrioritizedByUsage() {
+        statistics.recordUsage("love.graphics.draw");
+        statistics.recordUsage("love.graphics.draw");
+        String line = "love.graphics.";
+        when(mockDocument.getImmutableCharSequence()).thenReturn(line);
+        when(mockParameters.getOffset()).thenReturn(line.length());
+
+        provider.addCompletions(mockParameters, mockContext, mockResultSet);
+
+        for (LookupElement element : captureAddedElements()) {
+            double priority = ((PrioritizedLookupElement<?>) element).getPriority();
+            if (element.getLookupString().equals("draw")) {
+                assertEquals(LoveUsageStatistics.BASE_PRIORITY + 2, priority, 0);
+            } else {
+                assertEquals(LoveUsageStatistics.BASE_PRIORITY, priority, 0);
+            }
+        }
+    }
+
+    /**
+     * Test provideCompletions while the prefix grows after the same qualifier.
+     * Expectation: The second keystroke reuses the candidates resolved by the first one.
+     */
+    @Test
+    public void testProvideCompletionsReusesCandidatesWhileTyping() {
+        long hits = LoveCompletionProvider.getCache().getHitCount();
+        when(mockDocument.getImmutableCharSequence()).thenReturn("love.graphics.d", "love.graphics.dr");
+        when(mockDocument.getModificationStamp()).thenReturn(1L, 2L);
+        when(mockParameters.getOffset()).thenReturn(15, 16);
+
+        provider.addCompletions(mockParameters, mockContext, mockResultSet);
+        provider.addCompletions(mockParameters, mockContext, mockResultSet);
+
+        assertEquals(hits + 1, LoveCompletionProvider.getCache().getHitCount());
+        ArgumentCaptor<List<LookupElement>> captor = listCaptor();
+        verify(mockResultSet, times(2)).addAllElements(captor.capture());
+        assertSame(captor.getAllValues().get(0), captor.getAllValues().get(1));
+        assertEquals(lookupStrings(LoveElements.getElementsMatching(LoveTypes.GRAPHICS_KEY, "d")),
+                lookupStrings(captor.getValue()));
+    }
+
+    /**
+     * Test provideCompletions in a file that is not a Lua file.
+     * Expectation: No work is done: neither the editor, the document nor the result set is touched.
+     */
+    @Test
+    public void testProvideCompletionsInNonLuaFile() {
+        Language javaLanguage = mock(Language.class);
+        when(mockFile.getName()).thenReturn("Main.java");
+        when(mockFile.getLanguage()).thenReturn(javaLanguage);
+
+        provider.addCompletions(mockParameters, mockContext, mockResultSet);
+
+        verify(mockParameters, never()).getEditor();
+        verify(mockParameters, never()).getOffset();
+        verifyNoInteractions(mockEditor, mockDocument, mockResultSet);
     }
 
     /**
@@ -117,7 +277,7 @@ public class LoveCompletionProviderTest {
         // Define an empty line
         String emptyLine = "";
         // Mock the Document to return the empty line
-        when(mockDocument.getText()).thenReturn(emptyLine);
+        when(mockDocument.getImmutableCharSequence()).thenReturn(emptyLine);
 
         // Invoke the method under test
         provider.addCompletions(mockParameters, mockContext, mockResultSet);
@@ -132,8 +292,8 @@ public class LoveCompletionProviderTest {
      */
     @Test
     public void testProvideCompletionsWithDocumentException() {
-        // Mock the Document to throw a RuntimeException when getText() is called
-        when(mockDocument.getText()).thenThrow(new RuntimeException("Document access error"));
+        // Mock the Document to throw a RuntimeException when its text is accessed
+        when(mockDocument.getImmutableCharSequence()).thenThrow(new RuntimeException("Document access error"));
 
         try {
             // Invoke the method under test
@@ -147,6 +307,21 @@ public class LoveCompletionProviderTest {
         verify(mockResultSet, never()).addElement(any());
     }
 
+    private List<LookupElement> captureAddedElements() {
+        ArgumentCaptor<List<LookupElement>> captor = listCaptor();
+        verify(mockResultSet, times(1)).addAllElements(captor.capture());
+        return captor.getValue();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ArgumentCaptor<List<LookupElement>> listCaptor() {
+        return ArgumentCaptor.forClass((Class<List<LookupElement>>) (Class<?>) List.class);
+    }
+
+    private static List<String> lookupStrings(List<LookupElement> elements) {
+        return elements.stream().map(LookupElement::getLookupString).collect(Collectors.toList());
+    }
+
     /**
      * Test that LoveCompletionProvider can be instantiated.
      */
@@ -0,0 +1,147 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 - Pedro Chamorro Llanca
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.pedrollanca.loveframeworksupport;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for LoveConfModules.
+ */
+public class LoveConfModulesTest {
+
+    private static final String CONF = "-- t.modules.audio = false\n"
+            + "function love.conf(c)\n"
+            + "    c.window.title = \"t.modules.sound = false\"\n"
+            + "    c.modules.audio = false\n"
+            + "    c.modules.physics = true\n"
+            + "    other.modules.video = false\n"
+            + "end\n";
+
+    /**
+     * Test that the implicit modules and the dependencies of the referenced modules are required.
+     */
+    @Test
+    public void testGetRequiredModules() {
+        assertEquals(List.of("event", "font", "graphics", "image", "timer", "window"),
+                List.copyOf(LoveConfModules.getRequiredModules(Set.of())));
+        assertEquals(List.of("audio", "event", "font", "graphics", "image", "sound", "timer", "window"),
+                List.copyOf(LoveConfModules.getRequiredModules(Set.of("audio"))));
+    }
+
+    /**
+     * Test that love.filesystem cannot be disabled.
+     */
+    @Test
+    public void testIsToggleable() {
+        assertTrue(LoveConfModules.isToggleable("physics"));
+        assertFalse(LoveConfModules.isToggleable("filesystem"));
+        assertFalse(LoveConfModules.isToggleable("unknown"));
+    }
+
+    /**
+     * Test that only assignments to the love.conf parameter outside comments and strings are found.
+     */
+    @Test
+    public void testFindModuleFlags() {
+        List<LoveConfModules.ModuleFlag> flags = LoveConfModules.findModuleFlags(CONF);
+
+        assertEquals(2, flags.size());
+        assertEquals("audio", flags.get(0).module);
+        assertFalse(flags.get(0).enabled);
+        assertEquals(CONF.indexOf("c.modules.audio"), flags.get(0).start);
+        assertEquals("false", CONF.substring(flags.get(0).valueStart, flags.get(0).valueEnd));
+        assertEquals("physics", flags.get(1).module);
+        assertTrue(flags.get(1).enabled);
+    }
+
+    /**
+     * Test that the assignment form of love.conf is recognized and a file without love.conf has no flags.
+     */
+    @Test
+    public void testFindModuleFlagsInAssignedFunction() {
+        assertEquals(1, LoveConfModules.findModuleFlags("love.conf = function(t) t.modules.joystick = false end")
+                .size());
+        assertTrue(LoveConfModules.findModuleFlags("t.modules.joystick = false").isEmpty());
+    }
+
+    /**
+     * Test that existing assignments are corrected and the remaining unused modules are disabled.
+     */
+    @Test
+    public void testUpdateConf() {
+        Set<String> required = LoveConfModules.getRequiredModules(Set.of("audio"));
+        String updated = LoveConfModules.updateConf(CONF, required);
+
+        assertTrue(updated.contains("    c.modules.audio = true\n"));
+        assertTrue(updated.contains("    c.modules.physics = false\n"));
+        assertTrue(updated.contains("    other.modules.video = false\n    c.modules.data = false\n"));
+        assertTrue(updated.endsWith("    c.modules.video = false\nend\n"));
+        assertFalse(updated.contains("c.modules.sound"));
+        assertFalse(updated.contains("c.modules.filesystem"));
+        assertFalse(updated.contains("c.modules.graphics"));
+        assertEquals(updated, LoveConfModules.updateConf(updated, required));
+    }
+
+    /**
+     * Test that the assignments are added inside a love.conf written on a single line.
+     */
+    @Test
+    public void testUpdateSingleLineConf() {
+        Set<String> required = LoveConfModules.getRequiredModules(Set.of("audio"));
+        String updated = LoveConfModules.updateConf("function love.conf(t) t.window.title = \"x\" end", required);
+
+        assertTrue(updated.startsWith("function love.conf(t) t.window.title = \"x\"\n    t.modules.data = false\n"));
+        assertTrue(updated.endsWith("    t.modules.video = false\nend"));
+        assertEquals(updated, LoveConfModules.updateConf(updated, required));
+    }
+
+    /**
+     * Test that assignments after the end of love.conf are left alone.
+     */
+    @Test
+    public void testUpdateConfIgnoresCodeAfterConf() {
+        String text = "function love.conf(t)\nend\n\nt.modules.physics = false\n";
+        String updated = LoveConfModules.updateConf(text, LoveConfModules.getRequiredModules(Set.of("physics")));
+
+        assertTrue(LoveConfModules.findModuleFlags(text).isEmpty());
+        assertTrue(updated.endsWith("    t.modules.video = false\nend\n\nt.modules.physics = false\n"));
+        assertFalse(updated.contains("t.modules.physics = true"));
+    }
+
+    /**
+     * Test that a love.conf function is written when there is none.
+     */
+    @Test
+    public void testUpdateConfWithoutConfFunction() {
+        String updated = LoveConfModules.updateConf("", LoveConfModules.getRequiredModules(Set.of("keyboard")));
+
+        assertTrue(updated.startsWith("function love.conf(t)\n    t.modules.audio = false\n"));
+        assertTrue(updated.endsWith("    t.modules.video = false\nend\n"));
+        assertFalse(updated.contains("t.modules.keyboard"));
+        assertEquals(11, LoveConfModules.findModuleFlags(updated).size());
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 - Pedro Chamorro Llanca
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.pedrollanca.loveframeworksupport;
+
+import org.junit.Test;
+
+import java.io.InputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Micro-benchmark comparing repeated hovers over the same names with looking up and decoding their pre-rendered
+ * documentation every time.
+ */
+public class LoveDocumentationBenchmark {
+
+    private static final String[] NAMES = {"love.graphics.draw", "love.graphics.rectangle", "love.update",
+            "love.keyboard.isDown", "love.audio.newSource"};
+
+    @Test
+    public void testCachedAgainstDecoded() throws Exception {
+        LoveDocumentation documentation = LoveDocumentation.getInstance();
+        LoveDocumentation uncached;
+        try (InputStream input = LoveDocumentation.class.getResourceAsStream(LoveDocumentation.RESOURCE)) {
+            uncached = LoveDocumentation.read(input, 0);
+        }
+        for (String name : NAMES) {
+            assertEquals(documentation.getHtml(name), uncached.getHtml(name));
+        }
+
+        BenchmarkSupport.Measurement decoded = BenchmarkSupport.measure(2_000, 20_000, () -> {
+            for (String name : NAMES) {
+                BenchmarkSupport.blackhole = uncached.getHtml(name);
+            }
+        });
+        BenchmarkSupport.Measurement cached = BenchmarkSupport.measure(2_000, 20_000, () -> {
+            for (String name : NAMES) {
+                BenchmarkSupport.blackhole = documentation.getHtml(name);
+            }
+        });
+        BenchmarkSupport.report("binary search + decode", decoded);
+        BenchmarkSupport.report("cached HTML           ", cached);
+
+        assertTrue("repeated hovers should not allocate, got " + cached.bytesPerOperation + " B/op",
+                cached.bytesPerOperation < 64);
+    }
+}
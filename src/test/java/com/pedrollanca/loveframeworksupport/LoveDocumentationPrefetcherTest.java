@@ -0,0 +1,124 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 - Pedro Chamorro Llanca
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.pedrollanca.loveframeworksupport;
+
+import com.intellij.codeInsight.lookup.LookupElement;
+import com.intellij.codeInsight.lookup.LookupElementBuilder;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for LoveDocumentationPrefetcher.
+ */
+public class LoveDocumentationPrefetcherTest {
+
+    private static final List<LookupElement> ITEMS = List.of(
+            LookupElementBuilder.create("love.graphics.arc", "arc"),
+            LookupElementBuilder.create("love.graphics.circle", "circle"),
+            LookupElementBuilder.create("love.graphics.clear", "clear"),
+            LookupElementBuilder.create("local"),
+            LookupElementBuilder.create("love.graphics.draw", "draw"),
+            LookupElementBuilder.create("love.graphics.line", "line"));
+
+    /**
+     * Test that the selected item comes first, followed by its neighbours by increasing distance.
+     */
+    @Test
+    public void testNamesToPrefetch() {
+        assertEquals(List.of("love.graphics.clear", "love.graphics.circle", "love.graphics.draw",
+                        "love.graphics.arc"),
+                LoveDocumentationPrefetcher.getNamesToPrefetch(ITEMS, 2, 2));
+        assertEquals(List.of("love.graphics.arc", "love.graphics.circle"),
+                LoveDocumentationPrefetcher.getNamesToPrefetch(ITEMS, 0, 1));
+        assertEquals(List.of("love.graphics.line", "love.graphics.draw"),
+                LoveDocumentationPrefetcher.getNamesToPrefetch(ITEMS, 5, 1));
+    }
+
+    /**
+     * Test that items other than LOVE completions and a missing selection yield nothing to prefetch.
+     */
+    @Test
+    public void testNamesToPrefetchWithoutLoveItems() {
+        assertEquals(List.of("love.graphics.draw", "love.graphics.clear"),
+                LoveDocumentationPrefetcher.getNamesToPrefetch(ITEMS, 3, 1));
+        assertTrue(LoveDocumentationPrefetcher.getNamesToPrefetch(ITEMS, -1, 3).isEmpty());
+        assertTrue(LoveDocumentationPrefetcher.getNamesToPrefetch(Collections.emptyList(), 0, 3).isEmpty());
+    }
+
+    /**
+     * Test that moving the selection loads the documentation around it, nearest items first.
+     */
+    @Test
+    public void testSelectionChanged() {
+        List<String> loaded = new ArrayList<>();
+        LoveDocumentationPrefetcher prefetcher = new LoveDocumentationPrefetcher(Runnable::run, loaded::add);
+
+        prefetcher.selectionChanged(ITEMS, ITEMS.get(1));
+
+        assertEquals(List.of("love.graphics.circle", "love.graphics.clear", "love.graphics.arc",
+                "love.graphics.draw"), loaded);
+    }
+
+    /**
+     * Test that work queued for a previous selection stops once the selection moves or the popup closes.
+     */
+    @Test
+    public void testStaleWorkIsSkipped() {
+        List<Runnable> queue = new ArrayList<>();
+        List<String> loaded = new ArrayList<>();
+        LoveDocumentationPrefetcher prefetcher = new LoveDocumentationPrefetcher(queue::add, loaded::add);
+
+        prefetcher.prefetch(List.of("love.graphics.arc", "love.graphics.circle"));
+        prefetcher.prefetch(List.of("love.graphics.draw"));
+        queue.forEach(Runnable::run);
+        assertEquals(List.of("love.graphics.draw"), loaded);
+
+        queue.clear();
+        loaded.clear();
+        prefetcher.prefetch(List.of("love.graphics.line"));
+        prefetcher.cancel();
+        queue.forEach(Runnable::run);
+        assertTrue(loaded.isEmpty());
+    }
+
+    /**
+     * Test that work in progress stops before the next item once it becomes stale.
+     */
+    @Test
+    public void testWorkInProgressStops() {
+        List<String> loaded = new ArrayList<>();
+        LoveDocumentationPrefetcher[] prefetcher = new LoveDocumentationPrefetcher[1];
+        prefetcher[0] = new LoveDocumentationPrefetcher(Runnable::run, name -> {
+            loaded.add(name);
+            prefetcher[0].cancel();
+        });
+
+        prefetcher[0].prefetch(List.of("love.graphics.arc", "love.graphics.circle"));
+
+        assertEquals(List.of("love.graphics.arc"), loaded);
+    }
+}
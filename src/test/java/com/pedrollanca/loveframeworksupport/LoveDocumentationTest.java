@@ -0,0 +1,162 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 - Pedro Chamorro Llanca
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.pedrollanca.loveframeworksupport;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for LoveDocumentation.
+ */
+public class LoveDocumentationTest {
+
+    /**
+     * Test that the bundled reference documents the callbacks and every module with pre-rendered HTML.
+     */
+    @Test
+    public void testBundledReference() {
+        LoveDocumentation documentation = LoveDocumentation.getInstance();
+
+        assertTrue(documentation.size() > 100);
+        assertNotNull(documentation.getHtml("love.update"));
+        for (String moduleKey : LoveTypes.MODULE_KEYS) {
+            assertNotNull("Module " + moduleKey + " should be documented", documentation.getHtml("love." + moduleKey));
+        }
+        String html = documentation.getHtml("love.graphics.draw");
+        assertNotNull(html);
+        assertTrue(html.contains("love.graphics.draw(drawable, x, y, r, sx, sy, ox, oy, kx, ky)"));
+        assertTrue(html.contains("Arguments:"));
+        assertTrue(html.contains("<code>drawable</code> (Drawable)"));
+        assertNull(documentation.getHtml("love.graphics.undocumented"));
+    }
+
+    /**
+     * Test that every documented function exists in the API catalog.
+     */
+    @Test
+    public void testBundledReferenceMatchesCatalog() {
+        LoveDocumentation documentation = LoveDocumentation.getInstance();
+        LoveApiCatalog catalog = LoveApiCatalog.getInstance();
+        Set<String> documented = new HashSet<>();
+        for (String moduleKey : LoveTypes.MODULE_KEYS) {
+            for (String name : catalog.getNames(moduleKey)) {
+                String qualifiedName = "love." + moduleKey + "." + name;
+                if (documentation.getHtml(qualifiedName) != null) {
+                    documented.add(qualifiedName);
+                }
+            }
+        }
+        // Entries for callbacks and modules aside, every entry is a catalog function
+        int others = catalog.getNames(LoveTypes.CALLBACKS_KEY).size() + LoveTypes.MODULE_KEYS.size();
+        assertEquals(documentation.size() - others, documented.size());
+    }
+
+    /**
+     * Test that entries are found by binary search and their HTML is read as it was written.
+     */
+    @Test
+    public void testRead() throws IOException {
+        LoveDocumentation documentation = read(16, "love.draw", "<b>draw</b>", "love.load", "", "love.update", "ö");
+
+        assertEquals(3, documentation.size());
+        assertEquals("<b>draw</b>", documentation.getHtml("love.draw"));
+        assertEquals("", documentation.getHtml("love.load"));
+        assertEquals("ö", documentation.getHtml("love.update"));
+        assertNull(documentation.getHtml("love.audio"));
+        assertNull(documentation.getHtml("love.zzz"));
+    }
+
+    /**
+     * Test that a stream which is not a documentation resource, or lists its names out of order, is rejected.
+     */
+    @Test
+    public void testReadRejectsInvalidResource() throws IOException {
+        try {
+            LoveDocumentation.read(new ByteArrayInputStream(new byte[]{'J', 'U', 'N', 'K', 0, 1}), 16);
+            fail("Expected IOException");
+        } catch (IOException expected) {
+            assertTrue(expected.getMessage().contains("Not a LOVE documentation resource"));
+        }
+        try {
+            read(16, "love.update", "", "love.draw", "");
+            fail("Expected IOException");
+        } catch (IOException expected) {
+            assertTrue(expected.getMessage().contains("not sorted"));
+        }
+    }
+
+    /**
+     * Test that decoded HTML is reused and the least recently shown entry is evicted first.
+     */
+    @Test
+    public void testCache() throws IOException {
+        LoveDocumentation documentation = read(2, "love.draw", "draw", "love.load", "load", "love.update", "update");
+
+        String draw = documentation.getHtml("love.draw");
+        assertSame(draw, documentation.getHtml("love.draw"));
+        documentation.getHtml("love.load");
+        assertEquals(2, documentation.getCachedCount());
+
+        // love.draw was shown more recently than love.load, which is evicted
+        documentation.getHtml("love.draw");
+        documentation.getHtml("love.update");
+        assertEquals(2, documentation.getCachedCount());
+        assertSame(draw, documentation.getHtml("love.draw"));
+
+        // Unknown names are not cached
+        assertNull(documentation.getHtml("love.unknown"));
+        assertEquals(2, documentation.getCachedCount());
+    }
+
+    /**
+     * Writes a resource in the layout produced by the renderLoveDocs task and reads it back.
+     *
+     * @param namesAndHtml alternating qualified names and their HTML
+     */
+    private static LoveDocumentation read(int maxCachedDocs, String... namesAndHtml) throws IOException {
+        int count = namesAndHtml.length / 2;
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(LoveDocumentation.MAGIC);
+        out.writeShort(LoveDocumentation.FORMAT_VERSION);
+        out.writeInt(count);
+        for (int column = 0; column < 2; column++) {
+            ByteArrayOutputStream blob = new ByteArrayOutputStream();
+            for (int i = 0; i < count; i++) {
+                out.writeInt(blob.size());
+                blob.write(namesAndHtml[2 * i + column].getBytes(StandardCharsets.UTF_8));
+            }
+            out.writeInt(blob.size());
+            blob.writeTo(out);
+        }
+        return LoveDocumentation.read(new ByteArrayInputStream(bytes.toByteArray()), maxCachedDocs);
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 - Pedro Chamorro Llanca
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.pedrollanca.loveframeworksupport;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks that LoveElements materializes the LookupElements of a key only when that key is first requested.
+ *
+ * <p>Every test loads the plugin classes into a fresh class loader, so LoveElements is initialized from scratch even
+ * though other tests already used it in this JVM.
+ */
+public class LoveElementsStartupTest {
+
+    private static final String PLUGIN_PACKAGE = LoveElements.class.getPackageName() + ".";
+
+    /**
+     * Test that initializing the class materializes no key.
+     */
+    @Test
+    public void testClassInitializationIsLazy() throws Exception {
+        Class<?> elements = loadIsolated();
+
+        assertTrue("Class initialization should not materialize any key", materializedKeys(elements).isEmpty());
+    }
+
+    /**
+     * Test that each module is materialized when it is first requested, and not before.
+     */
+    @Test
+    public void testOnlyRequestedModuleIsMaterialized() throws Exception {
+        Class<?> elements = loadIsolated();
+        Method getElementsFor = elements.getMethod("getElementsFor", String.class);
+        Method getElementsMatching = elements.getMethod("getElementsMatching", String.class, String.class);
+
+        Object physics = getElementsFor.invoke(null, LoveTypes.PHYSICS_KEY);
+        assertEquals(Set.of(LoveTypes.PHYSICS_KEY), materializedKeys(elements));
+        assertSame("Materialized elements should be shared", physics,
+                getElementsFor.invoke(null, LoveTypes.PHYSICS_KEY));
+
+        getElementsMatching.invoke(null, LoveTypes.GRAPHICS_KEY, "dr");
+        assertEquals(Set.of(LoveTypes.PHYSICS_KEY, LoveTypes.GRAPHICS_KEY), materializedKeys(elements));
+    }
+
+    private static Class<?> loadIsolated() throws ClassNotFoundException {
+        ClassLoader loader = new IsolatingClassLoader(LoveElements.class.getClassLoader());
+        return Class.forName(LoveElements.class.getName(), true, loader);
+    }
+
+    private static Collection<?> materializedKeys(Class<?> elements) throws Exception {
+        Method method = elements.getDeclaredMethod("getMaterializedKeys");
+        method.setAccessible(true);
+        return (Collection<?>) method.invoke(null);
+    }
+
+    /**
+     * Defines the plugin classes itself and delegates everything else, so the platform classes stay shared.
+     */
+    private static final class IsolatingClassLoader extends ClassLoader {
+
+        IsolatingClassLoader(ClassLoader parent) {
+            super(parent);
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (!name.startsWith(PLUGIN_PACKAGE)) {
+                return super.loadClass(name, resolve);
+            }
+            synchronized (getClassLoadingLock(name)) {
+                Class<?> loaded = findLoadedClass(name);
+                if (loaded == null) {
+                    loaded = defineFromParent(name);
+                }
+                if (resolve) {
+                    resolveClass(loaded);
+                }
+                return loaded;
+            }
+        }
+
+        private Class<?> defineFromParent(String name) throws ClassNotFoundException {
+            String resource = name.replace('.', '/') + ".class";
+            try (InputStream stream = getParent().getResourceAsStream(resource)) {
+                if (stream == null) {
+                    throw new ClassNotFoundException(name);
+                }
+                byte[] bytes = stream.readAllBytes();
+                return defineClass(name, bytes, 0, bytes.length);
+            } catch (IOException e) {
+                throw new ClassNotFoundException(name, e);
+            }
+        }
+    }
+}
@@ -21,9 +21,10 @@
 
 package com.pedrollanca.loveframeworksupport;
 
+import com.intellij.codeInsight.lookup.LookupElement;
 import org.junit.Test;
 
-import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.*;
 
 public class LoveElementsTest {
     @Test
@@ -38,12 +39,12 @@ public class LoveElementsTest {
 
     @Test
     public void testFunctionsCount() {
-        assertEquals(30, LoveElements.getElementsFor(LoveTypes.AUDIO_KEY).size());
+        assertEquals(29, LoveElements.getElementsFor(LoveTypes.AUDIO_KEY).size());
         assertEquals(10, LoveElements.getElementsFor(LoveTypes.DATA_KEY).size());
         assertEquals(6, LoveElements.getElementsFor(LoveTypes.EVENT_KEY).size());
-        assertEquals(39, LoveElements.getElementsFor(LoveTypes.FILESYSTEM_KEY).size());
+        assertEquals(38, LoveElements.getElementsFor(LoveTypes.FILESYSTEM_KEY).size());
         assertEquals(6, LoveElements.getElementsFor(LoveTypes.FONT_KEY).size());
-        assertEquals(55, LoveElements.getElementsFor(LoveTypes.GRAPHICS_KEY).size());
+        assertEquals(63, LoveElements.getElementsFor(LoveTypes.GRAPHICS_KEY).size());
         assertEquals(4, LoveElements.getElementsFor(LoveTypes.IMAGE_KEY).size());
         assertEquals(20, LoveElements.getElementsFor(LoveTypes.JOYSTICK_KEY).size());
         assertEquals(10, LoveElements.getElementsFor(LoveTypes.KEYBOARD_KEY).size());
@@ -58,4 +59,23 @@ public class LoveElementsTest {
         assertEquals(1, LoveElements.getElementsFor(LoveTypes.VIDEO_KEY).size());
         assertEquals(41, LoveElements.getElementsFor(LoveTypes.WINDOW_KEY).size());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testQualifiedLookupObjects() {
+        assertEquals("love.load", LoveElements.getElementsFor(LoveTypes.CALLBACKS_KEY).get(0).getObject());
+        assertEquals("love.audio", LoveElements.getElementsFor(LoveTypes.MODULES_KEY).get(0).getObject());
+        assertEquals("love.video.newVideoStream", LoveElements.getElementsFor(LoveTypes.VIDEO_KEY).get(0).getObject());
+    }
+
+    @Test
+    public void testAvailableInVersion() {
+        LookupElement newTextBatch = LoveElements.getElementsMatching(LoveTypes.GRAPHICS_KEY, "newTextBatch").get(0);
+        LookupElement draw = LoveElements.getElementsMatching(LoveTypes.GRAPHICS_KEY, "draw").get(0);
+
+        assertFalse(LoveElements.isAvailable(newTextBatch, LoveVersion.LOVE_11));
+        assertTrue(LoveElements.isAvailable(newTextBatch, LoveVersion.LOVE_12));
+        for (LoveVersion version : LoveVersion.values()) {
+            assertTrue(LoveElements.isAvailable(draw, version));
+        }
+    }
+}
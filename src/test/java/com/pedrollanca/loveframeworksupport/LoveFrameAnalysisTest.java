@@ -0,0 +1,351 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 - Pedro Chamorro Llanca
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.pedrollanca.loveframeworksupport;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for LoveFrameAnalysis.
+ */
+public class LoveFrameAnalysisTest {
+
+    private static final String SOURCE = "local function helper(x)\n"
+            + "    return {x, x}\n"
+            + "end\n"
+            + "\n"
+            + "local function unused()\n"
+            + "    return {}\n"
+            + "end\n"
+            + "\n"
+            + "function love.update(dt)\n"
+            + "    local p = helper(dt)\n"
+            + "    if p then\n"
+            + "        timer = timer + dt\n"
+            + "    end\n"
+            + "end\n"
+            + "\n"
+            + "function love.draw()\n"
+            + "    local color = {1, 0.5, 0, alpha = 1}\n"
+            + "    love.graphics.setColor(color)\n"
+            + "    love.graphics.print(\"FPS: \" .. love.timer.getFPS() .. \"!\", 10, 10)\n"
+            + "    table.sort(items, function(a, b) return a.y < b.y end)\n"
+            + "    -- local t = {}\n"
+            + "end\n";
+
+    private static List<String> describe(LoveFrameAnalysis analysis, String source) {
+        return analysis.getFrameAllocations().stream()
+                .map(a -> source.substring(a.allocation.start, a.allocation.end) + " @" + a.callback
+                        + (a.function == null ? "" : " via " + a.function))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Test that functions are found with their names and nesting.
+     */
+    @Test
+    public void testFunctions() {
+        LoveFrameAnalysis analysis = LoveFrameAnalysis.analyze(SOURCE + "Player.move = function(self) end\n"
+                + "function Player:draw() do end repeat until true end\n");
+
+        List<String> names = analysis.getFunctions().stream().map(f -> String.valueOf(f.name))
+                .collect(Collectors.toList());
+        assertEquals(List.of("helper", "unused", "love.update", "love.draw", "null", "Player.move", "Player:draw"),
+                names);
+        assertEquals(3, analysis.getFunctions().get(4).parent);
+        assertEquals(-1, analysis.getFunctions().get(6).parent);
+    }
+
+    /**
+     * Test that allocations in the frame callbacks and the functions they call are found, each concatenation
+     * chain once, while comments, uncalled functions and the bodies of nested functions are skipped.
+     */
+    @Test
+    public void testFrameAllocations() {
+        LoveFrameAnalysis analysis = LoveFrameAnalysis.analyze(SOURCE);
+
+        assertEquals(List.of(
+                "{x, x} @love.update via helper",
+                "{1, 0.5, 0, alpha = 1} @love.draw",
+                ".. love.timer.getFPS() .. @love.draw",
+                "function @love.draw"), describe(analysis, SOURCE));
+        assertEquals("Table constructor in 'helper', called from 'love.update', allocates a new table every frame",
+                analysis.getFrameAllocations().get(0).getMessage());
+        assertEquals("String concatenation in 'love.draw' allocates a new string every frame",
+                analysis.getFrameAllocations().get(2).getMessage());
+    }
+
+    /**
+     * Test that only tables of literals are constant.
+     */
+    @Test
+    public void testConstantTables() {
+        List<LoveFrameAnalysis.FrameAllocation> allocations = LoveFrameAnalysis.analyze(SOURCE).getFrameAllocations();
+
+        assertFalse(allocations.get(0).allocation.constant);
+        assertTrue(allocations.get(1).allocation.constant);
+        String source = "function love.draw() f({}, {[1] = {-1, 'a', true}}, {x = y}) end";
+        List<Boolean> constant = LoveFrameAnalysis.analyze(source).getFrameAllocations().stream()
+                .map(a -> a.allocation.constant).collect(Collectors.toList());
+        assertEquals(List.of(false, true, false), constant);
+    }
+
+    /**
+     * Test that allocation ranges stay within the text while a string is still being typed at its end.
+     */
+    @Test
+    public void testUnterminatedStringAtEnd() {
+        String source = "function love.draw() local t = {\"x\\";
+        List<LoveFrameAnalysis.FrameAllocation> allocations = LoveFrameAnalysis.analyze(source)
+                .getFrameAllocations();
+
+        assertEquals(1, allocations.size());
+        assertEquals(source.length(), allocations.get(0).allocation.end);
+    }
+
+    /**
+     * Test that calls are followed at most MAX_CALL_DEPTH levels deep, and methods called on self resolve.
+     */
+    @Test
+    public void testCallDepth() {
+        String source = "function a() b() end\n"
+                + "function b() c() end\n"
+                + "function c() Game:d() end\n"
+                + "function Game:d() self:e() end\n"
+                + "function Game:e() return {} end\n"
+                + "function Game:f() self:d() return {} end\n"
+                + "love.update = function(dt) a() end\n";
+
+        assertEquals(List.of(), describe(LoveFrameAnalysis.analyze(source), source));
+        String closer = source.replace("a() end\n", "c() end\n");
+        assertEquals(List.of("{} @love.update via Game:e"), describe(LoveFrameAnalysis.analyze(closer), closer));
+    }
+
+    /**
+     * Test that a constant table is moved in front of the outermost function using it, under the name of the
+     * variable it was assigned to.
+     */
+    @Test
+    public void testHoist() {
+        LoveFrameAnalysis analysis = LoveFrameAnalysis.analyze(SOURCE);
+        int start = SOURCE.indexOf("{1, 0.5");
+        LoveFrameAnalysis.Hoist hoist = analysis.planHoist(start);
+
+        assertNotNull(hoist);
+        assertEquals("COLOR", hoist.name);
+        String hoisted = hoist.apply(SOURCE);
+        assertTrue(hoisted.contains("local COLOR = {1, 0.5, 0, alpha = 1}\n\nfunction love.draw()\n"
+                + "    local color = COLOR\n"));
+        assertNull(analysis.planHoist(SOURCE.indexOf("{x, x}")));
+        assertNull(analysis.planHoist(SOURCE.indexOf("0.5")));
+    }
+
+    /**
+     * Test that tables which may be stored, returned or modified are not hoisted.
+     */
+    @Test
+    public void testNoHoistForEscapingTables() {
+        String source = "function love.update(dt)\n"
+                + "    table.insert(bullets, {x = 0, y = 0})\n"
+                + "    self.color = {1, 0, 0}\n"
+                + "    color = {1, 0, 0}\n"
+                + "    local a = {1, 0, 0}\n"
+                + "    a[1] = dt\n"
+                + "    local b = {1, 0, 0}\n"
+                + "    b.x.y = dt\n"
+                + "    local c = {1, 0, 0}\n"
+                + "    c = nil\n"
+                + "    local d = {1, 0, 0}\n"
+                + "    rawset(cache, 1, d)\n"
+                + "    local e = {1, 0, 0}\n"
+                + "    player.tint = e\n"
+                + "    local f = {1, 0, 0}\n"
+                + "    return {1, 2}, f\n"
+                + "end\n";
+        LoveFrameAnalysis analysis = LoveFrameAnalysis.analyze(source);
+        List<LoveFrameAnalysis.FrameAllocation> allocations = analysis.getFrameAllocations();
+
+        assertEquals(10, allocations.size());
+        for (LoveFrameAnalysis.FrameAllocation allocation : allocations) {
+            assertTrue(allocation.allocation.constant);
+            assertFalse(analysis.canHoist(allocation.allocation.start));
+            assertNull(analysis.planHoist(allocation.allocation.start));
+        }
+    }
+
+    /**
+     * Test that tables passed directly to a LOVE function that only reads them, or held by a local that is only
+     * read, are hoisted, while tables passed to any other function are not.
+     */
+    @Test
+    public void testHoistReadOnlyTables() {
+        String source = "local lg = love.graphics\n"
+                + "function love.draw()\n"
+                + "    love.graphics.polygon(\"fill\", {0, 0, 1, 1})\n"
+                + "    lg.setColor{1, 1, 1}\n"
+                + "    local tint = {1, 0, 0}\n"
+                + "    love.graphics.setColor(tint[1], tint.g, #tint)\n"
+                + "    love.graphics.setColor(tint)\n"
+                + "    draw{1, 2}\n"
+                + "    spawn({hp = 10})\n"
+                + "    Enemy.new{x = 0}\n"
+                + "    bullets:add({x = 0})\n"
+                + "    local t = {1, 2}\n"
+                + "    f(t)\n"
+                + "end\n";
+        LoveFrameAnalysis analysis = LoveFrameAnalysis.analyze(source);
+
+        assertEquals(List.of(true, true, true, false, false, false, false, false), analysis.getFrameAllocations()
+                .stream()
+                .map(a -> analysis.canHoist(a.allocation.start)).collect(Collectors.toList()));
+    }
+
+    /**
+     * Test that the hoisted name doesn't collide with identifiers of the file.
+     */
+    @Test
+    public void testHoistName() {
+        String source = "local TABLE = 1\nfunction love.draw() love.graphics.line({1, 2}) end\n";
+        LoveFrameAnalysis.Hoist hoist = LoveFrameAnalysis.analyze(source).planHoist(source.indexOf('{'));
+
+        assertNotNull(hoist);
+        assertEquals("TABLE_2", hoist.name);
+        assertEquals("local TABLE = 1\nlocal TABLE_2 = {1, 2}\n\n"
+                + "function love.draw() love.graphics.line(TABLE_2) end\n", hoist.apply(source));
+    }
+
+    /**
+     * Test that resource constructors are found through 'love.' and module aliases, but not other 'new' functions.
+     */
+    @Test
+    public void testFrameConstructions() {
+        String source = "local lg = love.graphics\n"
+                + "local function hud() return lg.newFont(12) end\n"
+                + "function love.draw()\n"
+                + "    local img = love.graphics.newImage(\"player.png\")\n"
+                + "    love.audio.play(love.audio.newSource(\"hit.ogg\", \"static\"))\n"
+                + "    local world = love.physics.newWorld(0, 0)\n"
+                + "    local font = hud()\n"
+                + "    local img2 = image.newImage(\"x\")\n"
+                + "end\n";
+        List<LoveFrameAnalysis.FrameConstruction> constructions = LoveFrameAnalysis.analyze(source)
+                .getFrameConstructions();
+
+        assertEquals(List.of("lg.newFont(12)", "love.graphics.newImage(\"player.png\")",
+                        "love.audio.newSource(\"hit.ogg\", \"static\")"),
+                constructions.stream().map(c -> source.substring(c.construction.start, c.construction.end))
+                        .collect(Collectors.toList()));
+        assertEquals("'love.graphics.newFont' in 'hud', called from 'love.draw', creates a new resource every frame",
+                constructions.get(0).getMessage());
+        assertEquals("'love.graphics.newImage' in 'love.draw' creates a new resource every frame",
+                constructions.get(1).getMessage());
+    }
+
+    /**
+     * Test that a local holding a resource is moved into a new love.load and declared at file scope.
+     */
+    @Test
+    public void testMoveStatementToNewLoad() {
+        String source = "function love.draw()\n"
+                + "    local img = love.graphics.newImage(\"player.png\")\n"
+                + "    love.graphics.draw(img, 0, 0)\n"
+                + "end\n";
+        LoveFrameAnalysis.Rewrite rewrite = LoveFrameAnalysis.analyze(source)
+                .planMoveToLoad(source.indexOf("love.g"), true);
+
+        assertNotNull(rewrite);
+        assertEquals("local img\n"
+                + "\n"
+                + "function love.load()\n"
+                + "    img = love.graphics.newImage(\"player.png\")\n"
+                + "end\n"
+                + "\n"
+                + "function love.draw()\n"
+                + "    love.graphics.draw(img, 0, 0)\n"
+                + "end\n", rewrite.apply(source));
+    }
+
+    /**
+     * Test that love.load is not created when another file defines it, but the file's own love.load is still used.
+     */
+    @Test
+    public void testMoveWithLoadInOtherFile() {
+        String source = "function love.draw()\n"
+                + "    local img = love.graphics.newImage(\"player.png\")\n"
+                + "end\n";
+        int start = source.indexOf("love.g");
+
+        assertNull(LoveFrameAnalysis.analyze(source).planMoveToLoad(start, false));
+        String withLoad = source + "function love.load() end\n";
+        LoveFrameAnalysis.Rewrite rewrite = LoveFrameAnalysis.analyze(withLoad).planMoveToLoad(start, false);
+        assertNotNull(rewrite);
+        assertTrue(rewrite.apply(withLoad).contains("function love.load() img = love.graphics.newImage"));
+    }
+
+    /**
+     * Test that a construction inside an expression is replaced by a local assigned at the end of love.load.
+     */
+    @Test
+    public void testMoveExpressionToExistingLoad() {
+        String source = "function love.update(dt)\n"
+                + "    if hit then love.audio.play(love.audio.newSource(\"hit.ogg\", \"static\")) end\n"
+                + "end\n"
+                + "\n"
+                + "function love.load()\n"
+                + "    love.window.setTitle(\"Game\")\n"
+                + "end\n";
+        LoveFrameAnalysis.Rewrite rewrite = LoveFrameAnalysis.analyze(source)
+                .planMoveToLoad(source.indexOf("love.audio.newSource"), true);
+
+        assertNotNull(rewrite);
+        assertEquals("local source\n"
+                + "function love.update(dt)\n"
+                + "    if hit then love.audio.play(source) end\n"
+                + "end\n"
+                + "\n"
+                + "function love.load()\n"
+                + "    love.window.setTitle(\"Game\")\n"
+                + "    source = love.audio.newSource(\"hit.ogg\", \"static\")\n"
+                + "end\n", rewrite.apply(source));
+    }
+
+    /**
+     * Test that constructions depending on the frame, or whose local is used elsewhere, are not moved.
+     */
+    @Test
+    public void testMoveNotPossible() {
+        String source = "function love.draw()\n"
+                + "    local canvas = love.graphics.newCanvas(w, h)\n"
+                + "    local font = love.graphics.newFont(12)\n"
+                + "end\n"
+                + "function other() return font end\n";
+        LoveFrameAnalysis analysis = LoveFrameAnalysis.analyze(source);
+
+        assertNull(analysis.planMoveToLoad(source.indexOf("love.graphics.newCanvas"), true));
+        assertNull(analysis.planMoveToLoad(source.indexOf("love.graphics.newFont"), true));
+        assertNull(analysis.planMoveToLoad(source.indexOf("w, h"), true));
+    }
+}
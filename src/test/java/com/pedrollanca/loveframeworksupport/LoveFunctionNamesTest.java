@@ -0,0 +1,103 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 - Pedro Chamorro Llanca
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.pedrollanca.loveframeworksupport;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for LoveFunctionNames.
+ */
+public class LoveFunctionNamesTest {
+
+    /**
+     * Test that every function of the catalog is found under its own module only.
+     */
+    @Test
+    public void testCatalogFunctions() {
+        LoveFunctionNames functions = LoveFunctionNames.getInstance();
+        LoveApiCatalog catalog = LoveApiCatalog.getInstance();
+        int count = 0;
+        for (String moduleKey : LoveTypes.MODULE_KEYS) {
+            for (String name : catalog.getNames(moduleKey)) {
+                assertTrue("love." + moduleKey + "." + name, functions.contains(moduleKey, name, 0, name.length()));
+                count++;
+            }
+        }
+        assertTrue(count > 0);
+        assertTrue(functions.contains("graphics", "draw", 0, 4));
+        assertFalse(functions.contains("audio", "rectangle", 0, 9));
+        assertFalse(functions.contains("graphics", "rectange", 0, 8));
+    }
+
+    /**
+     * Test that names are looked up as regions of a larger text.
+     */
+    @Test
+    public void testContainsRegion() {
+        LoveFunctionNames functions = LoveFunctionNames.build(
+                Arrays.asList("graphics", "graphics", "audio"), Arrays.asList("draw", "print", "play"));
+        String text = "love.graphics.draw(x) love.graphics.drawx";
+
+        assertTrue(functions.contains("graphics", text, 14, 18));
+        assertFalse(functions.contains("graphics", text, 36, 41));
+        assertFalse(functions.contains("graphics", text, 14, 17));
+        assertFalse(functions.contains("audio", text, 14, 18));
+        assertEquals(3, functions.size());
+    }
+
+    /**
+     * Test that duplicates are stored once and colliding names are told apart.
+     */
+    @Test
+    public void testDuplicatesAndCollisions() {
+        // "Aa" and "BB" have the same String hash code
+        List<String> modules = Arrays.asList("graphics", "graphics", "graphics");
+        LoveFunctionNames functions = LoveFunctionNames.build(modules, Arrays.asList("Aa", "BB", "Aa"));
+
+        assertEquals(2, functions.size());
+        assertTrue(functions.contains("graphics", "Aa", 0, 2));
+        assertTrue(functions.contains("graphics", "BB", 0, 2));
+        assertFalse(functions.contains("graphics", "AB", 0, 2));
+    }
+
+    /**
+     * Test that the versions of a function are returned, merged for duplicates, and 0 for unknown names.
+     */
+    @Test
+    public void testVersions() {
+        int old = LoveVersion.LOVE_0_10.getMask();
+        int current = LoveVersion.LOVE_11.getMask() | LoveVersion.LOVE_12.getMask();
+        LoveFunctionNames functions = LoveFunctionNames.build(Arrays.asList("filesystem", "filesystem"),
+                Arrays.asList("exists", "getInfo"), Arrays.asList(old, current));
+
+        assertEquals(old, functions.getVersions("filesystem", "exists", 0, 6));
+        assertEquals(current, functions.getVersions("filesystem", "getInfo", 0, 7));
+        assertEquals(0, functions.getVersions("filesystem", "isFile", 0, 6));
+        assertEquals(LoveVersion.LOVE_12.getMask(),
+                LoveFunctionNames.getInstance().getVersions("graphics", "newTextBatch", 0, 12));
+    }
+}
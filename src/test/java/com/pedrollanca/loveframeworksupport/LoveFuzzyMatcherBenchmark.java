@@ -0,0 +1,81 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 - Pedro Chamorro Llanca
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.pedrollanca.loveframeworksupport;
+
+import com.intellij.codeInsight.completion.CamelHumpMatcher;
+import com.intellij.codeInsight.completion.PrefixMatcher;
+import com.intellij.codeInsight.lookup.LookupElement;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Micro-benchmark comparing LoveFuzzyMatcher with the platform's CamelHumpMatcher over every graphics function.
+ */
+public class LoveFuzzyMatcherBenchmark {
+
+    private static final String[] QUERIES = {"dr", "setColr", "newSpriteBtach", "gtWidth", "nSB", "rectangle"};
+
+    @Test
+    public void testFuzzyMatcherAgainstCamelHumpMatcher() {
+        List<String> names = new ArrayList<>();
+        for (LookupElement element : LoveElements.getElementsFor(LoveTypes.GRAPHICS_KEY)) {
+            names.add(element.getLookupString());
+        }
+        int candidates = names.size() * QUERIES.length;
+
+        List<PrefixMatcher> camelHump = new ArrayList<>();
+        List<PrefixMatcher> fuzzy = new ArrayList<>();
+        for (String query : QUERIES) {
+            camelHump.add(new CamelHumpMatcher(query, false));
+            fuzzy.add(new LoveFuzzyMatcher(query));
+        }
+
+        BenchmarkSupport.Measurement camelHumpResult =
+                BenchmarkSupport.measure(2_000, 20_000, () -> matchAll(camelHump, names));
+        BenchmarkSupport.Measurement fuzzyResult =
+                BenchmarkSupport.measure(2_000, 20_000, () -> matchAll(fuzzy, names));
+        BenchmarkSupport.report("CamelHumpMatcher, " + candidates + " candidates", camelHumpResult);
+        BenchmarkSupport.report("LoveFuzzyMatcher, " + candidates + " candidates", fuzzyResult);
+        BenchmarkSupport.report(String.format("LoveFuzzyMatcher per candidate: %.1f ns",
+                fuzzyResult.nanosPerOperation / candidates));
+
+        // The character masks are shared, so matching allocates nothing once they are built
+        assertTrue("fuzzy matching should not allocate, got " + fuzzyResult.bytesPerOperation + " B/op",
+                fuzzyResult.bytesPerOperation < 64);
+    }
+
+    private static void matchAll(List<PrefixMatcher> matchers, List<String> names) {
+        int matches = 0;
+        for (PrefixMatcher matcher : matchers) {
+            for (String name : names) {
+                if (matcher.prefixMatches(name)) {
+                    matches++;
+                }
+            }
+        }
+        BenchmarkSupport.blackhole = matches;
+    }
+}
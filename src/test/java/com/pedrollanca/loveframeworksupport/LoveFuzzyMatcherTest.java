@@ -0,0 +1,140 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 - Pedro Chamorro Llanca
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.pedrollanca.loveframeworksupport;
+
+import com.intellij.codeInsight.lookup.LookupElement;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for LoveFuzzyMatcher.
+ */
+public class LoveFuzzyMatcherTest {
+
+    /**
+     * Test that prefixes and camel humps match without any tolerance.
+     */
+    @Test
+    public void testPrefixAndCamelHumps() {
+        assertTrue(new LoveFuzzyMatcher("dr").prefixMatches("draw"));
+        assertTrue(new LoveFuzzyMatcher("newsp").prefixMatches("newSpriteBatch"));
+        assertTrue(new LoveFuzzyMatcher("nSB").prefixMatches("newSpriteBatch"));
+        assertFalse(new LoveFuzzyMatcher("dw").prefixMatches("draw"));
+    }
+
+    /**
+     * Test that typing errors are tolerated depending on the prefix length.
+     */
+    @Test
+    public void testTypos() {
+        assertTrue("transposition", new LoveFuzzyMatcher("newSpriteBtach").prefixMatches("newSpriteBatch"));
+        assertTrue("substitution", new LoveFuzzyMatcher("setColr").prefixMatches("setColor"));
+        assertTrue("deletion", new LoveFuzzyMatcher("gtWidth").prefixMatches("getWidth"));
+        assertTrue("insertion", new LoveFuzzyMatcher("prinnt").prefixMatches("print"));
+        assertFalse("too many errors", new LoveFuzzyMatcher("stCloor").prefixMatches("setColor"));
+        assertFalse("no tolerance for short prefixes", new LoveFuzzyMatcher("drw").prefixMatches("draw"));
+    }
+
+    /**
+     * Test that exact matches rank above matches with errors.
+     */
+    @Test
+    public void testMatchingDegree() {
+        LoveFuzzyMatcher matcher = new LoveFuzzyMatcher("setColr");
+        assertEquals(0, new LoveFuzzyMatcher("setCol").matchingDegree("setColor"));
+        assertEquals(-1, matcher.matchingDegree("setColor"));
+        assertTrue(matcher.matchingDegree("setColor") > matcher.matchingDegree("setLineStyle"));
+    }
+
+    /**
+     * Test the bit-parallel distance against the textbook dynamic programming solution.
+     */
+    @Test
+    public void testDistanceAgainstDynamicProgramming() {
+        Random random = new Random(42);
+        for (LookupElement element : LoveElements.getElementsFor(LoveTypes.GRAPHICS_KEY)) {
+            String name = element.getLookupString();
+            for (int i = 0; i < 20; i++) {
+                String query = mutate(name.substring(0, 1 + random.nextInt(name.length())), random);
+                assertEquals("distance('" + query + "', '" + name + "')",
+                        prefixDistance(query.toLowerCase(), name.toLowerCase()),
+                        new LoveFuzzyMatcher(query).distance(name));
+            }
+        }
+    }
+
+    /**
+     * Applies up to three random edits.
+     */
+    private static String mutate(String text, Random random) {
+        StringBuilder builder = new StringBuilder(text);
+        int edits = random.nextInt(4);
+        for (int i = 0; i < edits; i++) {
+            int position = random.nextInt(builder.length() + 1);
+            char c = (char) ('a' + random.nextInt(26));
+            switch (random.nextInt(3)) {
+                case 0:
+                    builder.insert(position, c);
+                    break;
+                case 1:
+                    if (position < builder.length()) {
+                        builder.setCharAt(position, c);
+                    }
+                    break;
+                default:
+                    if (position < builder.length() && builder.length() > 1) {
+                        builder.deleteCharAt(position);
+                    }
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * The smallest edit distance between the query and any prefix of the name.
+     */
+    private static int prefixDistance(String query, String name) {
+        int[] previous = new int[name.length() + 1];
+        int[] current = new int[name.length() + 1];
+        for (int j = 0; j <= name.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= query.length(); i++) {
+            current[0] = i;
+            for (int j = 1; j <= name.length(); j++) {
+                int cost = query.charAt(i - 1) == name.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        int best = Integer.MAX_VALUE;
+        for (int distance : previous) {
+            best = Math.min(best, distance);
+        }
+        return best;
+    }
+}
@@ -0,0 +1,265 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 - Pedro Chamorro Llanca
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.pedrollanca.loveframeworksupport;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for LoveGraphicsStateAnalysis.
+ */
+public class LoveGraphicsStateAnalysisTest {
+
+    private static List<String> changes(String source) {
+        return LoveGraphicsStateAnalysis.analyze(source).getStateChanges().stream()
+                .map(c -> c.kind + ":" + c.setter + "@" + source.substring(c.start, c.end))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Test that setting the value a state already has is reported, until something may have changed it.
+     */
+    @Test
+    public void testRedundant() {
+        assertEquals(List.of("REDUNDANT:setColor@love.graphics.setColor(1, 0, 0)"), changes("function love.draw()\n"
+                + "    love.graphics.setColor(1, 0, 0)\n"
+                + "    love.graphics.rectangle('fill', 0, 0, 10, 10)\n"
+                + "    love.graphics.setColor(1, 0, 0)\n"
+                + "    love.graphics.circle('fill', 5, 5, 5)\n"
+                + "end\n"));
+        assertEquals(List.of("REDUNDANT:setBlendMode@lg.setBlendMode('add')"), changes("local lg = love.graphics\n"
+                + "function love.draw() lg.setBlendMode('add') lg.draw(a) lg.setBlendMode('add') lg.draw(b) end"));
+
+        assertEquals(List.of(), changes("function love.draw() love.graphics.setColor(1, 0, 0) love.graphics.print(s)"
+                + " drawHud() love.graphics.setColor(1, 0, 0) love.graphics.print(s) end"));
+        assertEquals(List.of(), changes("function love.draw() love.graphics.setColor(1, 0, 0) love.graphics.print(s)"
+                + " love.graphics.pop() love.graphics.setColor(1, 0, 0) love.graphics.print(s) end"));
+        assertEquals(List.of(), changes("function love.draw() love.graphics.setColor(1, 0, 0) love.graphics.print(s)"
+                + " if hit then love.graphics.setColor(1, 0, 0) love.graphics.print(s) end end"));
+    }
+
+    /**
+     * Test that setters with variables or calls as values are never redundant: the variable may have been assigned
+     * and the call may return another value.
+     */
+    @Test
+    public void testNotRedundantWithoutLiterals() {
+        String source = "local lg = love.graphics\n"
+                + "function love.draw()\n"
+                + "    lg.setColor(color)\n"
+                + "    lg.rectangle('fill', 0, 0, 10, 10)\n"
+                + "    color = {1, 0, 0}\n"
+                + "    lg.setColor(color)\n"
+                + "    lg.rectangle('fill', 0, 0, 10, 10)\n"
+                + "    lg.setColor(love.math.random(), 1, 1)\n"
+                + "    lg.circle('fill', 5, 5, 5)\n"
+                + "    lg.setColor(love.math.random(), 1, 1)\n"
+                + "    lg.circle('fill', 5, 5, 5)\n"
+                + "end\n";
+
+        assertEquals(List.of(), changes(source));
+    }
+
+    /**
+     * Test that a state replaced before anything is drawn is reported.
+     */
+    @Test
+    public void testOverwritten() {
+        assertEquals(List.of("OVERWRITTEN:setShader@love.graphics.setShader(blur)"), changes("function love.draw()\n"
+                + "    love.graphics.setShader(blur)\n"
+                + "    love.graphics.setShader(glow)\n"
+                + "    love.graphics.draw(scene)\n"
+                + "end\n"));
+        // 'blur' may hold another shader by the second call, so the first one is the wasted one
+        assertEquals(List.of("OVERWRITTEN:setShader@love.graphics.setShader(blur)"),
+                changes("function f() love.graphics.setShader(blur) love.graphics.setShader(blur) "
+                        + "love.graphics.draw(scene) end"));
+        assertEquals(List.of(), changes("function f() love.graphics.setShader(blur) love.graphics.draw(scene) "
+                + "love.graphics.setShader(glow) love.graphics.draw(scene) end"));
+    }
+
+    /**
+     * Test that a literal state set first thing on every iteration of a drawing loop is reported.
+     */
+    @Test
+    public void testSameInLoop() {
+        String source = "function love.draw()\n"
+                + "    for i, e in ipairs(enemies) do\n"
+                + "        love.graphics.setColor(1, 1, 1)\n"
+                + "        love.graphics.draw(e.image, e.x, e.y)\n"
+                + "    end\n"
+                + "end\n";
+        List<LoveGraphicsStateAnalysis.StateChange> changes = LoveGraphicsStateAnalysis.analyze(source)
+                .getStateChanges();
+
+        assertEquals(1, changes.size());
+        assertEquals(LoveGraphicsStateAnalysis.Kind.SAME_IN_LOOP, changes.get(0).kind);
+        assertEquals("'love.graphics.setColor' sets the same color on every iteration; set it once before the loop",
+                changes.get(0).getMessage());
+
+        assertEquals(List.of(), changes("function f() for i = 1, 9 do love.graphics.setColor(c[i]) "
+                + "love.graphics.print(i) end end"));
+        assertEquals(List.of(), changes("function f() for i = 1, 9 do love.graphics.print(i) "
+                + "love.graphics.setColor(1, 1, 1) love.graphics.print(i) end end"));
+        assertEquals(List.of(), changes("function f() for i = 1, 9 do if i > 3 then love.graphics.setColor(1, 0, 0) "
+                + "end love.graphics.print(i) end end"));
+        assertEquals(List.of(), changes("function f() for i = 1, 9 do love.graphics.setColor(1, 1, 1) end end"));
+    }
+
+    /**
+     * Test that batch breaking state changing within a drawing loop is reported with the breaks it causes.
+     */
+    @Test
+    public void testChangesInLoop() {
+        String source = "function love.draw()\n"
+                + "    for i = 1, 50 do\n"
+                + "        love.graphics.setShader(shaders[i % 2])\n"
+                + "        love.graphics.draw(sprites[i])\n"
+                + "    end\n"
+                + "end\n";
+        List<LoveGraphicsStateAnalysis.StateChange> changes = LoveGraphicsStateAnalysis.analyze(source)
+                .getStateChanges();
+
+        assertEquals(1, changes.size());
+        assertEquals(LoveGraphicsStateAnalysis.Kind.CHANGES_IN_LOOP, changes.get(0).kind);
+        assertEquals(50, changes.get(0).breaks);
+        assertEquals("'love.graphics.setShader' in a drawing loop ends the draw batch up to 50 times; draw the "
+                + "objects sorted by shader so that it changes once per group", changes.get(0).getMessage());
+
+        assertEquals(List.of("CHANGES_IN_LOOP:setBlendMode@love.graphics.setBlendMode('add')"),
+                changes("function f() for _, p in pairs(particles) do love.graphics.setBlendMode('add') "
+                        + "love.graphics.draw(p.glow) love.graphics.setBlendMode('alpha') love.graphics.draw(p.image) "
+                        + "end end"));
+        // Colors are stored per vertex and don't end a batch
+        assertEquals(List.of(), changes("function f() for i = 1, 9 do love.graphics.setColor(c[i]) "
+                + "love.graphics.draw(img) end end"));
+    }
+
+    /**
+     * Test the batch breaks estimated per call of each function.
+     */
+    @Test
+    public void testBatchBreaks() {
+        String source = "function love.draw()\n"
+                + "    love.graphics.setCanvas(canvas)\n"
+                + "    for y = 1, 4 do\n"
+                + "        for x = 1, 5 do\n"
+                + "            love.graphics.setShader(shaders[x])\n"
+                + "            love.graphics.draw(tiles[y][x])\n"
+                + "        end\n"
+                + "    end\n"
+                + "    love.graphics.setCanvas()\n"
+                + "end\n"
+                + "function drawList(list)\n"
+                + "    for _, item in ipairs(list) do\n"
+                + "        love.graphics.setShader(item.shader)\n"
+                + "        love.graphics.draw(item.image)\n"
+                + "    end\n"
+                + "end\n"
+                + "function drawText() love.graphics.print('hi') end\n";
+        LoveGraphicsStateAnalysis analysis = LoveGraphicsStateAnalysis.analyze(source);
+
+        LoveGraphicsStateAnalysis.BatchBreaks draw = analysis.getBatchBreaks(source.indexOf("function love.draw"));
+        assertNotNull(draw);
+        assertEquals(22, draw.count);
+        assertFalse(draw.lowerBound);
+        assertEquals("About 22 draw batch breaks per call", draw.getDescription());
+
+        LoveGraphicsStateAnalysis.BatchBreaks list = analysis.getBatchBreaks(source.indexOf("function drawList"));
+        assertNotNull(list);
+        assertTrue(list.lowerBound);
+        assertEquals("At least 1 draw batch break per call, more in loops without literal bounds",
+                list.getDescription());
+
+        assertNull(analysis.getBatchBreaks(source.indexOf("function drawText")));
+    }
+
+    /**
+     * Test that nested functions are analyzed on their own.
+     */
+    @Test
+    public void testNestedFunctions() {
+        assertEquals(List.of(), changes("function love.draw() love.graphics.setColor(1, 0, 0) "
+                + "local f = function() love.graphics.setColor(0, 1, 0) love.graphics.print(s) end "
+                + "love.graphics.print(s) end"));
+        assertEquals(List.of("OVERWRITTEN:setColor@love.graphics.setColor(1, 0, 0)"), changes("function love.draw() "
+                + "local f = function() love.graphics.setColor(1, 0, 0) love.graphics.setColor(0, 1, 0) "
+                + "love.graphics.print(s) end end"));
+    }
+
+    /**
+     * Test the quick-fixes removing a call and moving it in front of its loop.
+     */
+    @Test
+    public void testPlanFix() {
+        String source = "function love.draw()\n"
+                + "    love.graphics.setColor(1, 0, 0)\n"
+                + "    love.graphics.print(score)\n"
+                + "    love.graphics.setColor(1, 0, 0)\n"
+                + "    for i, e in ipairs(enemies) do\n"
+                + "        love.graphics.setColor(1, 1, 1)\n"
+                + "        love.graphics.draw(e.image, e.x, e.y)\n"
+                + "    end\n"
+                + "end\n";
+        LoveGraphicsStateAnalysis analysis = LoveGraphicsStateAnalysis.analyze(source);
+        int redundant = source.indexOf("love.graphics.setColor(1, 0, 0)", source.indexOf("print"));
+        int invariant = source.indexOf("love.graphics.setColor(1, 1, 1)");
+
+        LoveFrameAnalysis.Rewrite removal = analysis.planFix(redundant);
+        assertNotNull(removal);
+        assertEquals("function love.draw()\n"
+                + "    love.graphics.setColor(1, 0, 0)\n"
+                + "    love.graphics.print(score)\n"
+                + "    for i, e in ipairs(enemies) do\n"
+                + "        love.graphics.setColor(1, 1, 1)\n"
+                + "        love.graphics.draw(e.image, e.x, e.y)\n"
+                + "    end\n"
+                + "end\n", removal.apply(source));
+
+        LoveFrameAnalysis.Rewrite move = analysis.planFix(invariant);
+        assertNotNull(move);
+        assertEquals("function love.draw()\n"
+                + "    love.graphics.setColor(1, 0, 0)\n"
+                + "    love.graphics.print(score)\n"
+                + "    love.graphics.setColor(1, 0, 0)\n"
+                + "    love.graphics.setColor(1, 1, 1)\n"
+                + "    for i, e in ipairs(enemies) do\n"
+                + "        love.graphics.draw(e.image, e.x, e.y)\n"
+                + "    end\n"
+                + "end\n", move.apply(source));
+
+        assertNull(analysis.planFix(0));
+    }
+
+    /**
+     * Test the state names used in the messages.
+     */
+    @Test
+    public void testGetStateName() {
+        assertEquals("color", LoveGraphicsStateAnalysis.getStateName("setColor"));
+        assertEquals("blend mode", LoveGraphicsStateAnalysis.getStateName("setBlendMode"));
+    }
+}
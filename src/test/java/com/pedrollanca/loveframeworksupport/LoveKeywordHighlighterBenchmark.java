@@ -0,0 +1,111 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 - Pedro Chamorro Llanca
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.pedrollanca.loveframeworksupport;
+
+import com.intellij.openapi.util.TextRange;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Micro-benchmark highlighting generated 5,000 and 50,000 line Lua files, comparing a scan of the whole file with
+ * the rescan of a single edited line that the incremental highlighting pass performs.
+ */
+public class LoveKeywordHighlighterBenchmark {
+
+    private static final String[] LINES = {
+            "function love.draw()",
+            "    love.graphics.setColor(1, 0.5, 0.25, 1)",
+            "    love.graphics.rectangle(\"fill\", x, y, 32, 32)",
+            "    local volume = love.audio.getVolume()",
+            "    tiles[i] = { x = i * 16, y = 0, kind = \"grass\" }",
+            "end"
+    };
+
+    /**
+     * LOVE references per repetition of {@link #LINES}: love.draw, two graphics functions and one audio function.
+     */
+    private static final int REFERENCES_PER_REPETITION = 4;
+
+    private static final Runnable NOT_CANCELED = () -> {
+    };
+
+    private int highlights;
+
+    @Test
+    public void testHighlightEditedLine() {
+        LoveKeywordHighlighter.HighlightConsumer counter = (start, end, attributes) -> highlights++;
+
+        for (int lineCount : new int[]{5_000, 50_000}) {
+            String text = generateLua(lineCount);
+
+            highlights = 0;
+            LoveKeywordHighlighter.highlight(text, 0, text.length(), LoveVersion.ALL, NOT_CANCELED, counter);
+            assertEquals("every LOVE reference should be highlighted once",
+                    lineCount / LINES.length * REFERENCES_PER_REPETITION
+                            + referencesIn(lineCount % LINES.length), highlights);
+
+            // A keystroke in the middle of the file, with the caret line visible
+            int edit = text.indexOf("love.graphics.setColor", text.length() / 2) + 5;
+            TextRange dirty = TextRange.create(edit, edit + 1);
+            TextRange visible = TextRange.create(Math.max(0, edit - 2_000), Math.min(text.length(), edit + 2_000));
+
+            BenchmarkSupport.Measurement full = BenchmarkSupport.measure(3, 10, () ->
+                    LoveKeywordHighlighter.highlight(text, 0, text.length(), LoveVersion.ALL, NOT_CANCELED, counter));
+            BenchmarkSupport.Measurement incremental = BenchmarkSupport.measure(1_000, 10_000, () -> {
+                List<TextRange> ranges = LoveKeywordHighlighter.getRangesToScan(text, dirty, visible);
+                for (TextRange range : ranges) {
+                    LoveKeywordHighlighter.highlight(text, range.getStartOffset(), range.getEndOffset(),
+                            LoveVersion.ALL, NOT_CANCELED, counter);
+                }
+            });
+            BenchmarkSupport.report("whole file,  " + lineCount + " lines", full);
+            BenchmarkSupport.report("edited line, " + lineCount + " lines", incremental);
+            BenchmarkSupport.report(String.format("%d lines: %.1f us per whole-file pass, %.3f us per edited line",
+                    lineCount, full.nanosPerOperation / 1_000, incremental.nanosPerOperation / 1_000));
+
+            // Rescanning one line allocates only the range list, however large the file is
+            assertTrue("rescanning an edited line should allocate almost nothing, got "
+                            + incremental.bytesPerOperation + " B",
+                    incremental.bytesPerOperation < 512);
+        }
+    }
+
+    private static int referencesIn(int lineCount) {
+        int references = 0;
+        for (int i = 0; i < lineCount; i++) {
+            references += LINES[i].contains("love.") ? 1 : 0;
+        }
+        return references;
+    }
+
+    private static String generateLua(int lineCount) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < lineCount; i++) {
+            builder.append(LINES[i % LINES.length]).append('\n');
+        }
+        return builder.toString();
+    }
+}
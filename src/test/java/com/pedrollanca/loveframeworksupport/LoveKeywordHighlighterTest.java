@@ -0,0 +1,175 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 - Pedro Chamorro Llanca
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.pedrollanca.loveframeworksupport;
+
+import com.intellij.openapi.editor.colors.TextAttributesKey;
+import com.intellij.openapi.util.TextRange;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for LoveKeywordHighlighter.
+ */
+public class LoveKeywordHighlighterTest {
+
+    private static final String TEXT = "function love.draw()\n"
+            + "    love.graphics.draw(image)\n"
+            + "    local g = love.graphics\n"
+            + "end\n";
+
+    /**
+     * Test that every reference in the range is reported with the color of its kind.
+     */
+    @Test
+    public void testHighlightWholeText() {
+        List<String> highlights = highlight(TEXT, 0, TEXT.length());
+
+        assertEquals(Arrays.asList(
+                "love.draw=" + LoveKeywordHighlighter.LOVE_CALLBACK_HIGHLIGHT.getExternalName(),
+                "love.graphics.draw=" + LoveKeywordHighlighter.LOVE_FUNCTION_HIGHLIGHT.getExternalName(),
+                "love.graphics=" + LoveKeywordHighlighter.LOVE_KEYWORD_HIGHLIGHT.getExternalName()), highlights);
+    }
+
+    /**
+     * Test that references outside of the range are not reported.
+     */
+    @Test
+    public void testHighlightRange() {
+        int start = TEXT.indexOf("    local");
+        int end = TEXT.indexOf("end");
+
+        List<String> highlights = highlight(TEXT, start, end);
+
+        assertEquals(Collections.singletonList(
+                "love.graphics=" + LoveKeywordHighlighter.LOVE_KEYWORD_HIGHLIGHT.getExternalName()), highlights);
+    }
+
+    /**
+     * Test that cancellation is checked before scanning.
+     */
+    @Test
+    public void testHighlightChecksCanceled() {
+        try {
+            LoveKeywordHighlighter.highlight(TEXT, 0, TEXT.length(), LoveVersion.ALL, () -> {
+                throw new IllegalStateException("canceled");
+            }, (start, end, attributes) -> fail("no reference should be reported after cancellation"));
+            fail("cancellation should abort the scan");
+        } catch (IllegalStateException expected) {
+            assertEquals("canceled", expected.getMessage());
+        }
+    }
+
+    /**
+     * Test that large ranges are scanned in chunks split at line breaks, so no reference is cut or reported twice.
+     */
+    @Test
+    public void testHighlightAcrossChunks() {
+        StringBuilder builder = new StringBuilder();
+        int lines = 0;
+        while (builder.length() < 3 * LoveKeywordHighlighter.CHUNK_LENGTH) {
+            builder.append("    love.graphics.draw(image)\n");
+            lines++;
+        }
+        String text = builder.toString();
+        int[] checks = new int[1];
+        List<TextRange> ranges = new ArrayList<>();
+
+        LoveKeywordHighlighter.highlight(text, 0, text.length(), LoveVersion.ALL, () -> checks[0]++,
+                (start, end, attributes) -> ranges.add(TextRange.create(start, end)));
+
+        assertEquals(lines, ranges.size());
+        for (TextRange range : ranges) {
+            assertEquals("love.graphics.draw", range.substring(text));
+        }
+        assertTrue("cancellation should be checked once per chunk", checks[0] >= 3);
+    }
+
+    /**
+     * Test that the dirty range is widened to whole lines.
+     */
+    @Test
+    public void testRangesToScanWidenToLines() {
+        int dirty = TEXT.indexOf("graphics.draw");
+
+        List<TextRange> ranges = LoveKeywordHighlighter.getRangesToScan(TEXT, TextRange.create(dirty, dirty + 1), null);
+
+        int lineStart = TEXT.indexOf("    love.graphics.draw");
+        assertEquals(Collections.singletonList(TextRange.create(lineStart, TEXT.indexOf('\n', lineStart))), ranges);
+    }
+
+    /**
+     * Test that the visible part of the dirty range comes first and the parts around it follow without overlap.
+     */
+    @Test
+    public void testRangesToScanVisibleFirst() {
+        int secondLine = TEXT.indexOf('\n') + 1;
+        int thirdLine = TEXT.indexOf('\n', secondLine) + 1;
+
+        List<TextRange> ranges = LoveKeywordHighlighter.getRangesToScan(TEXT, TextRange.create(0, TEXT.length()),
+                TextRange.create(secondLine + 4, secondLine + 8));
+
+        assertEquals(Arrays.asList(
+                TextRange.create(secondLine, thirdLine - 1),
+                TextRange.create(0, secondLine),
+                TextRange.create(thirdLine - 1, TEXT.length())), ranges);
+    }
+
+    /**
+     * Test that a dirty range outside of the visible area is scanned as a whole.
+     */
+    @Test
+    public void testRangesToScanInvisibleDirtyRange() {
+        int lastLine = TEXT.indexOf("end");
+        TextRange dirty = TextRange.create(lastLine, lastLine + 1);
+
+        assertNull(LoveKeywordHighlighter.getVisibleRangeToScan(TEXT, dirty, TextRange.create(0, 4)));
+        assertEquals(Collections.singletonList(TextRange.create(lastLine, lastLine + 3)),
+                LoveKeywordHighlighter.getRangesToScan(TEXT, dirty, TextRange.create(0, 4)));
+    }
+
+    /**
+     * Test that every kind of reference has its own color.
+     */
+    @Test
+    public void testTextAttributes() {
+        assertSame(LoveKeywordHighlighter.LOVE_CALLBACK_HIGHLIGHT,
+                LoveKeywordHighlighter.getTextAttributes(LoveNameAutomaton.Kind.CALLBACK));
+        assertSame(LoveKeywordHighlighter.LOVE_KEYWORD_HIGHLIGHT,
+                LoveKeywordHighlighter.getTextAttributes(LoveNameAutomaton.Kind.MODULE));
+        assertSame(LoveKeywordHighlighter.LOVE_FUNCTION_HIGHLIGHT,
+                LoveKeywordHighlighter.getTextAttributes(LoveNameAutomaton.Kind.FUNCTION));
+    }
+
+    private static List<String> highlight(String text, int start, int end) {
+        List<String> highlights = new ArrayList<>();
+        LoveKeywordHighlighter.highlight(text, start, end, LoveVersion.ALL, () -> {
+        }, (matchStart, matchEnd, attributes) -> highlights.add(
+                text.substring(matchStart, matchEnd) + "=" + attributes.getExternalName()));
+        return highlights;
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 - Pedro Chamorro Llanca
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.pedrollanca.loveframeworksupport;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for LoveLocalCaching.
+ */
+public class LoveLocalCachingTest {
+
+    private static List<String> lookups(String source) {
+        return LoveLocalCaching.analyze(source).getLoopLookups().stream()
+                .map(l -> l.qualifiedName + "@" + source.substring(l.start, l.end))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Test that calls by full name are reported in the loops of frame callbacks only.
+     */
+    @Test
+    public void testLoopLookups() {
+        String source = "function love.draw()\n"
+                + "    love.graphics.clear()\n"
+                + "    for i, e in ipairs(enemies) do\n"
+                + "        love.graphics.draw(e.image, e.x, e.y)\n"
+                + "    end\n"
+                + "end\n";
+        List<LoveLocalCaching.Lookup> lookups = LoveLocalCaching.analyze(source).getLoopLookups();
+
+        assertEquals(1, lookups.size());
+        assertEquals("love.graphics.draw", lookups.get(0).qualifiedName);
+        assertEquals(source.indexOf("love.graphics.draw"), lookups.get(0).start);
+        assertEquals("'love.graphics.draw' in a loop of 'love.draw' is looked up on every iteration; "
+                + "cache it in a local", lookups.get(0).getMessage());
+
+        assertEquals(List.of(), lookups("function love.load() for i = 1, 9 do love.graphics.print(i) end end"));
+        assertEquals(List.of(), lookups("for i = 1, 9 do love.graphics.print(i) end"));
+        assertEquals(List.of("love.math.random@love.math.random"),
+                lookups("function love.update(dt) while busy do x = love.math.random(10) end end"));
+        assertEquals(List.of("love.graphics.print@love.graphics.print"),
+                lookups("function love.draw() repeat love.graphics.print'x' until done end"));
+    }
+
+    /**
+     * Test that headers, nested functions, aliases and other tables are not reported.
+     */
+    @Test
+    public void testIgnored() {
+        assertEquals(List.of(), lookups("function love.draw() "
+                + "for i = 1, love.graphics.getWidth() do end end"));
+        assertEquals(List.of(), lookups("function love.draw() "
+                + "for i = 1, 9 do list[i] = function() love.graphics.print(i) end end end"));
+        assertEquals(List.of(), lookups("local lg = love.graphics function love.draw() "
+                + "for i = 1, 9 do lg.print(i) end end"));
+        assertEquals(List.of(), lookups("function love.draw() for i = 1, 9 do game.love.graphics.print(i) end end"));
+        assertEquals(List.of(), lookups("function love.draw() for i = 1, 9 do love.graphics.noSuchFunction(i) "
+                + "end end"));
+        assertEquals(List.of(), lookups("function love.draw() for i = 1, 9 do love.graphics.print(i) end "
+                + "if x then end end\nlove.graphics.print = myPrint"));
+    }
+
+    /**
+     * Test that loops of the functions called from a frame callback are reported with the call path.
+     */
+    @Test
+    public void testCalledFunctions() {
+        String source = "local function drawMap()\n"
+                + "    for y = 1, 10 do love.graphics.draw(tiles, 0, y) end\n"
+                + "end\n"
+                + "function love.draw() drawMap() end\n";
+        List<LoveLocalCaching.Lookup> lookups = LoveLocalCaching.analyze(source).getLoopLookups();
+
+        assertEquals(1, lookups.size());
+        assertEquals("'love.graphics.draw' in a loop of 'drawMap', called from 'love.draw', is looked up on every "
+                + "iteration; cache it in a local", lookups.get(0).getMessage());
+    }
+
+    /**
+     * Test the rewrite declaring a local for every LOVE function the file calls.
+     */
+    @Test
+    public void testPlanCaching() {
+        String source = "-- Game\n"
+                + "function love.update(dt)\n"
+                + "    timer = timer + love.timer.getDelta()\n"
+                + "end\n"
+                + "function love.draw()\n"
+                + "    for i, e in ipairs(enemies) do\n"
+                + "        love.graphics.draw(e.image, e.x, e.y)\n"
+                + "    end\n"
+                + "    love.graphics.print(\"Score\", 0, 0)\n"
+                + "    love.graphics.draw(hud)\n"
+                + "end\n";
+        LoveFrameAnalysis.Rewrite rewrite = LoveLocalCaching.analyze(source).planCaching();
+
+        assertNotNull(rewrite);
+        assertEquals("-- Game\n"
+                + "local lg_draw = love.graphics.draw\n"
+                + "local lg_print = love.graphics.print\n"
+                + "local lti_getDelta = love.timer.getDelta\n"
+                + "\n"
+                + "function love.update(dt)\n"
+                + "    timer = timer + lti_getDelta()\n"
+                + "end\n"
+                + "function love.draw()\n"
+                + "    for i, e in ipairs(enemies) do\n"
+                + "        lg_draw(e.image, e.x, e.y)\n"
+                + "    end\n"
+                + "    lg_print(\"Score\", 0, 0)\n"
+                + "    lg_draw(hud)\n"
+                + "end\n", rewrite.apply(source));
+
+        assertNull(LoveLocalCaching.analyze("local lg = love.graphics\nlg.draw(img)\n").planCaching());
+    }
+
+    /**
+     * Test that declared locals are reused and new names don't clash with identifiers of the file.
+     */
+    @Test
+    public void testPlanCachingNames() {
+        String source = "local draw = love.graphics.draw\n"
+                + "function love.draw() local lg_print = 1 love.graphics.draw(a) love.graphics.print(lg_print) end";
+
+        assertEquals("local lg_print_2 = love.graphics.print\n"
+                + "\n"
+                + "local draw = love.graphics.draw\n"
+                + "function love.draw() local lg_print = 1 draw(a) lg_print_2(lg_print) end",
+                LoveLocalCaching.analyze(source).planCaching().apply(source));
+    }
+
+    /**
+     * Test that modules the file loads itself are not cached.
+     */
+    @Test
+    public void testRequiredModules() {
+        String source = "require(\"love.timer\")\nlove.timer.sleep(1)\nlove.math.random()\n";
+
+        assertEquals("local lma_random = love.math.random\n"
+                + "\n"
+                + "require(\"love.timer\")\nlove.timer.sleep(1)\nlma_random()\n",
+                LoveLocalCaching.analyze(source).planCaching().apply(source));
+    }
+
+    /**
+     * Test the module abbreviations.
+     */
+    @Test
+    public void testAbbreviate() {
+        Map<String, String> abbreviations = LoveLocalCaching.abbreviate(LoveTypes.MODULE_KEYS);
+
+        assertEquals("lg", abbreviations.get(LoveTypes.GRAPHICS_KEY));
+        assertEquals("lfi", abbreviations.get(LoveTypes.FILESYSTEM_KEY));
+        assertEquals("lfo", abbreviations.get(LoveTypes.FONT_KEY));
+        assertEquals("lti", abbreviations.get(LoveTypes.TIMER_KEY));
+        assertEquals("lto", abbreviations.get(LoveTypes.TOUCH_KEY));
+        assertEquals(LoveTypes.MODULE_KEYS.size(), Set.copyOf(abbreviations.values()).size());
+        assertEquals("lg_draw", LoveLocalCaching.suggestLocalName(LoveTypes.GRAPHICS_KEY, "draw"));
+    }
+}
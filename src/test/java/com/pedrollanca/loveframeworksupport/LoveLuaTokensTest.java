@@ -0,0 +1,95 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 - Pedro Chamorro Llanca
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.pedrollanca.loveframeworksupport;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for LoveLuaTokens.
+ */
+public class LoveLuaTokensTest {
+
+    private static List<String> texts(LoveLuaTokens tokens) {
+        List<String> texts = new ArrayList<>();
+        for (int i = 0; i < tokens.size(); i++) {
+            texts.add(tokens.getTokenText(i));
+        }
+        return texts;
+    }
+
+    /**
+     * Test that comments and whitespace are dropped and strings, numbers and operators are single tokens.
+     */
+    @Test
+    public void testTokenize() {
+        LoveLuaTokens tokens = LoveLuaTokens.tokenize("local s = 'a' .. [[b]] -- c\n"
+                + "--[[ d ]] x = 1.5e-3 + 0xff ~= ...");
+
+        assertEquals(List.of("local", "s", "=", "'a'", "..", "[[b]]", "x", "=", "1.5e-3", "+", "0xff", "~=", "..."),
+                texts(tokens));
+        assertEquals(LoveLuaTokens.STRING, tokens.getType(3));
+        assertEquals(LoveLuaTokens.STRING, tokens.getType(5));
+        assertEquals(LoveLuaTokens.NUMBER, tokens.getType(8));
+        assertEquals(LoveLuaTokens.SYMBOL, tokens.getType(4));
+    }
+
+    /**
+     * Test that a number followed by the concatenation operator keeps its own token.
+     */
+    @Test
+    public void testNumberBeforeConcatenation() {
+        assertEquals(List.of("1", "..", "x", "0xe", "+", "1"), texts(LoveLuaTokens.tokenize("1..x 0xe+1")));
+    }
+
+    /**
+     * Test that keywords are told apart from identifiers.
+     */
+    @Test
+    public void testKeywords() {
+        LoveLuaTokens tokens = LoveLuaTokens.tokenize("function ends end update");
+
+        assertTrue(tokens.isKeyword(0));
+        assertTrue(tokens.isIdentifier(1));
+        assertTrue(tokens.is(2, "end"));
+        assertFalse(tokens.isIdentifier(2));
+        assertTrue(tokens.isIdentifier(3));
+        assertFalse(tokens.isIdentifier(4));
+    }
+
+    /**
+     * Test that brackets of all kinds are matched.
+     */
+    @Test
+    public void testFindClosing() {
+        LoveLuaTokens tokens = LoveLuaTokens.tokenize("f({a[1]}, (2)) x");
+
+        assertEquals(12, tokens.findClosing(1));
+        assertEquals(7, tokens.findClosing(2));
+        LoveLuaTokens unclosed = LoveLuaTokens.tokenize("f(");
+        assertEquals(unclosed.size(), unclosed.findClosing(1));
+    }
+}
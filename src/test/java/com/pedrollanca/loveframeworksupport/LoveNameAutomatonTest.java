@@ -0,0 +1,121 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 - Pedro Chamorro Llanca
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.pedrollanca.loveframeworksupport;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for LoveNameAutomaton.
+ */
+public class LoveNameAutomatonTest {
+
+    /**
+     * Test that callbacks, modules and functions are found with their kind, preferring the longest name.
+     */
+    @Test
+    public void testScanKinds() {
+        String text = "function love.draw()\n"
+                + "    love.graphics.setColor(1, 1, 1)\n"
+                + "    local g = love.graphics\n"
+                + "end\n";
+
+        assertEquals(Arrays.asList(
+                "love.draw:CALLBACK",
+                "love.graphics.setColor:FUNCTION",
+                "love.graphics:MODULE"), scan(LoveNameAutomaton.getInstance(), text));
+    }
+
+    /**
+     * Test that names which are part of a longer identifier or member chain are not reported.
+     */
+    @Test
+    public void testScanBoundaries() {
+        LoveNameAutomaton automaton = LoveNameAutomaton.getInstance();
+
+        assertEquals(Arrays.asList(), scan(automaton, "glove.graphics love.drawing obj.love.draw self:love.load"));
+        assertEquals(Arrays.asList("love.graphics:MODULE"), scan(automaton, "love.graphics.unknownFunction()"));
+        assertEquals(Arrays.asList("love.audio.play:FUNCTION"), scan(automaton, "(love.audio.play)"));
+    }
+
+    /**
+     * Test the failure links with names that share suffixes with other names' prefixes.
+     */
+    @Test
+    public void testOverlappingNames() {
+        LoveNameAutomaton automaton = LoveNameAutomaton.build(
+                Arrays.asList("abcd", "bc", "c", "ab"),
+                Arrays.asList(LoveNameAutomaton.Kind.FUNCTION, LoveNameAutomaton.Kind.MODULE,
+                        LoveNameAutomaton.Kind.CALLBACK, LoveNameAutomaton.Kind.MODULE));
+
+        assertEquals(Arrays.asList("abcd:FUNCTION"), scan(automaton, "abcd"));
+        assertEquals(Arrays.asList("ab:MODULE", "c:CALLBACK"), scan(automaton, "ab c"));
+        assertEquals(Arrays.asList("bc:MODULE"), scan(automaton, "abc bc"));
+    }
+
+    /**
+     * Test that every qualified name of the catalog is part of the automaton.
+     */
+    @Test
+    public void testCatalogSize() {
+        LoveApiCatalog catalog = LoveApiCatalog.getInstance();
+        int expected = catalog.getNames(LoveTypes.CALLBACKS_KEY).size();
+        for (String module : catalog.getNames(LoveTypes.MODULES_KEY)) {
+            expected += 1 + catalog.getNames(module).size();
+        }
+
+        assertEquals(expected, LoveNameAutomaton.getInstance().size());
+    }
+
+    private static List<String> scan(LoveNameAutomaton automaton, String text) {
+        List<String> matches = new ArrayList<>();
+        automaton.scan(text, 0, text.length(), (start, end, kind) -> matches.add(text.substring(start, end) + ":" + kind));
+        return matches;
+    }
+
+    /**
+     * Test that names missing from the scanned versions are skipped in favor of the longest available name.
+     */
+    @Test
+    public void testScanVersions() {
+        LoveNameAutomaton automaton = LoveNameAutomaton.getInstance();
+        String text = "love.graphics.newTextBatch(font)";
+
+        assertEquals(List.of("love.graphics:MODULE"),
+                scan(automaton, text, LoveVersion.LOVE_11.getMask()));
+        assertEquals(List.of("love.graphics.newTextBatch:FUNCTION"),
+                scan(automaton, text, LoveVersion.LOVE_12.getMask()));
+        assertEquals(List.of(), scan(automaton, "love.data.compress()", LoveVersion.LOVE_0_10.getMask()));
+    }
+
+    private static List<String> scan(LoveNameAutomaton automaton, String text, int versions) {
+        List<String> matches = new ArrayList<>();
+        automaton.scan(text, 0, text.length(), versions,
+                (start, end, kind) -> matches.add(text.substring(start, end) + ":" + kind));
+        return matches;
+    }
+}
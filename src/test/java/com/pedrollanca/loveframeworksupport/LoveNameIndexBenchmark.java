@@ -0,0 +1,104 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 - Pedro Chamorro Llanca
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.pedrollanca.loveframeworksupport;
+
+import com.intellij.codeInsight.lookup.LookupElement;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Micro-benchmark comparing LoveNameIndex with re-matching a whole module list on every keystroke, at 1x, 10x and
+ * 100x the size of the graphics module.
+ */
+public class LoveNameIndexBenchmark {
+
+    private static final String[] QUERIES = {"d", "dr", "set", "setC", "newS", "nSB", "getD", "pr"};
+
+    @Test
+    public void testIndexAgainstListFiltering() {
+        List<String> graphics = new ArrayList<>();
+        for (LookupElement element : LoveElements.getElementsFor(LoveTypes.GRAPHICS_KEY)) {
+            graphics.add(element.getLookupString());
+        }
+
+        for (int factor : new int[]{1, 10, 100}) {
+            List<String> catalog = scale(graphics, factor);
+            LoveNameIndex<String> index = LoveNameIndex.build(catalog, Function.identity());
+
+            for (String query : QUERIES) {
+                assertEquals("Index and list filtering should agree for '" + query + "'",
+                        filterByPrefix(catalog, query).size(), countPrefixMatches(index.lookup(query), query));
+            }
+
+            BenchmarkSupport.Measurement listResult = BenchmarkSupport.measure(2_000, 20_000 / factor, () -> {
+                for (String query : QUERIES) {
+                    BenchmarkSupport.blackhole = filterByPrefix(catalog, query);
+                }
+            });
+            BenchmarkSupport.Measurement indexResult = BenchmarkSupport.measure(2_000, 20_000 / factor, () -> {
+                for (String query : QUERIES) {
+                    BenchmarkSupport.blackhole = index.lookup(query);
+                }
+            });
+            BenchmarkSupport.report("list filtering, " + catalog.size() + " names", listResult);
+            BenchmarkSupport.report("trie lookup,    " + catalog.size() + " names", indexResult);
+        }
+    }
+
+    /**
+     * The current behavior: the whole module list is handed over and every name is matched against the prefix.
+     */
+    private static List<String> filterByPrefix(List<String> catalog, String query) {
+        List<String> result = new ArrayList<>();
+        for (String name : catalog) {
+            if (name.regionMatches(true, 0, query, 0, query.length())) {
+                result.add(name);
+            }
+        }
+        return result;
+    }
+
+    private static int countPrefixMatches(List<String> names, String query) {
+        int count = 0;
+        for (String name : names) {
+            if (name.regionMatches(true, 0, query, 0, query.length())) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static List<String> scale(List<String> names, int factor) {
+        List<String> result = new ArrayList<>(names.size() * factor);
+        for (int copy = 0; copy < factor; copy++) {
+            for (String name : names) {
+                result.add(copy == 0 ? name : name + copy);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 - Pedro Chamorro Llanca
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.pedrollanca.loveframeworksupport;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for LoveNameIndex.
+ */
+public class LoveNameIndexTest {
+
+    private static final List<String> NAMES = Arrays.asList(
+            "draw", "newShader", "newSpriteBatch", "newFont", "newImage", "setColor", "setCanvas", "getDPIScale", "getDimensions"
+    );
+
+    private final LoveNameIndex<String> index = LoveNameIndex.build(NAMES, Function.identity());
+
+    /**
+     * Test that an empty query returns every value.
+     */
+    @Test
+    public void testEmptyQuery() {
+        assertEquals(NAMES.size(), index.lookup("").size());
+    }
+
+    /**
+     * Test plain prefix queries, which are case-insensitive.
+     */
+    @Test
+    public void testPrefixQuery() {
+        assertEquals(Arrays.asList("newFont", "newImage", "newShader", "newSpriteBatch"), index.lookup("new"));
+        assertEquals(Arrays.asList("setCanvas", "setColor"), index.lookup("setc"));
+        assertEquals(List.of("draw"), index.lookup("Dr"));
+        assertTrue(index.lookup("x").isEmpty());
+        assertTrue(index.lookup("drawing").isEmpty());
+    }
+
+    /**
+     * Test camel-hump queries.
+     */
+    @Test
+    public void testCamelHumpQuery() {
+        assertEquals(List.of("newSpriteBatch"), index.lookup("nSB"));
+        assertEquals(Arrays.asList("newShader", "newSpriteBatch"), index.lookup("nS"));
+        assertEquals(List.of("newSpriteBatch"), index.lookup("newSp"));
+        assertEquals(List.of("newSpriteBatch"), index.lookup("nB"));
+        assertEquals(List.of("getDPIScale"), index.lookup("gS"));
+        assertTrue(index.lookup("nBS").isEmpty());
+    }
+
+    /**
+     * Test that the index reports its size.
+     */
+    @Test
+    public void testSize() {
+        assertEquals(NAMES.size(), index.size());
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 - Pedro Chamorro Llanca
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.pedrollanca.loveframeworksupport;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for LoveProjectSettings.
+ */
+public class LoveProjectSettingsTest {
+
+    /**
+     * Test that the target version is persisted and restored.
+     */
+    @Test
+    public void testStateRoundTrip() {
+        LoveProjectSettings settings = new LoveProjectSettings(null);
+        assertSame(LoveVersion.DEFAULT, settings.getVersion());
+
+        settings.setVersion(LoveVersion.LOVE_0_10);
+        LoveProjectSettings restored = new LoveProjectSettings(null);
+        restored.loadState(settings.getState());
+
+        assertSame(LoveVersion.LOVE_0_10, restored.getVersion());
+    }
+
+    /**
+     * Test that an unsupported stored version falls back to the default one.
+     */
+    @Test
+    public void testLoadUnknownVersion() {
+        LoveProjectSettings settings = new LoveProjectSettings(null);
+        settings.setVersion(LoveVersion.LOVE_12);
+        LoveProjectSettings.SettingsState state = new LoveProjectSettings.SettingsState();
+        state.version = "0.8";
+
+        settings.loadState(state);
+
+        assertSame(LoveVersion.DEFAULT, settings.getVersion());
+    }
+
+    /**
+     * Test that code without a project uses the default version.
+     */
+    @Test
+    public void testVersionWithoutProject() {
+        assertSame(LoveVersion.DEFAULT, LoveProjectSettings.getVersion(null));
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 - Pedro Chamorro Llanca
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.pedrollanca.loveframeworksupport;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for LoveSpriteBatchAnalysis.
+ */
+public class LoveSpriteBatchAnalysisTest {
+
+    private static final String MAP = "function love.draw()\n"
+            + "    for y = 1, 20 do\n"
+            + "        for x = 1, 30 do\n"
+            + "            love.graphics.draw(assets.tiles, quads[map[y][x]], x * 32, y * 32)\n"
+            + "        end\n"
+            + "    end\n"
+            + "end\n";
+
+    private static List<String> textures(String source) {
+        return LoveSpriteBatchAnalysis.analyze(source).getOpportunities().stream()
+                .map(o -> o.texture + ":" + o.drawCalls + (o.refactorable ? "" : ":manual"))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Test that nested loops with literal bounds multiply into the estimated draw calls.
+     */
+    @Test
+    public void testNestedLoops() {
+        List<LoveSpriteBatchAnalysis.Opportunity> opportunities = LoveSpriteBatchAnalysis.analyze(MAP)
+                .getOpportunities();
+
+        assertEquals(1, opportunities.size());
+        LoveSpriteBatchAnalysis.Opportunity opportunity = opportunities.get(0);
+        assertEquals("assets.tiles", opportunity.texture);
+        assertEquals(600, opportunity.drawCalls);
+        assertTrue(opportunity.refactorable);
+        assertEquals(MAP.indexOf("love.graphics.draw"), opportunity.start);
+        assertEquals("'love.graphics.draw' of 'assets.tiles' in a loop makes 600 draw calls per frame; "
+                + "a SpriteBatch makes 1", opportunity.getMessage());
+    }
+
+    /**
+     * Test that textures changing in the loop are not reported, and the batch stops at the loop assigning them.
+     */
+    @Test
+    public void testVariantTextures() {
+        assertEquals(List.of(), textures("for i, e in ipairs(list) do love.graphics.draw(e.image, e.x, e.y) end"));
+        assertEquals(List.of(), textures("for i = 1, 10 do love.graphics.draw(images[i], i, 0) end"));
+        assertEquals(List.of(), textures("for i = 1, 10 do img = pick(i) love.graphics.draw(img, i, 0) end"));
+        assertEquals(List.of(), textures("for i = 1, 10 do local img = get() love.graphics.draw(img, i, 0) end"));
+        assertEquals(List.of(), textures("for i = 1, 10 do assets = load() love.graphics.draw(assets.img) end"));
+        assertEquals(List.of("img:5"), textures("for i = 1, 10 do local img = get(i)\n"
+                + "  for j = 1, 5 do love.graphics.draw(img, j, i) end end"));
+    }
+
+    /**
+     * Test that generic loops have no estimate, aliases are resolved and other calls are ignored.
+     */
+    @Test
+    public void testLoopKinds() {
+        assertEquals(List.of("bullet:-1"),
+                textures("local lg = love.graphics\nfor _, b in ipairs(bullets) do lg.draw(bullet, b.x, b.y) end"));
+        assertEquals(List.of(), textures("for i = 1, 1 do love.graphics.draw(img, 0, 0) end"));
+        assertEquals(List.of(), textures("love.graphics.draw(img, 0, 0)"));
+        assertEquals(List.of(), textures("for i = 1, 10 do love.graphics.print(img, 0, 0) end"));
+        assertEquals(List.of(),
+                textures("for i = 1, 10 do table.insert(t, function() love.graphics.draw(img) end) end"));
+        assertEquals(List.of("img:4"), textures("for i = 1, 7, 2 do love.graphics.draw(img, i, 0) end"));
+        assertEquals(List.of("img:-1"), textures("for i = 1, n do love.graphics.draw(img, i, 0) end"));
+    }
+
+    /**
+     * Test that loops drawing anything else are reported without a quick-fix.
+     */
+    @Test
+    public void testNotRefactorable() {
+        assertEquals(List.of("img:10:manual"),
+                textures("for i = 1, 10 do love.graphics.setColor(1, 0, 0) love.graphics.draw(img, i, 0) end"));
+        assertEquals(List.of("a:10:manual", "b:10:manual"),
+                textures("for i = 1, 10 do love.graphics.draw(a, i, 0) love.graphics.draw(b, i, 0) end"));
+        assertEquals(List.of("img:10:manual"), textures("for i = 1, 10 do x = f(love.graphics.draw(img)) end"));
+    }
+
+    /**
+     * Test that the refactoring fills a SpriteBatch in the loop and draws it after the outermost loop.
+     */
+    @Test
+    public void testRefactoring() {
+        LoveFrameAnalysis.Rewrite rewrite = LoveSpriteBatchAnalysis.analyze(MAP)
+                .planRefactoring(MAP.indexOf("love.graphics.draw"));
+
+        assertNotNull(rewrite);
+        assertEquals("local tilesBatch\n"
+                + "\n"
+                + "function love.draw()\n"
+                + "    if not tilesBatch or tilesBatch:getTexture() ~= assets.tiles then\n"
+                + "        tilesBatch = love.graphics.newSpriteBatch(assets.tiles, 600)\n"
+                + "    end\n"
+                + "    tilesBatch:clear()\n"
+                + "    for y = 1, 20 do\n"
+                + "        for x = 1, 30 do\n"
+                + "            tilesBatch:add(quads[map[y][x]], x * 32, y * 32)\n"
+                + "        end\n"
+                + "    end\n"
+                + "    love.graphics.draw(tilesBatch)\n"
+                + "end\n", rewrite.apply(MAP));
+    }
+
+    /**
+     * Test the refactoring of a loop at file scope, through an alias, without an estimate.
+     */
+    @Test
+    public void testRefactoringAtFileScope() {
+        String source = "local lg = love.graphics\n"
+                + "for _, b in ipairs(bullets) do\n"
+                + "  lg.draw(bullet)\n"
+                + "end\n";
+        LoveFrameAnalysis.Rewrite rewrite = LoveSpriteBatchAnalysis.analyze(source)
+                .planRefactoring(source.indexOf("lg.draw"));
+
+        assertNotNull(rewrite);
+        assertEquals("local lg = love.graphics\n"
+                + "local bulletBatch\n"
+                + "if not bulletBatch or bulletBatch:getTexture() ~= bullet then\n"
+                + "    bulletBatch = lg.newSpriteBatch(bullet)\n"
+                + "end\n"
+                + "bulletBatch:clear()\n"
+                + "for _, b in ipairs(bullets) do\n"
+                + "  bulletBatch:add()\n"
+                + "end\n"
+                + "lg.draw(bulletBatch)\n", rewrite.apply(source));
+        assertNull(LoveSpriteBatchAnalysis.analyze(source).planRefactoring(0));
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 - Pedro Chamorro Llanca
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.pedrollanca.loveframeworksupport;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Micro-benchmark inspecting a synthetic project of 5,000 Lua files, one file at a time and in parallel across the
+ * available cores the way "Inspect Code" runs local inspections.
+ */
+public class LoveUnknownApiInspectionBenchmark {
+
+    private static final int FILE_COUNT = 5_000;
+
+    /**
+     * Every this many files one contains a misspelled function.
+     */
+    private static final int TYPO_INTERVAL = 50;
+
+    private static final String[] LINES = {
+            "local Player = {}",
+            "-- love.graphics.rectange is a typo only in comments",
+            "function Player.draw(self)",
+            "    love.graphics.setColor(1, 0.5, 0.25, 1)",
+            "    love.graphics.rectangle(\"fill\", self.x, self.y, 32, 32)",
+            "    love.graphics.print(\"love.graphics.rectange\", 0, 0)",
+            "end",
+            "function Player.update(self, dt)",
+            "    if love.keyboard.isDown(\"left\") then self.x = self.x - dt * 60 end",
+            "    self.volume = love.audio.getVolume()",
+            "end"
+    };
+
+    private static final Runnable NOT_CANCELED = () -> {
+    };
+
+    @Test
+    public void testInspectProject() {
+        List<String> files = generateProject();
+        LongAdder problems = new LongAdder();
+        LoveUnknownApiInspection.UnknownFunctionConsumer counter = (moduleKey, start, end, versions) -> problems.increment();
+
+        for (String file : files) {
+            LoveUnknownApiInspection.findUnknownFunctions(file, LoveVersion.ALL, NOT_CANCELED, counter);
+        }
+        assertEquals("every misspelled function should be reported once", FILE_COUNT / TYPO_INTERVAL,
+                problems.sum());
+
+        BenchmarkSupport.Measurement sequential = BenchmarkSupport.measure(2, 5, () -> {
+            for (String file : files) {
+                LoveUnknownApiInspection.findUnknownFunctions(file, LoveVersion.ALL, NOT_CANCELED, counter);
+            }
+        });
+        BenchmarkSupport.Measurement parallel = BenchmarkSupport.measure(2, 5, () -> files.parallelStream()
+                .forEach(file -> LoveUnknownApiInspection.findUnknownFunctions(file, LoveVersion.ALL, NOT_CANCELED,
+                        counter)));
+        BenchmarkSupport.report("5,000 files, sequential", sequential);
+        BenchmarkSupport.report("5,000 files, parallel (" + Runtime.getRuntime().availableProcessors() + " cores)",
+                parallel);
+        assertEquals("the parallel run should find the same problems", 15 * FILE_COUNT / TYPO_INTERVAL,
+                problems.sum());
+
+        // Clean files are scanned without allocating: names are looked up as regions of the file text
+        String clean = files.get(1);
+        BenchmarkSupport.Measurement cleanFile = BenchmarkSupport.measure(1_000, 10_000,
+                () -> LoveUnknownApiInspection.findUnknownFunctions(clean, LoveVersion.ALL, NOT_CANCELED, counter));
+        BenchmarkSupport.report("one clean file", cleanFile);
+        assertTrue("scanning a clean file should not allocate, got " + cleanFile.bytesPerOperation + " B",
+                cleanFile.bytesPerOperation < 16);
+    }
+
+    private static List<String> generateProject() {
+        List<String> files = new ArrayList<>(FILE_COUNT);
+        for (int i = 0; i < FILE_COUNT; i++) {
+            StringBuilder builder = new StringBuilder();
+            for (String line : LINES) {
+                builder.append(line).append('\n');
+            }
+            if (i % TYPO_INTERVAL == 0) {
+                builder.append("love.graphics.rectange(\"line\", 0, 0, 8, 8)\n");
+            }
+            files.add(builder.toString());
+        }
+        return files;
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 - Pedro Chamorro Llanca
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.pedrollanca.loveframeworksupport;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for LoveUnknownApiInspection.
+ */
+public class LoveUnknownApiInspectionTest {
+
+    /**
+     * Test that misspelled functions are reported with their module, and known ones are not.
+     */
+    @Test
+    public void testFindTypos() {
+        String text = "function love.draw()\n"
+                + "    love.graphics.rectange(\"fill\", 0, 0, 10, 10)\n"
+                + "    love.graphics.rectangle(\"fill\", 0, 0, 10, 10)\n"
+                + "    local volume = love.audio.getVolme()\n"
+                + "end\n";
+
+        assertEquals(Arrays.asList("graphics.rectange", "audio.getVolme"), findUnknown(text));
+    }
+
+    /**
+     * Test that a string left unterminated by a backslash at the end of the text ends with the text.
+     */
+    @Test
+    public void testUnterminatedStringAtEnd() {
+        String text = "love.graphics.rectange(\"fill\\";
+
+        assertEquals(text.length(), LoveLuaTokens.skipCommentOrString(text, text.indexOf('"')));
+        assertEquals(2, LoveLuaTokens.skipCommentOrString("'\\", 0));
+        assertEquals(Collections.singletonList("graphics.rectange"), findUnknown(text));
+    }
+
+    /**
+     * Test that whitespace and line breaks may separate the parts of a reference.
+     */
+    @Test
+    public void testFindAcrossWhitespace() {
+        assertEquals(Collections.singletonList("graphics.rectange"), findUnknown("love\n  .graphics\n  .rectange()"));
+    }
+
+    /**
+     * Test that functions added to a module by the game are not reported.
+     */
+    @Test
+    public void testSkipDefinitions() {
+        String text = "function love.graphics.drawGrid(size) end\n"
+                + "love.graphics.drawGrid2 = function() end\n"
+                + "if love.graphics.missing == nil then end\n";
+
+        assertEquals(Collections.singletonList("graphics.missing"), findUnknown(text));
+    }
+
+    /**
+     * Test that comments, strings and long brackets are skipped.
+     */
+    @Test
+    public void testSkipCommentsAndStrings() {
+        String text = "-- love.graphics.rectange()\n"
+                + "--[[ love.graphics.rectange()\n love.audio.ply() ]]\n"
+                + "local s = \"love.graphics.rectange\" .. 'love.audio.ply'\n"
+                + "local l = [==[ love.graphics.rectange ]] ]==]\n"
+                + "love.audio.ply()\n";
+
+        assertEquals(Collections.singletonList("audio.ply"), findUnknown(text));
+    }
+
+    /**
+     * Test that members of other expressions, unknown modules and callbacks are not reported.
+     */
+    @Test
+    public void testSkipOtherChains() {
+        String text = "obj.love.graphics.rectange()\n"
+                + "obj:love.graphics.rectange()\n"
+                + "love.custom.anything()\n"
+                + "love.update(dt)\n"
+                + "print('x' .. love.graphics.getWidht())\n";
+
+        assertEquals(Collections.singletonList("graphics.getWidht"), findUnknown(text));
+    }
+
+    /**
+     * Test that cancellation is checked while scanning.
+     */
+    @Test
+    public void testChecksCanceled() {
+        StringBuilder builder = new StringBuilder();
+        while (builder.length() < 4 * LoveUnknownApiInspection.CANCELLATION_INTERVAL) {
+            builder.append("love.graphics.rectangle('fill', 0, 0, 1, 1)\n");
+        }
+        int[] checks = new int[1];
+
+        LoveUnknownApiInspection.findUnknownFunctions(builder, LoveVersion.ALL, () -> checks[0]++,
+                (moduleKey, start, end, versions) -> fail("no function should be reported"));
+
+        assertTrue("cancellation should be checked regularly, got " + checks[0], checks[0] >= 4);
+    }
+
+    private static List<String> findUnknown(String text) {
+        return findUnknown(text, null);
+    }
+
+    /**
+     * Finds the functions missing from a version, or from all versions if it is null.
+     */
+    private static List<String> findUnknown(String text, LoveVersion version) {
+        List<String> unknown = new ArrayList<>();
+        LoveUnknownApiInspection.findUnknownFunctions(text, version == null ? LoveVersion.ALL : version.getMask(),
+                () -> {
+                }, (moduleKey, start, end, versions) -> unknown.add(moduleKey + "." + text.substring(start, end)));
+        return unknown;
+    }
+
+    /**
+     * Test that functions missing from the target version are reported with the versions that have them.
+     */
+    @Test
+    public void testFindUnavailableFunctions() {
+        String text = "love.audio.resume()\n"
+                + "local info = love.filesystem.getInfo('save')\n";
+        List<String> unavailable = new ArrayList<>();
+
+        LoveUnknownApiInspection.findUnknownFunctions(text, LoveVersion.LOVE_11.getMask(), () -> {
+        }, (moduleKey, start, end, versions) -> {
+            unavailable.add(text.substring(start, end));
+            assertEquals(LoveVersion.LOVE_0_10.getMask(), versions);
+            assertEquals("'love.audio.resume' is not available in LÖVE 11.5", LoveUnknownApiInspection
+                    .getMessage(text, moduleKey, start, end, versions, LoveVersion.LOVE_11));
+        });
+
+        assertEquals(Collections.singletonList("resume"), unavailable);
+        // Deprecated in 11.0, but still available
+        assertEquals(Collections.emptyList(), findUnknown("love.filesystem.exists('save')", LoveVersion.LOVE_11));
+        assertEquals(Collections.singletonList("filesystem.getInfo"), findUnknown(text, LoveVersion.LOVE_0_10));
+        assertEquals(Collections.emptyList(), findUnknown(text, null));
+    }
+}
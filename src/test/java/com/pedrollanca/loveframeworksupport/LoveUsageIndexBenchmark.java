@@ -0,0 +1,116 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 - Pedro Chamorro Llanca
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.pedrollanca.loveframeworksupport;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Micro-benchmark indexing a synthetic project of 5,000 Lua files, including serializing the offsets the way the
+ * platform stores them, and comparing the size of the stored offsets with fixed-width integers.
+ */
+public class LoveUsageIndexBenchmark {
+
+    private static final int FILE_COUNT = 5_000;
+
+    private static final String[] LINES = {
+            "local Player = {}",
+            "-- love.graphics.rectangle in a comment is not a usage",
+            "function Player.draw(self)",
+            "    love.graphics.setColor(1, 0.5, 0.25, 1)",
+            "    love.graphics.rectangle(\"fill\", self.x, self.y, 32, 32)",
+            "    love.graphics.print(\"love.graphics.print\", 0, 0)",
+            "end",
+            "function Player.update(self, dt)",
+            "    if love.keyboard.isDown(\"left\") then self.x = self.x - dt * 60 end",
+            "    self.volume = love.audio.getVolume()",
+            "end"
+    };
+
+    @Test
+    public void testIndexProject() {
+        List<String> files = generateProject();
+        long characters = 0;
+        for (String file : files) {
+            characters += file.length();
+        }
+        Map<String, int[]> first = LoveUsageIndex.index(files.get(0));
+        assertEquals(files.get(0).split("love\\.graphics\\.rectangle\\(", -1).length - 1,
+                first.get("love.graphics.rectangle").length);
+
+        LoveUsageIndex.OffsetsExternalizer externalizer = new LoveUsageIndex.OffsetsExternalizer();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        long[] offsetCount = new long[1];
+        BenchmarkSupport.Measurement indexing = BenchmarkSupport.measure(2, 5, () -> {
+            bytes.reset();
+            offsetCount[0] = 0;
+            for (String file : files) {
+                for (int[] offsets : LoveUsageIndex.index(file).values()) {
+                    save(externalizer, out, offsets);
+                    offsetCount[0] += offsets.length;
+                }
+            }
+        });
+        double megabytesPerSecond = characters / (indexing.nanosPerOperation / 1e9) / (1 << 20);
+        BenchmarkSupport.report(String.format("5,000 files, %.1f MB/s", megabytesPerSecond), indexing);
+
+        long fixedWidth = 4 * offsetCount[0];
+        BenchmarkSupport.report(String.format("%-48s %d B varint vs %d B fixed", "stored offsets", bytes.size(),
+                fixedWidth));
+        assertTrue("varint deltas should take less than half of fixed-width offsets",
+                bytes.size() * 2 < fixedWidth);
+    }
+
+    private static void save(LoveUsageIndex.OffsetsExternalizer externalizer, DataOutputStream out, int[] offsets) {
+        try {
+            externalizer.save(out, offsets);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static List<String> generateProject() {
+        List<String> files = new ArrayList<>(FILE_COUNT);
+        for (int i = 0; i < FILE_COUNT; i++) {
+            StringBuilder builder = new StringBuilder();
+            // Files of different lengths, from one to twenty copies of the snippet
+            for (int copy = 0; copy <= i % 20; copy++) {
+                for (String line : LINES) {
+                    builder.append(line).append('\n');
+                }
+            }
+            files.add(builder.toString());
+        }
+        return files;
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 - Pedro Chamorro Llanca
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.pedrollanca.loveframeworksupport;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for LoveUsageIndex.
+ */
+public class LoveUsageIndexTest {
+
+    /**
+     * Test that callbacks, modules and functions are indexed with their offsets, functions also under their module.
+     */
+    @Test
+    public void testIndex() {
+        String text = "function love.draw()\n"
+                + "    love.graphics.setCanvas(canvas)\n"
+                + "    love.graphics.draw(canvas)\n"
+                + "    local lp = love.physics\n"
+                + "end\n";
+        Map<String, int[]> usages = LoveUsageIndex.index(text);
+
+        assertEquals(Set.of("love.draw", "love.graphics", "love.graphics.setCanvas", "love.graphics.draw",
+                "love.physics"), usages.keySet());
+        assertArrayEquals(new int[]{text.indexOf("love.draw")}, usages.get("love.draw"));
+        assertArrayEquals(new int[]{text.indexOf("love.graphics.setCanvas")}, usages.get("love.graphics.setCanvas"));
+        assertArrayEquals(new int[]{text.indexOf("love.graphics.setCanvas"), text.indexOf("love.graphics.draw")},
+                usages.get("love.graphics"));
+        assertArrayEquals(new int[]{text.indexOf("love.physics")}, usages.get("love.physics"));
+    }
+
+    /**
+     * Test that names in comments and strings, unknown names and members of other expressions are not indexed.
+     */
+    @Test
+    public void testIndexSkipsCommentsAndStrings() {
+        String text = "-- love.graphics.draw\n"
+                + "--[[ love.audio.play ]]\n"
+                + "print(\"love.timer.getTime\", 'love.mouse')\n"
+                + "local s = [==[ love.window ]==]\n"
+                + "obj.love.keyboard.isDown('a')\n"
+                + "love.graphics.drawing()\n"
+                + "love.timer.step()";
+        Map<String, int[]> usages = LoveUsageIndex.index(text);
+
+        assertEquals(Set.of("love.graphics", "love.timer", "love.timer.step"), usages.keySet());
+        assertArrayEquals(new int[]{text.indexOf("love.graphics.drawing")}, usages.get("love.graphics"));
+    }
+
+    /**
+     * Test that a file without LOVE references yields no keys.
+     */
+    @Test
+    public void testIndexWithoutReferences() {
+        assertTrue(LoveUsageIndex.index("").isEmpty());
+        assertTrue(LoveUsageIndex.index("local x = 1 -- lovely").isEmpty());
+    }
+
+    /**
+     * Test that offsets survive a round trip through the externalizer and are stored as small deltas.
+     */
+    @Test
+    public void testOffsetsExternalizer() throws IOException {
+        LoveUsageIndex.OffsetsExternalizer externalizer = new LoveUsageIndex.OffsetsExternalizer();
+        int[] offsets = {3, 40, 41, 150, 100_000, 5_000_000};
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        externalizer.save(new DataOutputStream(bytes), offsets);
+        int[] read = externalizer.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        assertArrayEquals(offsets, read);
+        assertTrue("expected variable-length deltas, got " + bytes.size() + " bytes",
+                bytes.size() < 4 * (offsets.length + 1));
+
+        bytes.reset();
+        externalizer.save(new DataOutputStream(bytes), new int[0]);
+        assertEquals(1, bytes.size());
+        assertEquals(0, externalizer.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()))).length);
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 - Pedro Chamorro Llanca
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.pedrollanca.loveframeworksupport;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for LoveUsageStatistics.
+ */
+public class LoveUsageStatisticsTest {
+
+    /**
+     * Test that accepted completions raise the priority of their item only.
+     */
+    @Test
+    public void testRecordUsage() {
+        LoveUsageStatistics statistics = new LoveUsageStatistics();
+        long generation = statistics.getGeneration();
+
+        statistics.recordUsage("love.graphics.draw");
+        statistics.recordUsage("love.graphics.draw");
+        statistics.recordUsage("love.audio.play");
+
+        assertEquals(2, statistics.getUsageCount("love.graphics.draw"));
+        assertEquals(LoveUsageStatistics.BASE_PRIORITY + 2, statistics.getPriority("love.graphics.draw"));
+        assertEquals(LoveUsageStatistics.BASE_PRIORITY + 1, statistics.getPriority("love.audio.play"));
+        assertEquals(LoveUsageStatistics.BASE_PRIORITY, statistics.getPriority("love.graphics.arc"));
+        assertEquals(generation + 3, statistics.getGeneration());
+    }
+
+    /**
+     * Test that completions accepted on several threads at once all end up in the priorities.
+     */
+    @Test
+    public void testConcurrentRecordUsage() throws InterruptedException {
+        LoveUsageStatistics statistics = new LoveUsageStatistics();
+        Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; i++) {
+            String qualifiedName = "love.graphics.function" + i;
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < 1_000; j++) {
+                    statistics.recordUsage(qualifiedName);
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        for (int i = 0; i < threads.length; i++) {
+            assertEquals(LoveUsageStatistics.BASE_PRIORITY + 1_000,
+                    statistics.getPriority("love.graphics.function" + i));
+        }
+    }
+
+    /**
+     * Test that the counts survive a save and load round trip.
+     */
+    @Test
+    public void testStateRoundTrip() {
+        LoveUsageStatistics statistics = new LoveUsageStatistics();
+        statistics.recordUsage("love.graphics.draw");
+        statistics.recordUsage("love.graphics.draw");
+        statistics.recordUsage("love.load");
+
+        LoveUsageStatistics restored = new LoveUsageStatistics();
+        restored.loadState(statistics.getState());
+
+        assertEquals(2, restored.getUsageCount("love.graphics.draw"));
+        assertEquals(1, restored.getUsageCount("love.load"));
+        assertEquals(LoveUsageStatistics.BASE_PRIORITY + 2, restored.getPriority("love.graphics.draw"));
+    }
+
+    /**
+     * Test that corrupted entries of the persisted state are skipped.
+     */
+    @Test
+    public void testLoadCorruptedState() {
+        LoveUsageStatistics.UsageState state = new LoveUsageStatistics.UsageState();
+        state.counts = "love.graphics.draw=3;broken;love.audio.play=x;=4;love.load=2";
+
+        LoveUsageStatistics statistics = new LoveUsageStatistics();
+        statistics.loadState(state);
+
+        assertEquals(3, statistics.getUsageCount("love.graphics.draw"));
+        assertEquals(2, statistics.getUsageCount("love.load"));
+        assertEquals(0, statistics.getUsageCount("love.audio.play"));
+        assertEquals(LoveUsageStatistics.BASE_PRIORITY, statistics.getPriority("love.audio.play"));
+    }
+}
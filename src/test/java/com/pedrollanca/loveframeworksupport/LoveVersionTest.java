@@ -0,0 +1,61 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 - Pedro Chamorro Llanca
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.pedrollanca.loveframeworksupport;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for LoveVersion.
+ */
+public class LoveVersionTest {
+
+    /**
+     * Test that every version has its own bit and ALL covers them.
+     */
+    @Test
+    public void testMasks() {
+        int combined = 0;
+        for (LoveVersion version : LoveVersion.values()) {
+            assertEquals(0, combined & version.getMask());
+            combined |= version.getMask();
+            assertTrue(version.isIn(LoveVersion.ALL));
+            assertFalse(version.isIn(0));
+        }
+        assertEquals(LoveVersion.ALL, combined);
+        assertEquals(LoveVersion.values().length, LoveVersion.COUNT);
+    }
+
+    /**
+     * Test that versions are found by their number.
+     */
+    @Test
+    public void testFromId() {
+        for (LoveVersion version : LoveVersion.values()) {
+            assertSame(version, LoveVersion.fromId(version.getId()));
+        }
+        assertNull(LoveVersion.fromId("0.9"));
+        assertNull(LoveVersion.fromId(null));
+        assertEquals("LÖVE 11.5", LoveVersion.LOVE_11.toString());
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 - Pedro Chamorro Llanca
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.pedrollanca.loveframeworksupport;
+
+import com.intellij.lang.Language;
+import com.intellij.psi.PsiFile;
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test class for PluginUtils.
+ */
+public class PluginUtilsTest {
+
+    /**
+     * Test that files named *.lua are accepted regardless of their language.
+     */
+    @Test
+    public void testLuaFileByName() {
+        assertTrue(PluginUtils.isLuaFile(file("main.lua", null)));
+        assertTrue(PluginUtils.isLuaFile(file("CONF.LUA", null)));
+    }
+
+    /**
+     * Test that files of the Lua language or one of its dialects are accepted regardless of their name.
+     */
+    @Test
+    public void testLuaFileByLanguage() {
+        Language lua = language(PluginUtils.LUA_LANGUAGE_ID, null);
+        Language dialect = language("LuaDialect", lua);
+
+        assertTrue(PluginUtils.isLuaFile(file("script", lua)));
+        assertTrue(PluginUtils.isLuaFile(file("script.luax", dialect)));
+    }
+
+    /**
+     * Test that other files are rejected.
+     */
+    @Test
+    public void testNonLuaFile() {
+        assertFalse(PluginUtils.isLuaFile(null));
+        assertFalse(PluginUtils.isLuaFile(file("Main.java", language("JAVA", null))));
+        assertFalse(PluginUtils.isLuaFile(file("config.yaml", language("yaml", null))));
+        assertFalse(PluginUtils.isLuaFile(file("notes.txt", language("TEXT", null))));
+    }
+
+    private static PsiFile file(String name, Language language) {
+        PsiFile file = mock(PsiFile.class);
+        when(file.getName()).thenReturn(name);
+        when(file.getLanguage()).thenReturn(language);
+        return file;
+    }
+
+    private static Language language(String id, Language base) {
+        Language language = mock(Language.class);
+        when(language.getID()).thenReturn(id);
+        when(language.getBaseLanguage()).thenReturn(base);
+        return language;
+    }
+}